@@ -26,23 +26,26 @@
 package nl.uu.socnetid.nidm.agents;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.graphstream.algorithm.BetweennessCentrality;
 import org.graphstream.algorithm.Toolkit;
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.AbstractElement.AttributeChangeEvent;
 import org.graphstream.graph.implementations.SingleNode;
 import org.graphstream.ui.graphicGraph.GraphPosLengthUtils;
 
@@ -51,10 +54,12 @@ import nl.uu.socnetid.nidm.diseases.DiseaseFactory;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
 import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
 import nl.uu.socnetid.nidm.networks.AssortativityConditions;
+import nl.uu.socnetid.nidm.networks.GraphStore;
 import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.stats.AgentConnectionStats;
-import nl.uu.socnetid.nidm.stats.DijkstraShortestPath;
+import nl.uu.socnetid.nidm.stats.ShortestPaths;
 import nl.uu.socnetid.nidm.stats.StatsComputer;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.Utility;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -68,6 +73,9 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
     // logger
     private final static Logger logger = LogManager.getLogger(Agent.class);
 
+    // GraphStream attributes defining the position of an agent
+    private final static List<String> POSITION_ATTRIBUTES = Arrays.asList("xyz", "xy", "x", "y");
+
     // concurrency lock
     private Lock lock;
 
@@ -171,17 +179,36 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * Reinitializes agent after reader import. That is, types are reinitialized from their string representation.
      */
     public void reinitAfterRead() {
-        String dgString = (String) this.getAttribute(AgentAttributes.DISEASE_GROUP);
-        this.addAttribute(AgentAttributes.DISEASE_GROUP, DiseaseGroup.fromString(dgString), false);
-
-        String csString = (String) this.getAttribute(AgentAttributes.CONNECTION_STATS);
-        this.addAttribute(AgentAttributes.CONNECTION_STATS, AgentConnectionStats.fromString(csString), false);
+        for (AgentAttributes attribute : AgentAttributes.values()) {
+            if (attribute.isTabular() && super.hasAttribute(attribute.toString())) {
+                this.getNetwork().setAgentState(this.getIndex(), attribute, super.getAttribute(attribute.toString()));
+            }
+        }
 
-        String dsString = (String) this.getAttribute(AgentAttributes.DISEASE_SPECS);
-        this.addAttribute(AgentAttributes.DISEASE_SPECS, DiseaseSpecs.fromString(dsString), false);
+        // typed mirrors of attributes imported by their string representation
+        this.addAttribute(AgentAttributes.DISEASE_GROUP, this.getDiseaseGroup(), false);
+        this.addAttribute(AgentAttributes.CONNECTION_STATS, this.getConnectionStats(), false);
+        this.addAttribute(AgentAttributes.DISEASE_SPECS, this.getDiseaseSpecs(), false);
+        this.addAttribute(AgentAttributes.UTILITY_FUNCTION, this.getUtilityFunction(), false);
+    }
 
-        String ufString = (String) this.getAttribute(AgentAttributes.UTILITY_FUNCTION);
-        this.addAttribute(AgentAttributes.UTILITY_FUNCTION, UtilityFunction.fromString(ufString), false);
+    /**
+     * Updates the GraphStream attributes mirroring the agent's tabular states, depending on whether the network
+     * mirrors attributes (see {@link Network#isAttributeMirroring()}).
+     */
+    public void updateAttributeMirror() {
+        boolean mirror = this.getNetwork().isAttributeMirroring();
+        for (AgentAttributes attribute : AgentAttributes.values()) {
+            if (!attribute.isTabular()) {
+                continue;
+            }
+            Object value = this.getAttribute(attribute);
+            if (mirror && value != null) {
+                super.addAttribute(attribute.toString(), value);
+            } else {
+                super.removeAttribute(attribute.toString());
+            }
+        }
     }
 
     public String getLabel() {
@@ -228,6 +255,15 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
         return (int) (Math.round((this.getNetwork().getNodeCount() - 1) * this.getPhi()));
     }
 
+    /**
+     * Gets the states of all agents within the network.
+     *
+     * @return the states of all agents within the network
+     */
+    private AgentStateTable getStates() {
+        return this.getNetwork().getAgentStates();
+    }
+
     /**
      * Gets the value of an attribute.
      *
@@ -236,9 +272,23 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the value of the attribute
      */
     private Object getAttribute(AgentAttributes attribute) {
+        if (attribute.isTabular()) {
+            return this.getStates().getValue(this.getIndex(), attribute);
+        }
         return super.getAttribute(attribute.toString());
     }
 
+    /**
+     * Checks whether an attribute needs to be stored as GraphStream attribute.
+     *
+     * @param attribute
+     *          the attribute
+     * @return true if the attribute needs to be stored as GraphStream attribute, false otherwise
+     */
+    private boolean isGraphStreamAttribute(AgentAttributes attribute) {
+        return !attribute.isTabular() || this.getNetwork().isAttributeMirroring();
+    }
+
     /**
      * Adds an attribute and notifies the agentListeners of the added attribute by default.
      *
@@ -262,7 +312,12 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      *          flag whether agent agentListeners ought to be notified of the added attribute
      */
     private void addAttribute(AgentAttributes attribute, Object value, boolean notify) {
-        super.addAttribute(attribute.toString(), value);
+        if (attribute.isTabular()) {
+            this.getNetwork().setAgentState(this.getIndex(), attribute, value);
+        }
+        if (isGraphStreamAttribute(attribute)) {
+            super.addAttribute(attribute.toString(), value);
+        }
         if (notify) {
             notifyAttributeAdded(attribute, value);
         }
@@ -295,7 +350,12 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      *          flag whether agent agentListeners ought to be notified of the changed attribute
      */
     private void changeAttribute(AgentAttributes attribute, Object oldValue, Object newValue, boolean notify) {
-        super.changeAttribute(attribute.toString(), newValue);
+        if (attribute.isTabular()) {
+            this.getNetwork().setAgentState(this.getIndex(), attribute, newValue);
+        }
+        if (isGraphStreamAttribute(attribute)) {
+            super.changeAttribute(attribute.toString(), newValue);
+        }
         if (notify) {
             notifyAttributeChanged(attribute, oldValue, newValue);
         }
@@ -322,7 +382,12 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      *          flag whether agent agentListeners ought to be notified of the added attribute
      */
     private void removeAttribute(AgentAttributes attribute, boolean notify) {
-        super.removeAttribute(attribute.toString());
+        if (attribute.isTabular()) {
+            this.getNetwork().setAgentState(this.getIndex(), attribute, null);
+        }
+        if (isGraphStreamAttribute(attribute)) {
+            super.removeAttribute(attribute.toString());
+        }
         if (notify) {
             notifyAttributeRemoved(attribute);
         }
@@ -382,7 +447,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's risk factor for disease severity
      */
     public double getRSigma() {
-        return (double) this.getAttribute(AgentAttributes.RISK_FACTOR_SIGMA);
+        return this.getStates().getRSigma(this.getIndex());
     }
 
     /**
@@ -430,7 +495,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's risk factor for probability of infections
      */
     public double getRPi() {
-        return (double) this.getAttribute(AgentAttributes.RISK_FACTOR_PI);
+        return this.getStates().getRPi(this.getIndex());
     }
 
     /**
@@ -468,7 +533,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's share of peers to evaluate per round
      */
     public double getPhi() {
-        return (double) this.getAttribute(AgentAttributes.PHI);
+        return this.getStates().getPhi(this.getIndex());
     }
 
     /**
@@ -477,7 +542,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's proportion of direct ties to evaluate per round
      */
     public double getPsi() {
-        return (double) this.getAttribute(AgentAttributes.PSI);
+        return this.getStates().getPsi(this.getIndex());
     }
 
     /**
@@ -486,7 +551,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's proportion of ties at distance 2 to evaluate per round
      */
     public double getXi() {
-        return (double) this.getAttribute(AgentAttributes.XI);
+        return this.getStates().getXi(this.getIndex());
     }
 
     /**
@@ -495,7 +560,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's share of assortatively selected peers
      */
     public double getOmega() {
-        return (double) this.getAttribute(AgentAttributes.OMEGA);
+        return this.getStates().getOmega(this.getIndex());
     }
 
     /**
@@ -504,7 +569,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's utility function
      */
     public UtilityFunction getUtilityFunction() {
-        return (UtilityFunction) this.getAttribute(AgentAttributes.UTILITY_FUNCTION);
+        return this.getStates().getUtilityFunction(this.getIndex());
     }
 
     /**
@@ -543,10 +608,13 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's connections
      */
     public List<Agent> getConnections() {
-        List<Agent> connections = new ArrayList<Agent>();
-        Iterator<Agent> neighborIt = getNeighborNodeIterator();
-        while (neighborIt.hasNext()) {
-            connections.add(neighborIt.next());
+        Network network = this.getNetwork();
+        GraphStore graphStore = network.getGraphStore();
+        int index = this.getIndex();
+        int degree = graphStore.getDegree(index);
+        List<Agent> connections = new ArrayList<Agent>(degree);
+        for (int k = 0; k < degree; k++) {
+            connections.add(network.getAgent(graphStore.getNeighbor(index, k)));
         }
         return connections;
     }
@@ -602,10 +670,13 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
         List<Agent> coAgents = new ArrayList<Agent>(getNetwork().getAgents());
         coAgents.remove(this);
 
+        ShortestPaths sp = new ShortestPaths();
+        sp.executeShortestPaths(this);
+
         Iterator<Agent> aIt = coAgents.iterator();
         while (aIt.hasNext()) {
             Agent coAgent = aIt.next();
-            Integer dist = this.getGeodesicDistanceTo(coAgent);
+            Integer dist = sp.getShortestPathLength(coAgent);
             List<String> currCoAgentsByDistance = coAgentsByDistance.get(dist);
             if (currCoAgentsByDistance == null) {
                 currCoAgentsByDistance = new ArrayList<>();
@@ -623,7 +694,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return true if the agent is satisfied with the current connections, false otherwise
      */
     public boolean isSatisfied() {
-        return (boolean) this.getAttribute(AgentAttributes.SATISFIED);
+        return this.getStates().isSatisfied(this.getIndex());
     }
 
     /**
@@ -632,7 +703,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's connection stats
      */
     public AgentConnectionStats getConnectionStats() {
-        return (AgentConnectionStats) this.getAttribute(AgentAttributes.CONNECTION_STATS);
+        return this.getStates().getConnectionStats(this.getIndex());
     }
 
     /**
@@ -641,7 +712,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's age
      */
     public int getAge() {
-        return (int) this.getAttribute(AgentAttributes.AGE);
+        return this.getStates().getAge(this.getIndex());
     }
 
     /**
@@ -650,7 +721,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return true when the agent considers age, false otherwise
      */
     public boolean considerAge() {
-        return (boolean) this.getAttribute(AgentAttributes.CONSIDER_AGE);
+        return this.getStates().considerAge(this.getIndex());
     }
 
     /**
@@ -659,7 +730,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the agent's profession
      */
     public String getProfession() {
-        return (String) this.getAttribute(AgentAttributes.PROFESSION);
+        return this.getStates().getProfession(this.getIndex());
     }
 
     /**
@@ -668,7 +739,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return true when the agent considers profession, false otherwise
      */
     public boolean considerProfession() {
-        return (boolean) this.getAttribute(AgentAttributes.CONSIDER_PROFESSION);
+        return this.getStates().considerProfession(this.getIndex());
     }
 
     /**
@@ -677,7 +748,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return true when the agent is quarantined, false otherwise
      */
     public boolean isQuarantined() {
-        return (boolean) this.getAttribute(AgentAttributes.QUARANTINED);
+        return this.getStates().isQuarantined(this.getIndex());
     }
 
     /**
@@ -706,7 +777,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
 
             this.changeAttribute(AgentAttributes.CLOSENESS,
                     this.getAttribute(AgentAttributes.CLOSENESS),
-                    StatsComputer.computeCloseness(this));
+                    this.getNetwork().getCentralities().getCloseness(this.getIndex()));
             this.changeAttribute(AgentAttributes.CLOSENESS_LAST_COMPUTATION,
                     lastComputation,
                     simRound);
@@ -753,13 +824,9 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
     public double getBetweenness(int simRound) {
         int lastComputation = this.getBetweennessLastComputation();
         if (lastComputation < simRound) {
-            BetweennessCentrality bc = new BetweennessCentrality();
-            bc.setUnweighted();
-            bc.init(this.getNetwork());
-            bc.compute();
             this.changeAttribute(AgentAttributes.BETWEENNESS,
                     this.getAttribute(AgentAttributes.BETWEENNESS),
-                    bc.centrality(this));
+                    this.getNetwork().getCentralities().getBetweenness(this.getIndex()));
             this.changeAttribute(AgentAttributes.BETWEENNESS_LAST_COMPUTATION, lastComputation, simRound);
         }
         return (double) this.getAttribute(AgentAttributes.BETWEENNESS);
@@ -804,7 +871,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the x-coordinate of the agent
      */
     public double getX() {
-        return GraphPosLengthUtils.nodePosition(this)[0];
+        return this.getStates().getX(this.getIndex());
     }
 
     /**
@@ -813,7 +880,22 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the x-coordinate of the agent
      */
     public double getY() {
-        return GraphPosLengthUtils.nodePosition(this)[1];
+        return this.getStates().getY(this.getIndex());
+    }
+
+    /* (non-Javadoc)
+     * @see org.graphstream.graph.implementations.AbstractNode#attributeChanged(
+     * org.graphstream.graph.implementations.AbstractElement.AttributeChangeEvent, java.lang.String,
+     * java.lang.Object, java.lang.Object)
+     */
+    @Override
+    protected void attributeChanged(AttributeChangeEvent event, String attribute, Object oldValue, Object newValue) {
+        super.attributeChanged(event, attribute, oldValue, newValue);
+        // positions may also be set by GUI layouts or network imports
+        if (event != AttributeChangeEvent.REMOVE && POSITION_ATTRIBUTES.contains(attribute)) {
+            double[] xyz = GraphPosLengthUtils.nodePosition(this);
+            this.getStates().setXY(this.getIndex(), xyz[0], xyz[1]);
+        }
     }
 
     /**
@@ -824,9 +906,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the geographic distance to another agent
      */
     public double getGeographicDistanceTo(Agent agent) {
-        return Math.sqrt(
-                Math.pow(this.getX() - agent.getX(), 2) +
-                Math.pow(this.getY() - agent.getY(), 2));
+        return this.getStates().getGeographicDistance(this.getIndex(), agent.getIndex());
     }
 
     /**
@@ -840,9 +920,9 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
         if (this.getId().equals(agent.getId())) {
             return 0;
         }
-        DijkstraShortestPath dsp = new DijkstraShortestPath();
-        dsp.executeShortestPaths(this);
-        return dsp.getShortestPathLength(agent);
+        ShortestPaths sp = new ShortestPaths();
+        sp.executeShortestPaths(this);
+        return sp.getShortestPathLength(agent);
     }
 
     private int getAssortativityLastComputation(AssortativityConditions ac) {
@@ -1030,46 +1110,50 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      *          animation delay between two network decisions
      */
     public void computeRound(int delay) {
+        this.computeRound(this.drawNetworkDecisionPartners(RandomStream.current()), delay);
+    }
 
-        // starting assumption: current connections are not satisfactory
-        boolean satisfied = true;
+    /**
+     * Draws the agents to make network decisions about in a single round, in order of processing. The draws do not
+     * depend on the outcome of previous decisions and can hence be made before the round.
+     *
+     * @param random
+     *          the source of randomness
+     * @return the agents to make network decisions about, fewer than the number of network decisions if no other
+     *          agent is left to process
+     */
+    public List<Agent> drawNetworkDecisionPartners(Random random) {
 
         int decisions = this.getNumberOfNetworkDecisions();
 
         // helper collections
         // agents that have been processed before
-        Set<Agent> agentsProcessed = new HashSet<Agent>(decisions);
-        // distance 1
-        List<Agent> distance1AgentsAssorted = new ArrayList<Agent>(this.getConnections());
+        List<Agent> agentsProcessed = new ArrayList<Agent>(decisions);
+        // distance 1 (ordered by index, as the order of connections depends on the order of their creation)
+        List<Agent> distance1Agents = this.getConnections();
+        distance1Agents.sort(Comparator.comparingInt(Agent::getIndex));
+        List<Agent> distance1AgentsAssorted = new ArrayList<Agent>(distance1Agents);
         sortByAssortativityConditions(distance1AgentsAssorted);
-        List<Agent> distance1AgentsShuffled = new ArrayList<Agent>(this.getConnections());
-        Collections.shuffle(distance1AgentsShuffled);
+        List<Agent> distance1AgentsShuffled = new ArrayList<Agent>(distance1Agents);
+        Collections.shuffle(distance1AgentsShuffled, random);
         // distance 2
-        List<Agent> distance2AgentsAssorted = new ArrayList<Agent>(this.getConnectionsAtDistance2());
+        List<Agent> distance2Agents = this.getConnectionsAtDistance2();
+        distance2Agents.sort(Comparator.comparingInt(Agent::getIndex));
+        List<Agent> distance2AgentsAssorted = new ArrayList<Agent>(distance2Agents);
         sortByAssortativityConditions(distance2AgentsAssorted);
-        List<Agent> distance2AgentsShuffled = new ArrayList<Agent>(this.getConnectionsAtDistance2());
-        Collections.shuffle(distance2AgentsShuffled);
+        List<Agent> distance2AgentsShuffled = new ArrayList<Agent>(distance2Agents);
+        Collections.shuffle(distance2AgentsShuffled, random);
         // any agents
         List<Agent> allAgentsAssorted = new ArrayList<Agent>(this.getNetwork().getAgents());
         sortByAssortativityConditions(allAgentsAssorted);
         List<Agent> allAgentsShuffled = new ArrayList<Agent>(this.getNetwork().getAgents());
-        Collections.shuffle(allAgentsShuffled);
+        Collections.shuffle(allAgentsShuffled, random);
 
         while (agentsProcessed.size() < decisions) {
 
-            // some delay before processing of each other agent (e.g., for animation processes)
-            if (delay > 0) {
-                try {
-                    Thread.sleep(delay);
-                } catch (InterruptedException e) {
-                    return;
-                }
-            }
-
             // creating a base list of agents to draw an agent from
-            Agent other = null;
-            double randPsi = ThreadLocalRandom.current().nextDouble();
-            double randOmega = ThreadLocalRandom.current().nextDouble();
+            double randPsi = random.nextDouble();
+            double randOmega = random.nextDouble();
             HashSet<Agent> removals = new HashSet<Agent>(agentsProcessed);
             removals.add(this);
             List<Agent> drawBase = null;
@@ -1105,25 +1189,85 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
             // draw agent to process
             if (drawBase.isEmpty()) {
                 logger.warn("No other agent found to process for agent " + this.getId());
-                return;
+                break;
             }
-            other = drawBase.get(0);
+            agentsProcessed.add(drawBase.get(0));
+        }
+        return agentsProcessed;
+    }
 
-            // processing drawn agent
-            if (this.isDirectlyConnectedTo(other)) {
-                if (existingConnectionTooCostly(other)) {
-                    disconnectFrom(other);
-                    satisfied = false;
+    /**
+     * Computes a single round for an agent with given agents to make network decisions about. Decisions are evaluated
+     * holding the read lock of the network structure, connections are changed holding its write lock (see
+     * {@link Network#getStructureLock()}).
+     *
+     * @param partners
+     *          the agents to make network decisions about, in order of processing
+     * @param delay
+     *          animation delay between two network decisions
+     */
+    public void computeRound(List<Agent> partners, int delay) {
+
+        // starting assumption: current connections are not satisfactory
+        boolean satisfied = true;
+
+        ReadWriteLock lock = this.getNetwork().getStructureLock();
+        for (Agent other : partners) {
+
+            // some delay before processing of each other agent (e.g., for animation processes)
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    return;
                 }
-            } else {
-                if (newConnectionValuable(other)) {
-                    connectTo(other);
-                    satisfied = false;
+            }
+
+            // processing drawn agent
+            boolean connected;
+            boolean change;
+            lock.readLock().lock();
+            try {
+                connected = this.isDirectlyConnectedTo(other);
+                change = connected ? existingConnectionTooCostly(other) : newConnectionValuable(other);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (change) {
+                lock.writeLock().lock();
+                try {
+                    if (connected) {
+                        disconnectFrom(other);
+                    } else {
+                        connectTo(other);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
                 }
+                satisfied = false;
             }
-            agentsProcessed.add(other);
         }
 
+        // no other agent left to process
+        if (partners.size() < this.getNumberOfNetworkDecisions()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            finishRound(satisfied);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finishes a single round for an agent: updates the agent's satisfaction and notifies listeners.
+     *
+     * @param satisfied
+     *          whether the agent has been satisfied with its connections during the round
+     */
+    public void finishRound(boolean satisfied) {
         // update satisfaction
         updateSatisfaction(satisfied);
         // round finished
@@ -1149,21 +1293,43 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return true if connection was accepted and created, false otherwise
      */
     public boolean connectTo(Agent agent) {
-        // other agent accepting connection?
-        double currUtility = agent.getUtility().getOverallUtility();
-        // TODO use connectionValuableWith to avoid GUI glitches
-        agent.addConnection(this);
-        double newUtility = agent.getUtility().getOverallUtility();
-        agent.removeConnection(this);
-        if (newUtility >= currUtility) {
-            addConnection(agent);
+        // other agent accepting connection? (evaluated without touching the network)
+        boolean accepted = agent.isConnectionAcceptable(this);
+        resolveConnectionRequest(agent, accepted);
+        return accepted;
+    }
+
+    /**
+     * Checks whether a connection request of another agent would be accepted, without touching the network.
+     *
+     * @param requester
+     *          the agent requesting the connection
+     * @return true if the connection would be accepted, false otherwise
+     */
+    public boolean isConnectionAcceptable(Agent requester) {
+        return this.getUtilityFunction().getMarginalUtilityWith(this, requester) >= 0;
+    }
+
+    /**
+     * Resolves a connection request of this agent to another agent: creates the connection, if accepted and not
+     * existing yet, and tracks the request for both agents.
+     *
+     * @param agent
+     *          the agent the connection has been requested from
+     * @param accepted
+     *          whether the other agent accepted the request
+     */
+    public void resolveConnectionRequest(Agent agent, boolean accepted) {
+        if (accepted) {
+            if (!this.isDirectlyConnectedTo(agent)) {
+                addConnection(agent);
+            }
             trackAcceptedRequestOut();
             agent.trackAcceptedRequestIn();
-            return true;
+        } else {
+            trackDeclinedRequestOut();
+            agent.trackDeclinedRequestIn();
         }
-        trackDeclinedRequestOut();
-        agent.trackDeclinedRequestIn();
-        return false;
     }
 
     /**
@@ -1380,7 +1546,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
             }
 
             // fill rest with randomly drawn agent
-            Collections.shuffle(agents);
+            Collections.shuffle(agents, RandomStream.current());
             it = agents.iterator();
             while (it.hasNext() &&
                     res.size() < amount) {
@@ -1416,20 +1582,21 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
         coAgents.removeAll(res);
         res.addAll(this.getRandomListOfAgents(coAgents, amount - res.size()));
 
-        Collections.shuffle(res);
+        Collections.shuffle(res, RandomStream.current());
         return res;
     }
 
     private Agent getAgent1(Agent agent1, Agent agent2) {
-        return Long.valueOf(agent1.getId()) < Long.valueOf(agent2.getId()) ? agent1 : agent2;
+        return Long.parseLong(agent1.getId()) < Long.parseLong(agent2.getId()) ? agent1 : agent2;
     }
 
     private Agent getAgent2(Agent agent1, Agent agent2) {
-        return Long.valueOf(agent2.getId()) > Long.valueOf(agent1.getId()) ? agent2 : agent1;
+        return Long.parseLong(agent2.getId()) > Long.parseLong(agent1.getId()) ? agent2 : agent1;
     }
 
     private String getEdgeId(Agent agent1, Agent agent2) {
-        return this.getAgent1(agent1, agent2).getId().concat(this.getAgent2(agent1, agent2).getId());
+        // separator required for unique ids (e.g., agents 1 and 23 vs. agents 12 and 3)
+        return this.getAgent1(agent1, agent2).getId() + "-" + this.getAgent2(agent1, agent2).getId();
     }
 
     /**
@@ -1446,15 +1613,10 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
             return;
         }
 
-        String edgeId = this.getEdgeId(this, newConnection);
-
-        Network network = this.getNetwork();
-        if (network.getEdge(edgeId) == null) {
-            Agent agent1 = this.getAgent1(this, newConnection);
-            Agent agent2 = this.getAgent2(this, newConnection);
-            network.addEdge(edgeId, agent1.getId(), agent2.getId());
-            notifyConnectionAdded(network.getEdge(edgeId), agent1, agent2);
-        }
+        Agent agent1 = this.getAgent1(this, newConnection);
+        Agent agent2 = this.getAgent2(this, newConnection);
+        Edge edge = this.getNetwork().addEdge(this.getEdgeId(agent1, agent2), agent1.getId(), agent2.getId());
+        notifyConnectionAdded(edge, agent1, agent2);
     }
 
     /**
@@ -1465,7 +1627,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return true if there is a connection, false otherwise
      */
     public boolean isDirectlyConnectedTo(Agent agent) {
-        return this.getNetwork().getEdge(this.getEdgeId(this, agent)) != null;
+        return this.getNetwork().getGraphStore().hasEdge(this.getIndex(), agent.getIndex());
     }
 
     /**
@@ -1476,10 +1638,11 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return true if there is a connection at distance 2, false otherwise
      */
     public boolean isConnectedToAtDistance2(Agent agent) {
-        Iterator<Agent> neighborIt = this.getNeighborNodeIterator();
-        while (neighborIt.hasNext()) {
-            Agent neighbor = neighborIt.next();
-            if (this.getNetwork().getEdge(this.getEdgeId(neighbor, agent)) != null) {
+        GraphStore graphStore = this.getNetwork().getGraphStore();
+        int index = this.getIndex();
+        int degree = graphStore.getDegree(index);
+        for (int k = 0; k < degree; k++) {
+            if (graphStore.hasEdge(graphStore.getNeighbor(index, k), agent.getIndex())) {
                 return true;
             }
         }
@@ -1528,7 +1691,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
             logger.warn("Inconsistent new connection: reflexive");
             return false;
         }
-        if (this.getConnections().contains(newConnection)) {
+        if (this.isDirectlyConnectedTo(newConnection)) {
             logger.warn("Inconsistent new connection: already existing");
             return false;
         }
@@ -1549,20 +1712,12 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
             return;
         }
 
-        // edge id consistency
-        ArrayList<Agent> tmpAgents = new ArrayList<Agent>();
-        tmpAgents.add(this);
-        tmpAgents.add(connection);
-        Collections.sort(tmpAgents);
-
         // remove
-        Network network = this.getNetwork();
-        String edgeId = String.valueOf(tmpAgents.get(0).getId()) + String.valueOf(tmpAgents.get(1).getId());
-        Edge edge = network.getEdge(edgeId);
-        if (edge != null) {
-            network.removeEdge(edgeId);
-            notifyConnectionRemoved(edge);
+        if (!this.isDirectlyConnectedTo(connection)) {
+            return;
         }
+        Edge edge = this.getNetwork().removeEdge(this.getAgent1(this, connection), this.getAgent2(this, connection));
+        notifyConnectionRemoved(edge);
     }
 
     /**
@@ -1612,7 +1767,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the specifications of the disease the agent considers for decision making processes
      */
     public DiseaseSpecs getDiseaseSpecs() {
-        return (DiseaseSpecs) this.getAttribute(AgentAttributes.DISEASE_SPECS);
+        return this.getStates().getDiseaseSpecs(this.getIndex());
     }
 
     /**
@@ -1621,7 +1776,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the disease group the agent is in
      */
     public DiseaseGroup getDiseaseGroup() {
-        return (DiseaseGroup) this.getAttribute(AgentAttributes.DISEASE_GROUP);
+        return this.getStates().getDiseaseGroup(this.getIndex());
     }
 
     /**
@@ -1648,7 +1803,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return true if the agent was infected from outside the network, false otherwise
      */
     public boolean isForceInfected() {
-        return (boolean) this.getAttribute(AgentAttributes.FORCE_INFECTED);
+        return this.getStates().isForceInfected(this.getIndex());
     }
 
     /**
@@ -1657,7 +1812,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      * @return the simulation round the agent was infected
      */
     public int getWhenInfected() {
-        return (int) this.getAttribute(AgentAttributes.WHEN_INFECTED);
+        return this.getStates().getWhenInfected(this.getIndex());
     }
 
     /**
@@ -1702,7 +1857,7 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      */
     public Disease getDisease() {
         if (this.isInfected()) {
-            return (Disease) this.getAttribute(AgentAttributes.DISEASE_INFECTION);
+            return this.getStates().getDisease(this.getIndex());
         }
         return null;
     }
@@ -1715,14 +1870,33 @@ public class Agent extends SingleNode implements Comparable<Agent>, Runnable {
      */
     public void computeDiseaseTransmission(int simRound) {
         if (this.isSusceptible()) {
-            int nI = StatsComputer.computeLocalAgentConnectionsStats(this).getnI();
-            if (ThreadLocalRandom.current().nextDouble() <=
+            int nI = this.getInfectedConnectionsCount();
+            if (nI > 0 && RandomStream.current().nextDouble() <=
                     StatsComputer.computeProbabilityOfInfection(this, nI)) {
                 this.infect(this.getDiseaseSpecs(), simRound);
             }
         }
     }
 
+    /**
+     * Gets the number of infected direct connections.
+     *
+     * @return the number of infected direct connections
+     */
+    public int getInfectedConnectionsCount() {
+        GraphStore graphStore = this.getNetwork().getGraphStore();
+        AgentStateTable states = this.getStates();
+        int index = this.getIndex();
+        int degree = graphStore.getDegree(index);
+        int nI = 0;
+        for (int k = 0; k < degree; k++) {
+            if (states.getDiseaseGroup(graphStore.getNeighbor(index, k)) == DiseaseGroup.INFECTED) {
+                nI++;
+            }
+        }
+        return nI;
+    }
+
     /**
      * Infects the agent with a disease.
      *
@@ -30,57 +30,72 @@ package nl.uu.socnetid.nidm.agents;
  */
 public enum AgentAttributes {
 
-    UTILITY_FUNCTION("utility.function"),
-    DISEASE_SPECS("disease.specs"),
-    DISEASE_GROUP("disease.group"),
-    DISEASE_INFECTION("disease.infection"),
-    UI_CLASS("ui.class"),
-    RISK_FACTOR_SIGMA("risk.factor.sigma"),
-    RISK_FACTOR_PI("risk.factor.pi"),
-    RISK_MEANING_SIGMA("risk.meaning.sigma"),
-    RISK_MEANING_PI("risk.meaning.pi"),
-    PHI("phi"),
-    PSI("psi"),
-    XI("xi"),
-    OMEGA("omega"),
-    OMEGA_SHUFFLE("omega.shuffle"),
-    SATISFIED("satisfied"),
-    CONNECTION_STATS("connection.stats"),
-    AGE("age"),
-    CONSIDER_AGE("consider.age"),
-    PROFESSION("profession"),
-    CONSIDER_PROFESSION("consider.profession"),
-    QUARANTINED("quarantined"),
-    FORCE_INFECTED("force.infected"),
-    WHEN_INFECTED("when.infected"),
-    INITIAL_INDEX_CASE_DISTANCE("initial.index.case.distance"),
-    BETWEENNESS("betweenness"),
-    BETWEENNESS_LAST_COMPUTATION("betweenness.last.computation"),
-    CLOSENESS("closeness"),
-    CLOSENESS_LAST_COMPUTATION("closeness.last.computation"),
-    CLUSTERING("clustering"),
-    CLUSTERING_LAST_COMPUTATION("clustering.last.computation"),
-    ASSORTATIVITY_INIT_CONDITION("assortativity.condition"),
-    ASSORTATIVITY_RISK_PERCEPTION("assortativity.risk.perception"),
-    ASSORTATIVITY_RISK_PERCEPTION_LAST_COMPUTATION("assortativity.risk.perception.last.computation"),
-    ASSORTATIVITY_AGE("assortativity.age"),
-    ASSORTATIVITY_AGE_LAST_COMPUTATION("assortativity.age.last.computation"),
-    ASSORTATIVITY_PROFESSION("assortativity.profession"),
-    ASSORTATIVITY_PROFESSION_LAST_COMPUTATION("assortativity.profession.last.computation"),
-    INDEX_CASE_DISTANCE("index.case.distance"),
-    INDEX_CASE_DISTANCE_LAST_COMPUTATION("index.case.distance.last.computation");
+    UTILITY_FUNCTION("utility.function", true),
+    DISEASE_SPECS("disease.specs", true),
+    DISEASE_GROUP("disease.group", true),
+    DISEASE_INFECTION("disease.infection", true),
+    UI_CLASS("ui.class", false),
+    RISK_FACTOR_SIGMA("risk.factor.sigma", true),
+    RISK_FACTOR_PI("risk.factor.pi", true),
+    RISK_MEANING_SIGMA("risk.meaning.sigma", false),
+    RISK_MEANING_PI("risk.meaning.pi", false),
+    PHI("phi", true),
+    PSI("psi", true),
+    XI("xi", true),
+    OMEGA("omega", true),
+    OMEGA_SHUFFLE("omega.shuffle", false),
+    SATISFIED("satisfied", true),
+    CONNECTION_STATS("connection.stats", true),
+    AGE("age", true),
+    CONSIDER_AGE("consider.age", true),
+    PROFESSION("profession", true),
+    CONSIDER_PROFESSION("consider.profession", true),
+    QUARANTINED("quarantined", true),
+    FORCE_INFECTED("force.infected", true),
+    WHEN_INFECTED("when.infected", true),
+    INITIAL_INDEX_CASE_DISTANCE("initial.index.case.distance", false),
+    BETWEENNESS("betweenness", false),
+    BETWEENNESS_LAST_COMPUTATION("betweenness.last.computation", false),
+    CLOSENESS("closeness", false),
+    CLOSENESS_LAST_COMPUTATION("closeness.last.computation", false),
+    CLUSTERING("clustering", false),
+    CLUSTERING_LAST_COMPUTATION("clustering.last.computation", false),
+    ASSORTATIVITY_INIT_CONDITION("assortativity.condition", false),
+    ASSORTATIVITY_RISK_PERCEPTION("assortativity.risk.perception", false),
+    ASSORTATIVITY_RISK_PERCEPTION_LAST_COMPUTATION("assortativity.risk.perception.last.computation", false),
+    ASSORTATIVITY_AGE("assortativity.age", false),
+    ASSORTATIVITY_AGE_LAST_COMPUTATION("assortativity.age.last.computation", false),
+    ASSORTATIVITY_PROFESSION("assortativity.profession", false),
+    ASSORTATIVITY_PROFESSION_LAST_COMPUTATION("assortativity.profession.last.computation", false),
+    INDEX_CASE_DISTANCE("index.case.distance", false),
+    INDEX_CASE_DISTANCE_LAST_COMPUTATION("index.case.distance.last.computation", false);
 
     // the name
     private String name;
+    // whether the attribute is held in the agent state table
+    private boolean tabular;
 
     /**
      * Constructor, setting the name
      *
      * @param name
      *          the name of the enum
+     * @param tabular
+     *          whether the attribute is held in the {@link AgentStateTable}
      */
-    AgentAttributes(String name) {
+    AgentAttributes(String name, boolean tabular) {
         this.name = name;
+        this.tabular = tabular;
+    }
+
+    /**
+     * Checks whether the attribute is held in the {@link AgentStateTable}. GraphStream attributes of tabular
+     * attributes are mirrors only, required for the GUI and network exports.
+     *
+     * @return true if the attribute is held in the {@link AgentStateTable}, false otherwise
+     */
+    public boolean isTabular() {
+        return tabular;
     }
 
     /*
@@ -0,0 +1,645 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.agents;
+
+import java.util.Arrays;
+
+import nl.uu.socnetid.nidm.diseases.Disease;
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
+import nl.uu.socnetid.nidm.stats.AgentConnectionStats;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Struct-of-arrays storage of the agents' state. Each tabular {@link AgentAttributes} is held in an array indexed by
+ * the agent's index within the network (see {@link Agent#getIndex()}), primitive values unboxed.
+ *
+ * @author Hendrik Nunner
+ */
+public class AgentStateTable {
+
+    // initial capacity
+    private static final int INITIAL_CAPACITY = 16;
+
+    // disease groups by ordinal
+    private static final DiseaseGroup[] DISEASE_GROUPS = DiseaseGroup.values();
+
+    // number of agents
+    private int size;
+
+    // primitive states
+    private double[] rSigma;
+    private double[] rPi;
+    private double[] phi;
+    private double[] psi;
+    private double[] xi;
+    private double[] omega;
+    private int[] age;
+    private int[] whenInfected;
+    private byte[] diseaseGroup;
+    private boolean[] satisfied;
+    private boolean[] considerAge;
+    private boolean[] considerProfession;
+    private boolean[] quarantined;
+    private boolean[] forceInfected;
+
+    // geographic coordinates
+    private double[] x;
+    private double[] y;
+
+    // object states
+    private UtilityFunction[] utilityFunction;
+    private DiseaseSpecs[] diseaseSpecs;
+    private Disease[] disease;
+    private AgentConnectionStats[] connectionStats;
+    private String[] profession;
+
+    // members of the disease groups
+    private final DiseaseCompartments compartments = new DiseaseCompartments();
+
+    /**
+     * Constructor.
+     */
+    public AgentStateTable() {
+        clear();
+    }
+
+
+    /**
+     * Adds a new row for an agent. The row receives the next free index.
+     *
+     * @return the index of the new row
+     */
+    public int addAgent() {
+        if (this.size == this.rSigma.length) {
+            resize(this.size * 2);
+        }
+        clearRow(this.size);
+        this.compartments.add(this.size, getDiseaseGroup(this.size));
+        return this.size++;
+    }
+
+    /**
+     * Removes the row of an agent. If the row is not the last row, the last row takes over the index of the removed
+     * row (consistent with GraphStream's node indices).
+     *
+     * @param index
+     *          the index of the row to remove
+     */
+    public void removeAgent(int index) {
+        checkIndex(index);
+        int last = this.size - 1;
+        this.compartments.remove(index, getDiseaseGroup(index));
+        if (index != last) {
+            this.compartments.reindex(last, index, getDiseaseGroup(last));
+            copyRow(last, index);
+        }
+        clearRow(last);
+        this.size--;
+    }
+
+    /**
+     * Removes all rows.
+     */
+    public void clear() {
+        this.size = 0;
+        this.compartments.clear();
+        this.rSigma = new double[INITIAL_CAPACITY];
+        this.rPi = new double[INITIAL_CAPACITY];
+        this.phi = new double[INITIAL_CAPACITY];
+        this.psi = new double[INITIAL_CAPACITY];
+        this.xi = new double[INITIAL_CAPACITY];
+        this.omega = new double[INITIAL_CAPACITY];
+        this.age = new int[INITIAL_CAPACITY];
+        this.whenInfected = new int[INITIAL_CAPACITY];
+        this.diseaseGroup = new byte[INITIAL_CAPACITY];
+        this.satisfied = new boolean[INITIAL_CAPACITY];
+        this.considerAge = new boolean[INITIAL_CAPACITY];
+        this.considerProfession = new boolean[INITIAL_CAPACITY];
+        this.quarantined = new boolean[INITIAL_CAPACITY];
+        this.forceInfected = new boolean[INITIAL_CAPACITY];
+        this.x = new double[INITIAL_CAPACITY];
+        this.y = new double[INITIAL_CAPACITY];
+        this.utilityFunction = new UtilityFunction[INITIAL_CAPACITY];
+        this.diseaseSpecs = new DiseaseSpecs[INITIAL_CAPACITY];
+        this.disease = new Disease[INITIAL_CAPACITY];
+        this.connectionStats = new AgentConnectionStats[INITIAL_CAPACITY];
+        this.profession = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the members of the disease groups.
+     *
+     * @return the members of the disease groups
+     */
+    public DiseaseCompartments getCompartments() {
+        return this.compartments;
+    }
+
+    /**
+     * Gets the value of a tabular attribute. Primitive values are boxed.
+     *
+     * @param index
+     *          the index of the agent
+     * @param attribute
+     *          the attribute
+     * @return the value of the attribute
+     */
+    public Object getValue(int index, AgentAttributes attribute) {
+        checkIndex(index);
+        switch (attribute) {
+            case UTILITY_FUNCTION:
+                return this.utilityFunction[index];
+            case DISEASE_SPECS:
+                return this.diseaseSpecs[index];
+            case DISEASE_GROUP:
+                return DISEASE_GROUPS[this.diseaseGroup[index]];
+            case DISEASE_INFECTION:
+                return this.disease[index];
+            case RISK_FACTOR_SIGMA:
+                return this.rSigma[index];
+            case RISK_FACTOR_PI:
+                return this.rPi[index];
+            case PHI:
+                return this.phi[index];
+            case PSI:
+                return this.psi[index];
+            case XI:
+                return this.xi[index];
+            case OMEGA:
+                return this.omega[index];
+            case SATISFIED:
+                return this.satisfied[index];
+            case CONNECTION_STATS:
+                return this.connectionStats[index];
+            case AGE:
+                return this.age[index];
+            case CONSIDER_AGE:
+                return this.considerAge[index];
+            case PROFESSION:
+                return this.profession[index];
+            case CONSIDER_PROFESSION:
+                return this.considerProfession[index];
+            case QUARANTINED:
+                return this.quarantined[index];
+            case FORCE_INFECTED:
+                return this.forceInfected[index];
+            case WHEN_INFECTED:
+                return this.whenInfected[index];
+            default:
+                throw new IllegalArgumentException("Attribute not tabular: " + attribute);
+        }
+    }
+
+    /**
+     * Sets the value of a tabular attribute. Values may also be given in their string representation (e.g., after
+     * importing a network).
+     *
+     * @param index
+     *          the index of the agent
+     * @param attribute
+     *          the attribute
+     * @param value
+     *          the value of the attribute
+     */
+    public void setValue(int index, AgentAttributes attribute, Object value) {
+        checkIndex(index);
+        switch (attribute) {
+            case UTILITY_FUNCTION:
+                this.utilityFunction[index] = value instanceof UtilityFunction ?
+                        (UtilityFunction) value : UtilityFunction.fromString(value.toString());
+                break;
+            case DISEASE_SPECS:
+                this.diseaseSpecs[index] = value instanceof DiseaseSpecs ?
+                        (DiseaseSpecs) value : DiseaseSpecs.fromString(value.toString());
+                break;
+            case DISEASE_GROUP:
+                DiseaseGroup group = value instanceof DiseaseGroup ?
+                        (DiseaseGroup) value : DiseaseGroup.fromString(value.toString());
+                this.compartments.move(index, getDiseaseGroup(index), group);
+                this.diseaseGroup[index] = (byte) group.ordinal();
+                break;
+            case DISEASE_INFECTION:
+                // the course of a disease cannot be restored from its string representation
+                this.disease[index] = value instanceof Disease ? (Disease) value : null;
+                break;
+            case RISK_FACTOR_SIGMA:
+                this.rSigma[index] = toDouble(value);
+                break;
+            case RISK_FACTOR_PI:
+                this.rPi[index] = toDouble(value);
+                break;
+            case PHI:
+                this.phi[index] = toDouble(value);
+                break;
+            case PSI:
+                this.psi[index] = toDouble(value);
+                break;
+            case XI:
+                this.xi[index] = toDouble(value);
+                break;
+            case OMEGA:
+                this.omega[index] = toDouble(value);
+                break;
+            case SATISFIED:
+                this.satisfied[index] = toBoolean(value);
+                break;
+            case CONNECTION_STATS:
+                this.connectionStats[index] = value instanceof AgentConnectionStats ?
+                        (AgentConnectionStats) value : AgentConnectionStats.fromString(value.toString());
+                break;
+            case AGE:
+                this.age[index] = toInt(value);
+                break;
+            case CONSIDER_AGE:
+                this.considerAge[index] = toBoolean(value);
+                break;
+            case PROFESSION:
+                this.profession[index] = value == null ? null : value.toString();
+                break;
+            case CONSIDER_PROFESSION:
+                this.considerProfession[index] = toBoolean(value);
+                break;
+            case QUARANTINED:
+                this.quarantined[index] = toBoolean(value);
+                break;
+            case FORCE_INFECTED:
+                this.forceInfected[index] = toBoolean(value);
+                break;
+            case WHEN_INFECTED:
+                this.whenInfected[index] = toInt(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Attribute not tabular: " + attribute);
+        }
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's risk factor for disease severity
+     */
+    public double getRSigma(int index) {
+        return this.rSigma[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's risk factor for probability of infections
+     */
+    public double getRPi(int index) {
+        return this.rPi[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's share of peers to evaluate per round
+     */
+    public double getPhi(int index) {
+        return this.phi[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's proportion of direct ties to evaluate per round
+     */
+    public double getPsi(int index) {
+        return this.psi[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's proportion of ties at distance 2 to evaluate per round
+     */
+    public double getXi(int index) {
+        return this.xi[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's share of assortatively selected peers
+     */
+    public double getOmega(int index) {
+        return this.omega[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's age
+     */
+    public int getAge(int index) {
+        return this.age[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the simulation round the agent was infected
+     */
+    public int getWhenInfected(int index) {
+        return this.whenInfected[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the disease group the agent is in
+     */
+    public DiseaseGroup getDiseaseGroup(int index) {
+        return DISEASE_GROUPS[this.diseaseGroup[index]];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return whether the agent is satisfied with the current connections
+     */
+    public boolean isSatisfied(int index) {
+        return this.satisfied[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return whether the agent considers age when selecting peers
+     */
+    public boolean considerAge(int index) {
+        return this.considerAge[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return whether the agent considers profession when selecting peers
+     */
+    public boolean considerProfession(int index) {
+        return this.considerProfession[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return whether the agent is quarantined
+     */
+    public boolean isQuarantined(int index) {
+        return this.quarantined[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return whether the agent was infected from outside the network
+     */
+    public boolean isForceInfected(int index) {
+        return this.forceInfected[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's utility function
+     */
+    public UtilityFunction getUtilityFunction(int index) {
+        return this.utilityFunction[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the disease specs the agent considers
+     */
+    public DiseaseSpecs getDiseaseSpecs(int index) {
+        return this.diseaseSpecs[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the disease the agent is infected with, null if not infected
+     */
+    public Disease getDisease(int index) {
+        return this.disease[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's connection stats
+     */
+    public AgentConnectionStats getConnectionStats(int index) {
+        return this.connectionStats[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's profession
+     */
+    public String getProfession(int index) {
+        return this.profession[index];
+    }
+
+    /**
+     * Sets the geographic coordinates of an agent.
+     *
+     * @param index
+     *          the index of the agent
+     * @param x
+     *          the x-coordinate
+     * @param y
+     *          the y-coordinate
+     */
+    public void setXY(int index, double x, double y) {
+        checkIndex(index);
+        this.x[index] = x;
+        this.y[index] = y;
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's x-coordinate
+     */
+    public double getX(int index) {
+        return this.x[index];
+    }
+
+    /**
+     * @param index
+     *          the index of the agent
+     * @return the agent's y-coordinate
+     */
+    public double getY(int index) {
+        return this.y[index];
+    }
+
+    /**
+     * Gets the euclidean distance between the geographic coordinates of two agents.
+     *
+     * @param i
+     *          the index of the first agent
+     * @param j
+     *          the index of the second agent
+     * @return the geographic distance between both agents
+     */
+    public double getGeographicDistance(int i, int j) {
+        double dx = this.x[i] - this.x[j];
+        double dy = this.y[i] - this.y[j];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Resizes all arrays.
+     *
+     * @param capacity
+     *          the new capacity
+     */
+    private void resize(int capacity) {
+        this.rSigma = Arrays.copyOf(this.rSigma, capacity);
+        this.rPi = Arrays.copyOf(this.rPi, capacity);
+        this.phi = Arrays.copyOf(this.phi, capacity);
+        this.psi = Arrays.copyOf(this.psi, capacity);
+        this.xi = Arrays.copyOf(this.xi, capacity);
+        this.omega = Arrays.copyOf(this.omega, capacity);
+        this.age = Arrays.copyOf(this.age, capacity);
+        this.whenInfected = Arrays.copyOf(this.whenInfected, capacity);
+        this.diseaseGroup = Arrays.copyOf(this.diseaseGroup, capacity);
+        this.satisfied = Arrays.copyOf(this.satisfied, capacity);
+        this.considerAge = Arrays.copyOf(this.considerAge, capacity);
+        this.considerProfession = Arrays.copyOf(this.considerProfession, capacity);
+        this.quarantined = Arrays.copyOf(this.quarantined, capacity);
+        this.forceInfected = Arrays.copyOf(this.forceInfected, capacity);
+        this.x = Arrays.copyOf(this.x, capacity);
+        this.y = Arrays.copyOf(this.y, capacity);
+        this.utilityFunction = Arrays.copyOf(this.utilityFunction, capacity);
+        this.diseaseSpecs = Arrays.copyOf(this.diseaseSpecs, capacity);
+        this.disease = Arrays.copyOf(this.disease, capacity);
+        this.connectionStats = Arrays.copyOf(this.connectionStats, capacity);
+        this.profession = Arrays.copyOf(this.profession, capacity);
+    }
+
+    /**
+     * Copies a row.
+     *
+     * @param from
+     *          the index of the row to copy
+     * @param to
+     *          the index of the row to copy to
+     */
+    private void copyRow(int from, int to) {
+        this.rSigma[to] = this.rSigma[from];
+        this.rPi[to] = this.rPi[from];
+        this.phi[to] = this.phi[from];
+        this.psi[to] = this.psi[from];
+        this.xi[to] = this.xi[from];
+        this.omega[to] = this.omega[from];
+        this.age[to] = this.age[from];
+        this.whenInfected[to] = this.whenInfected[from];
+        this.diseaseGroup[to] = this.diseaseGroup[from];
+        this.satisfied[to] = this.satisfied[from];
+        this.considerAge[to] = this.considerAge[from];
+        this.considerProfession[to] = this.considerProfession[from];
+        this.quarantined[to] = this.quarantined[from];
+        this.forceInfected[to] = this.forceInfected[from];
+        this.x[to] = this.x[from];
+        this.y[to] = this.y[from];
+        this.utilityFunction[to] = this.utilityFunction[from];
+        this.diseaseSpecs[to] = this.diseaseSpecs[from];
+        this.disease[to] = this.disease[from];
+        this.connectionStats[to] = this.connectionStats[from];
+        this.profession[to] = this.profession[from];
+    }
+
+    /**
+     * Resets a row to default values.
+     *
+     * @param index
+     *          the index of the row to reset
+     */
+    private void clearRow(int index) {
+        this.rSigma[index] = 0.0;
+        this.rPi[index] = 0.0;
+        this.phi[index] = 0.0;
+        this.psi[index] = 0.0;
+        this.xi[index] = 0.0;
+        this.omega[index] = 0.0;
+        this.age[index] = 0;
+        this.whenInfected[index] = -1;
+        this.diseaseGroup[index] = (byte) DiseaseGroup.SUSCEPTIBLE.ordinal();
+        this.satisfied[index] = false;
+        this.considerAge[index] = false;
+        this.considerProfession[index] = false;
+        this.quarantined[index] = false;
+        this.forceInfected[index] = false;
+        this.x[index] = 0.0;
+        this.y[index] = 0.0;
+        this.utilityFunction[index] = null;
+        this.diseaseSpecs[index] = null;
+        this.disease[index] = null;
+        this.connectionStats[index] = null;
+        this.profession[index] = null;
+    }
+
+    /**
+     * Checks whether an index is valid.
+     *
+     * @param index
+     *          the index to check
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Agent " + index + " does not exist.");
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : (int) Double.parseDouble(value.toString());
+    }
+
+    private static boolean toBoolean(Object value) {
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString());
+    }
+
+}
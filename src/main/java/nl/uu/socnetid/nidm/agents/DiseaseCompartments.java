@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.agents;
+
+import java.util.Arrays;
+
+import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
+
+/**
+ * Incrementally maintained members of the disease groups (S, I, R, V). Each group holds the indices of its members
+ * in a dense array, so that counts are available in constant time and members can be iterated without scanning all
+ * agents. Every agent index is a member of exactly one group.
+ *
+ * @author Hendrik Nunner
+ */
+public class DiseaseCompartments {
+
+    // initial capacity
+    private static final int INITIAL_CAPACITY = 16;
+
+    // disease groups by ordinal
+    private static final DiseaseGroup[] DISEASE_GROUPS = DiseaseGroup.values();
+
+    // member indices per disease group
+    private int[][] members;
+    // number of members per disease group
+    private int[] counts;
+    // position of each agent index within its group's member array
+    private int[] positions;
+
+
+    /**
+     * Constructor.
+     */
+    public DiseaseCompartments() {
+        clear();
+    }
+
+
+    /**
+     * Adds an agent to a disease group.
+     *
+     * @param index
+     *          the index of the agent
+     * @param group
+     *          the disease group
+     */
+    public void add(int index, DiseaseGroup group) {
+        if (index >= this.positions.length) {
+            this.positions = Arrays.copyOf(this.positions, Math.max(index + 1, this.positions.length * 2));
+        }
+        int g = group.ordinal();
+        if (this.counts[g] == this.members[g].length) {
+            this.members[g] = Arrays.copyOf(this.members[g], this.members[g].length * 2);
+        }
+        this.members[g][this.counts[g]] = index;
+        this.positions[index] = this.counts[g]++;
+    }
+
+    /**
+     * Removes an agent from a disease group.
+     *
+     * @param index
+     *          the index of the agent
+     * @param group
+     *          the disease group the agent is currently in
+     */
+    public void remove(int index, DiseaseGroup group) {
+        int g = group.ordinal();
+        int pos = this.positions[index];
+        int last = this.members[g][--this.counts[g]];
+        this.members[g][pos] = last;
+        this.positions[last] = pos;
+    }
+
+    /**
+     * Moves an agent from one disease group to another.
+     *
+     * @param index
+     *          the index of the agent
+     * @param from
+     *          the disease group the agent is currently in
+     * @param to
+     *          the disease group to move the agent to
+     */
+    public void move(int index, DiseaseGroup from, DiseaseGroup to) {
+        if (from == to) {
+            return;
+        }
+        remove(index, from);
+        add(index, to);
+    }
+
+    /**
+     * Replaces the index of an agent, e.g. after the agent took over the index of a removed agent.
+     *
+     * @param from
+     *          the current index of the agent
+     * @param to
+     *          the new index of the agent
+     * @param group
+     *          the disease group the agent is in
+     */
+    public void reindex(int from, int to, DiseaseGroup group) {
+        int pos = this.positions[from];
+        this.members[group.ordinal()][pos] = to;
+        this.positions[to] = pos;
+    }
+
+    /**
+     * Gets the number of agents within a disease group.
+     *
+     * @param group
+     *          the disease group
+     * @return the number of agents within the disease group
+     */
+    public int size(DiseaseGroup group) {
+        return this.counts[group.ordinal()];
+    }
+
+    /**
+     * Gets the index of the k-th member of a disease group. The order of members is undefined.
+     *
+     * @param group
+     *          the disease group
+     * @param k
+     *          the position within the disease group
+     * @return the index of the agent
+     */
+    public int getMember(DiseaseGroup group, int k) {
+        int g = group.ordinal();
+        if (k < 0 || k >= this.counts[g]) {
+            throw new IndexOutOfBoundsException("Member " + k + " of " + group + " does not exist.");
+        }
+        return this.members[g][k];
+    }
+
+    /**
+     * Gets a copy of the indices of all members of a disease group.
+     *
+     * @param group
+     *          the disease group
+     * @return the indices of all members of the disease group
+     */
+    public int[] getMembers(DiseaseGroup group) {
+        int g = group.ordinal();
+        return Arrays.copyOf(this.members[g], this.counts[g]);
+    }
+
+    /**
+     * Removes all members from all disease groups.
+     */
+    public void clear() {
+        this.members = new int[DISEASE_GROUPS.length][INITIAL_CAPACITY];
+        this.counts = new int[DISEASE_GROUPS.length];
+        this.positions = new int[INITIAL_CAPACITY];
+    }
+
+}
@@ -13,13 +13,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.commons.math.stat.correlation.PearsonsCorrelation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 
 /**
  * @author Hendrik Nunner
@@ -72,7 +72,7 @@ public class AgeStructure {
                 // store the
                 for (int i = 0; i < Integer.valueOf(attributes[3]); i++) {
                     //// store a random age within the year ranges of the age group
-                    //this.ageDistribution.add(ThreadLocalRandom.current().nextInt(min, max+1));
+                    //this.ageDistribution.add(RandomStream.current().nextInt(min, max+1));
                     this.ageDistribution.add(min);
                 }
 
@@ -255,7 +255,7 @@ public class AgeStructure {
      * @return a randomly drawn age from the age distribution
      */
     public int getRandomAge() {
-        return this.ageDistribution.get(ThreadLocalRandom.current().nextInt(0, this.ageDistribution.size()));
+        return this.ageDistribution.get(RandomStream.current().nextInt(0, this.ageDistribution.size()));
     }
 
     /**
@@ -273,7 +273,7 @@ public class AgeStructure {
     // TODO comments
     // TODO Clean up/refactor
     public int sampleAgeFromAgeDependentDegreeDistribution(int age) {
-        double d = ThreadLocalRandom.current().nextDouble();
+        double d = RandomStream.current().nextDouble();
 
         Map<Integer, Double> ageDegreesByAge = this.ageDegrees.get(age);
         Iterator<Integer> it = ageDegreesByAge.keySet().iterator();
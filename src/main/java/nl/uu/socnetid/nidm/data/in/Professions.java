@@ -12,7 +12,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -21,6 +20,7 @@ import nl.uu.socnetid.nidm.agents.Agent;
 import nl.uu.socnetid.nidm.networks.LockdownConditions;
 import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 
 /**
  * @author Hendrik Nunner
@@ -173,7 +173,7 @@ public class Professions {
      * @return a randomly drawn profession from the age distribution
      */
     public String getRandomProfession() {
-        return this.professionDistribution.get(ThreadLocalRandom.current().nextInt(0, this.professionDistribution.size()));
+        return this.professionDistribution.get(RandomStream.current().nextInt(0, this.professionDistribution.size()));
     }
 
     /**
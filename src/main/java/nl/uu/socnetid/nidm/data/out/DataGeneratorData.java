@@ -82,6 +82,20 @@ public class DataGeneratorData<UMP extends UtilityModelParameters> {
     }
 
 
+    /**
+     * Creates data for a single simulation running in parallel to others: with a copy of the utility model parameters
+     * and new simulation stats.
+     *
+     * @return the data for a single simulation
+     */
+    @SuppressWarnings("unchecked")
+    public DataGeneratorData<UMP> copy() {
+        DataGeneratorData<UMP> copy = new DataGeneratorData<UMP>((UMP) this.utilityModelParams.copy());
+        copy.getSimStats().setUpcs(this.simStats.getUpcs());
+        return copy;
+    }
+
+
     /**
      * @return the netStatsPre
      */
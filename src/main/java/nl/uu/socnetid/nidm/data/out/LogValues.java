@@ -42,6 +42,7 @@ public enum LogValues {
     IV_SIM_UPC("sim.upc"),
     IV_SIM_CNT("sim.cnt"),
     IV_SIM_IT("sim.it"),
+    IV_SIM_SEED("sim.seed"),
     IV_SIM_ROUND("sim.round"),
     // agent
     IV_AGENT_ID("agent.id"),
@@ -365,15 +366,21 @@ public enum LogValues {
     DV_NET_AV_BETWEENNESS("net.betweenness.av"),
     DV_NET_AV_BETWEENNESS_PRE("net.betweenness.pre.epidemic.av"),
     DV_NET_AV_BETWEENNESS_POST("net.betweenness.post.epidemic.av"),
+    DV_NET_AV_BETWEENNESS_ERROR("net.betweenness.av.error"),
+    DV_NET_AV_BETWEENNESS_ERROR_PRE("net.betweenness.pre.epidemic.av.error"),
     DV_NET_AV_CLOSENESS("net.closeness.av"),
     DV_NET_AV_CLOSENESS_PRE("net.closeness.pre.epidemic.av"),
     DV_NET_AV_CLOSENESS_POST("net.closeness.post.epidemic.av"),
+    DV_NET_AV_CLOSENESS_ERROR("net.closeness.av.error"),
+    DV_NET_AV_CLOSENESS_ERROR_PRE("net.closeness.pre.epidemic.av.error"),
     DV_NET_AV_CLUSTERING("net.clustering.av"),
     DV_NET_AV_CLUSTERING_PRE("net.clustering.pre.epidemic.av"),
     DV_NET_AV_CLUSTERING_POST("net.clustering.post.epidemic.av"),
     DV_NET_AV_PATHLENGTH("net.pathlength.av"),
     DV_NET_AV_PATHLENGTH_PRE("net.pathlength.pre.epidemic.av"),
     DV_NET_AV_PATHLENGTH_POST("net.pathlength.post.epidemic.av"),
+    DV_NET_AV_PATHLENGTH_ERROR("net.pathlength.av.error"),
+    DV_NET_AV_PATHLENGTH_ERROR_PRE("net.pathlength.pre.epidemic.av.error"),
     DV_NET_AV_UTIL_PRE("net.utility.pre.epidemic.av"),
     DV_NET_AV_UTIL_POST("net.utility.post.epidemic.av"),
     DV_NET_AV_BENEFIT_SOCIAL_PRE("net.benefit.social.pre.epidemic.av"),
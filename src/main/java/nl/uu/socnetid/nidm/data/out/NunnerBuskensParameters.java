@@ -443,4 +443,17 @@ public class NunnerBuskensParameters extends UtilityModelParameters {
         this.currEpStructure = currEpStructure;
     }
 
+    /**
+     * Gets whether any parameter of unique parameter combinations is drawn randomly for each simulation, rather than
+     * swept. Risk perceptions drawn randomly are not considered, as they are summarized per simulation (see
+     * {@link #getRSigmaAv()} and {@link #getRPiAv()}).
+     *
+     * @return true if any parameter is drawn randomly for each simulation, false otherwise
+     */
+    public boolean isDrawnPerSimulation() {
+        return isB1Random() || isB2Random() || isAlphaRandom() || isC1Random() || isC2Random() || isSigmaRandom() ||
+                isGammaRandom() || isTauRandom() || isRMinRandom() || isRMaxRandom() || isNRandom() ||
+                isIotaRandom() || isPhiRandom() || isOmegaRandom();
+    }
+
 }
@@ -33,7 +33,7 @@ import nl.uu.socnetid.nidm.networks.LockdownConditions;
 /**
  * @author Hendrik Nunner
  */
-public abstract class UtilityModelParameters {
+public abstract class UtilityModelParameters implements Cloneable {
 
     // NETWORK
     // N
@@ -150,6 +150,20 @@ public abstract class UtilityModelParameters {
     private int simIterations;
 
 
+    /**
+     * Creates a copy of the parameters, e.g. for simulations running in parallel. Parameter ranges are shared, as
+     * they are not changed during simulations, current parameter values are copied.
+     *
+     * @return the copy of the parameters
+     */
+    public UtilityModelParameters copy() {
+        try {
+            return (UtilityModelParameters) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * @return the nRandom
      */
@@ -41,6 +41,7 @@ public final class DiseaseFactory {
 
         switch (diseaseSpecs.getDiseaseType()) {
             case SIR:
+            case SIR_CT:
                 return new SIRDisease(diseaseSpecs);
             case SIRV:
                 return new SIRVDisease(diseaseSpecs);
@@ -107,6 +107,24 @@ public class DiseaseSpecs {
         return this.mu;
     }
 
+    /**
+     * @return true if the disease spreads in continuous time (see {@link DiseaseType#SIR_CT}), false if it spreads in
+     *          rounds
+     */
+    public boolean isContinuousTime() {
+        return this.diseaseType == DiseaseType.SIR_CT;
+    }
+
+    /**
+     * Gets the rate of the exponentially distributed transmission time between an infected and a susceptible agent,
+     * such that the probability of transmission within one time unit equals gamma.
+     *
+     * @return the transmission rate, infinite if gamma is 1
+     */
+    public double getTransmissionRate() {
+        return -Math.log(1 - this.gamma);
+    }
+
     /**
      * @return the name of the disease as presented in the stats window
      */
@@ -31,7 +31,8 @@ package nl.uu.socnetid.nidm.diseases.types;
 public enum DiseaseType {
 
     SIR("generic SIR"),
-    SIRV("SIR with vaccinations");
+    SIRV("SIR with vaccinations"),
+    SIR_CT("continuous-time SIR");
 
     // the name
     private String name;
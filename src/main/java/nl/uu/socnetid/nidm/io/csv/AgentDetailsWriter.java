@@ -96,6 +96,7 @@ public abstract class AgentDetailsWriter<UMP extends UtilityModelParameters> ext
         cols.add(LogValues.IV_SIM_UPC.toString());
         cols.add(LogValues.IV_SIM_CNT.toString());
         cols.add(LogValues.IV_SIM_IT.toString());
+        cols.add(LogValues.IV_SIM_SEED.toString());
         cols.add(LogValues.IV_SIM_ROUND.toString());
         cols.add(LogValues.IV_AGENT_ID.toString());
 
@@ -176,6 +177,7 @@ public abstract class AgentDetailsWriter<UMP extends UtilityModelParameters> ext
             currData.add(String.valueOf(this.dgData.getSimStats().getUpc()));
             currData.add(String.valueOf(this.dgData.getSimStats().getSimPerUpc()));
             currData.add(String.valueOf(this.dgData.getSimStats().getSimIt()));
+            currData.add(String.valueOf(this.dgData.getSimStats().getSeed()));
             currData.add(String.valueOf(this.dgData.getSimStats().getRounds()));
             currData.add(agent.getId());
 
@@ -69,6 +69,7 @@ public class CarayolRouxSimulationSummaryWriter extends CsvFileWriter<CarayolRou
         cols.add(LogValues.IV_SIM_UID.toString());
         cols.add(LogValues.IV_SIM_UPC.toString());
         cols.add(LogValues.IV_SIM_CNT.toString());
+        cols.add(LogValues.IV_SIM_SEED.toString());
         // CarayolRoux
         cols.add(LogValues.IV_CR_CROMEGA.toString());
         cols.add(LogValues.IV_CR_DELTA.toString());
@@ -95,31 +96,30 @@ public class CarayolRouxSimulationSummaryWriter extends CsvFileWriter<CarayolRou
      */
     @Override
     public void writeCurrentData() {
-        List<String> currData = new LinkedList<String>();
-
         // INDEPENDENT VARIABLES
         // simulation
-        currData.add(this.dgData.getSimStats().getUid());
-        currData.add(String.valueOf(this.dgData.getSimStats().getUpc()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getSimPerUpc()));
+        value(this.dgData.getSimStats().getUid());
+        value(this.dgData.getSimStats().getUpc());
+        value(this.dgData.getSimStats().getSimPerUpc());
+        value(this.dgData.getSimStats().getSeed());
         // CarayolRoux
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrCrOmega()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrDelta()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrC()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrN()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().isCurrIota() ? 1 : 0));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrPhi()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrOmega()));
+        value(this.dgData.getUtilityModelParams().getCurrCrOmega());
+        value(this.dgData.getUtilityModelParams().getCurrDelta());
+        value(this.dgData.getUtilityModelParams().getCurrC());
+        value(this.dgData.getUtilityModelParams().getCurrN());
+        value(this.dgData.getUtilityModelParams().isCurrIota() ? 1 : 0);
+        value(this.dgData.getUtilityModelParams().getCurrPhi());
+        value(this.dgData.getUtilityModelParams().getCurrOmega());
 
         // DEPENDENT VARIABLES
         // network
-        currData.add(this.dgData.getNetStatsCurrent().isStable() ? "1" : "0");
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAvDegree()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAvClustering()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAvPathLength(this.dgData.getSimStats().getCurrRound())));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getDensity()));
+        value(this.dgData.getNetStatsCurrent().isStable() ? "1" : "0");
+        value(this.dgData.getNetStatsCurrent().getAvDegree());
+        value(this.dgData.getNetStatsCurrent().getAvClustering());
+        value(this.dgData.getNetStatsCurrent().getAvPathLength(this.dgData.getSimStats().getCurrRound()));
+        value(this.dgData.getNetStatsCurrent().getDensity());
 
-        writeLine(currData);
+        endRow();
     }
 
 }
@@ -80,28 +80,26 @@ public class CidmSimulationSummaryWriter extends SimulationSummaryWriter<CidmPar
 
 
     /* (non-Javadoc)
-     * @see nl.uu.socnetid.nidm.io.SimulationSummaryWriter#addCurrModelData(List<String> currData)
+     * @see nl.uu.socnetid.nidm.io.SimulationSummaryWriter#addCurrModelData()
      */
     @Override
-    protected List<String> addCurrModelData(List<String> currData) {
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrAlpha()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrKappa()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrBeta()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrLamda()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrC()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrMu()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrSigma()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrGamma()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().isRsEqual() ? 1 : 0));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrRSigma()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrRPi()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrN()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().isCurrIota() ? 1 : 0));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrPhi()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrOmega()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrTau()));
-
-        return currData;
+    protected void addCurrModelData() {
+        value(this.dgData.getUtilityModelParams().getCurrAlpha());
+        value(this.dgData.getUtilityModelParams().getCurrKappa());
+        value(this.dgData.getUtilityModelParams().getCurrBeta());
+        value(this.dgData.getUtilityModelParams().getCurrLamda());
+        value(this.dgData.getUtilityModelParams().getCurrC());
+        value(this.dgData.getUtilityModelParams().getCurrMu());
+        value(this.dgData.getUtilityModelParams().getCurrSigma());
+        value(this.dgData.getUtilityModelParams().getCurrGamma());
+        value(this.dgData.getUtilityModelParams().isRsEqual() ? 1 : 0);
+        value(this.dgData.getUtilityModelParams().getCurrRSigma());
+        value(this.dgData.getUtilityModelParams().getCurrRPi());
+        value(this.dgData.getUtilityModelParams().getCurrN());
+        value(this.dgData.getUtilityModelParams().isCurrIota() ? 1 : 0);
+        value(this.dgData.getUtilityModelParams().getCurrPhi());
+        value(this.dgData.getUtilityModelParams().getCurrOmega());
+        value(this.dgData.getUtilityModelParams().getCurrTau());
     }
 
 }
@@ -25,27 +25,34 @@
  */
 package nl.uu.socnetid.nidm.io.csv;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.UtilityModelParameters;
 
 /**
+ * Writes CSV data row by row. Rows are either written as lists of values (see {@link #writeLine(List)}) or value by
+ * value (see {@link #value(String)} and {@link #endRow()}), without converting numbers to strings first. Files are
+ * written asynchronously in the configured format (see {@link CsvOutput}) and only guaranteed to be complete after
+ * {@link #flush()}.
+ *
  * @author Hendrik Nunner
  *
  * @param <UMP>
  *          the type of {@link UtilityModelParameters}
  */
-public abstract class CsvFileWriter<UMP extends UtilityModelParameters> extends FileWriter {
+public abstract class CsvFileWriter<UMP extends UtilityModelParameters> extends Writer implements Cloneable {
 
     protected DataGeneratorData<UMP> dgData;
+    // the writer the CSV data is written to
+    private Writer out;
+    // the row currently written
+    private StringBuilder row = new StringBuilder(1024);
+    private boolean rowStarted;
 
-    private static final Logger logger = LogManager.getLogger(CsvFileWriter.class);
     private static final char DEFAULT_SEPARATOR = ';';
 
 
@@ -62,11 +69,50 @@ public abstract class CsvFileWriter<UMP extends UtilityModelParameters> extends
      *          created, or cannot be opened for any other reason
      */
     public CsvFileWriter(String fileName, DataGeneratorData<UMP> dgData) throws IOException {
-        super(fileName);
+        this.out = CsvOutput.open(CsvOutput.getFileName(fileName), false);
         this.dgData = dgData;
         initCols();
     }
 
+    /**
+     * Creates a CSV writer for data rows only, without column names (e.g., to append to an existing file via a
+     * {@link CsvSink}).
+     *
+     * @param out
+     *          the writer to write the data rows to
+     * @param dgData
+     *          the data generator data
+     */
+    public CsvFileWriter(Writer out, DataGeneratorData<UMP> dgData) {
+        this.out = out;
+        this.dgData = dgData;
+    }
+
+
+    /**
+     * Creates a copy of this writer for data rows only, without column names (e.g., to buffer the data of a single
+     * simulation running in parallel to others, see {@link nl.uu.socnetid.nidm.io.generator.SweepExecutor}).
+     *
+     * @param out
+     *          the writer to write the data rows to
+     * @param dgData
+     *          the data generator data of the copy
+     * @return the copy of this writer, of the same type as this writer
+     */
+    @SuppressWarnings("unchecked")
+    public CsvFileWriter<UMP> copy(Writer out, DataGeneratorData<UMP> dgData) {
+        CsvFileWriter<UMP> copy;
+        try {
+            copy = (CsvFileWriter<UMP>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        copy.out = out;
+        copy.dgData = dgData;
+        copy.row = new StringBuilder(1024);
+        copy.rowStarted = false;
+        return copy;
+    }
 
     /**
      * Initializes the CSV by writing the column names.
@@ -78,6 +124,46 @@ public abstract class CsvFileWriter<UMP extends UtilityModelParameters> extends
      */
     public abstract void writeCurrentData();
 
+    /**
+     * Writes the column names, for writers created for data rows only writing to a new file.
+     */
+    public void writeColumnNames() {
+        initCols();
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#write(char[], int, int)
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        this.out.write(cbuf, off, len);
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#append(java.lang.CharSequence)
+     */
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        this.out.append(csq);
+        return this;
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#flush()
+     */
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#close()
+     */
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
 
     //https://tools.ietf.org/html/rfc4180
     private String followCVSformat(String value) {
@@ -107,25 +193,122 @@ public abstract class CsvFileWriter<UMP extends UtilityModelParameters> extends
             separators = DEFAULT_SEPARATOR;
         }
 
-        StringBuilder sb = new StringBuilder();
         for (String value : values) {
             if (!first) {
-                sb.append(separators);
+                this.row.append(separators);
             }
             if (customQuote == ' ') {
-                sb.append(followCVSformat(value));
+                this.row.append(followCVSformat(value));
             } else {
-                sb.append(customQuote).append(followCVSformat(value)).append(customQuote);
+                this.row.append(customQuote).append(followCVSformat(value)).append(customQuote);
             }
 
             first = false;
         }
-        sb.append("\n");
+        endRow();
+    }
+
+    /**
+     * Starts the next value of the current row.
+     *
+     * @return the row
+     */
+    private StringBuilder nextValue() {
+        if (this.rowStarted) {
+            this.row.append(DEFAULT_SEPARATOR);
+        }
+        this.rowStarted = true;
+        return this.row;
+    }
+
+    /**
+     * Adds a value to the current row.
+     *
+     * @param value
+     *          the value
+     * @return this writer
+     */
+    protected CsvFileWriter<UMP> value(String value) {
+        nextValue().append(followCVSformat(value));
+        return this;
+    }
+
+    /**
+     * Adds a value to the current row, formatted as {@link String#valueOf(double)}.
+     *
+     * @param value
+     *          the value
+     * @return this writer
+     */
+    protected CsvFileWriter<UMP> value(double value) {
+        nextValue().append(value);
+        return this;
+    }
+
+    /**
+     * Adds a value to the current row.
+     *
+     * @param value
+     *          the value
+     * @return this writer
+     */
+    protected CsvFileWriter<UMP> value(long value) {
+        nextValue().append(value);
+        return this;
+    }
+
+    /**
+     * Adds a value to the current row.
+     *
+     * @param value
+     *          the value
+     * @return this writer
+     */
+    protected CsvFileWriter<UMP> value(int value) {
+        nextValue().append(value);
+        return this;
+    }
+
+    /**
+     * Adds a value to the current row, as 1 (true) or 0 (false).
+     *
+     * @param value
+     *          the value
+     * @return this writer
+     */
+    protected CsvFileWriter<UMP> value(boolean value) {
+        nextValue().append(value ? '1' : '0');
+        return this;
+    }
+
+    /**
+     * Adds a value to the current row, formatted as {@link String#valueOf(Object)} (e.g., for values that may be
+     * null).
+     *
+     * @param value
+     *          the value
+     * @return this writer
+     */
+    protected CsvFileWriter<UMP> value(Object value) {
+        nextValue().append(value);
+        return this;
+    }
+
+    /**
+     * Ends the current row and writes it.
+     *
+     * @throws UncheckedIOException
+     *          if the row cannot be written
+     */
+    protected void endRow() {
+        this.row.append('\n');
         try {
-            append(sb.toString());
-            flush();
+            this.out.append(this.row);
         } catch (IOException e) {
-            logger.error(e);
+            throw new UncheckedIOException(e);
+        } finally {
+            this.row.setLength(0);
+            this.rowStarted = false;
         }
     }
 
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io.csv;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.zip.GZIPInputStream;
+
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
+
+/**
+ * Opens CSV data files in the configured format (see {@link PropertiesHandler#getExportFormat()}): uncompressed
+ * ({@code .csv}) or gzip-compressed ({@code .csv.gz}, see {@link MultiMemberGzipOutputStream}). Files are written
+ * asynchronously (see {@link CsvSink}).
+ *
+ * @author Hendrik Nunner
+ */
+public final class CsvOutput {
+
+    // extensions of uncompressed and compressed files
+    private static final String CSV = ".csv";
+    private static final String GZ = ".gz";
+
+
+    /** Private construtor. Inhibits unwanted instantiation of class. */
+    private CsvOutput() { }
+
+
+    /**
+     * Gets the name of a data file in the configured format.
+     *
+     * @param fileName
+     *          the name of the uncompressed data file ({@code <name>.csv})
+     * @return the name of the data file in the configured format (e.g., {@code <name>.csv.gz})
+     */
+    public static String getFileName(String fileName) {
+        if (!fileName.endsWith(CSV)) {
+            return fileName;
+        }
+        return fileName.substring(0, fileName.length() - CSV.length()) + "."
+                + PropertiesHandler.getInstance().getExportFormat();
+    }
+
+    /**
+     * Resolves an existing data file, written in any format (e.g., by a previous run with a different configuration).
+     *
+     * @param fileName
+     *          the name of the uncompressed data file ({@code <name>.csv})
+     * @return the data file in the configured format if it exists, otherwise the data file in the other format if it
+     *          exists, otherwise the data file in the configured format
+     */
+    public static File resolve(String fileName) {
+        File file = new File(getFileName(fileName));
+        if (file.exists() || !fileName.endsWith(CSV)) {
+            return file;
+        }
+        File other = new File(isCompressed(file.getName()) ? fileName : fileName + GZ);
+        return other.exists() ? other : file;
+    }
+
+    /**
+     * Checks whether a data file is gzip-compressed.
+     *
+     * @param fileName
+     *          the name of the data file
+     * @return true if the data file is gzip-compressed, false otherwise
+     */
+    public static boolean isCompressed(String fileName) {
+        return fileName.endsWith(GZ);
+    }
+
+    /**
+     * Opens a data file for writing, compressed if its name ends with {@code .gz}.
+     *
+     * @param fileName
+     *          the name of the data file
+     * @param append
+     *          whether to append to an existing file
+     * @return the writer
+     * @throws IOException
+     *          if the file exists but is a directory rather than a regular file, does not exist but cannot be
+     *          created, or cannot be opened for any other reason
+     */
+    public static Writer open(String fileName, boolean append) throws IOException {
+        int blockSize = PropertiesHandler.getInstance().getExportBlockSize();
+        OutputStream out = new FileOutputStream(fileName, append);
+        if (isCompressed(fileName)) {
+            out = new MultiMemberGzipOutputStream(out, PropertiesHandler.getInstance().getExportCompressionLevel(),
+                    blockSize);
+        } else {
+            out = new BufferedOutputStream(out, blockSize);
+        }
+        return new CsvSink(new OutputStreamWriter(out), blockSize, CsvSink.DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Opens a data file for reading, decompressed if its name ends with {@code .gz}.
+     *
+     * @param file
+     *          the data file
+     * @return the reader
+     * @throws IOException
+     *          if the file does not exist or cannot be read
+     */
+    public static BufferedReader openReader(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        if (isCompressed(file.getName())) {
+            in = new GZIPInputStream(in, PropertiesHandler.getInstance().getExportBlockSize());
+        }
+        return new BufferedReader(new InputStreamReader(in));
+    }
+
+}
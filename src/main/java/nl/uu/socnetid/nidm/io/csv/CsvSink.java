@@ -0,0 +1,355 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io.csv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A writer buffering data in large blocks, which are written to another writer by a background thread. Writing
+ * blocks only when the buffer of blocks (a bounded queue) is full, so that fast producers wait for the disk rather
+ * than exhausting memory.
+ *
+ * Data is only guaranteed to be written to the other writer after {@link #flush()} or {@link #close()}. Sinks not
+ * closed explicitly are flushed on shutdown of the JVM. Errors of the background thread are reported by the next
+ * write, flush, or close.
+ *
+ * @author Hendrik Nunner
+ */
+public class CsvSink extends Writer {
+
+    private static final Logger logger = LogManager.getLogger(CsvSink.class);
+
+    // default size of a block (in chars)
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+    // default number of blocks waiting to be written
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    // sinks not yet closed, flushed on shutdown
+    private static final Set<CsvSink> OPEN = Collections.newSetFromMap(new ConcurrentHashMap<CsvSink, Boolean>());
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (CsvSink sink : new ArrayList<CsvSink>(OPEN)) {
+                try {
+                    sink.close();
+                } catch (IOException e) {
+                    logger.error(e);
+                }
+            }
+        }, "csv-sink-shutdown"));
+    }
+
+    // a block of chars
+    private static final class Block {
+        private final char[] chars;
+        private int length;
+        // whether the background thread stops after the block
+        private final boolean last;
+
+        private Block(int size, boolean last) {
+            this.chars = new char[size];
+            this.last = last;
+        }
+    }
+
+    // the writer the data is written to
+    private final Writer out;
+    // blocks waiting to be written, and empty blocks for reuse
+    private final BlockingQueue<Block> filled;
+    private final BlockingQueue<Block> empty;
+    // the block currently filled
+    private Block current;
+    // the number of blocks submitted to and written by the background thread, guarded by progress
+    private final Object progress = new Object();
+    private long submitted;
+    private long written;
+    // the first error of the background thread
+    private volatile IOException error;
+    // the background thread
+    private final Thread thread;
+    private boolean closed;
+
+
+    /**
+     * Constructor.
+     *
+     * @param out
+     *          the writer to write the data to
+     */
+    public CsvSink(Writer out) {
+        this(out, DEFAULT_BLOCK_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out
+     *          the writer to write the data to
+     * @param blockSize
+     *          the size of a block (in chars)
+     * @param queueCapacity
+     *          the number of blocks waiting to be written
+     */
+    public CsvSink(Writer out, int blockSize, int queueCapacity) {
+        this.out = out;
+        this.filled = new ArrayBlockingQueue<Block>(queueCapacity + 1);
+        this.empty = new ArrayBlockingQueue<Block>(queueCapacity + 1);
+        for (int i = 0; i < queueCapacity; i++) {
+            this.empty.add(new Block(blockSize, false));
+        }
+        this.current = new Block(blockSize, false);
+        this.thread = new Thread(this::writeBlocks, "csv-sink");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        OPEN.add(this);
+    }
+
+
+    /**
+     * Flushes all sinks not yet closed (e.g., after data generation, see {@link #flush()}).
+     */
+    public static void flushAll() {
+        for (CsvSink sink : new ArrayList<CsvSink>(OPEN)) {
+            try {
+                sink.flush();
+            } catch (IOException e) {
+                logger.error(e);
+            }
+        }
+    }
+
+    /**
+     * Writes blocks until the last block (see {@link #close()}).
+     */
+    private void writeBlocks() {
+        try {
+            while (true) {
+                Block block = this.filled.take();
+                if (block.last) {
+                    return;
+                }
+                try {
+                    if (this.error == null) {
+                        this.out.write(block.chars, 0, block.length);
+                    }
+                } catch (IOException e) {
+                    this.error = e;
+                }
+                block.length = 0;
+                this.empty.add(block);
+                synchronized (this.progress) {
+                    this.written++;
+                    this.progress.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Submits the current block to the background thread, if not empty. If interrupted, the current block is kept
+     * (and submitted by the next write, flush, or close).
+     *
+     * @throws IOException
+     *          if interrupted while waiting for an empty block
+     */
+    private void submit() throws IOException {
+        if (this.current.length == 0) {
+            return;
+        }
+        Block next;
+        try {
+            next = this.empty.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing CSV data");
+        }
+        // all other blocks are either empty or waiting to be written: the queue cannot be full
+        synchronized (this.progress) {
+            this.filled.add(this.current);
+            this.submitted++;
+        }
+        this.current = next;
+    }
+
+    /**
+     * Waits until the background thread has written all submitted blocks.
+     *
+     * @throws IOException
+     *          if interrupted while waiting
+     */
+    private void await() throws IOException {
+        try {
+            synchronized (this.progress) {
+                while (this.written < this.submitted) {
+                    this.progress.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing CSV data");
+        }
+    }
+
+    /**
+     * Throws the error of the background thread, if any.
+     *
+     * @throws IOException
+     *          the error of the background thread
+     */
+    private void checkError() throws IOException {
+        if (this.error != null) {
+            throw this.error;
+        }
+    }
+
+    /**
+     * Checks whether the sink is open.
+     *
+     * @throws IOException
+     *          if the sink is closed
+     */
+    private void checkOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("CSV sink closed");
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#write(char[], int, int)
+     */
+    @Override
+    public synchronized void write(char[] cbuf, int off, int len) throws IOException {
+        checkOpen();
+        checkError();
+        while (len > 0) {
+            int n = Math.min(len, this.current.chars.length - this.current.length);
+            System.arraycopy(cbuf, off, this.current.chars, this.current.length, n);
+            this.current.length += n;
+            off += n;
+            len -= n;
+            if (this.current.length == this.current.chars.length) {
+                submit();
+            }
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#write(java.lang.String, int, int)
+     */
+    @Override
+    public synchronized void write(String str, int off, int len) throws IOException {
+        append(str, off, off + len);
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#append(java.lang.CharSequence)
+     */
+    @Override
+    public synchronized CsvSink append(CharSequence csq) throws IOException {
+        CharSequence cs = csq == null ? "null" : csq;
+        return append(cs, 0, cs.length());
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#append(java.lang.CharSequence, int, int)
+     */
+    @Override
+    public synchronized CsvSink append(CharSequence csq, int start, int end) throws IOException {
+        checkOpen();
+        checkError();
+        CharSequence cs = csq == null ? "null" : csq;
+        while (start < end) {
+            int n = Math.min(end - start, this.current.chars.length - this.current.length);
+            if (cs instanceof String) {
+                ((String) cs).getChars(start, start + n, this.current.chars, this.current.length);
+            } else if (cs instanceof StringBuilder) {
+                ((StringBuilder) cs).getChars(start, start + n, this.current.chars, this.current.length);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    this.current.chars[this.current.length + i] = cs.charAt(start + i);
+                }
+            }
+            this.current.length += n;
+            start += n;
+            if (this.current.length == this.current.chars.length) {
+                submit();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes all data to the other writer and flushes it: a durability point (e.g., after all simulations of a
+     * unique parameter combination).
+     *
+     * @throws IOException
+     *          if the data cannot be written
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        checkOpen();
+        submit();
+        await();
+        checkError();
+        this.out.flush();
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Writer#close()
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            this.closed = true;
+            OPEN.remove(this);
+            this.filled.add(new Block(0, true));
+            try {
+                this.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.out.close();
+        }
+    }
+
+}
@@ -34,6 +34,7 @@ import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.ExperimentParameters;
 import nl.uu.socnetid.nidm.data.out.LogValues;
 import nl.uu.socnetid.nidm.stats.AgentStatsPost;
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
 
 /**
  * @author Hendrik Nunner
@@ -90,6 +91,11 @@ public class ExperimentSimulationSummaryWriter extends CsvFileWriter<ExperimentP
         cols.add(LogValues.DV_NET_AV_PATHLENGTH_PRE.toString());
         cols.add(LogValues.DV_NET_AV_BETWEENNESS_PRE.toString());
         cols.add(LogValues.DV_NET_AV_CLOSENESS_PRE.toString());
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            cols.add(LogValues.DV_NET_AV_PATHLENGTH_ERROR_PRE.toString());
+            cols.add(LogValues.DV_NET_AV_BETWEENNESS_ERROR_PRE.toString());
+            cols.add(LogValues.DV_NET_AV_CLOSENESS_ERROR_PRE.toString());
+        }
         cols.add(LogValues.DV_NET_ASSORTATIVITY_RISK_PERCEPTION_PRE.toString());
         // index case
         cols.add(LogValues.DV_INDEX_DEGREE1.toString());
@@ -150,6 +156,11 @@ public class ExperimentSimulationSummaryWriter extends CsvFileWriter<ExperimentP
         currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvPathLength()));
         currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvBetweenness()));
         currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvCloseness()));
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvPathLengthError()));
+            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvBetweennessError()));
+            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvClosenessError()));
+        }
         currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityRiskPerception()));
         // index case
         currData.add(String.valueOf(this.dgData.getIndexCaseStats().getDegree1()));
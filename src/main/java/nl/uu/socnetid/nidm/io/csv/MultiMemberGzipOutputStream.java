@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io.csv;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A gzip-compressing stream writing a new gzip member after each flush. The data written up to each flush is hence
+ * a complete gzip file: it can be read (e.g., by {@link java.util.zip.GZIPInputStream} or gunzip, which read all
+ * members as a single stream), and it can be truncated to the length after a flush and appended to later (e.g., when
+ * resuming a parameter sweep, see {@link nl.uu.socnetid.nidm.io.generator.SweepJournal}). Flushing rarely (e.g., only
+ * at durability points, see {@link CsvSink#flush()}) keeps the members large and the compression ratio high.
+ *
+ * @author Hendrik Nunner
+ */
+public class MultiMemberGzipOutputStream extends FilterOutputStream {
+
+    // a single gzip member, releasing the compressor when finished
+    private static final class Member extends GZIPOutputStream {
+
+        private Member(OutputStream out, int size, int level) throws IOException {
+            super(out, size);
+            this.def.setLevel(level);
+        }
+
+        private void end() throws IOException {
+            finish();
+            this.def.end();
+        }
+    }
+
+    // the compression level (1-9)
+    private final int level;
+    // the size of the compression buffer
+    private final int bufferSize;
+    // the current member, null if no data has been written since the last flush
+    private Member member;
+
+
+    /**
+     * Constructor.
+     *
+     * @param out
+     *          the stream to write the compressed data to
+     * @param level
+     *          the compression level (1: fastest - 9: smallest)
+     * @param bufferSize
+     *          the size of the compression buffer
+     */
+    public MultiMemberGzipOutputStream(OutputStream out, int level, int bufferSize) {
+        super(out);
+        this.level = level;
+        this.bufferSize = bufferSize;
+    }
+
+
+    /**
+     * Gets the current member, starting a new member if necessary.
+     *
+     * @return the current member
+     * @throws IOException
+     *          if the header of a new member cannot be written
+     */
+    private Member member() throws IOException {
+        if (this.member == null) {
+            this.member = new Member(this.out, this.bufferSize, this.level);
+        }
+        return this.member;
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.FilterOutputStream#write(int)
+     */
+    @Override
+    public void write(int b) throws IOException {
+        member().write(b);
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.FilterOutputStream#write(byte[], int, int)
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        member().write(b, off, len);
+    }
+
+    /**
+     * Finishes the current member and flushes the underlying stream.
+     *
+     * @throws IOException
+     *          if the member cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.member != null) {
+            Member finished = this.member;
+            this.member = null;
+            finished.end();
+        }
+        this.out.flush();
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.FilterOutputStream#close()
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            this.out.close();
+        }
+    }
+
+}
@@ -26,6 +26,7 @@
 package nl.uu.socnetid.nidm.io.csv;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -37,6 +38,7 @@ import nl.uu.socnetid.nidm.data.out.NunnerBuskensParameters;
 import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
 import nl.uu.socnetid.nidm.stats.AgentStatsPost;
 import nl.uu.socnetid.nidm.stats.AgentStatsPre;
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
 
 /**
  * @author Hendrik Nunner
@@ -59,6 +61,18 @@ public class NunnerBuskensAgentDetailsWriterReduced extends CsvFileWriter<Nunner
         super(fileName, dgData);
     }
 
+    /**
+     * Creates the writer for data rows only, without column names.
+     *
+     * @param out
+     *          the writer to write the data rows to
+     * @param dgData
+     *          the data from the data generator to store
+     */
+    public NunnerBuskensAgentDetailsWriterReduced(Writer out, DataGeneratorData<NunnerBuskensParameters> dgData) {
+        super(out, dgData);
+    }
+
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.CSVFileWriter#initCols()
      */
@@ -72,16 +86,19 @@ public class NunnerBuskensAgentDetailsWriterReduced extends CsvFileWriter<Nunner
         cols.add(LogValues.IV_SIM_UPC.toString());
         cols.add(LogValues.IV_SIM_CNT.toString());
         cols.add(LogValues.IV_SIM_IT.toString());
+        cols.add(LogValues.IV_SIM_SEED.toString());
         cols.add(LogValues.IV_AGENT_ID.toString());
         // network (static / dynamic)
         cols.add(LogValues.IV_NB_EP_STRUCTURE.toString());
-        // varied model parameters
-        cols.add(LogValues.IV_NB_ALPHA.toString());
-        cols.add(LogValues.IV_NB_OMEGA.toString());
-        cols.add(LogValues.IV_NB_SIGMA.toString());
-        cols.add(LogValues.IV_NB_GAMMA.toString());
-        cols.add(LogValues.IV_NB_R_MIN.toString());
-        cols.add(LogValues.IV_NB_R_MAX.toString());
+        // varied model parameters, unless written to the parameters file
+        if (!PropertiesHandler.getInstance().isExportNormalized()) {
+            cols.add(LogValues.IV_NB_ALPHA.toString());
+            cols.add(LogValues.IV_NB_OMEGA.toString());
+            cols.add(LogValues.IV_NB_SIGMA.toString());
+            cols.add(LogValues.IV_NB_GAMMA.toString());
+            cols.add(LogValues.IV_NB_R_MIN.toString());
+            cols.add(LogValues.IV_NB_R_MAX.toString());
+        }
         cols.add(LogValues.IV_NB_R_SIGMA.toString());
         cols.add(LogValues.IV_NB_R_SIGMA_AV.toString());
         cols.add(LogValues.IV_NB_R_SIGMA_NEIGHBORHOOD.toString());
@@ -139,63 +156,66 @@ public class NunnerBuskensAgentDetailsWriterReduced extends CsvFileWriter<Nunner
 
         List<Agent> agents = this.dgData.getAgents();
         Collections.sort(agents);
+        boolean normalized = PropertiesHandler.getInstance().isExportNormalized();
 
         for (Agent agent : agents) {
 
-            // a single CSV row
-            List<String> currData = new LinkedList<String>();
+            // a single CSV row, written value by value
 
             // INDEPENDENT VARIABLES
             // simulation
-            currData.add(this.dgData.getSimStats().getUid());
-            currData.add(String.valueOf(this.dgData.getSimStats().getUpc()));
-            currData.add(String.valueOf(this.dgData.getSimStats().getSimPerUpc()));
-            currData.add(String.valueOf(this.dgData.getSimStats().getSimIt()));
-            currData.add(agent.getId());
+            value(this.dgData.getSimStats().getUid());
+            value(this.dgData.getSimStats().getUpc());
+            value(this.dgData.getSimStats().getSimPerUpc());
+            value(this.dgData.getSimStats().getSimIt());
+            value(this.dgData.getSimStats().getSeed());
+            value(agent.getId());
             // network (static / dynamic)
-            currData.add(this.dgData.getUtilityModelParams().getCurrEpStructure().toString());
-            // varied model parameters
-            currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrAlpha()));
-            currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrOmega()));
-            currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrSigma()));
-            currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrGamma()));
-            currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrRMin()));
-            currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrRMax()));
-            currData.add(String.valueOf(agent.getRSigma()));
-            currData.add(String.valueOf(this.dgData.getUtilityModelParams().getRSigmaAv()));
-            currData.add(String.valueOf(agent.getRSigmaNeighborhood()));
+            value(this.dgData.getUtilityModelParams().getCurrEpStructure().toString());
+            // varied model parameters, unless written to the parameters file
+            if (!normalized) {
+                value(this.dgData.getUtilityModelParams().getCurrAlpha());
+                value(this.dgData.getUtilityModelParams().getCurrOmega());
+                value(this.dgData.getUtilityModelParams().getCurrSigma());
+                value(this.dgData.getUtilityModelParams().getCurrGamma());
+                value(this.dgData.getUtilityModelParams().getCurrRMin());
+                value(this.dgData.getUtilityModelParams().getCurrRMax());
+            }
+            value(agent.getRSigma());
+            value(this.dgData.getUtilityModelParams().getRSigmaAv());
+            value(agent.getRSigmaNeighborhood());
 
             // PRE-EPIDEMIC
             // network
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvDegree()));
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvClustering()));
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvPathLength()));
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvBetweenness()));
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvCloseness()));
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityRiskPerception()));
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityAge()));
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityProfession()));
-            currData.add(String.valueOf(this.dgData.getNetStatsPre().isStable() ? 1 : 0));
+            value(this.dgData.getNetStatsPre().getAvDegree());
+            value(this.dgData.getNetStatsPre().getAvClustering());
+            value(this.dgData.getNetStatsPre().getAvPathLength());
+            value(this.dgData.getNetStatsPre().getAvBetweenness());
+            value(this.dgData.getNetStatsPre().getAvCloseness());
+            value(this.dgData.getNetStatsPre().getAssortativityRiskPerception());
+            value(this.dgData.getNetStatsPre().getAssortativityAge());
+            value(this.dgData.getNetStatsPre().getAssortativityProfession());
+            value(this.dgData.getNetStatsPre().isStable() ? 1 : 0);
             // index case
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getDegree1()));
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getClustering()));
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getBetweennessNormalized()));
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityRiskPerception()));
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityAge()));
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityProfession()));
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getCloseness()));
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getrSigma()));
-            currData.add(String.valueOf(this.dgData.getIndexCaseStats().getrSigmaNeighborhood()));
+            value(this.dgData.getIndexCaseStats().getDegree1());
+            value(this.dgData.getIndexCaseStats().getClustering());
+            value(this.dgData.getIndexCaseStats().getBetweennessNormalized());
+            value(this.dgData.getIndexCaseStats().getAssortativityRiskPerception());
+            value(this.dgData.getIndexCaseStats().getAssortativityAge());
+            value(this.dgData.getIndexCaseStats().getAssortativityProfession());
+            value(this.dgData.getIndexCaseStats().getCloseness());
+            value(this.dgData.getIndexCaseStats().getrSigma());
+            value(this.dgData.getIndexCaseStats().getrSigmaNeighborhood());
             // agent
             AgentStatsPre agentStatsPre = this.dgData.getAgentStatsPre().get(agent.getId());
-            currData.add(String.valueOf(agentStatsPre.getDegree1()));
-            currData.add(String.valueOf(agentStatsPre.getClustering()));
-            currData.add(String.valueOf(agentStatsPre.getBetweennessNormalized()));
-            currData.add(String.valueOf(agentStatsPre.getAssortativityRiskPerception()));
-            currData.add(String.valueOf(agentStatsPre.getAssortativityAge()));
-            currData.add(String.valueOf(agentStatsPre.getAssortativityProfession()));
-            currData.add(String.valueOf(agentStatsPre.getCloseness()));
-            currData.add(String.valueOf(agentStatsPre.getIndexCaseDistance()));
+            value(agentStatsPre.getDegree1());
+            value(agentStatsPre.getClustering());
+            value(agentStatsPre.getBetweennessNormalized());
+            value(agentStatsPre.getAssortativityRiskPerception());
+            value(agentStatsPre.getAssortativityAge());
+            value(agentStatsPre.getAssortativityProfession());
+            value(agentStatsPre.getCloseness());
+            value(agentStatsPre.getIndexCaseDistance());
 
             // POST-EPIDEMIC
             // agent
@@ -214,18 +234,18 @@ public class NunnerBuskensAgentDetailsWriterReduced extends CsvFileWriter<Nunner
                     throw new RuntimeException("Invalid epidemic structure: "
                 + this.dgData.getUtilityModelParams().getEpStructure());
             }
-            currData.add(agentStatsPost.getDiseaseGroup() == DiseaseGroup.INFECTED
-                    || agentStatsPost.getDiseaseGroup() == DiseaseGroup.RECOVERED ? "1" : "0");
-            currData.add(agentStatsPost.isForceInfected() ? "1" : "0");
-
-            currData.add(String.valueOf(agentStatsPost.getBrokenTiesActiveEpidemic()));
-            currData.add(String.valueOf(agentStatsPost.getBrokenTiesPassiveEpidemic()));
-            currData.add(String.valueOf(agentStatsPost.getAcceptedRequestsOutEpidemic()));
-            currData.add(String.valueOf(agentStatsPost.getDeclinedRequestsOutEpidemic()));
-            currData.add(String.valueOf(agentStatsPost.getAcceptedRequestsInEpidemic()));
-            currData.add(String.valueOf(agentStatsPost.getDeclinedRequestsInEpidemic()));
-
-            writeLine(currData);
+            value(agentStatsPost.getDiseaseGroup() == DiseaseGroup.INFECTED
+                    || agentStatsPost.getDiseaseGroup() == DiseaseGroup.RECOVERED);
+            value(agentStatsPost.isForceInfected());
+
+            value(agentStatsPost.getBrokenTiesActiveEpidemic());
+            value(agentStatsPost.getBrokenTiesPassiveEpidemic());
+            value(agentStatsPost.getAcceptedRequestsOutEpidemic());
+            value(agentStatsPost.getDeclinedRequestsOutEpidemic());
+            value(agentStatsPost.getAcceptedRequestsInEpidemic());
+            value(agentStatsPost.getDeclinedRequestsInEpidemic());
+
+            endRow();
         }
 
     }
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedList;
+import java.util.List;
+
+import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
+import nl.uu.socnetid.nidm.data.out.LogValues;
+import nl.uu.socnetid.nidm.data.out.NunnerBuskensParameters;
+
+/**
+ * Writes the parameters of unique parameter combinations of parameter sweeps, once per combination, for data files
+ * in normalized layout (see {@link nl.uu.socnetid.nidm.system.PropertiesHandler#isExportNormalized()}). Risk
+ * perceptions drawn randomly are written as NA, as they are drawn for each simulation.
+ *
+ * @author Hendrik Nunner
+ */
+public class NunnerBuskensParametersWriter extends CsvFileWriter<NunnerBuskensParameters> {
+
+    /**
+     * Creates the writer.
+     *
+     * @param fileName
+     *          the name of the file to store the data to
+     * @param dgData
+     *          the data from the data generator to store
+     * @throws IOException
+     *          if the named file exists but is a directory rather
+     *          than a regular file, does not exist but cannot be
+     *          created, or cannot be opened for any other reason
+     */
+    public NunnerBuskensParametersWriter(String fileName, DataGeneratorData<NunnerBuskensParameters> dgData)
+            throws IOException {
+        super(fileName, dgData);
+    }
+
+    /**
+     * Creates the writer for data rows only, without column names.
+     *
+     * @param out
+     *          the writer to write the data rows to
+     * @param dgData
+     *          the data from the data generator to store
+     */
+    public NunnerBuskensParametersWriter(Writer out, DataGeneratorData<NunnerBuskensParameters> dgData) {
+        super(out, dgData);
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.io.CSVFileWriter#initCols()
+     */
+    @Override
+    protected void initCols() {
+        List<String> cols = new LinkedList<String>();
+
+        // simulation
+        cols.add(LogValues.IV_SIM_UPC.toString());
+        // network (static / dynamic)
+        cols.add(LogValues.IV_NB_EP_STRUCTURE.toString());
+        // model parameters
+        cols.add(LogValues.IV_NB_B1.toString());
+        cols.add(LogValues.IV_NB_B2.toString());
+        cols.add(LogValues.IV_NB_ALPHA.toString());
+        cols.add(LogValues.IV_NB_C1.toString());
+        cols.add(LogValues.IV_NB_C2.toString());
+        cols.add(LogValues.IV_NB_SIGMA.toString());
+        cols.add(LogValues.IV_NB_GAMMA.toString());
+        cols.add(LogValues.IV_NB_TAU.toString());
+        cols.add(LogValues.IV_NB_R_MIN.toString());
+        cols.add(LogValues.IV_NB_R_MAX.toString());
+        cols.add(LogValues.IV_NB_RS_EQUAL.toString());
+        cols.add(LogValues.IV_NB_R_SIGMA.toString());
+        cols.add(LogValues.IV_NB_R_SIGMA_RANDOM_HOMOGENEOUS.toString());
+        cols.add(LogValues.IV_NB_R_PI.toString());
+        cols.add(LogValues.IV_NB_R_PI_RANDOM_HOMOGENEOUS.toString());
+        cols.add(LogValues.IV_NB_NET_SIZE.toString());
+        cols.add(LogValues.IV_NB_IOTA.toString());
+        cols.add(LogValues.IV_NB_PHI.toString());
+        cols.add(LogValues.IV_NB_OMEGA.toString());
+
+        writeLine(cols);
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.io.CSVFileWriter#writeCurrentData()
+     */
+    @Override
+    public void writeCurrentData() {
+        NunnerBuskensParameters params = this.dgData.getUtilityModelParams();
+
+        // simulation
+        value(this.dgData.getSimStats().getUpc());
+        // network (static / dynamic)
+        value(params.getEpStructure().toString());
+        // model parameters
+        value(params.getCurrB1());
+        value(params.getCurrB2());
+        value(params.getCurrAlpha());
+        value(params.getCurrC1());
+        value(params.getCurrC2());
+        value(params.getCurrSigma());
+        value(params.getCurrGamma());
+        value(params.getCurrTau());
+        value(params.getCurrRMin());
+        value(params.getCurrRMax());
+        value(params.isRsEqual());
+        // risk perceptions: equal to each other, or drawn randomly
+        boolean rSigmaRandom = params.isRSigmaRandom();
+        if (rSigmaRandom) {
+            value((String) null);
+            value(params.isCurrRSigmaRandomHomogeneous());
+        } else {
+            value(params.getCurrRSigma());
+            value((String) null);
+        }
+        boolean rPiRandom = params.isRsEqual() ? rSigmaRandom : params.isRPiRandom();
+        if (rPiRandom) {
+            value((String) null);
+            value(params.isRsEqual() ? params.isCurrRSigmaRandomHomogeneous() : params.isCurrRPiRandomHomogeneous());
+        } else {
+            value(params.isRsEqual() ? params.getCurrRSigma() : params.getCurrRPi());
+            value((String) null);
+        }
+        value(params.getCurrN());
+        value(params.isCurrIota());
+        value(params.getCurrPhi());
+        value(params.getCurrOmega());
+
+        endRow();
+    }
+
+}
@@ -26,11 +26,13 @@
 package nl.uu.socnetid.nidm.io.csv;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.LogValues;
 import nl.uu.socnetid.nidm.data.out.NunnerBuskensParameters;
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
 
 /**
  * @author Hendrik Nunner
@@ -53,6 +55,18 @@ public class NunnerBuskensRoundSummaryWriter extends RoundSummaryWriter<NunnerBu
         super(fileName, dgData);
     }
 
+    /**
+     * Creates the writer for data rows only, without column names.
+     *
+     * @param out
+     *          the writer to write the data rows to
+     * @param dgData
+     *          the data from the data generator to store
+     */
+    public NunnerBuskensRoundSummaryWriter(Writer out, DataGeneratorData<NunnerBuskensParameters> dgData) {
+        super(out, dgData);
+    }
+
 
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.RoundSummaryWriter#addModelColumns(List<String> cols)
@@ -60,6 +74,12 @@ public class NunnerBuskensRoundSummaryWriter extends RoundSummaryWriter<NunnerBu
     @Override
     protected List<String> addModelColumns(List<String> cols) {
         cols.add(LogValues.IV_NB_EP_STRUCTURE.toString());
+        // parameters of the unique parameter combination in the parameters file, if normalized
+        if (PropertiesHandler.getInstance().isExportNormalized()) {
+            cols.add(LogValues.IV_NB_R_SIGMA_AV.toString());
+            cols.add(LogValues.IV_NB_R_PI_AV.toString());
+            return cols;
+        }
         cols.add(LogValues.IV_NB_ALPHA.toString());
         cols.add(LogValues.IV_NB_SIGMA.toString());
         cols.add(LogValues.IV_NB_RS_EQUAL.toString());
@@ -70,18 +90,23 @@ public class NunnerBuskensRoundSummaryWriter extends RoundSummaryWriter<NunnerBu
     }
 
     /* (non-Javadoc)
-     * @see nl.uu.socnetid.nidm.io.RoundSummaryWriter#addCurrModelData(List<String> currData)
+     * @see nl.uu.socnetid.nidm.io.RoundSummaryWriter#addCurrModelData()
      */
     @Override
-    protected List<String> addCurrModelData(List<String> currData) {
-        currData.add(this.dgData.getUtilityModelParams().getCurrEpStructure().toString());
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrAlpha()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrSigma()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().isRsEqual() ? 1 : 0));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getRSigmaAv()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getRPiAv()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrOmega()));
-        return currData;
+    protected void addCurrModelData() {
+        value(this.dgData.getUtilityModelParams().getCurrEpStructure().toString());
+        // parameters of the unique parameter combination in the parameters file, if normalized
+        if (PropertiesHandler.getInstance().isExportNormalized()) {
+            value(this.dgData.getUtilityModelParams().getRSigmaAv());
+            value(this.dgData.getUtilityModelParams().getRPiAv());
+            return;
+        }
+        value(this.dgData.getUtilityModelParams().getCurrAlpha());
+        value(this.dgData.getUtilityModelParams().getCurrSigma());
+        value(this.dgData.getUtilityModelParams().isRsEqual() ? 1 : 0);
+        value(this.dgData.getUtilityModelParams().getRSigmaAv());
+        value(this.dgData.getUtilityModelParams().getRPiAv());
+        value(this.dgData.getUtilityModelParams().getCurrOmega());
     }
 
 }
@@ -86,33 +86,31 @@ public class NunnerBuskensSimulationSummaryWriter extends SimulationSummaryWrite
     }
 
     /* (non-Javadoc)
-     * @see nl.uu.socnetid.nidm.io.SimulationSummaryWriter#addCurrModelData(List<String> currData)
+     * @see nl.uu.socnetid.nidm.io.SimulationSummaryWriter#addCurrModelData()
      */
     @Override
-    protected List<String> addCurrModelData(List<String> currData) {
-        currData.add(this.dgData.getUtilityModelParams().getEpStructure().toString());
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrB1()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrB2()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrAlpha()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrC1()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrC2()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrN()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().isCurrIota() ? 1 : 0));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrPhi()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrPsi()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrXi()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrOmega()));
+    protected void addCurrModelData() {
+        value(this.dgData.getUtilityModelParams().getEpStructure().toString());
+//        value(this.dgData.getUtilityModelParams().getCurrB1());
+//        value(this.dgData.getUtilityModelParams().getCurrB2());
+        value(this.dgData.getUtilityModelParams().getCurrAlpha());
+//        value(this.dgData.getUtilityModelParams().getCurrC1());
+//        value(this.dgData.getUtilityModelParams().getCurrC2());
+//        value(this.dgData.getUtilityModelParams().getCurrN());
+//        value(this.dgData.getUtilityModelParams().isCurrIota() ? 1 : 0);
+//        value(this.dgData.getUtilityModelParams().getCurrPhi());
+//        value(this.dgData.getUtilityModelParams().getCurrPsi());
+//        value(this.dgData.getUtilityModelParams().getCurrXi());
+        value(this.dgData.getUtilityModelParams().getCurrOmega());
 
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrSigma()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrGamma()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrTau()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrRMin()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrRMax()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().isRsEqual() ? 1 : 0));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getRSigmaAv()));
-//        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getRPiAv()));
-
-        return currData;
+        value(this.dgData.getUtilityModelParams().getCurrSigma());
+        value(this.dgData.getUtilityModelParams().getCurrGamma());
+//        value(this.dgData.getUtilityModelParams().getCurrTau());
+        value(this.dgData.getUtilityModelParams().getCurrRMin());
+        value(this.dgData.getUtilityModelParams().getCurrRMax());
+//        value(this.dgData.getUtilityModelParams().isRsEqual() ? 1 : 0);
+        value(this.dgData.getUtilityModelParams().getRSigmaAv());
+//        value(this.dgData.getUtilityModelParams().getRPiAv());
     }
 
 }
@@ -26,6 +26,7 @@
 package nl.uu.socnetid.nidm.io.csv;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
@@ -34,6 +35,7 @@ import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.LogValues;
 import nl.uu.socnetid.nidm.data.out.NunnerBuskensParameters;
 import nl.uu.socnetid.nidm.stats.AgentStatsPost;
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
 
 /**
  * @author Hendrik Nunner
@@ -57,6 +59,18 @@ public class NunnerBuskensSimulationSummaryWriterReduced extends CsvFileWriter<N
         super(fileName, dgData);
     }
 
+    /**
+     * Creates the writer for data rows only, without column names.
+     *
+     * @param out
+     *          the writer to write the data rows to
+     * @param dgData
+     *          the data from the data generator to store
+     */
+    public NunnerBuskensSimulationSummaryWriterReduced(Writer out, DataGeneratorData<NunnerBuskensParameters> dgData) {
+        super(out, dgData);
+    }
+
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.CSVFileWriter#initCols()
      */
@@ -70,15 +84,19 @@ public class NunnerBuskensSimulationSummaryWriterReduced extends CsvFileWriter<N
         cols.add(LogValues.IV_SIM_UPC.toString());
         cols.add(LogValues.IV_SIM_CNT.toString());
         cols.add(LogValues.IV_SIM_IT.toString());
-        // network (static / dynamic)
-        cols.add(LogValues.IV_NB_EP_STRUCTURE.toString());
-        // varied model parameters
-        cols.add(LogValues.IV_NB_ALPHA.toString());
-        cols.add(LogValues.IV_NB_OMEGA.toString());
-        cols.add(LogValues.IV_NB_SIGMA.toString());
-        cols.add(LogValues.IV_NB_GAMMA.toString());
-        cols.add(LogValues.IV_NB_R_MIN.toString());
-        cols.add(LogValues.IV_NB_R_MAX.toString());
+        cols.add(LogValues.IV_SIM_SEED.toString());
+        // parameters of the unique parameter combination, unless written to the parameters file
+        if (!PropertiesHandler.getInstance().isExportNormalized()) {
+            // network (static / dynamic)
+            cols.add(LogValues.IV_NB_EP_STRUCTURE.toString());
+            // varied model parameters
+            cols.add(LogValues.IV_NB_ALPHA.toString());
+            cols.add(LogValues.IV_NB_OMEGA.toString());
+            cols.add(LogValues.IV_NB_SIGMA.toString());
+            cols.add(LogValues.IV_NB_GAMMA.toString());
+            cols.add(LogValues.IV_NB_R_MIN.toString());
+            cols.add(LogValues.IV_NB_R_MAX.toString());
+        }
         cols.add(LogValues.IV_NB_R_SIGMA_AV.toString());
 
         // PRE-EPIDEMIC
@@ -88,6 +106,11 @@ public class NunnerBuskensSimulationSummaryWriterReduced extends CsvFileWriter<N
         cols.add(LogValues.DV_NET_AV_PATHLENGTH_PRE.toString());
         cols.add(LogValues.DV_NET_AV_BETWEENNESS_PRE.toString());
         cols.add(LogValues.DV_NET_AV_CLOSENESS_PRE.toString());
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            cols.add(LogValues.DV_NET_AV_PATHLENGTH_ERROR_PRE.toString());
+            cols.add(LogValues.DV_NET_AV_BETWEENNESS_ERROR_PRE.toString());
+            cols.add(LogValues.DV_NET_AV_CLOSENESS_ERROR_PRE.toString());
+        }
         cols.add(LogValues.DV_NET_ASSORTATIVITY_RISK_PERCEPTION_PRE.toString());
         cols.add(LogValues.DV_NET_ASSORTATIVITY_AGE_PRE.toString());
         cols.add(LogValues.DV_NET_ASSORTATIVITY_PROFESSION_PRE.toString());
@@ -139,54 +162,61 @@ public class NunnerBuskensSimulationSummaryWriterReduced extends CsvFileWriter<N
      */
     @Override
     public void writeCurrentData() {
-        List<String> currData = new LinkedList<String>();
-
 
         // simulation
-        currData.add(this.dgData.getSimStats().getUid());
-        currData.add(String.valueOf(this.dgData.getSimStats().getUpc()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getSimPerUpc()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getSimIt()));
-        // network (static / dynamic)
-        currData.add(this.dgData.getUtilityModelParams().getEpStructure().toString());
-        // varied model parameters
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrAlpha()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrOmega()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrSigma()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrGamma()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrRMin()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getCurrRMax()));
-        currData.add(String.valueOf(this.dgData.getUtilityModelParams().getRSigmaAv()));
+        value(this.dgData.getSimStats().getUid());
+        value(this.dgData.getSimStats().getUpc());
+        value(this.dgData.getSimStats().getSimPerUpc());
+        value(this.dgData.getSimStats().getSimIt());
+        value(this.dgData.getSimStats().getSeed());
+        // parameters of the unique parameter combination, unless written to the parameters file
+        if (!PropertiesHandler.getInstance().isExportNormalized()) {
+            // network (static / dynamic)
+            value(this.dgData.getUtilityModelParams().getEpStructure().toString());
+            // varied model parameters
+            value(this.dgData.getUtilityModelParams().getCurrAlpha());
+            value(this.dgData.getUtilityModelParams().getCurrOmega());
+            value(this.dgData.getUtilityModelParams().getCurrSigma());
+            value(this.dgData.getUtilityModelParams().getCurrGamma());
+            value(this.dgData.getUtilityModelParams().getCurrRMin());
+            value(this.dgData.getUtilityModelParams().getCurrRMax());
+        }
+        value(this.dgData.getUtilityModelParams().getRSigmaAv());
 
         // PRE-EPIDEMIC
         // network
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvDegree()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvClustering()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvPathLength()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvBetweenness()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvCloseness()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityRiskPerception()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityAge()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityProfession()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().isStable() ? 1 : 0));
+        value(this.dgData.getNetStatsPre().getAvDegree());
+        value(this.dgData.getNetStatsPre().getAvClustering());
+        value(this.dgData.getNetStatsPre().getAvPathLength());
+        value(this.dgData.getNetStatsPre().getAvBetweenness());
+        value(this.dgData.getNetStatsPre().getAvCloseness());
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            value(this.dgData.getNetStatsPre().getAvPathLengthError());
+            value(this.dgData.getNetStatsPre().getAvBetweennessError());
+            value(this.dgData.getNetStatsPre().getAvClosenessError());
+        }
+        value(this.dgData.getNetStatsPre().getAssortativityRiskPerception());
+        value(this.dgData.getNetStatsPre().getAssortativityAge());
+        value(this.dgData.getNetStatsPre().getAssortativityProfession());
+        value(this.dgData.getNetStatsPre().isStable() ? 1 : 0);
         // index case
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getDegree1()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getClustering()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getBetweennessNormalized()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityRiskPerception()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityAge()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityProfession()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getCloseness()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getrSigma()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getrSigmaNeighborhood()));
+        value(this.dgData.getIndexCaseStats().getDegree1());
+        value(this.dgData.getIndexCaseStats().getClustering());
+        value(this.dgData.getIndexCaseStats().getBetweennessNormalized());
+        value(this.dgData.getIndexCaseStats().getAssortativityRiskPerception());
+        value(this.dgData.getIndexCaseStats().getAssortativityAge());
+        value(this.dgData.getIndexCaseStats().getAssortativityProfession());
+        value(this.dgData.getIndexCaseStats().getCloseness());
+        value(this.dgData.getIndexCaseStats().getrSigma());
+        value(this.dgData.getIndexCaseStats().getrSigmaNeighborhood());
 
         // POST-EDIDEMIC
         // static
-        currData.add(String.valueOf(this.dgData.getNetStatsPostStatic().getRecoveredPercent()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPostStatic().getInfectedPercent()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicDurationStatic()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicPeakStatic()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicPeakSizeStatic()));
+        value(this.dgData.getNetStatsPostStatic().getRecoveredPercent());
+        value(this.dgData.getNetStatsPostStatic().getInfectedPercent());
+        value(this.dgData.getSimStats().getEpidemicDurationStatic());
+        value(this.dgData.getSimStats().getEpidemicPeakStatic());
+        value(this.dgData.getSimStats().getEpidemicPeakSizeStatic());
 
         int brokenTiesActiveEpidemic = 0;
         int brokenTiesPassiveEpidemic = 0;
@@ -203,19 +233,19 @@ public class NunnerBuskensSimulationSummaryWriterReduced extends CsvFileWriter<N
             acceptedRequestsInEpidemic += agentStats.getAcceptedRequestsInEpidemic();
             declinedRequestsInEpidemic += agentStats.getDeclinedRequestsInEpidemic();
         }
-        currData.add(String.valueOf(brokenTiesActiveEpidemic));
-        currData.add(String.valueOf(brokenTiesPassiveEpidemic));
-        currData.add(String.valueOf(acceptedRequestsOutEpidemic));
-        currData.add(String.valueOf(declinedRequestsOutEpidemic));
-        currData.add(String.valueOf(acceptedRequestsInEpidemic));
-        currData.add(String.valueOf(declinedRequestsInEpidemic));
+        value(brokenTiesActiveEpidemic);
+        value(brokenTiesPassiveEpidemic);
+        value(acceptedRequestsOutEpidemic);
+        value(declinedRequestsOutEpidemic);
+        value(acceptedRequestsInEpidemic);
+        value(declinedRequestsInEpidemic);
 
         // dynamic
-        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getRecoveredPercent()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getInfectedPercent()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicDurationDynamic()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicPeakDynamic()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicPeakSizeDynamic()));
+        value(this.dgData.getNetStatsPostDynamic().getRecoveredPercent());
+        value(this.dgData.getNetStatsPostDynamic().getInfectedPercent());
+        value(this.dgData.getSimStats().getEpidemicDurationDynamic());
+        value(this.dgData.getSimStats().getEpidemicPeakDynamic());
+        value(this.dgData.getSimStats().getEpidemicPeakSizeDynamic());
 
         brokenTiesActiveEpidemic = 0;
         brokenTiesPassiveEpidemic = 0;
@@ -232,14 +262,14 @@ public class NunnerBuskensSimulationSummaryWriterReduced extends CsvFileWriter<N
             acceptedRequestsInEpidemic += agentStats.getAcceptedRequestsInEpidemic();
             declinedRequestsInEpidemic += agentStats.getDeclinedRequestsInEpidemic();
         }
-        currData.add(String.valueOf(brokenTiesActiveEpidemic));
-        currData.add(String.valueOf(brokenTiesPassiveEpidemic));
-        currData.add(String.valueOf(acceptedRequestsOutEpidemic));
-        currData.add(String.valueOf(declinedRequestsOutEpidemic));
-        currData.add(String.valueOf(acceptedRequestsInEpidemic));
-        currData.add(String.valueOf(declinedRequestsInEpidemic));
-
-        writeLine(currData);
+        value(brokenTiesActiveEpidemic);
+        value(brokenTiesPassiveEpidemic);
+        value(acceptedRequestsOutEpidemic);
+        value(declinedRequestsOutEpidemic);
+        value(acceptedRequestsInEpidemic);
+        value(declinedRequestsInEpidemic);
+
+        endRow();
     }
 
 }
@@ -26,12 +26,14 @@
 package nl.uu.socnetid.nidm.io.csv;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.LinkedList;
 import java.util.List;
 
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.LogValues;
 import nl.uu.socnetid.nidm.data.out.UtilityModelParameters;
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
 
 /**
  * @author Hendrik Nunner
@@ -57,6 +59,18 @@ public abstract class RoundSummaryWriter<UMP extends UtilityModelParameters> ext
         super(fileName, dgData);
     }
 
+    /**
+     * Creates the writer for data rows only, without column names.
+     *
+     * @param out
+     *          the writer to write the data rows to
+     * @param dgData
+     *          the data from the data generator to store
+     */
+    public RoundSummaryWriter(Writer out, DataGeneratorData<UMP> dgData) {
+        super(out, dgData);
+    }
+
 
     /**
      * Adds columns specific for the model implementation.
@@ -68,13 +82,9 @@ public abstract class RoundSummaryWriter<UMP extends UtilityModelParameters> ext
     protected abstract List<String> addModelColumns(List<String> cols);
 
     /**
-     * Adds current data specific for the model implementation.
-     *
-     * @param currData
-     *          the list of current data to add to
-     * @return the list with the added data
+     * Adds current data specific for the model implementation to the current row (see {@link #value(String)}).
      */
-    protected abstract List<String> addCurrModelData(List<String> currData);
+    protected abstract void addCurrModelData();
 
 
     /* (non-Javadoc)
@@ -90,6 +100,7 @@ public abstract class RoundSummaryWriter<UMP extends UtilityModelParameters> ext
         cols.add(LogValues.IV_SIM_UPC.toString());
         cols.add(LogValues.IV_SIM_CNT.toString());
         cols.add(LogValues.IV_SIM_IT.toString());
+        cols.add(LogValues.IV_SIM_SEED.toString());
         cols.add(LogValues.IV_SIM_ROUND.toString());
 
         // model specific columns
@@ -104,6 +115,11 @@ public abstract class RoundSummaryWriter<UMP extends UtilityModelParameters> ext
         cols.add(LogValues.DV_NET_AV_PATHLENGTH.toString());
         cols.add(LogValues.DV_NET_AV_BETWEENNESS.toString());
         cols.add(LogValues.DV_NET_AV_CLOSENESS.toString());
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            cols.add(LogValues.DV_NET_AV_PATHLENGTH_ERROR.toString());
+            cols.add(LogValues.DV_NET_AV_BETWEENNESS_ERROR.toString());
+            cols.add(LogValues.DV_NET_AV_CLOSENESS_ERROR.toString());
+        }
         cols.add(LogValues.DV_NET_ASSORTATIVITY_RISK_PERCEPTION.toString());
         cols.add(LogValues.DV_NET_ASSORTATIVITY_AGE.toString());
         cols.add(LogValues.DV_NET_ASSORTATIVITY_PROFESSION.toString());
@@ -128,44 +144,48 @@ public abstract class RoundSummaryWriter<UMP extends UtilityModelParameters> ext
      */
     @Override
     public void writeCurrentData() {
-        List<String> currData = new LinkedList<String>();
-
         // PARAMETERS
         // simulation
-        currData.add(this.dgData.getSimStats().getUid());
-        currData.add(String.valueOf(this.dgData.getSimStats().getUpc()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getSimPerUpc()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getSimIt()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getRounds()));
+        value(this.dgData.getSimStats().getUid());
+        value(this.dgData.getSimStats().getUpc());
+        value(this.dgData.getSimStats().getSimPerUpc());
+        value(this.dgData.getSimStats().getSimIt());
+        value(this.dgData.getSimStats().getSeed());
+        value(this.dgData.getSimStats().getRounds());
 
         // model specific data
-        currData = addCurrModelData(currData);
+        addCurrModelData();
 
         // PROPERTIES
         // simulation
-        currData.add(String.valueOf(this.dgData.getSimStats().getSimStage()));
+        value(this.dgData.getSimStats().getSimStage());
         // network
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAvDegree()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAvClustering()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAvPathLength(this.dgData.getSimStats().getCurrRound())));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAvBetweenness(this.dgData.getSimStats().getCurrRound())));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAvCloseness(this.dgData.getSimStats().getCurrRound())));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAssortativityRiskPerception()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAssortativityAge()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getAssortativityProfession()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getSusceptiblePercent()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getInfectedPercent()));
-        currData.add(String.valueOf(this.dgData.getNetStatsCurrent().getRecoveredPercent()));
+        value(this.dgData.getNetStatsCurrent().getAvDegree());
+        value(this.dgData.getNetStatsCurrent().getAvClustering());
+        value(this.dgData.getNetStatsCurrent().getAvPathLength(this.dgData.getSimStats().getCurrRound()));
+        value(this.dgData.getNetStatsCurrent().getAvBetweenness(this.dgData.getSimStats().getCurrRound()));
+        value(this.dgData.getNetStatsCurrent().getAvCloseness(this.dgData.getSimStats().getCurrRound()));
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            value(this.dgData.getNetStatsCurrent().getAvPathLengthError());
+            value(this.dgData.getNetStatsCurrent().getAvBetweennessError());
+            value(this.dgData.getNetStatsCurrent().getAvClosenessError());
+        }
+        value(this.dgData.getNetStatsCurrent().getAssortativityRiskPerception());
+        value(this.dgData.getNetStatsCurrent().getAssortativityAge());
+        value(this.dgData.getNetStatsCurrent().getAssortativityProfession());
+        value(this.dgData.getNetStatsCurrent().getSusceptiblePercent());
+        value(this.dgData.getNetStatsCurrent().getInfectedPercent());
+        value(this.dgData.getNetStatsCurrent().getRecoveredPercent());
         // index case
-        currData.add(String.valueOf(this.dgData.getIndexCaseStatsCurrent().getDegree1()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStatsCurrent().getClustering()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStatsCurrent().getBetweennessNormalized()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStatsCurrent().getCloseness()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStatsCurrent().getAssortativityRiskPerception()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStatsCurrent().getAssortativityAge()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStatsCurrent().getAssortativityProfession()));
-
-        writeLine(currData);
+        value(this.dgData.getIndexCaseStatsCurrent().getDegree1());
+        value(this.dgData.getIndexCaseStatsCurrent().getClustering());
+        value(this.dgData.getIndexCaseStatsCurrent().getBetweennessNormalized());
+        value(this.dgData.getIndexCaseStatsCurrent().getCloseness());
+        value(this.dgData.getIndexCaseStatsCurrent().getAssortativityRiskPerception());
+        value(this.dgData.getIndexCaseStatsCurrent().getAssortativityAge());
+        value(this.dgData.getIndexCaseStatsCurrent().getAssortativityProfession());
+
+        endRow();
     }
 
 }
@@ -32,6 +32,7 @@ import java.util.List;
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.LogValues;
 import nl.uu.socnetid.nidm.data.out.UtilityModelParameters;
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
 
 /**
  * @author Hendrik Nunner
@@ -67,13 +68,9 @@ public abstract class SimulationSummaryWriter<UMP extends UtilityModelParameters
     protected abstract List<String> addModelColumns(List<String> cols);
 
     /**
-     * Adds current data specific for the model implementation.
-     *
-     * @param currData
-     *          the list of current data to add to
-     * @return the list with the added data
+     * Adds current data specific for the model implementation to the current row (see {@link #value(String)}).
      */
-    protected abstract List<String> addCurrModelData(List<String> currData);
+    protected abstract void addCurrModelData();
 
 
     /* (non-Javadoc)
@@ -90,6 +87,7 @@ public abstract class SimulationSummaryWriter<UMP extends UtilityModelParameters
         cols.add(LogValues.IV_SIM_UPC.toString());
         cols.add(LogValues.IV_SIM_CNT.toString());
         cols.add(LogValues.IV_SIM_IT.toString());
+        cols.add(LogValues.IV_SIM_SEED.toString());
 
         // model specific columns
         cols = addModelColumns(cols);
@@ -102,6 +100,10 @@ public abstract class SimulationSummaryWriter<UMP extends UtilityModelParameters
         cols.add(LogValues.DV_NET_AV_CLOSENESS_PRE.toString());
         cols.add(LogValues.DV_NET_AV_CLUSTERING_PRE.toString());
         cols.add(LogValues.DV_NET_AV_PATHLENGTH_PRE.toString());
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            cols.add(LogValues.DV_NET_AV_CLOSENESS_ERROR_PRE.toString());
+            cols.add(LogValues.DV_NET_AV_PATHLENGTH_ERROR_PRE.toString());
+        }
 //        cols.add(LogValues.DV_NET_AV_UTIL_PRE.toString());
 //        cols.add(LogValues.DV_NET_AV_BENEFIT_SOCIAL_PRE.toString());
 //        cols.add(LogValues.DV_NET_AV_COSTS_SOCIAL_PRE.toString());
@@ -173,89 +175,92 @@ public abstract class SimulationSummaryWriter<UMP extends UtilityModelParameters
      */
     @Override
     public void writeCurrentData() {
-        List<String> currData = new LinkedList<String>();
-
         // INDEPENDENT VARIABLES
         // simulation
-        currData.add(this.dgData.getSimStats().getUid());
-        currData.add(String.valueOf(this.dgData.getSimStats().getUpc()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getSimPerUpc()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getSimIt()));
+        value(this.dgData.getSimStats().getUid());
+        value(this.dgData.getSimStats().getUpc());
+        value(this.dgData.getSimStats().getSimPerUpc());
+        value(this.dgData.getSimStats().getSimIt());
+        value(this.dgData.getSimStats().getSeed());
 
         // model specific data
-        currData = addCurrModelData(currData);
+        addCurrModelData();
 
         // DEPENDENT VARIABLES
         // PRE-EPIDEMIC
         // network
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvDegree()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvDegree2()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvCloseness()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvClustering()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvPathLength()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvUtility()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvSocialBenefits()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvSocialCosts()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAvDiseaseCosts()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPre().getDensity()));
-//        currData.add(this.dgData.getNetStatsPre().getAssortativityCondition().toString());
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityRiskPerception()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityAge()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().getAssortativityProfession()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPre().isStable() ? 1 : 0));
+        value(this.dgData.getNetStatsPre().getAvDegree());
+//        value(this.dgData.getNetStatsPre().getAvDegree2());
+        value(this.dgData.getNetStatsPre().getAvCloseness());
+        value(this.dgData.getNetStatsPre().getAvClustering());
+        value(this.dgData.getNetStatsPre().getAvPathLength());
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            value(this.dgData.getNetStatsPre().getAvClosenessError());
+            value(this.dgData.getNetStatsPre().getAvPathLengthError());
+        }
+//        value(this.dgData.getNetStatsPre().getAvUtility());
+//        value(this.dgData.getNetStatsPre().getAvSocialBenefits());
+//        value(this.dgData.getNetStatsPre().getAvSocialCosts());
+//        value(this.dgData.getNetStatsPre().getAvDiseaseCosts());
+//        value(this.dgData.getNetStatsPre().getDensity());
+//        value(this.dgData.getNetStatsPre().getAssortativityCondition().toString());
+        value(this.dgData.getNetStatsPre().getAssortativityRiskPerception());
+        value(this.dgData.getNetStatsPre().getAssortativityAge());
+        value(this.dgData.getNetStatsPre().getAssortativityProfession());
+        value(this.dgData.getNetStatsPre().isStable() ? 1 : 0);
         // index case
-        currData.add(this.dgData.getIndexCaseStats().getDiseaseGroup().name());
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getTimeToRecover()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getDegree1()));
-//        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getDegree2()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getCloseness()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getClustering()));
-//        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getBetweenness()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getBetweennessNormalized()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityRiskPerception()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityAge()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getAssortativityProfession()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getrSigma()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getrSigmaNeighborhood()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getrPi()));
-        currData.add(String.valueOf(this.dgData.getIndexCaseStats().getrPiNeighborhood()));
+        value(this.dgData.getIndexCaseStats().getDiseaseGroup().name());
+        value(this.dgData.getIndexCaseStats().getTimeToRecover());
+        value(this.dgData.getIndexCaseStats().getDegree1());
+//        value(this.dgData.getIndexCaseStats().getDegree2());
+        value(this.dgData.getIndexCaseStats().getCloseness());
+        value(this.dgData.getIndexCaseStats().getClustering());
+//        value(this.dgData.getIndexCaseStats().getBetweenness());
+        value(this.dgData.getIndexCaseStats().getBetweennessNormalized());
+        value(this.dgData.getIndexCaseStats().getAssortativityRiskPerception());
+        value(this.dgData.getIndexCaseStats().getAssortativityAge());
+        value(this.dgData.getIndexCaseStats().getAssortativityProfession());
+        value(this.dgData.getIndexCaseStats().getrSigma());
+        value(this.dgData.getIndexCaseStats().getrSigmaNeighborhood());
+        value(this.dgData.getIndexCaseStats().getrPi());
+        value(this.dgData.getIndexCaseStats().getrPiNeighborhood());
 
         // POST-EDIDEMIC
         // static
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicDurationStatic()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicPeakSizeStatic()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicPeakStatic()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostStatic().getSusceptiblePercent()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPostStatic().getInfectedPercent()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPostStatic().getRecoveredPercent()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostStatic().getTiesBrokenWithInfectionPresent()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostStatic().getNetworkChangesWithInfectionPresent()));
+        value(this.dgData.getSimStats().getEpidemicDurationStatic());
+        value(this.dgData.getSimStats().getEpidemicPeakSizeStatic());
+        value(this.dgData.getSimStats().getEpidemicPeakStatic());
+//        value(this.dgData.getNetStatsPostStatic().getSusceptiblePercent());
+        value(this.dgData.getNetStatsPostStatic().getInfectedPercent());
+        value(this.dgData.getNetStatsPostStatic().getRecoveredPercent());
+//        value(this.dgData.getNetStatsPostStatic().getTiesBrokenWithInfectionPresent());
+//        value(this.dgData.getNetStatsPostStatic().getNetworkChangesWithInfectionPresent());
         // dynamic
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicDurationDynamic()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicPeakSizeDynamic()));
-        currData.add(String.valueOf(this.dgData.getSimStats().getEpidemicPeakDynamic()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getSusceptiblePercent()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getInfectedPercent()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getRecoveredPercent()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getTiesBrokenWithInfectionPresent()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getNetworkChangesWithInfectionPresent()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvDegree()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvDegree2()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvCloseness()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvClustering()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvPathLength()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvUtility()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvSocialBenefits()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvSocialCosts()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAvDiseaseCosts()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getDensity()));
-//        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().getAssortativity()));
-        currData.add(String.valueOf(this.dgData.getNetStatsPostDynamic().isStable() ? 1 : 0));
+        value(this.dgData.getSimStats().getEpidemicDurationDynamic());
+        value(this.dgData.getSimStats().getEpidemicPeakSizeDynamic());
+        value(this.dgData.getSimStats().getEpidemicPeakDynamic());
+//        value(this.dgData.getNetStatsPostDynamic().getSusceptiblePercent());
+        value(this.dgData.getNetStatsPostDynamic().getInfectedPercent());
+        value(this.dgData.getNetStatsPostDynamic().getRecoveredPercent());
+//        value(this.dgData.getNetStatsPostDynamic().getTiesBrokenWithInfectionPresent());
+//        value(this.dgData.getNetStatsPostDynamic().getNetworkChangesWithInfectionPresent());
+//        value(this.dgData.getNetStatsPostDynamic().getAvDegree());
+//        value(this.dgData.getNetStatsPostDynamic().getAvDegree2());
+//        value(this.dgData.getNetStatsPostDynamic().getAvCloseness());
+//        value(this.dgData.getNetStatsPostDynamic().getAvClustering());
+//        value(this.dgData.getNetStatsPostDynamic().getAvPathLength());
+//        value(this.dgData.getNetStatsPostDynamic().getAvUtility());
+//        value(this.dgData.getNetStatsPostDynamic().getAvSocialBenefits());
+//        value(this.dgData.getNetStatsPostDynamic().getAvSocialCosts());
+//        value(this.dgData.getNetStatsPostDynamic().getAvDiseaseCosts());
+//        value(this.dgData.getNetStatsPostDynamic().getDensity());
+//        value(this.dgData.getNetStatsPostDynamic().getAssortativity());
+        value(this.dgData.getNetStatsPostDynamic().isStable() ? 1 : 0);
 
         // RELATED EXPORTS
-        currData.add(this.dgData.getExportFileName());
+        value(this.dgData.getExportFileName());
 
-        writeLine(currData);
+        endRow();
     }
 
 }
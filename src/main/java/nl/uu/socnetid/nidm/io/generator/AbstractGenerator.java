@@ -28,6 +28,10 @@ package nl.uu.socnetid.nidm.io.generator;
 import java.io.File;
 import java.io.IOException;
 
+import nl.uu.socnetid.nidm.io.csv.CsvSink;
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
+
 /**
  * @author Hendrik Nunner
  */
@@ -56,6 +60,18 @@ public abstract class AbstractGenerator {
         initWriters();
     }
 
+    /**
+     * Constructor for a generator sharing the paths of another generator, without initializing data and writers
+     * (e.g., for the jobs of a parameter sweep, see {@link SweepExecutor}).
+     *
+     * @param generator
+     *          the generator to share the paths of
+     */
+    protected AbstractGenerator(AbstractGenerator generator) {
+        this.rootExportPath = generator.rootExportPath;
+        this.exportPath = generator.exportPath;
+    }
+
 
     /**
      * Gets the name of the folder to store generator specific data in.
@@ -90,10 +106,18 @@ public abstract class AbstractGenerator {
     protected abstract void initWriters() throws IOException;
 
     /**
-     * Launches the data generation.
+     * Launches the data generation, with all random draws of the launching thread taken from a stream of the seed of
+     * parameter sweeps (see {@link PropertiesHandler#getSweepSeed()}). All CSV data is written when the data
+     * generation has finished.
      */
     public void launch() {
-        generate();
+        RandomStream previous = RandomStream.bind(RandomStream.of(PropertiesHandler.getInstance().getSweepSeed()));
+        try {
+            generate();
+        } finally {
+            RandomStream.bind(previous);
+            CsvSink.flushAll();
+        }
     }
 
     /**
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io.generator;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Executes the jobs of a parameter sweep (see {@link SweepJob}) on a pool of workers.
+ *
+ * Jobs are computed in parallel, but their results are passed to a sink in the order of the jobs, on the thread
+ * invoking the executor. The sink can therefore write to shared writers without any synchronization, and the output
+ * is identical to processing all jobs one by one. At most twice as many jobs as there are workers are in progress or
+ * waiting for the sink at any time.
+ *
+ * If a job or the sink fails, no results of later jobs are passed to the sink, jobs still in progress are cancelled,
+ * and the failure is rethrown to the invoking thread.
+ *
+ * @author Hendrik Nunner
+ */
+public class SweepExecutor {
+
+    // logger
+    private static final Logger logger = LogManager.getLogger(SweepExecutor.class);
+
+    // the number of workers
+    private final int workers;
+
+
+    /**
+     * Constructor.
+     *
+     * @param workers
+     *          the number of workers, the number of available processors if smaller than 1
+     */
+    public SweepExecutor(int workers) {
+        this.workers = workers < 1 ? Runtime.getRuntime().availableProcessors() : workers;
+    }
+
+
+    /**
+     * Executes the jobs of a parameter sweep.
+     *
+     * @param jobs
+     *          the jobs
+     * @param worker
+     *          computes the result of a job, invoked concurrently for different jobs
+     * @param sink
+     *          consumes the results of the jobs, invoked in the order of the jobs
+     * @param <R>
+     *          the type of job results
+     * @throws IllegalStateException
+     *          if a job fails, with the failure of the job as cause, or if interrupted while waiting for a job
+     * @throws RuntimeException
+     *          if the sink fails, rethrown as is
+     */
+    public <R> void execute(List<SweepJob> jobs, Function<SweepJob, R> worker, Consumer<R> sink) {
+
+        // no parallelism: jobs are processed one by one on the invoking thread
+        if (this.workers == 1) {
+            for (SweepJob job : jobs) {
+                R result;
+                try {
+                    result = worker.apply(job);
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Job failed: " + job, e);
+                }
+                sink.accept(result);
+            }
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(this.workers);
+        try {
+            Iterator<SweepJob> it = jobs.iterator();
+            Deque<Future<R>> pending = new ArrayDeque<Future<R>>();
+            Deque<SweepJob> pendingJobs = new ArrayDeque<SweepJob>();
+            while (it.hasNext() || !pending.isEmpty()) {
+                // keep the workers busy
+                while (it.hasNext() && pending.size() < 2 * this.workers) {
+                    SweepJob job = it.next();
+                    pending.add(pool.submit(() -> worker.apply(job)));
+                    pendingJobs.add(job);
+                }
+                // results in order of jobs
+                SweepJob job = pendingJobs.poll();
+                R result;
+                try {
+                    result = pending.poll().get();
+                } catch (ExecutionException e) {
+                    logger.error("Job failed: " + job, e.getCause());
+                    cancel(pending);
+                    throw new IllegalStateException("Job failed: " + job, e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel(pending);
+                    throw new IllegalStateException("Interrupted while waiting for job: " + job, e);
+                }
+                try {
+                    sink.accept(result);
+                } catch (RuntimeException e) {
+                    cancel(pending);
+                    throw e;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Cancels jobs that are in progress or waiting to be started.
+     *
+     * @param pending
+     *          the results of the jobs
+     * @param <R>
+     *          the type of job results
+     */
+    private static <R> void cancel(Deque<Future<R>> pending) {
+        for (Future<R> future : pending) {
+            future.cancel(true);
+        }
+        pending.clear();
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable descriptor of a single simulation job of a parameter sweep: a unique parameter combination (UPC), given by
+ * the level of each swept parameter, and the number of the simulation for that combination.
+ *
+ * @author Hendrik Nunner
+ */
+public final class SweepJob {
+
+    // the unique parameter combination (1-based)
+    private final int upc;
+    // the number of the simulation for the unique parameter combination (1-based)
+    private final int simPerUpc;
+    // the level of each swept parameter
+    private final int[] levels;
+
+
+    /**
+     * Constructor.
+     *
+     * @param upc
+     *          the unique parameter combination (1-based)
+     * @param simPerUpc
+     *          the number of the simulation for the unique parameter combination (1-based)
+     * @param levels
+     *          the level of each swept parameter
+     */
+    public SweepJob(int upc, int simPerUpc, int[] levels) {
+        this.upc = upc;
+        this.simPerUpc = simPerUpc;
+        this.levels = Arrays.copyOf(levels, levels.length);
+    }
+
+
+    /**
+     * Counts the unique parameter combinations of a parameter sweep.
+     *
+     * @param levelCounts
+     *          the number of levels of each swept parameter
+     * @return the number of unique parameter combinations
+     */
+    public static int countUpcs(int[] levelCounts) {
+        int upcs = 1;
+        for (int levelCount : levelCounts) {
+            upcs *= levelCount;
+        }
+        return upcs;
+    }
+
+    /**
+     * Enumerates the jobs of a parameter sweep in the order of nested loops over all parameters, with the last
+     * parameter varying fastest, and all simulations of a unique parameter combination in a row.
+     *
+     * @param levelCounts
+     *          the number of levels of each swept parameter
+     * @param simsPerUpc
+     *          the number of simulations per unique parameter combination
+     * @return the jobs of the parameter sweep
+     */
+    public static List<SweepJob> enumerate(int[] levelCounts, int simsPerUpc) {
+        int upcs = countUpcs(levelCounts);
+        List<SweepJob> jobs = new ArrayList<SweepJob>(upcs * Math.max(simsPerUpc, 0));
+        int[] levels = new int[levelCounts.length];
+        for (int upc = 1; upc <= upcs; upc++) {
+            for (int simPerUpc = 1; simPerUpc <= simsPerUpc; simPerUpc++) {
+                jobs.add(new SweepJob(upc, simPerUpc, levels));
+            }
+            // next combination
+            for (int p = levels.length - 1; p >= 0; p--) {
+                if (++levels[p] < levelCounts[p]) {
+                    break;
+                }
+                levels[p] = 0;
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * @return the unique parameter combination (1-based)
+     */
+    public int getUpc() {
+        return upc;
+    }
+
+    /**
+     * @return the number of the simulation for the unique parameter combination (1-based)
+     */
+    public int getSimPerUpc() {
+        return simPerUpc;
+    }
+
+    /**
+     * Gets the level of a swept parameter.
+     *
+     * @param parameter
+     *          the position of the parameter in the sweep
+     * @return the level of the parameter
+     */
+    public int getLevel(int parameter) {
+        return this.levels[parameter];
+    }
+
+    /* (non-Javadoc)
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "UPC " + this.upc + ", simulation " + this.simPerUpc + ", levels " + Arrays.toString(this.levels);
+    }
+
+}
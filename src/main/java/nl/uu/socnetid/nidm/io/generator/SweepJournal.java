@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io.generator;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Journal of the completed jobs of a parameter sweep (or of a shard, see {@link SweepShard}), for resuming an
+ * interrupted sweep.
+ *
+ * For each completed job, the journal records the unique parameter combination, the number of the simulation, the
+ * part of the data files (see {@link #rotate()}), and the lengths of the data files after the data of the job has
+ * been written ({@code <upc>;<simPerUpc>;<part>;<length>;...}). When opening an existing journal, data written after
+ * the last completed job (e.g., by an interrupted job) is removed from the data files, so that a resumed sweep can
+ * append the data of the remaining jobs. The journal also records when the data continues in the next part of the
+ * data files ({@code part;<part>}, see {@link #rotate()}), and the completion of the sweep after its last job (see
+ * {@link #complete()}).
+ *
+ * @author Hendrik Nunner
+ */
+public class SweepJournal implements Closeable {
+
+    /** The name of the journal file (of an unsharded sweep, see {@link SweepShard#getFileName(String)}). */
+    public static final String FILE_NAME = "sweep-journal.txt";
+
+    // separator of journal values
+    private static final String SEPARATOR = ";";
+    // entry recording the completion of the sweep
+    private static final String COMPLETE = "complete";
+    // key of entries recording the continuation of the data in the next part of the data files
+    private static final String PART = "part";
+
+    // the names of the data files of the sweep
+    private final String[] dataFileNames;
+    // the current part of the data files
+    private int part;
+    // completed jobs
+    private final Set<String> completed = new HashSet<String>();
+    // the journal file
+    private final Writer out;
+
+
+    /**
+     * Constructor. Opens the journal and removes data written after the last completed job from the data files.
+     *
+     * @param fileName
+     *          the name of the journal file
+     * @param dataFileNames
+     *          the names of the data files of the sweep
+     * @throws IOException
+     *          if the journal or the data files cannot be read or written
+     */
+    public SweepJournal(String fileName, String... dataFileNames) throws IOException {
+        this.dataFileNames = dataFileNames;
+
+        // completed jobs, part and lengths of data files after the last completed job
+        File journal = new File(fileName);
+        long journalLength = 0;
+        long[] dataLengths = new long[dataFileNames.length];
+        if (journal.exists()) {
+            String entries = new String(Files.readAllBytes(journal.toPath()), StandardCharsets.US_ASCII);
+            // complete entries only, ignoring an entry interrupted while written
+            int end;
+            while ((end = entries.indexOf('\n', (int) journalLength)) >= 0) {
+                String[] values = entries.substring((int) journalLength, end).split(SEPARATOR);
+                if (values.length == 2 && values[0].equals(PART)) {
+                    // data continued in new (empty) data files
+                    this.part = Integer.parseInt(values[1]);
+                    Arrays.fill(dataLengths, 0);
+                    journalLength = end + 1;
+                    continue;
+                }
+                if (values.length != 3 + dataFileNames.length) {
+                    break;
+                }
+                this.completed.add(values[0] + SEPARATOR + values[1]);
+                this.part = Integer.parseInt(values[2]);
+                for (int i = 0; i < dataFileNames.length; i++) {
+                    dataLengths[i] = Long.parseLong(values[3 + i]);
+                }
+                journalLength = end + 1;
+            }
+        }
+        truncate(journal, journalLength);
+        File[] dataFiles = getDataFiles();
+        for (int i = 0; i < dataFiles.length; i++) {
+            truncate(dataFiles[i], dataLengths[i]);
+        }
+        // parts started after the last completed job
+        int next = this.part + 1;
+        while (deleteDataFiles(next)) {
+            next++;
+        }
+        this.out = new FileWriter(journal, true);
+    }
+
+
+    /**
+     * Checks whether a job has been completed.
+     *
+     * @param job
+     *          the job
+     * @return true if the job has been completed, false otherwise
+     */
+    public boolean isCompleted(SweepJob job) {
+        return this.completed.contains(job.getUpc() + SEPARATOR + job.getSimPerUpc());
+    }
+
+    /**
+     * Records a job as completed, after all data of the job has been written to the data files.
+     *
+     * @param job
+     *          the job
+     * @throws IOException
+     *          if the journal cannot be written
+     */
+    public void record(SweepJob job) throws IOException {
+        record(Collections.singletonList(job));
+    }
+
+    /**
+     * Records jobs as completed, after all data of the jobs has been written to the data files. The entries of all
+     * jobs are written at once, so that a failure does not leave some jobs of the batch recorded in the journal.
+     *
+     * @param jobs
+     *          the jobs
+     * @throws IOException
+     *          if the journal cannot be written
+     */
+    public void record(List<SweepJob> jobs) throws IOException {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        StringBuilder lengths = new StringBuilder();
+        for (File dataFile : getDataFiles()) {
+            lengths.append(SEPARATOR).append(dataFile.length());
+        }
+        StringBuilder sb = new StringBuilder();
+        for (SweepJob job : jobs) {
+            sb.append(job.getUpc()).append(SEPARATOR).append(job.getSimPerUpc()).append(SEPARATOR).append(this.part);
+            sb.append(lengths).append("\n");
+        }
+        this.out.write(sb.toString());
+        this.out.flush();
+        for (SweepJob job : jobs) {
+            this.completed.add(job.getUpc() + SEPARATOR + job.getSimPerUpc());
+        }
+    }
+
+    /**
+     * Records the completion of the sweep, after all data of all jobs has been written to the data files. The entry is
+     * removed when opening the journal again, e.g. to repeat a sweep with additional jobs.
+     *
+     * @throws IOException
+     *          if the journal cannot be written
+     */
+    public void complete() throws IOException {
+        this.out.write(COMPLETE + "\n");
+        this.out.flush();
+    }
+
+    /**
+     * Checks whether a journal records the completion of its sweep.
+     *
+     * @param journal
+     *          the journal file
+     * @return true if the journal records the completion of its sweep, false otherwise (e.g., if the journal does not
+     *          exist)
+     * @throws IOException
+     *          if the journal cannot be read
+     */
+    public static boolean isComplete(File journal) throws IOException {
+        if (!journal.exists()) {
+            return false;
+        }
+        String entries = new String(Files.readAllBytes(journal.toPath()), StandardCharsets.US_ASCII);
+        return entries.endsWith("\n" + COMPLETE + "\n") || entries.equals(COMPLETE + "\n");
+    }
+
+    /**
+     * Continues the data of the sweep in the next part of the data files, after all data of the current part has been
+     * written (see {@link #getFileName(String)}). The next part is recorded in the journal, so that a sweep interrupted
+     * before completing any job of the next part resumes in the next part.
+     *
+     * @throws IOException
+     *          if the journal cannot be written
+     */
+    public void rotate() throws IOException {
+        this.out.write(PART + SEPARATOR + (this.part + 1) + "\n");
+        this.out.flush();
+        this.part++;
+    }
+
+    /**
+     * Checks whether any data file of the current part has reached a size.
+     *
+     * @param size
+     *          the size (in bytes)
+     * @return true if any data file of the current part has reached the size, false otherwise
+     */
+    public boolean exceeds(long size) {
+        for (File dataFile : getDataFiles()) {
+            if (dataFile.length() >= size) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the current part of the data files
+     */
+    public int getPart() {
+        return part;
+    }
+
+    /**
+     * Gets the name of a data file of the current part.
+     *
+     * @param fileName
+     *          the name of the data file
+     * @return the name of the data file of the current part
+     */
+    public String getFileName(String fileName) {
+        return getFileName(fileName, this.part);
+    }
+
+    /**
+     * Gets the name of a data file of a part: {@code <name>.part-<part>.csv} (or {@code .csv.gz}), unchanged for the
+     * first part.
+     *
+     * @param fileName
+     *          the name of the data file
+     * @param part
+     *          the part
+     * @return the name of the data file of the part
+     */
+    public static String getFileName(String fileName, int part) {
+        if (part == 0) {
+            return fileName;
+        }
+        int extension = fileName.lastIndexOf(".csv");
+        if (extension < 0) {
+            extension = fileName.lastIndexOf('.');
+        }
+        String suffix = ".part-" + part;
+        return extension < 0 ? fileName + suffix :
+            fileName.substring(0, extension) + suffix + fileName.substring(extension);
+    }
+
+    /**
+     * Gets the data files of the current part.
+     *
+     * @return the data files of the current part
+     */
+    private File[] getDataFiles() {
+        File[] dataFiles = new File[this.dataFileNames.length];
+        for (int i = 0; i < dataFiles.length; i++) {
+            dataFiles[i] = new File(getFileName(this.dataFileNames[i]));
+        }
+        return dataFiles;
+    }
+
+    /**
+     * Deletes the data files of a part.
+     *
+     * @param part
+     *          the part
+     * @return true if any data file of the part existed, false otherwise
+     * @throws IOException
+     *          if a data file cannot be deleted
+     */
+    private boolean deleteDataFiles(int part) throws IOException {
+        boolean existed = false;
+        for (String dataFileName : this.dataFileNames) {
+            existed |= Files.deleteIfExists(new File(getFileName(dataFileName, part)).toPath());
+        }
+        return existed;
+    }
+
+    /* (non-Javadoc)
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+    /**
+     * Truncates a file, if existing and longer than the given length.
+     *
+     * @param file
+     *          the file
+     * @param length
+     *          the length
+     * @throws IOException
+     *          if the file cannot be written
+     */
+    private static void truncate(File file, long length) throws IOException {
+        if (file.exists() && file.length() > length) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(length);
+            }
+        }
+    }
+
+}
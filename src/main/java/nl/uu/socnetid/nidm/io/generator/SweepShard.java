@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io.generator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import nl.uu.socnetid.nidm.io.csv.CsvOutput;
+
+/**
+ * A shard of a parameter sweep, for splitting a sweep between several independent processes (e.g., on different
+ * machines). Each shard processes a contiguous block of the jobs of the sweep (see {@link SweepJob#enumerate(int[],
+ * int)}) and writes its data to files of its own. Concatenating the data files of all shards in order of the shards
+ * (see {@link #merge(File, int)}) hence results in the same order of data as an unsharded sweep.
+ *
+ * @author Hendrik Nunner
+ */
+public class SweepShard {
+
+    // logger
+    private static final Logger logger = LogManager.getLogger(SweepShard.class);
+
+    // data files of shards: <name>.shard-<index>[.part-<part>].csv[.gz]
+    private static final Pattern SHARD_FILE =
+            Pattern.compile("(.*)\\.shard-(\\d+)(?:\\.part-(\\d+))?(\\.csv(?:\\.gz)?)");
+
+    // the index of the shard (0-based)
+    private final int index;
+    // the number of shards
+    private final int count;
+
+
+    /**
+     * Constructor.
+     *
+     * @param index
+     *          the index of the shard (0-based)
+     * @param count
+     *          the number of shards
+     */
+    public SweepShard(int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard: " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+
+    /**
+     * Selects the jobs of the shard.
+     *
+     * @param jobs
+     *          all jobs of the sweep
+     * @return the contiguous block of jobs of the shard
+     */
+    public List<SweepJob> select(List<SweepJob> jobs) {
+        int from = (int) ((long) jobs.size() * this.index / this.count);
+        int to = (int) ((long) jobs.size() * (this.index + 1) / this.count);
+        return new ArrayList<SweepJob>(jobs.subList(from, to));
+    }
+
+    /**
+     * Gets the name of a file of the shard.
+     *
+     * @param fileName
+     *          the name of the file of an unsharded sweep
+     * @return the name of the file of the shard, unchanged if the sweep is not sharded
+     */
+    public String getFileName(String fileName) {
+        if (this.count == 1) {
+            return fileName;
+        }
+        int extension = fileName.lastIndexOf('.');
+        String suffix = ".shard-" + this.index;
+        return extension < 0 ? fileName + suffix :
+            fileName.substring(0, extension) + suffix + fileName.substring(extension);
+    }
+
+    /**
+     * @return the index of the shard (0-based)
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Merges the CSV data files of all shards of the sweeps within a directory (including sub-directories): the data
+     * files of shards ({@code <name>.shard-<index>.csv}, or {@code .csv.gz}) and their parts (see
+     * {@link SweepJournal#getFileName(String, int)}) are concatenated in order of the shards and parts, with the column
+     * names of the first file only, and written to {@code <name>.csv} (or {@code .csv.gz}). Data files are merged
+     * only if the data files of all shards exist and the journals of all shards (see {@link SweepJournal#FILE_NAME})
+     * record the completion of the shards.
+     *
+     * @param directory
+     *          the directory containing the data files of all shards
+     * @param count
+     *          the number of shards
+     * @throws IOException
+     *          if the data files cannot be read or written
+     */
+    public static void merge(File directory, int count) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        // data files of shards by merged name, index of shard, and part
+        Map<String, Map<Integer, Map<Integer, File>>> shardFiles = new TreeMap<>();
+        for (File file : files) {
+            if (file.isDirectory()) {
+                merge(file, count);
+                continue;
+            }
+            Matcher matcher = SHARD_FILE.matcher(file.getName());
+            if (matcher.matches()) {
+                int part = matcher.group(3) == null ? 0 : Integer.parseInt(matcher.group(3));
+                shardFiles.computeIfAbsent(matcher.group(1) + matcher.group(4), name -> new TreeMap<>())
+                        .computeIfAbsent(Integer.valueOf(matcher.group(2)), index -> new TreeMap<>())
+                        .put(part, file);
+            }
+        }
+
+        for (Map.Entry<String, Map<Integer, Map<Integer, File>>> entry : shardFiles.entrySet()) {
+            Map<Integer, Map<Integer, File>> shards = entry.getValue();
+            List<Integer> incomplete = new ArrayList<Integer>();
+            for (int index = 0; index < count; index++) {
+                File journal = new File(directory, new SweepShard(index, count).getFileName(SweepJournal.FILE_NAME));
+                if (!shards.containsKey(index) || !SweepJournal.isComplete(journal)) {
+                    incomplete.add(index);
+                }
+            }
+            if (!incomplete.isEmpty() || shards.size() != count) {
+                logger.error("Shards missing or incomplete for " + entry.getKey() + " in " + directory + ": " +
+                        incomplete + " of " + count + " (found: " + shards.keySet() + ")");
+                continue;
+            }
+            File merged = new File(directory, entry.getKey());
+            try (Writer out = CsvOutput.open(merged.getPath(), false)) {
+                boolean first = true;
+                for (Map<Integer, File> parts : shards.values()) {
+                    for (File part : parts.values()) {
+                        try (BufferedReader in = CsvOutput.openReader(part)) {
+                            String line = in.readLine();
+                            // column names of the first file only
+                            if (line != null && first) {
+                                out.write(line);
+                                out.write("\n");
+                            }
+                            first = false;
+                            while ((line = in.readLine()) != null) {
+                                out.write(line);
+                                out.write("\n");
+                            }
+                        }
+                    }
+                }
+            }
+            logger.info("Merged " + shards.size() + " shards into " + merged);
+        }
+    }
+
+}
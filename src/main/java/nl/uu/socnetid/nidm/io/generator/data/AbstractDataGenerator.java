@@ -57,6 +57,17 @@ public abstract class AbstractDataGenerator extends AbstractGenerator {
         super(rootExportPath);
     }
 
+    /**
+     * Constructor for a data generator sharing the paths of another data generator, without initializing data and
+     * writers.
+     *
+     * @param generator
+     *          the data generator to share the paths of
+     */
+    protected AbstractDataGenerator(AbstractDataGenerator generator) {
+        super(generator);
+    }
+
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.generator.AbstractGenerator#generate()
      */
@@ -26,12 +26,14 @@
 package nl.uu.socnetid.nidm.io.generator.data;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.LinkedList;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,13 +42,15 @@ import nl.uu.socnetid.nidm.agents.Agent;
 import nl.uu.socnetid.nidm.data.out.BurgerBuskensParameters;
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
-import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
 import nl.uu.socnetid.nidm.io.csv.BurgerBuskensSimulationSummaryWriter;
+import nl.uu.socnetid.nidm.io.generator.SweepExecutor;
+import nl.uu.socnetid.nidm.io.generator.SweepJob;
 import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.simulation.Simulation;
 import nl.uu.socnetid.nidm.simulation.SimulationStage;
 import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.BurgerBuskens;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -63,6 +67,10 @@ public class BurgerBuskensDataGenerator extends AbstractDataGenerator {
     // stats & writer
     private DataGeneratorData<BurgerBuskensParameters> dgData;
     private BurgerBuskensSimulationSummaryWriter ssWriter;
+    // data of a single simulation of a parameter sweep, buffered until written in order of simulations
+    private StringWriter ssBuffer;
+    // job of a single simulation of a parameter sweep
+    private SweepJob sweepJob;
 
 
     /**
@@ -79,6 +87,29 @@ public class BurgerBuskensDataGenerator extends AbstractDataGenerator {
         super(rootExportPath);
     }
 
+    /**
+     * Constructor for a single simulation of a parameter sweep, running in parallel to others: with a copy of the
+     * data of a data generator and a writer buffering the data of the simulation.
+     *
+     * @param generator
+     *          the data generator running the parameter sweep
+     * @param job
+     *          the job of the parameter sweep
+     */
+    private BurgerBuskensDataGenerator(BurgerBuskensDataGenerator generator, SweepJob job) {
+        super(generator);
+        this.sweepJob = job;
+        this.dgData = generator.dgData.copy();
+        this.dgData.getSimStats().setUpc(job.getUpc());
+        this.dgData.getSimStats().setSimPerUpc(job.getSimPerUpc());
+        this.dgData.getSimStats().setSeed(RandomStream.derive(PropertiesHandler.getInstance().getSweepSeed(),
+                job.getUpc(), job.getSimPerUpc()));
+        if (PropertiesHandler.getInstance().isExportSummary()) {
+            this.ssBuffer = new StringWriter();
+            this.ssWriter = (BurgerBuskensSimulationSummaryWriter) generator.ssWriter.copy(this.ssBuffer, this.dgData);
+        }
+    }
+
 
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.generator.AbstractDataGenerator#getFolderName()
@@ -132,74 +163,53 @@ public class BurgerBuskensDataGenerator extends AbstractDataGenerator {
         double[] omegas = this.dgData.getUtilityModelParams().isOmegaRandom() ?
                 new double[1] : this.dgData.getUtilityModelParams().getOmegas();
 
-        // unique parameter combinations
-        int upcs =
-                b1s.length *
-                b2s.length *
-                c1s.length *
-                c2s.length *
-                c3s.length *
-                Ns.length *
-                iotas.length *
-                phis.length *
-                omegas.length;
-
-        // loop over all possible parameter combinations
-        for (double b1 : b1s) {
-            this.dgData.getUtilityModelParams().setCurrB1(b1);
-            for (double b2 : b2s) {
-                this.dgData.getUtilityModelParams().setCurrB2(b2);
-                for (double c1 : c1s) {
-                    this.dgData.getUtilityModelParams().setCurrC1(c1);
-                    for (double c2 : c2s) {
-                        this.dgData.getUtilityModelParams().setCurrC2(c2);
-                        for (double c3 : c3s) {
-                            this.dgData.getUtilityModelParams().setCurrC3(c3);
-                            for (int N : Ns) {
-                                this.dgData.getUtilityModelParams().setCurrN(N);
-                                for (boolean iota : iotas) {
-                                    this.dgData.getUtilityModelParams().setCurrIota(iota);
-                                    for (double phi : phis) {
-                                        this.dgData.getUtilityModelParams().setCurrPhi(phi);
-                                        for (double omega : omegas) {
-                                            this.dgData.getUtilityModelParams().setCurrOmega(omega);
-
-                                            this.dgData.getSimStats().incUpc();
-                                            logger.info("Starting to compute "
-                                                    + this.dgData.getUtilityModelParams().
-                                                    getSimsPerParameterCombination()
-                                                    + " simulations for parameter combination: "
-                                                    + this.dgData.getSimStats().getUpc() + " / "
-                                                    + upcs);
-
-                                            // multiple simulations for same parameter combination
-                                            this.dgData.getSimStats().setSimPerUpc(1);
-                                            while (this.dgData.getSimStats().getSimPerUpc()
-                                                    <= this.dgData.getUtilityModelParams().
-                                                    getSimsPerParameterCombination()) {
-
-                                                // simulate
-                                                performSingleSimulation();
-
-                                                // log simulation summary
-                                                if (PropertiesHandler.getInstance().isExportSummary()) {
-                                                    this.ssWriter.writeCurrentData();
-                                                }
-
-                                                logger.debug("Simulation " + this.dgData.getSimStats().getSimPerUpc() +
-                                                        "/" + this.dgData.getUtilityModelParams().getSimsPerParameterCombination() +
-                                                        " of parameter combination " +
-                                                        this.dgData.getSimStats().getUpc() + "/" + upcs + " finished.");
-                                                this.dgData.getSimStats().incSimPerUpc();
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
+        // unique parameter combinations, in order of nested loops over all parameters
+        int[] levelCounts = new int[] {
+                b1s.length,
+                b2s.length,
+                c1s.length,
+                c2s.length,
+                c3s.length,
+                Ns.length,
+                iotas.length,
+                phis.length,
+                omegas.length};
+        this.dgData.getSimStats().setUpcs(SweepJob.countUpcs(levelCounts));
+        List<SweepJob> jobs = SweepJob.enumerate(levelCounts,
+                this.dgData.getUtilityModelParams().getSimsPerParameterCombination());
+
+        try {
+            // multiple simulations for all parameter combinations, each with its own data and network
+            new SweepExecutor(PropertiesHandler.getInstance().getSweepWorkers()).execute(jobs, job -> {
+                BurgerBuskensDataGenerator worker = new BurgerBuskensDataGenerator(this, job);
+                BurgerBuskensParameters params = worker.dgData.getUtilityModelParams();
+                params.setCurrB1(b1s[job.getLevel(0)]);
+                params.setCurrB2(b2s[job.getLevel(1)]);
+                params.setCurrC1(c1s[job.getLevel(2)]);
+                params.setCurrC2(c2s[job.getLevel(3)]);
+                params.setCurrC3(c3s[job.getLevel(4)]);
+                params.setCurrN(Ns[job.getLevel(5)]);
+                params.setCurrIota(iotas[job.getLevel(6)]);
+                params.setCurrPhi(phis[job.getLevel(7)]);
+                params.setCurrOmega(omegas[job.getLevel(8)]);
+
+                // simulate, with random draws independent of the worker thread and of other jobs
+                RandomStream previous = RandomStream.bind(new RandomStream(worker.dgData.getSimStats().getSeed()));
+                try {
+                    worker.performSingleSimulation();
+                } finally {
+                    RandomStream.bind(previous);
+                }
+
+                // log simulation summary
+                if (PropertiesHandler.getInstance().isExportSummary()) {
+                    worker.ssWriter.writeCurrentData();
                 }
-            }
+                return worker;
+            }, this::commit);
+        } catch (RuntimeException e) {
+            abortDataExportFiles(e);
+            throw e;
         }
 
         // finish data generation
@@ -214,57 +224,59 @@ public class BurgerBuskensDataGenerator extends AbstractDataGenerator {
 
         // create network
         Network network = new Network();
+        // no GUI or network export: GraphStream attributes not required
+        network.setAttributeMirroring(false);
 
         // setting parameters
         // b1
         if (this.dgData.getUtilityModelParams().isB1Random()) {
-            this.dgData.getUtilityModelParams().setCurrB1(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrB1(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getB1RandomMin(),
                     this.dgData.getUtilityModelParams().getB1RandomMax()));
         }
         // b2
         if (this.dgData.getUtilityModelParams().isB2Random()) {
-            this.dgData.getUtilityModelParams().setCurrB2(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrB2(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getB2RandomMin(),
                     this.dgData.getUtilityModelParams().getB2RandomMax()));
         }
         // c1
         if (this.dgData.getUtilityModelParams().isC1Random()) {
-            this.dgData.getUtilityModelParams().setCurrC1(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrC1(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getC1RandomMin(),
                     this.dgData.getUtilityModelParams().getC1RandomMax()));
         }
         // c2
         if (this.dgData.getUtilityModelParams().isC2Random()) {
-            this.dgData.getUtilityModelParams().setCurrC2(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrC2(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getC2RandomMin(),
                     this.dgData.getUtilityModelParams().getC2RandomMax()));
         }
         // c3
         if (this.dgData.getUtilityModelParams().isC3Random()) {
-            this.dgData.getUtilityModelParams().setCurrC3(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrC3(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getC3RandomMin(),
                     this.dgData.getUtilityModelParams().getC3RandomMax()));
         }
         // N
         if (this.dgData.getUtilityModelParams().isNRandom()) {
-            this.dgData.getUtilityModelParams().setCurrN(ThreadLocalRandom.current().nextInt(
+            this.dgData.getUtilityModelParams().setCurrN(RandomStream.current().nextInt(
                     this.dgData.getUtilityModelParams().getNRandomMin(),
                     this.dgData.getUtilityModelParams().getNRandomMax()));
         }
         // iota
         if (this.dgData.getUtilityModelParams().isIotaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrIota(ThreadLocalRandom.current().nextBoolean());
+            this.dgData.getUtilityModelParams().setCurrIota(RandomStream.current().nextBoolean());
         }
         // phi
         if (this.dgData.getUtilityModelParams().isPhiRandom()) {
-            this.dgData.getUtilityModelParams().setCurrPhi(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrPhi(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getPhiRandomMin(),
                     this.dgData.getUtilityModelParams().getPhiRandomMax()));
         }
         // omega
         if (this.dgData.getUtilityModelParams().isOmegaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrOmega(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrOmega(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getOmegaRandomMin(),
                     this.dgData.getUtilityModelParams().getOmegaRandomMax()));
         }
@@ -279,7 +291,7 @@ public class BurgerBuskensDataGenerator extends AbstractDataGenerator {
 
         // create disease specs
         DiseaseSpecs ds = new DiseaseSpecs(
-                DiseaseType.SIR, 10, 10, 0.1, 1.0);
+                PropertiesHandler.getInstance().getSimDiseaseType(), 10, 10, 0.1, 1.0);
 
         // add agents
         for (int i = 0; i < this.dgData.getUtilityModelParams().getCurrN(); i++) {
@@ -321,8 +333,33 @@ public class BurgerBuskensDataGenerator extends AbstractDataGenerator {
         return dstAnalysisPath;
     }
 
+    /**
+     * Writes the buffered data of a single simulation of a parameter sweep.
+     *
+     * @param worker
+     *          the data generator of the single simulation
+     * @throws UncheckedIOException
+     *          if the data files cannot be written
+     */
+    private void commit(BurgerBuskensDataGenerator worker) {
+        try {
+            if (PropertiesHandler.getInstance().isExportSummary()) {
+                this.ssWriter.append(worker.ssBuffer.getBuffer());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.debug("Simulation " + worker.sweepJob.getSimPerUpc() +
+                "/" + this.dgData.getUtilityModelParams().getSimsPerParameterCombination() +
+                " of parameter combination " +
+                worker.sweepJob.getUpc() + "/" + this.dgData.getSimStats().getUpcs() + " finished.");
+    }
+
     /**
      * Finalizes the export of data files.
+     *
+     * @throws UncheckedIOException
+     *          if the data files cannot be written
      */
     private void finalizeDataExportFiles() {
         try {
@@ -331,7 +368,23 @@ public class BurgerBuskensDataGenerator extends AbstractDataGenerator {
                 this.ssWriter.close();
             }
         } catch (IOException e) {
-            logger.error(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the data files after a failed parameter sweep.
+     *
+     * @param failure
+     *          the failure of the parameter sweep, to add failures of closing the files to
+     */
+    private void abortDataExportFiles(RuntimeException failure) {
+        try {
+            if (PropertiesHandler.getInstance().isExportSummary()) {
+                this.ssWriter.close();
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
         }
     }
 
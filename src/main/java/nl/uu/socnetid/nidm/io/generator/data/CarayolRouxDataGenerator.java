@@ -26,12 +26,14 @@
 package nl.uu.socnetid.nidm.io.generator.data;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.LinkedList;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,13 +42,15 @@ import nl.uu.socnetid.nidm.agents.Agent;
 import nl.uu.socnetid.nidm.data.out.CarayolRouxParameters;
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
-import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
 import nl.uu.socnetid.nidm.io.csv.CarayolRouxSimulationSummaryWriter;
+import nl.uu.socnetid.nidm.io.generator.SweepExecutor;
+import nl.uu.socnetid.nidm.io.generator.SweepJob;
 import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.simulation.Simulation;
 import nl.uu.socnetid.nidm.simulation.SimulationStage;
 import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.CarayolRoux;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -63,6 +67,10 @@ public class CarayolRouxDataGenerator extends AbstractDataGenerator {
     // stats & writer
     private DataGeneratorData<CarayolRouxParameters> dgData;
     private CarayolRouxSimulationSummaryWriter ssWriter;
+    // data of a single simulation of a parameter sweep, buffered until written in order of simulations
+    private StringWriter ssBuffer;
+    // job of a single simulation of a parameter sweep
+    private SweepJob sweepJob;
 
 
     /**
@@ -79,6 +87,29 @@ public class CarayolRouxDataGenerator extends AbstractDataGenerator {
         super(rootExportPath);
     }
 
+    /**
+     * Constructor for a single simulation of a parameter sweep, running in parallel to others: with a copy of the
+     * data of a data generator and a writer buffering the data of the simulation.
+     *
+     * @param generator
+     *          the data generator running the parameter sweep
+     * @param job
+     *          the job of the parameter sweep
+     */
+    private CarayolRouxDataGenerator(CarayolRouxDataGenerator generator, SweepJob job) {
+        super(generator);
+        this.sweepJob = job;
+        this.dgData = generator.dgData.copy();
+        this.dgData.getSimStats().setUpc(job.getUpc());
+        this.dgData.getSimStats().setSimPerUpc(job.getSimPerUpc());
+        this.dgData.getSimStats().setSeed(RandomStream.derive(PropertiesHandler.getInstance().getSweepSeed(),
+                job.getUpc(), job.getSimPerUpc()));
+        if (PropertiesHandler.getInstance().isExportSummary()) {
+            this.ssBuffer = new StringWriter();
+            this.ssWriter = (CarayolRouxSimulationSummaryWriter) generator.ssWriter.copy(this.ssBuffer, this.dgData);
+        }
+    }
+
 
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.generator.AbstractDataGenerator#getFolderName()
@@ -126,62 +157,47 @@ public class CarayolRouxDataGenerator extends AbstractDataGenerator {
         double[] phis = this.dgData.getUtilityModelParams().isPhiRandom() ?
                 new double[1] : this.dgData.getUtilityModelParams().getPhis();
 
-        // unique parameter combinations
-        int upcs =
-                crOmegas.length *
-                deltas.length *
-                cs.length *
-                Ns.length *
-                iotas.length *
-                phis.length;
-
-        // loop over all possible parameter combinations
-        for (double crOmega : crOmegas) {
-            this.dgData.getUtilityModelParams().setCurrCrOmega(crOmega);
-            for (double delta : deltas) {
-                this.dgData.getUtilityModelParams().setCurrDelta(delta);
-                for (double c : cs) {
-                    this.dgData.getUtilityModelParams().setCurrC(c);
-                    for (int N : Ns) {
-                        this.dgData.getUtilityModelParams().setCurrN(N);
-                        for (boolean iota : iotas) {
-                            this.dgData.getUtilityModelParams().setCurrIota(iota);
-                            for (double phi : phis) {
-                                this.dgData.getUtilityModelParams().setCurrPhi(phi);
-
-                                this.dgData.getSimStats().incUpc();
-                                logger.info("Starting to compute "
-                                        + this.dgData.getUtilityModelParams().
-                                        getSimsPerParameterCombination()
-                                        + " simulations for parameter combination: "
-                                        + this.dgData.getSimStats().getUpc() + " / "
-                                        + upcs);
-
-                                // multiple simulations for same parameter combination
-                                this.dgData.getSimStats().setSimPerUpc(1);
-                                while (this.dgData.getSimStats().getSimPerUpc()
-                                        <= this.dgData.getUtilityModelParams().
-                                        getSimsPerParameterCombination()) {
-
-                                    // simulate
-                                    performSingleSimulation();
-
-                                    // log simulation summary
-                                    if (PropertiesHandler.getInstance().isExportSummary()) {
-                                        this.ssWriter.writeCurrentData();
-                                    }
-
-                                    logger.debug("Simulation " + this.dgData.getSimStats().getSimPerUpc() +
-                                            "/" + this.dgData.getUtilityModelParams().getSimsPerParameterCombination() +
-                                            " of parameter combination " +
-                                            this.dgData.getSimStats().getUpc() + "/" + upcs + " finished.");
-                                    this.dgData.getSimStats().incSimPerUpc();
-                                }
-                            }
-                        }
-                    }
+        // unique parameter combinations, in order of nested loops over all parameters
+        int[] levelCounts = new int[] {
+                crOmegas.length,
+                deltas.length,
+                cs.length,
+                Ns.length,
+                iotas.length,
+                phis.length};
+        this.dgData.getSimStats().setUpcs(SweepJob.countUpcs(levelCounts));
+        List<SweepJob> jobs = SweepJob.enumerate(levelCounts,
+                this.dgData.getUtilityModelParams().getSimsPerParameterCombination());
+
+        try {
+            // multiple simulations for all parameter combinations, each with its own data and network
+            new SweepExecutor(PropertiesHandler.getInstance().getSweepWorkers()).execute(jobs, job -> {
+                CarayolRouxDataGenerator worker = new CarayolRouxDataGenerator(this, job);
+                CarayolRouxParameters params = worker.dgData.getUtilityModelParams();
+                params.setCurrCrOmega(crOmegas[job.getLevel(0)]);
+                params.setCurrDelta(deltas[job.getLevel(1)]);
+                params.setCurrC(cs[job.getLevel(2)]);
+                params.setCurrN(Ns[job.getLevel(3)]);
+                params.setCurrIota(iotas[job.getLevel(4)]);
+                params.setCurrPhi(phis[job.getLevel(5)]);
+
+                // simulate, with random draws independent of the worker thread and of other jobs
+                RandomStream previous = RandomStream.bind(new RandomStream(worker.dgData.getSimStats().getSeed()));
+                try {
+                    worker.performSingleSimulation();
+                } finally {
+                    RandomStream.bind(previous);
+                }
+
+                // log simulation summary
+                if (PropertiesHandler.getInstance().isExportSummary()) {
+                    worker.ssWriter.writeCurrentData();
                 }
-            }
+                return worker;
+            }, this::commit);
+        } catch (RuntimeException e) {
+            abortDataExportFiles(e);
+            throw e;
         }
 
         // finish data generation
@@ -196,39 +212,41 @@ public class CarayolRouxDataGenerator extends AbstractDataGenerator {
 
         // create network
         Network network = new Network();
+        // no GUI or network export: GraphStream attributes not required
+        network.setAttributeMirroring(false);
 
         // setting parameters
         // CarayolRoux omega
         if (this.dgData.getUtilityModelParams().isCrOmegaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrCrOmega(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrCrOmega(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getCrOmegaRandomMin(),
                     this.dgData.getUtilityModelParams().getCrOmegaRandomMax()));
         }
         // delta
         if (this.dgData.getUtilityModelParams().isDeltaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrDelta(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrDelta(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getDeltaRandomMin(),
                     this.dgData.getUtilityModelParams().getDeltaRandomMax()));
         }
         // c
         if (this.dgData.getUtilityModelParams().isCRandom()) {
-            this.dgData.getUtilityModelParams().setCurrC(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrC(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getCRandomMin(),
                     this.dgData.getUtilityModelParams().getCRandomMax()));
         }
         // N
         if (this.dgData.getUtilityModelParams().isNRandom()) {
-            this.dgData.getUtilityModelParams().setCurrN(ThreadLocalRandom.current().nextInt(
+            this.dgData.getUtilityModelParams().setCurrN(RandomStream.current().nextInt(
                     this.dgData.getUtilityModelParams().getNRandomMin(),
                     this.dgData.getUtilityModelParams().getNRandomMax()));
         }
         // iota
         if (this.dgData.getUtilityModelParams().isIotaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrIota(ThreadLocalRandom.current().nextBoolean());
+            this.dgData.getUtilityModelParams().setCurrIota(RandomStream.current().nextBoolean());
         }
         // phi
         if (this.dgData.getUtilityModelParams().isPhiRandom()) {
-            this.dgData.getUtilityModelParams().setCurrPhi(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrPhi(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getPhiRandomMin(),
                     this.dgData.getUtilityModelParams().getPhiRandomMax()));
         }
@@ -236,7 +254,7 @@ public class CarayolRouxDataGenerator extends AbstractDataGenerator {
         // assortative mixing not feasible for CarayolRoux due to geographic distance
         this.dgData.getUtilityModelParams().setCurrOmega(0.0);
 //        if (this.dgData.getUtilityModelParams().isOmegaRandom()) {
-//            this.dgData.getUtilityModelParams().setCurrOmega(ThreadLocalRandom.current().nextDouble(
+//            this.dgData.getUtilityModelParams().setCurrOmega(RandomStream.current().nextDouble(
 //                    this.dgData.getUtilityModelParams().getOmegaRandomMin(),
 //                    this.dgData.getUtilityModelParams().getOmegaRandomMax()));
 //        }
@@ -249,7 +267,7 @@ public class CarayolRouxDataGenerator extends AbstractDataGenerator {
 
         // create disease specs
         DiseaseSpecs ds = new DiseaseSpecs(
-                DiseaseType.SIR, 10, 10, 0.1, 1.0);
+                PropertiesHandler.getInstance().getSimDiseaseType(), 10, 10, 0.1, 1.0);
 
         // add agents
         for (int i = 0; i < this.dgData.getUtilityModelParams().getCurrN(); i++) {
@@ -291,8 +309,33 @@ public class CarayolRouxDataGenerator extends AbstractDataGenerator {
         return dstAnalysisPath;
     }
 
+    /**
+     * Writes the buffered data of a single simulation of a parameter sweep.
+     *
+     * @param worker
+     *          the data generator of the single simulation
+     * @throws UncheckedIOException
+     *          if the data files cannot be written
+     */
+    private void commit(CarayolRouxDataGenerator worker) {
+        try {
+            if (PropertiesHandler.getInstance().isExportSummary()) {
+                this.ssWriter.append(worker.ssBuffer.getBuffer());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.debug("Simulation " + worker.sweepJob.getSimPerUpc() +
+                "/" + this.dgData.getUtilityModelParams().getSimsPerParameterCombination() +
+                " of parameter combination " +
+                worker.sweepJob.getUpc() + "/" + this.dgData.getSimStats().getUpcs() + " finished.");
+    }
+
     /**
      * Finalizes the export of data files.
+     *
+     * @throws UncheckedIOException
+     *          if the data files cannot be written
      */
     private void finalizeDataExportFiles() {
         try {
@@ -301,7 +344,23 @@ public class CarayolRouxDataGenerator extends AbstractDataGenerator {
                 this.ssWriter.close();
             }
         } catch (IOException e) {
-            logger.error(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the data files after a failed parameter sweep.
+     *
+     * @param failure
+     *          the failure of the parameter sweep, to add failures of closing the files to
+     */
+    private void abortDataExportFiles(RuntimeException failure) {
+        try {
+            if (PropertiesHandler.getInstance().isExportSummary()) {
+                this.ssWriter.close();
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
         }
     }
 
@@ -26,8 +26,10 @@
 package nl.uu.socnetid.nidm.io.generator.data;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.LinkedList;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -38,11 +40,12 @@ import nl.uu.socnetid.nidm.agents.AgentListener;
 import nl.uu.socnetid.nidm.data.out.CidmParameters;
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
-import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
 import nl.uu.socnetid.nidm.io.analysis.RegressionParameterWriter;
 import nl.uu.socnetid.nidm.io.csv.CidmAgentDetailsWriter;
 import nl.uu.socnetid.nidm.io.csv.CidmRoundSummaryWriter;
 import nl.uu.socnetid.nidm.io.csv.CidmSimulationSummaryWriter;
+import nl.uu.socnetid.nidm.io.generator.SweepExecutor;
+import nl.uu.socnetid.nidm.io.generator.SweepJob;
 import nl.uu.socnetid.nidm.io.network.GEXFWriter;
 import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.simulation.Simulation;
@@ -53,6 +56,7 @@ import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.stats.NetworkStatsPost;
 import nl.uu.socnetid.nidm.stats.NetworkStatsPre;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.Cidm;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -82,6 +86,12 @@ public class CidmDataGenerator extends AbstractDataGenerator implements AgentLis
     private CidmRoundSummaryWriter rsWriter;
     private CidmAgentDetailsWriter adWriter;
     private GEXFWriter gexfWriter;
+    // data of a single simulation of a parameter sweep, buffered until written in order of simulations
+    private StringWriter ssBuffer;
+    private StringWriter rsBuffer;
+    private StringWriter adBuffer;
+    // job of a single simulation of a parameter sweep
+    private SweepJob sweepJob;
 
 
     /**
@@ -98,6 +108,38 @@ public class CidmDataGenerator extends AbstractDataGenerator implements AgentLis
         super(rootExportPath);
     }
 
+    /**
+     * Constructor for a single simulation of a parameter sweep, running in parallel to others: with a copy of the
+     * data of a data generator and writers buffering the data of the simulation.
+     *
+     * @param generator
+     *          the data generator running the parameter sweep
+     * @param job
+     *          the job of the parameter sweep
+     */
+    private CidmDataGenerator(CidmDataGenerator generator, SweepJob job) {
+        super(generator);
+        this.sweepJob = job;
+        this.dgData = generator.dgData.copy();
+        this.dgData.getSimStats().setUpc(job.getUpc());
+        this.dgData.getSimStats().setSimPerUpc(job.getSimPerUpc());
+        this.dgData.getSimStats().setSeed(RandomStream.derive(PropertiesHandler.getInstance().getSweepSeed(),
+                job.getUpc(), job.getSimPerUpc()));
+        if (PropertiesHandler.getInstance().isExportSummary()) {
+            this.ssBuffer = new StringWriter();
+            this.ssWriter = (CidmSimulationSummaryWriter) generator.ssWriter.copy(this.ssBuffer, this.dgData);
+        }
+        if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
+            this.rsBuffer = new StringWriter();
+            this.rsWriter = (CidmRoundSummaryWriter) generator.rsWriter.copy(this.rsBuffer, this.dgData);
+        }
+        if (PropertiesHandler.getInstance().isExportAgentDetails() ||
+                PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
+            this.adBuffer = new StringWriter();
+            this.adWriter = (CidmAgentDetailsWriter) generator.adWriter.copy(this.adBuffer, this.dgData);
+        }
+    }
+
 
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.generator.AbstractDataGenerator#getFolderName()
@@ -143,10 +185,8 @@ public class CidmDataGenerator extends AbstractDataGenerator implements AgentLis
 
         // risk perceptions the same with regards to susceptibility (pi) and diseases severity (sigma)?
         double[] rSigmas = this.dgData.getUtilityModelParams().getRSigmas();
-        double[] rPis = this.dgData.getUtilityModelParams().getRPis();
-        if (this.dgData.getUtilityModelParams().isRsEqual()) {
-            rPis = new double[1];
-        }
+        double[] rPis = this.dgData.getUtilityModelParams().isRsEqual() ?
+                new double[1] : this.dgData.getUtilityModelParams().getRPis();
 
         int[] Ns = this.dgData.getUtilityModelParams().isNRandom() ?
                 new int[1] : this.dgData.getUtilityModelParams().getNs();
@@ -158,98 +198,79 @@ public class CidmDataGenerator extends AbstractDataGenerator implements AgentLis
                 new double[1] : this.dgData.getUtilityModelParams().getOmegas();
 
 
-        // unique parameter combinations
-        int upcs = this.dgData.getUtilityModelParams().getAlphas().length *
-                this.dgData.getUtilityModelParams().getKappas().length *
-                this.dgData.getUtilityModelParams().getBetas().length *
-                this.dgData.getUtilityModelParams().getLamdas().length *
-                this.dgData.getUtilityModelParams().getCs().length *
-                this.dgData.getUtilityModelParams().getMus().length *
-                this.dgData.getUtilityModelParams().getSigmas().length *
-                this.dgData.getUtilityModelParams().getGammas().length *
-                rSigmas.length *
-                rPis.length *
-                Ns.length *
-                iotas.length *
-                phis.length *
-                omegas.length *
-                this.dgData.getUtilityModelParams().getTaus().length;
-
-        // loop over all possible parameter combinations
-        for (double alpha : this.dgData.getUtilityModelParams().getAlphas()) {
-            this.dgData.getUtilityModelParams().setCurrAlpha(alpha);
-            for (double kappa : this.dgData.getUtilityModelParams().getKappas()) {
-                this.dgData.getUtilityModelParams().setCurrKappa(kappa);
-                for (double beta : this.dgData.getUtilityModelParams().getBetas()) {
-                    this.dgData.getUtilityModelParams().setCurrBeta(beta);
-                    for (double lamda : this.dgData.getUtilityModelParams().getLamdas()) {
-                        this.dgData.getUtilityModelParams().setCurrLamda(lamda);
-                        for (double c : this.dgData.getUtilityModelParams().getCs()) {
-                            this.dgData.getUtilityModelParams().setCurrC(c);
-                            for (double mu : this.dgData.getUtilityModelParams().getMus()) {
-                                this.dgData.getUtilityModelParams().setCurrMu(mu);
-                                for (double sigma : this.dgData.getUtilityModelParams().getSigmas()) {
-                                    this.dgData.getUtilityModelParams().setCurrSigma(sigma);
-                                    for (double gamma : this.dgData.getUtilityModelParams().getGammas()) {
-                                        this.dgData.getUtilityModelParams().setCurrGamma(gamma);
-                                        for (double rSigma : rSigmas) {
-                                            this.dgData.getUtilityModelParams().setCurrRSigma(rSigma);
-                                            for (double rPi : rPis) {
-                                                if (this.dgData.getUtilityModelParams().isRsEqual()) {
-                                                    this.dgData.getUtilityModelParams().setCurrRPi(rSigma);
-                                                } else {
-                                                    this.dgData.getUtilityModelParams().setCurrRPi(rPi);
-                                                }
-                                                for (int N : Ns) {
-                                                    this.dgData.getUtilityModelParams().setCurrN(N);
-                                                    for (boolean iota : iotas) {
-                                                        this.dgData.getUtilityModelParams().setCurrIota(iota);
-                                                        for (double phi : phis) {
-                                                            this.dgData.getUtilityModelParams().setCurrPhi(phi);
-                                                            for (double omega : omegas) {
-                                                                this.dgData.getUtilityModelParams().setCurrOmega(omega);
-                                                                for (int tau : this.dgData.getUtilityModelParams().getTaus()) {
-                                                                    this.dgData.getUtilityModelParams().setCurrTau(tau);
-
-                                                                    this.dgData.getSimStats().incUpc();
-                                                                    logger.info("Starting to compute "
-                                                                            + this.dgData.getUtilityModelParams().
-                                                                            getSimsPerParameterCombination()
-                                                                            + " simulations for parameter combination: "
-                                                                            + this.dgData.getSimStats().getUpc() + " / "
-                                                                            + upcs);
-
-                                                                    // multiple simulations for same parameter combination
-                                                                    this.dgData.getSimStats().setSimPerUpc(1);
-                                                                    while (this.dgData.getSimStats().getSimPerUpc()
-                                                                            <= this.dgData.getUtilityModelParams().
-                                                                            getSimsPerParameterCombination()) {
-
-                                                                        // simulate
-                                                                        performSingleSimulation();
-
-                                                                        // log simulation summary
-                                                                        if (PropertiesHandler.getInstance().isExportSummary()) {
-                                                                            this.ssWriter.writeCurrentData();
-                                                                        }
-
-                                                                        this.dgData.getSimStats().incSimPerUpc();
-
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
+        double[] alphas = this.dgData.getUtilityModelParams().getAlphas();
+        double[] kappas = this.dgData.getUtilityModelParams().getKappas();
+        double[] betas = this.dgData.getUtilityModelParams().getBetas();
+        double[] lamdas = this.dgData.getUtilityModelParams().getLamdas();
+        double[] cs = this.dgData.getUtilityModelParams().getCs();
+        double[] mus = this.dgData.getUtilityModelParams().getMus();
+        double[] sigmas = this.dgData.getUtilityModelParams().getSigmas();
+        double[] gammas = this.dgData.getUtilityModelParams().getGammas();
+        int[] taus = this.dgData.getUtilityModelParams().getTaus();
+
+        // unique parameter combinations, in order of nested loops over all parameters
+        int[] levelCounts = new int[] {
+                alphas.length,
+                kappas.length,
+                betas.length,
+                lamdas.length,
+                cs.length,
+                mus.length,
+                sigmas.length,
+                gammas.length,
+                rSigmas.length,
+                rPis.length,
+                Ns.length,
+                iotas.length,
+                phis.length,
+                omegas.length,
+                taus.length};
+        this.dgData.getSimStats().setUpcs(SweepJob.countUpcs(levelCounts));
+        List<SweepJob> jobs = SweepJob.enumerate(levelCounts,
+                this.dgData.getUtilityModelParams().getSimsPerParameterCombination());
+
+        try {
+            // multiple simulations for all parameter combinations, each with its own data and network
+            new SweepExecutor(PropertiesHandler.getInstance().getSweepWorkers()).execute(jobs, job -> {
+                CidmDataGenerator worker = new CidmDataGenerator(this, job);
+                CidmParameters params = worker.dgData.getUtilityModelParams();
+                params.setCurrAlpha(alphas[job.getLevel(0)]);
+                params.setCurrKappa(kappas[job.getLevel(1)]);
+                params.setCurrBeta(betas[job.getLevel(2)]);
+                params.setCurrLamda(lamdas[job.getLevel(3)]);
+                params.setCurrC(cs[job.getLevel(4)]);
+                params.setCurrMu(mus[job.getLevel(5)]);
+                params.setCurrSigma(sigmas[job.getLevel(6)]);
+                params.setCurrGamma(gammas[job.getLevel(7)]);
+                params.setCurrRSigma(rSigmas[job.getLevel(8)]);
+                if (params.isRsEqual()) {
+                    params.setCurrRPi(rSigmas[job.getLevel(8)]);
+                } else {
+                    params.setCurrRPi(rPis[job.getLevel(9)]);
                 }
-            }
+                params.setCurrN(Ns[job.getLevel(10)]);
+                params.setCurrIota(iotas[job.getLevel(11)]);
+                params.setCurrPhi(phis[job.getLevel(12)]);
+                params.setCurrOmega(omegas[job.getLevel(13)]);
+                params.setCurrTau(taus[job.getLevel(14)]);
+
+                // simulate, with random draws independent of the worker thread and of other jobs
+                RandomStream previous = RandomStream.bind(new RandomStream(worker.dgData.getSimStats().getSeed()));
+                try {
+                    worker.performSingleSimulation();
+                } finally {
+                    RandomStream.bind(previous);
+                }
+
+                // log simulation summary
+                if (PropertiesHandler.getInstance().isExportSummary()) {
+                    worker.ssWriter.writeCurrentData();
+                }
+                return worker;
+            }, this::commit);
+        } catch (RuntimeException e) {
+            abortDataExportFiles(e);
+            throw e;
         }
 
         // finish data generation
@@ -264,27 +285,29 @@ public class CidmDataGenerator extends AbstractDataGenerator implements AgentLis
 
         // create network
         this.network = new Network();
+        // GraphStream attributes required for GEXF export only
+        this.network.setAttributeMirroring(PropertiesHandler.getInstance().isExportGexf());
 
         // setting parameters
         // N
         if (this.dgData.getUtilityModelParams().isNRandom()) {
-            this.dgData.getUtilityModelParams().setCurrN(ThreadLocalRandom.current().nextInt(
+            this.dgData.getUtilityModelParams().setCurrN(RandomStream.current().nextInt(
                     this.dgData.getUtilityModelParams().getNRandomMin(),
                     this.dgData.getUtilityModelParams().getNRandomMax()));
         }
         // iota
         if (this.dgData.getUtilityModelParams().isIotaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrIota(ThreadLocalRandom.current().nextBoolean());
+            this.dgData.getUtilityModelParams().setCurrIota(RandomStream.current().nextBoolean());
         }
         // phi
         if (this.dgData.getUtilityModelParams().isPhiRandom()) {
-            this.dgData.getUtilityModelParams().setCurrPhi(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrPhi(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getPhiRandomMin(),
                     this.dgData.getUtilityModelParams().getPhiRandomMax()));
         }
         // omega
         if (this.dgData.getUtilityModelParams().isOmegaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrOmega(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrOmega(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getOmegaRandomMin(),
                     this.dgData.getUtilityModelParams().getOmegaRandomMax()));
         }
@@ -304,7 +327,7 @@ public class CidmDataGenerator extends AbstractDataGenerator implements AgentLis
                 this.dgData.getUtilityModelParams().getCurrC());
 
         // add agents
-        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR,
+        DiseaseSpecs ds = new DiseaseSpecs(PropertiesHandler.getInstance().getSimDiseaseType(),
                 this.dgData.getUtilityModelParams().getCurrTau(),
                 this.dgData.getUtilityModelParams().getCurrSigma(),
                 this.dgData.getUtilityModelParams().getCurrGamma(),
@@ -372,8 +395,40 @@ public class CidmDataGenerator extends AbstractDataGenerator implements AgentLis
     }
 
 
+    /**
+     * Writes the buffered data of a single simulation of a parameter sweep.
+     *
+     * @param worker
+     *          the data generator of the single simulation
+     * @throws UncheckedIOException
+     *          if the data files cannot be written
+     */
+    private void commit(CidmDataGenerator worker) {
+        try {
+            if (PropertiesHandler.getInstance().isExportSummary()) {
+                this.ssWriter.append(worker.ssBuffer.getBuffer());
+            }
+            if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
+                this.rsWriter.append(worker.rsBuffer.getBuffer());
+            }
+            if (PropertiesHandler.getInstance().isExportAgentDetails() ||
+                    PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
+                this.adWriter.append(worker.adBuffer.getBuffer());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.debug("Simulation " + worker.sweepJob.getSimPerUpc() +
+                "/" + this.dgData.getUtilityModelParams().getSimsPerParameterCombination() +
+                " of parameter combination " +
+                worker.sweepJob.getUpc() + "/" + this.dgData.getSimStats().getUpcs() + " finished.");
+    }
+
     /**
      * Finalizes the export of data files.
+     *
+     * @throws UncheckedIOException
+     *          if the data files cannot be written
      */
     private void finalizeDataExportFiles() {
         try {
@@ -391,7 +446,30 @@ public class CidmDataGenerator extends AbstractDataGenerator implements AgentLis
                 this.adWriter.close();
             }
         } catch (IOException e) {
-            logger.error(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the data files after a failed parameter sweep.
+     *
+     * @param failure
+     *          the failure of the parameter sweep, to add failures of closing the files to
+     */
+    private void abortDataExportFiles(RuntimeException failure) {
+        try {
+            if (PropertiesHandler.getInstance().isExportSummary()) {
+                this.ssWriter.close();
+            }
+            if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
+                this.rsWriter.close();
+            }
+            if (PropertiesHandler.getInstance().isExportAgentDetails() ||
+                    PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
+                this.adWriter.close();
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
         }
     }
 
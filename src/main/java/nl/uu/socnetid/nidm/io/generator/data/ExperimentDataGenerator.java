@@ -44,7 +44,6 @@ import nl.uu.socnetid.nidm.agents.Agent;
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.ExperimentParameters;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
-import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
 import nl.uu.socnetid.nidm.io.csv.ExperimentAgentDetailsWriter;
 import nl.uu.socnetid.nidm.io.csv.ExperimentRoundSummaryWriter;
 import nl.uu.socnetid.nidm.io.csv.ExperimentSimulationSummaryWriter;
@@ -257,7 +256,7 @@ public class ExperimentDataGenerator extends AbstractDataGenerator implements Si
                                 UtilityFunction uf = new NunnerBuskens(ump.getB1(),
                                         ump.getB2(), ump.getAlpha(), ump.getC1(), ump.getC2());
                                 this.network.updateUtility(uf);
-                                DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR,
+                                DiseaseSpecs ds = new DiseaseSpecs(PropertiesHandler.getInstance().getSimDiseaseType(),
                                         ump.getTau(), ump.getSigma(), ump.getGamma(), 0);
                                 this.network.updateDisease(ds);
                                 this.network.updateAgentSelection(phi, psi, xi);
@@ -371,7 +370,7 @@ public class ExperimentDataGenerator extends AbstractDataGenerator implements Si
     public void notifyRoundFinished(Simulation simulation) {
         this.dgData.getSimStats().setRounds(simulation.getRounds());
 
-        int epidemicSize = simulation.getNetwork().getInfected().size();
+        int epidemicSize = simulation.getNetwork().getInfectedCount();
         if (epidemicSize > this.dgData.getSimStats().getEpidemicPeakSizeDynamic()) {
             this.dgData.getSimStats().setEpidemicMaxInfectionsDynamic(epidemicSize);
             this.dgData.getSimStats().setEpidemicPeakDynamic(simulation.getRounds());
@@ -25,15 +25,19 @@
  */
 package nl.uu.socnetid.nidm.io.generator.data;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -44,10 +48,16 @@ import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.EpidemicStructures;
 import nl.uu.socnetid.nidm.data.out.NunnerBuskensParameters;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
-import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.io.csv.CsvFileWriter;
+import nl.uu.socnetid.nidm.io.csv.CsvOutput;
 import nl.uu.socnetid.nidm.io.csv.NunnerBuskensAgentDetailsWriterReduced;
+import nl.uu.socnetid.nidm.io.csv.NunnerBuskensParametersWriter;
 import nl.uu.socnetid.nidm.io.csv.NunnerBuskensRoundSummaryWriter;
 import nl.uu.socnetid.nidm.io.csv.NunnerBuskensSimulationSummaryWriterReduced;
+import nl.uu.socnetid.nidm.io.generator.SweepExecutor;
+import nl.uu.socnetid.nidm.io.generator.SweepJob;
+import nl.uu.socnetid.nidm.io.generator.SweepJournal;
+import nl.uu.socnetid.nidm.io.generator.SweepShard;
 import nl.uu.socnetid.nidm.io.network.GEXFWriter;
 import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.simulation.Simulation;
@@ -59,6 +69,7 @@ import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.stats.NetworkStatsPost;
 import nl.uu.socnetid.nidm.stats.NetworkStatsPre;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.NunnerBuskens;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -84,7 +95,26 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
     private NunnerBuskensSimulationSummaryWriterReduced ssWriter;
     private NunnerBuskensRoundSummaryWriter rsWriter;
     private NunnerBuskensAgentDetailsWriterReduced adWriter;
+    private NunnerBuskensParametersWriter psWriter;
     private GEXFWriter gexfWriter;
+    // data of a single simulation of a parameter sweep, buffered until written in order of simulations
+    private StringWriter ssBuffer;
+    private StringWriter rsBuffer;
+    private StringWriter adBuffer;
+    private StringWriter psBuffer;
+    // job of a single simulation of a parameter sweep
+    private SweepJob sweepJob;
+    // journal of completed jobs, for resuming an interrupted parameter sweep
+    private SweepJournal journal;
+    // paths of the data files (of the first part, see SweepJournal#getFileName(String))
+    private String ssPath;
+    private String rsPath;
+    private String adPath;
+    private String psPath;
+    // whether to continue the data in new files before writing the data of the next simulation
+    private boolean rotationPending;
+    // jobs written since the last durability point, recorded in the journal at the end of their parameter combination
+    private final List<SweepJob> unsyncedJobs = new ArrayList<SweepJob>();
 
 
     /**
@@ -101,6 +131,45 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
         super(rootExportPath);
     }
 
+    /**
+     * Constructor for a single simulation of a parameter sweep, running in parallel to others: with a copy of the
+     * data of a data generator and writers buffering the data of the simulation.
+     *
+     * @param generator
+     *          the data generator running the parameter sweep
+     * @param job
+     *          the job of the parameter sweep
+     */
+    private NunnerBuskensDataGenerator(NunnerBuskensDataGenerator generator, SweepJob job) {
+        super(generator);
+        this.sweepJob = job;
+        this.dgData = generator.dgData.copy();
+        this.dgData.getSimStats().setUpc(job.getUpc());
+        this.dgData.getSimStats().setSimPerUpc(job.getSimPerUpc());
+        this.dgData.getSimStats().setSeed(RandomStream.derive(PropertiesHandler.getInstance().getSweepSeed(),
+                job.getUpc(), job.getSimPerUpc()));
+        if (PropertiesHandler.getInstance().isExportSummary()) {
+            this.ssBuffer = new StringWriter();
+            this.ssWriter = (NunnerBuskensSimulationSummaryWriterReduced) generator.ssWriter.copy(this.ssBuffer,
+                    this.dgData);
+        }
+        if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
+            this.rsBuffer = new StringWriter();
+            this.rsWriter = (NunnerBuskensRoundSummaryWriter) generator.rsWriter.copy(this.rsBuffer, this.dgData);
+        }
+        if (PropertiesHandler.getInstance().isExportAgentDetails() ||
+                PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
+            this.adBuffer = new StringWriter();
+            this.adWriter = (NunnerBuskensAgentDetailsWriterReduced) generator.adWriter.copy(this.adBuffer,
+                    this.dgData);
+        }
+        // parameters of the unique parameter combination, once with its first simulation
+        if (PropertiesHandler.getInstance().isExportNormalized() && job.getSimPerUpc() == 1) {
+            this.psBuffer = new StringWriter();
+            this.psWriter = (NunnerBuskensParametersWriter) generator.psWriter.copy(this.psBuffer, this.dgData);
+        }
+    }
+
 
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.generator.AbstractDataGenerator#getFolderName()
@@ -123,19 +192,117 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
      */
     @Override
     protected void initWriters() throws IOException {
+        // data files of the shard processed, resumed after the last completed simulation
+        SweepShard shard = PropertiesHandler.getInstance().getSweepShard();
+        this.ssPath = getExportPath() + CsvOutput.getFileName(shard.getFileName("simulation-summary.csv"));
+        this.rsPath = getExportPath() + CsvOutput.getFileName(shard.getFileName("round-summary.csv"));
+        this.adPath = getExportPath() + CsvOutput.getFileName(shard.getFileName("agent-details.csv"));
+        this.psPath = getExportPath() + CsvOutput.getFileName(shard.getFileName("parameters.csv"));
+        List<String> dataPaths = new ArrayList<String>();
+        if (PropertiesHandler.getInstance().isExportSummary()) {
+            dataPaths.add(this.ssPath);
+        }
+        if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
+            dataPaths.add(this.rsPath);
+        }
+        if (PropertiesHandler.getInstance().isExportAgentDetails() ||
+                PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
+            dataPaths.add(this.adPath);
+        }
+        if (PropertiesHandler.getInstance().isExportNormalized()) {
+            dataPaths.add(this.psPath);
+        }
+        this.journal = new SweepJournal(getExportPath() + shard.getFileName(SweepJournal.FILE_NAME),
+                dataPaths.toArray(new String[dataPaths.size()]));
+        openWriters();
+    }
+
+    /**
+     * Opens the writers of the data files of the current part (see {@link SweepJournal#getFileName(String)}).
+     *
+     * @throws IOException
+     *          if the data files cannot be opened
+     */
+    private void openWriters() throws IOException {
         // summary CSV
         if (PropertiesHandler.getInstance().isExportSummary()) {
-            this.ssWriter = new NunnerBuskensSimulationSummaryWriterReduced(getExportPath() + "simulation-summary.csv",
-                    this.dgData);
+            String path = this.journal.getFileName(this.ssPath);
+            this.ssWriter = resume(new NunnerBuskensSimulationSummaryWriterReduced(CsvOutput.open(path, true),
+                    this.dgData), path);
         }
         // round summary CSV
         if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
-            this.rsWriter = new NunnerBuskensRoundSummaryWriter(getExportPath() + "round-summary.csv", this.dgData);
+            String path = this.journal.getFileName(this.rsPath);
+            this.rsWriter = resume(new NunnerBuskensRoundSummaryWriter(CsvOutput.open(path, true),
+                    this.dgData), path);
         }
         // agent details
         if (PropertiesHandler.getInstance().isExportAgentDetails() ||
                 PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
-            this.adWriter = new NunnerBuskensAgentDetailsWriterReduced(getExportPath() + "agent-details.csv", this.dgData);
+            String path = this.journal.getFileName(this.adPath);
+            this.adWriter = resume(new NunnerBuskensAgentDetailsWriterReduced(CsvOutput.open(path, true),
+                    this.dgData), path);
+        }
+        // parameters of unique parameter combinations
+        if (PropertiesHandler.getInstance().isExportNormalized()) {
+            String path = this.journal.getFileName(this.psPath);
+            this.psWriter = resume(new NunnerBuskensParametersWriter(CsvOutput.open(path, true),
+                    this.dgData), path);
+        }
+    }
+
+    /**
+     * Resumes writing to a data file: column names are written to new files only.
+     *
+     * @param writer
+     *          the writer appending to the data file
+     * @param path
+     *          the path of the data file
+     * @return the writer
+     */
+    private static <W extends CsvFileWriter<?>> W resume(W writer, String path) {
+        if (new File(path).length() == 0) {
+            writer.writeColumnNames();
+        }
+        return writer;
+    }
+
+    /**
+     * Closes the writers of the data files of the current part. All writers are closed, even if closing any of them
+     * fails.
+     *
+     * @throws IOException
+     *          if the data files cannot be written
+     */
+    private void closeWriters() throws IOException {
+        List<CsvFileWriter<?>> writers = new ArrayList<CsvFileWriter<?>>();
+        if (PropertiesHandler.getInstance().isExportSummary()) {
+            writers.add(this.ssWriter);
+        }
+        if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
+            writers.add(this.rsWriter);
+        }
+        if (PropertiesHandler.getInstance().isExportAgentDetails() ||
+                PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
+            writers.add(this.adWriter);
+        }
+        if (PropertiesHandler.getInstance().isExportNormalized()) {
+            writers.add(this.psWriter);
+        }
+        IOException failure = null;
+        for (CsvFileWriter<?> writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
         }
     }
 
@@ -169,16 +336,14 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
                 new double[1] : this.dgData.getUtilityModelParams().getRSigmas();
         boolean[] rSigmaRandomHomogeneouses = this.dgData.getUtilityModelParams().isRSigmaRandom() ?
                 this.dgData.getUtilityModelParams().getRSigmaRandomHomogeneous() : new boolean[1];
-        double[] rPis = this.dgData.getUtilityModelParams().isRPiRandom() ?
+        // rPi equal to rSigma, if rs are equal
+        double[] rPis = this.dgData.getUtilityModelParams().isRPiRandom() ||
+                this.dgData.getUtilityModelParams().isRsEqual() ?
                 new double[1] : this.dgData.getUtilityModelParams().getRPis();
-        boolean[] rPiRandomHomogeneouses = this.dgData.getUtilityModelParams().isRPiRandom() ?
+        boolean[] rPiRandomHomogeneouses = this.dgData.getUtilityModelParams().isRPiRandom() &&
+                !this.dgData.getUtilityModelParams().isRsEqual() ?
                 this.dgData.getUtilityModelParams().getRPiRandomHomogeneous() : new boolean[1];
 
-        if (this.dgData.getUtilityModelParams().isRsEqual()) {
-            rPis = new double[1];
-            rPiRandomHomogeneouses = new boolean[1];
-        }
-
 
         int[] Ns = this.dgData.getUtilityModelParams().isNRandom() ?
                 new int[1] : this.dgData.getUtilityModelParams().getNs();
@@ -189,95 +354,74 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
         double[] omegas = this.dgData.getUtilityModelParams().isOmegaRandom() ?
                 new double[1] : this.dgData.getUtilityModelParams().getOmegas();
 
-        // unique parameter combinations
-        this.dgData.getSimStats().setUpcs(
-                b1s.length *
-                b2s.length *
-                alphas.length *
-                c1s.length *
-                c2s.length *
-                sigmas.length *
-                gammas.length *
-                taus.length *
-                rMins.length *
-                rMaxs.length *
-                rSigmas.length *
-                rSigmaRandomHomogeneouses.length *
-                rPis.length *
-                rPiRandomHomogeneouses.length *
-                Ns.length *
-                iotas.length *
-                phis.length *
-                omegas.length);
-
-        // loop over all possible parameter combinations
-        for (double b1 : b1s) {
-            this.dgData.getUtilityModelParams().setCurrB1(b1);
-            for (double b2 : b2s) {
-                this.dgData.getUtilityModelParams().setCurrB2(b2);
-                for (double alpha : alphas) {
-                    this.dgData.getUtilityModelParams().setCurrAlpha(alpha);
-                    for (double c1 : c1s) {
-                        this.dgData.getUtilityModelParams().setCurrC1(c1);
-                        for (double c2 : c2s) {
-                            this.dgData.getUtilityModelParams().setCurrC2(c2);
-                            for (double sigma : sigmas) {
-                                this.dgData.getUtilityModelParams().setCurrSigma(sigma);
-                                for (double gamma : gammas) {
-                                    this.dgData.getUtilityModelParams().setCurrGamma(gamma);
-                                    for (int tau : taus) {
-                                        this.dgData.getUtilityModelParams().setCurrTau(tau);
-                                        for (double rMin : rMins) {
-                                            this.dgData.getUtilityModelParams().setCurrRMin(rMin);
-                                            for (double rMax : rMaxs) {
-                                                this.dgData.getUtilityModelParams().setCurrRMax(rMax);
-                                                for (double rSigma : rSigmas) {
-                                                    this.dgData.getUtilityModelParams().setCurrRSigma(rSigma);
-                                                    for (boolean rSigmaRandomHomogeneous : rSigmaRandomHomogeneouses) {
-                                                        this.dgData.getUtilityModelParams().setCurrRSigmaRandomHomogeneous(rSigmaRandomHomogeneous);
-                                                        for (double rPi : rPis) {
-                                                            this.dgData.getUtilityModelParams().setCurrRPi(rPi);
-                                                            for (boolean rPiRandomHomogeneous : rPiRandomHomogeneouses) {
-                                                                this.dgData.getUtilityModelParams().setCurrRPiRandomHomogeneous(rPiRandomHomogeneous);
-                                                                for (int N : Ns) {
-                                                                    this.dgData.getUtilityModelParams().setCurrN(N);
-                                                                    for (boolean iota : iotas) {
-                                                                        this.dgData.getUtilityModelParams().setCurrIota(iota);
-                                                                        for (double phi : phis) {
-                                                                            this.dgData.getUtilityModelParams().setCurrPhi(phi);
-                                                                            for (double omega : omegas) {
-                                                                                this.dgData.getUtilityModelParams().setCurrOmega(omega);
-
-                                                                                this.dgData.getSimStats().incUpc();
-
-                                                                                // multiple simulations for same parameter combination
-                                                                                this.dgData.getSimStats().setSimPerUpc(1);
-                                                                                while (this.dgData.getSimStats().getSimPerUpc()
-                                                                                        <= this.dgData.getUtilityModelParams().
-                                                                                        getSimsPerParameterCombination()) {
-
-                                                                                    // simulate
-                                                                                    performSingleSimulation();
-
-                                                                                    this.dgData.getSimStats().incSimPerUpc();
-                                                                                }
-                                                                            }
-                                                                        }
-                                                                    }
-                                                                }
-                                                            }
-                                                        }
-                                                    }
-                                                }
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
+        // unique parameter combinations, in order of nested loops over all parameters
+        int[] levelCounts = new int[] {
+                b1s.length,
+                b2s.length,
+                alphas.length,
+                c1s.length,
+                c2s.length,
+                sigmas.length,
+                gammas.length,
+                taus.length,
+                rMins.length,
+                rMaxs.length,
+                rSigmas.length,
+                rSigmaRandomHomogeneouses.length,
+                rPis.length,
+                rPiRandomHomogeneouses.length,
+                Ns.length,
+                iotas.length,
+                phis.length,
+                omegas.length};
+        this.dgData.getSimStats().setUpcs(SweepJob.countUpcs(levelCounts));
+        List<SweepJob> jobs = SweepJob.enumerate(levelCounts,
+                this.dgData.getUtilityModelParams().getSimsPerParameterCombination());
+
+        // jobs of the shard processed, without jobs completed before an interruption
+        jobs = PropertiesHandler.getInstance().getSweepShard().select(jobs);
+        jobs.removeIf(this.journal::isCompleted);
+
+        try {
+            // multiple simulations for all parameter combinations, each with its own data and network
+            new SweepExecutor(PropertiesHandler.getInstance().getSweepWorkers()).execute(jobs, job -> {
+                NunnerBuskensDataGenerator worker = new NunnerBuskensDataGenerator(this, job);
+                NunnerBuskensParameters params = worker.dgData.getUtilityModelParams();
+                params.setCurrB1(b1s[job.getLevel(0)]);
+                params.setCurrB2(b2s[job.getLevel(1)]);
+                params.setCurrAlpha(alphas[job.getLevel(2)]);
+                params.setCurrC1(c1s[job.getLevel(3)]);
+                params.setCurrC2(c2s[job.getLevel(4)]);
+                params.setCurrSigma(sigmas[job.getLevel(5)]);
+                params.setCurrGamma(gammas[job.getLevel(6)]);
+                params.setCurrTau(taus[job.getLevel(7)]);
+                params.setCurrRMin(rMins[job.getLevel(8)]);
+                params.setCurrRMax(rMaxs[job.getLevel(9)]);
+                params.setCurrRSigma(rSigmas[job.getLevel(10)]);
+                params.setCurrRSigmaRandomHomogeneous(rSigmaRandomHomogeneouses[job.getLevel(11)]);
+                params.setCurrRPi(rPis[job.getLevel(12)]);
+                params.setCurrRPiRandomHomogeneous(rPiRandomHomogeneouses[job.getLevel(13)]);
+                params.setCurrN(Ns[job.getLevel(14)]);
+                params.setCurrIota(iotas[job.getLevel(15)]);
+                params.setCurrPhi(phis[job.getLevel(16)]);
+                params.setCurrOmega(omegas[job.getLevel(17)]);
+                if (worker.psWriter != null) {
+                    worker.psWriter.writeCurrentData();
                 }
-            }
+
+                // simulate, with random draws independent of the worker thread and of other jobs
+                RandomStream previous = RandomStream.bind(new RandomStream(worker.dgData.getSimStats().getSeed()));
+                try {
+                    worker.performSingleSimulation();
+                } finally {
+                    RandomStream.bind(previous);
+                }
+                return worker;
+            }, this::commit);
+        } catch (RuntimeException e) {
+            // keep data recorded in the journal only, for resuming the sweep
+            abortDataExportFiles(e);
+            throw e;
         }
 
         // finish data generation
@@ -293,80 +437,80 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
         // setting parameters
         // b1
         if (this.dgData.getUtilityModelParams().isB1Random()) {
-            this.dgData.getUtilityModelParams().setCurrB1(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrB1(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getB1RandomMin(),
                     this.dgData.getUtilityModelParams().getB1RandomMax()));
         }
         // b2
         if (this.dgData.getUtilityModelParams().isB2Random()) {
-            this.dgData.getUtilityModelParams().setCurrB2(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrB2(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getB2RandomMin(),
                     this.dgData.getUtilityModelParams().getB2RandomMax()));
         }
         // alpha
         if (this.dgData.getUtilityModelParams().isAlphaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrAlpha(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrAlpha(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getAlphaRandomMin(),
                     this.dgData.getUtilityModelParams().getAlphaRandomMax()));
         }
         // c1
         if (this.dgData.getUtilityModelParams().isC1Random()) {
-            this.dgData.getUtilityModelParams().setCurrC1(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrC1(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getC1RandomMin(),
                     this.dgData.getUtilityModelParams().getC1RandomMax()));
         }
         // c2
         if (this.dgData.getUtilityModelParams().isC2Random()) {
-            this.dgData.getUtilityModelParams().setCurrC2(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrC2(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getC2RandomMin(),
                     this.dgData.getUtilityModelParams().getC2RandomMax()));
         }
         // sigma
         if (this.dgData.getUtilityModelParams().isSigmaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrSigma(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrSigma(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getSigmaRandomMin(),
                     this.dgData.getUtilityModelParams().getSigmaRandomMax()));
         }
         // gamma
         if (this.dgData.getUtilityModelParams().isGammaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrGamma(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrGamma(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getGammaRandomMin(),
                     this.dgData.getUtilityModelParams().getGammaRandomMax()));
         }
         // tau
         if (this.dgData.getUtilityModelParams().isTauRandom()) {
-            this.dgData.getUtilityModelParams().setCurrTau(ThreadLocalRandom.current().nextInt(
+            this.dgData.getUtilityModelParams().setCurrTau(RandomStream.current().nextInt(
                     this.dgData.getUtilityModelParams().getTauRandomMin(),
                     this.dgData.getUtilityModelParams().getTauRandomMax()));
         }
         // N
         if (this.dgData.getUtilityModelParams().isNRandom()) {
-            this.dgData.getUtilityModelParams().setCurrN(ThreadLocalRandom.current().nextInt(
+            this.dgData.getUtilityModelParams().setCurrN(RandomStream.current().nextInt(
                     this.dgData.getUtilityModelParams().getNRandomMin(),
                     this.dgData.getUtilityModelParams().getNRandomMax()));
         }
         // rMin
         if (this.dgData.getUtilityModelParams().isRMinRandom()) {
-            this.dgData.getUtilityModelParams().setCurrRMin(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrRMin(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getRMinRandomMin(),
                     this.dgData.getUtilityModelParams().getRMinRandomMax()));
         }
         // rMax
         if (this.dgData.getUtilityModelParams().isRMaxRandom()) {
-            this.dgData.getUtilityModelParams().setCurrRMax(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrRMax(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getRMaxRandomMin(),
                     this.dgData.getUtilityModelParams().getRMaxRandomMax()));
         }
         // rSigma
         if (this.dgData.getUtilityModelParams().isRSigmaRandom()) {
             if (this.dgData.getUtilityModelParams().isCurrRSigmaRandomHomogeneous()) {
-                this.dgData.getUtilityModelParams().setCurrRSigma(ThreadLocalRandom.current().nextDouble(
+                this.dgData.getUtilityModelParams().setCurrRSigma(RandomStream.current().nextDouble(
                         this.dgData.getUtilityModelParams().getCurrRMin(), this.dgData.getUtilityModelParams().getCurrRMax()));
             } else {
                 int currN = this.dgData.getUtilityModelParams().getCurrN();
                 double[] rSigmas = new double[currN];
                 for (int i = 0; i < currN; i++) {
-                    rSigmas[i] = ThreadLocalRandom.current().nextDouble(
+                    rSigmas[i] = RandomStream.current().nextDouble(
                             this.dgData.getUtilityModelParams().getCurrRMin(), this.dgData.getUtilityModelParams().getCurrRMax());
                 }
                 this.dgData.getUtilityModelParams().setCurrRSigmas(rSigmas);
@@ -382,13 +526,13 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
             this.dgData.getUtilityModelParams().setCurrRPis(this.dgData.getUtilityModelParams().getCurrRSigmas());
         } else if (this.dgData.getUtilityModelParams().isRPiRandom()) {
             if (this.dgData.getUtilityModelParams().isCurrRPiRandomHomogeneous()) {
-                this.dgData.getUtilityModelParams().setCurrRPi(ThreadLocalRandom.current().nextDouble(
+                this.dgData.getUtilityModelParams().setCurrRPi(RandomStream.current().nextDouble(
                         this.dgData.getUtilityModelParams().getCurrRMin(), this.dgData.getUtilityModelParams().getCurrRMax()));
             } else {
                 int currN = this.dgData.getUtilityModelParams().getCurrN();
                 double[] rPis = new double[currN];
                 for (int i = 0; i < currN; i++) {
-                    rPis[i] = ThreadLocalRandom.current().nextDouble(
+                    rPis[i] = RandomStream.current().nextDouble(
                             this.dgData.getUtilityModelParams().getCurrRMin(), this.dgData.getUtilityModelParams().getCurrRMax());
                 }
                 this.dgData.getUtilityModelParams().setCurrRPis(rPis);
@@ -396,17 +540,17 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
         }
         // iota
         if (this.dgData.getUtilityModelParams().isIotaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrIota(ThreadLocalRandom.current().nextBoolean());
+            this.dgData.getUtilityModelParams().setCurrIota(RandomStream.current().nextBoolean());
         }
         // phi
         if (this.dgData.getUtilityModelParams().isPhiRandom()) {
-            this.dgData.getUtilityModelParams().setCurrPhi(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrPhi(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getPhiRandomMin(),
                     this.dgData.getUtilityModelParams().getPhiRandomMax()));
         }
         // omega
         if (this.dgData.getUtilityModelParams().isOmegaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrOmega(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrOmega(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getOmegaRandomMin(),
                     this.dgData.getUtilityModelParams().getOmegaRandomMax()));
         }
@@ -420,7 +564,7 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
                 this.dgData.getUtilityModelParams().getCurrC2());
 
         // create disease specs
-        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR,
+        DiseaseSpecs ds = new DiseaseSpecs(PropertiesHandler.getInstance().getSimDiseaseType(),
                 this.dgData.getUtilityModelParams().getCurrTau(),
                 this.dgData.getUtilityModelParams().getCurrSigma(),
                 this.dgData.getUtilityModelParams().getCurrGamma(),
@@ -436,6 +580,8 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
 
             // create network
             this.network = new Network();
+            // GraphStream attributes required for GEXF export only
+            this.network.setAttributeMirroring(PropertiesHandler.getInstance().isExportGexf());
 
             // begin: GEXF export
             if (PropertiesHandler.getInstance().isExportGexf()) {
@@ -631,25 +777,122 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
     }
 
     /**
-     * Finalizes the export of data files.
+     * Writes the buffered data of a single simulation of a parameter sweep. The data files are flushed and the jobs
+     * recorded in the journal after the last simulation of each unique parameter combination only, continuing the
+     * data in new files if configured (see {@link PropertiesHandler#getExportRotationSize()} and
+     * {@link PropertiesHandler#getExportRotationUpcs()}).
+     *
+     * @param worker
+     *          the data generator of the single simulation
+     * @throws UncheckedIOException
+     *          if the data files or the journal cannot be written
      */
-    private void finalizeDataExportFiles() {
+    private void commit(NunnerBuskensDataGenerator worker) {
         try {
+            if (this.rotationPending) {
+                closeWriters();
+                this.journal.rotate();
+                openWriters();
+                this.rotationPending = false;
+            }
             if (PropertiesHandler.getInstance().isExportSummary()) {
-                this.ssWriter.flush();
-                this.ssWriter.close();
+                this.ssWriter.append(worker.ssBuffer.getBuffer());
             }
             if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
-                this.rsWriter.flush();
-                this.rsWriter.close();
+                this.rsWriter.append(worker.rsBuffer.getBuffer());
             }
             if (PropertiesHandler.getInstance().isExportAgentDetails() ||
                     PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
-                this.adWriter.flush();
-                this.adWriter.close();
+                this.adWriter.append(worker.adBuffer.getBuffer());
+            }
+            if (worker.psWriter != null) {
+                this.psWriter.append(worker.psBuffer.getBuffer());
+            }
+            this.unsyncedJobs.add(worker.sweepJob);
+            int simsPerUpc = this.dgData.getUtilityModelParams().getSimsPerParameterCombination();
+            if (worker.sweepJob.getSimPerUpc() >= simsPerUpc) {
+                sync();
+                checkRotation(worker.sweepJob);
             }
         } catch (IOException e) {
-            logger.error(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes the data files and records the jobs written since the last durability point in the journal.
+     *
+     * @throws IOException
+     *          if the data files or the journal cannot be written
+     */
+    private void sync() throws IOException {
+        if (PropertiesHandler.getInstance().isExportSummary()) {
+            this.ssWriter.flush();
+        }
+        if (PropertiesHandler.getInstance().isExportSummaryEachRound()) {
+            this.rsWriter.flush();
+        }
+        if (PropertiesHandler.getInstance().isExportAgentDetails() ||
+                PropertiesHandler.getInstance().isExportAgentDetailsReduced()) {
+            this.adWriter.flush();
+        }
+        if (PropertiesHandler.getInstance().isExportNormalized()) {
+            this.psWriter.flush();
+        }
+        this.journal.record(this.unsyncedJobs);
+        this.unsyncedJobs.clear();
+    }
+
+    /**
+     * Checks after the last simulation of a unique parameter combination whether the data files have reached the
+     * configured size or number of unique parameter combinations, to continue the data of the next simulation in new
+     * files.
+     *
+     * @param job
+     *          the job of the last simulation of the unique parameter combination
+     */
+    private void checkRotation(SweepJob job) {
+        int rotationUpcs = PropertiesHandler.getInstance().getExportRotationUpcs();
+        long rotationSize = PropertiesHandler.getInstance().getExportRotationSize();
+        this.rotationPending = (rotationUpcs > 0 && job.getUpc() % rotationUpcs == 0) ||
+                (rotationSize > 0 && this.journal.exceeds(rotationSize));
+    }
+
+    /**
+     * Finalizes the export of data files.
+     *
+     * @throws UncheckedIOException
+     *          if the data files or the journal cannot be written
+     */
+    private void finalizeDataExportFiles() {
+        try {
+            sync();
+            closeWriters();
+            this.journal.complete();
+            this.journal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the data files and the journal after a failed parameter sweep. Jobs written since the last durability
+     * point are not recorded in the journal, so that a resumed sweep removes their data and repeats them.
+     *
+     * @param failure
+     *          the failure of the parameter sweep, to add failures of closing the files to
+     */
+    private void abortDataExportFiles(RuntimeException failure) {
+        this.unsyncedJobs.clear();
+        try {
+            closeWriters();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+        try {
+            this.journal.close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
         }
     }
 
@@ -671,7 +914,7 @@ public class NunnerBuskensDataGenerator extends AbstractDataGenerator implements
 
         switch (this.dgData.getSimStats().getSimStage()) {
             case ACTIVE_EPIDEMIC:
-                int epidemicSize = simulation.getNetwork().getInfected().size();
+                int epidemicSize = simulation.getNetwork().getInfectedCount();
 
                 switch (this.dgData.getUtilityModelParams().getCurrEpStructure()) {
                     case STATIC:
@@ -47,7 +47,6 @@ import nl.uu.socnetid.nidm.data.in.Professions;
 import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.NunnerBuskensProfessionsParameters;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
-import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
 import nl.uu.socnetid.nidm.io.csv.NunnerBuskensProfessionsAgentDetailsWriter;
 import nl.uu.socnetid.nidm.io.csv.NunnerBuskensProfessionsRoundSummaryWriter;
 import nl.uu.socnetid.nidm.io.csv.NunnerBuskensProfessionsSimulationSummaryWriter;
@@ -179,8 +178,8 @@ public class NunnerBuskensProfessionsDataGenerator extends AbstractGenerator imp
         this.dgData.getUtilityModelParams().setRoundsMax(nbpParams.getRoundsMax());
 
 
-        this.disease = new DiseaseSpecs(DiseaseType.SIR, this.dgData.getUtilityModelParams().getTau(), 1.0,
-                this.dgData.getUtilityModelParams().getGamma(), 0.0);
+        this.disease = new DiseaseSpecs(PropertiesHandler.getInstance().getSimDiseaseType(),
+                this.dgData.getUtilityModelParams().getTau(), 1.0, this.dgData.getUtilityModelParams().getGamma(), 0.0);
     }
 
     /* (non-Javadoc)
@@ -609,7 +608,7 @@ public class NunnerBuskensProfessionsDataGenerator extends AbstractGenerator imp
 
         switch (this.dgData.getSimStats().getSimStage()) {
             case ACTIVE_EPIDEMIC:
-                int epidemicSize = simulation.getNetwork().getInfected().size();
+                int epidemicSize = simulation.getNetwork().getInfectedCount();
                 if (epidemicSize > this.epidemicPeakSize) {
                     this.epidemicPeakSize = epidemicSize;
                     this.dgData.getSimStats().setEpidemicPeakSizeStatic(epidemicSize);
@@ -27,7 +27,6 @@ package nl.uu.socnetid.nidm.io.generator.data;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -37,7 +36,6 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
@@ -49,6 +47,7 @@ import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
 import nl.uu.socnetid.nidm.data.out.ProfessionNetworkDataParameters;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
 import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.io.csv.CsvOutput;
 import nl.uu.socnetid.nidm.io.csv.ProfessionNetworkDataWriter;
 import nl.uu.socnetid.nidm.io.csv.ProfessionNetworkRoundSummaryWriter;
 import nl.uu.socnetid.nidm.io.generator.AbstractGenerator;
@@ -61,6 +60,7 @@ import nl.uu.socnetid.nidm.stats.AgentStatsPre;
 import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.stats.NetworkStatsPost;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 
 /**
  * @author Hendrik Nunner
@@ -250,7 +250,7 @@ public class ProfessionsNetworkDataGenerator extends AbstractGenerator implement
                             // random vaccine distribution
                             else if (vaxDist.equals(VAX_DIST_RANDOM)) {
                                 List<Agent> agents = new ArrayList<Agent>(this.network.getAgents());
-                                Collections.shuffle(agents);
+                                Collections.shuffle(agents, RandomStream.current());
                                 deliverShots(theta, eta, agents);
                                 runEpidemic(preLockdown);
                             }
@@ -263,7 +263,7 @@ public class ProfessionsNetworkDataGenerator extends AbstractGenerator implement
                                             Professions.getInstance().getProfessionsOrderedByAvDegreeDuringLockdown().iterator();
                                 while (profsByDegree.hasNext()) {
                                     List<Agent> agentsByProfession = new ArrayList<Agent>(this.network.getAgents(profsByDegree.next()));
-                                    Collections.shuffle(agentsByProfession);
+                                    Collections.shuffle(agentsByProfession, RandomStream.current());
                                     agents.addAll(agentsByProfession);
                                 }
                                 deliverShots(theta, eta, agents);
@@ -298,7 +298,7 @@ public class ProfessionsNetworkDataGenerator extends AbstractGenerator implement
             Agent agent = agentsIt.next();
 
             // immunization successful?
-            if (ThreadLocalRandom.current().nextDouble() < eta) {
+            if (RandomStream.current().nextDouble() < eta) {
                 agent.vaccinate();
                 agentsImmunized++;
             }
@@ -351,7 +351,7 @@ public class ProfessionsNetworkDataGenerator extends AbstractGenerator implement
         String lineSep = ";";
 
         try{
-            BufferedReader br = new BufferedReader(new FileReader(NETWORKS_SUMMARY_FILE));
+            BufferedReader br = CsvOutput.openReader(CsvOutput.resolve(NETWORKS_SUMMARY_FILE));
             String line = null;
             int exportFilenameIndex = -1;
 
@@ -382,7 +382,7 @@ public class ProfessionsNetworkDataGenerator extends AbstractGenerator implement
         String lineSep = ";";
 
         try{
-            BufferedReader br = new BufferedReader(new FileReader(NETWORKS_SUMMARY_FILE));
+            BufferedReader br = CsvOutput.openReader(CsvOutput.resolve(NETWORKS_SUMMARY_FILE));
             String line = br.readLine();
             line = line.replace("export.filename", "import.filename");
             colNames = new ArrayList<String>(Arrays.asList(line.split(lineSep)));
@@ -400,7 +400,7 @@ public class ProfessionsNetworkDataGenerator extends AbstractGenerator implement
         String lineSep = ";";
 
         try{
-            BufferedReader br = new BufferedReader(new FileReader(NETWORKS_SUMMARY_FILE));
+            BufferedReader br = CsvOutput.openReader(CsvOutput.resolve(NETWORKS_SUMMARY_FILE));
             String line = null;
             int exportFilenameIndex = -1;
 
@@ -440,7 +440,7 @@ public class ProfessionsNetworkDataGenerator extends AbstractGenerator implement
 
     @Override
     public void notifyRoundFinished(Simulation simulation) {
-        int epidemicSize = simulation.getNetwork().getInfected().size();
+        int epidemicSize = simulation.getNetwork().getInfectedCount();
         if (epidemicSize > this.epidemicPeakSize) {
             this.epidemicPeakSize = epidemicSize;
             this.dgData.getSimStats().setEpidemicPeakSizeStatic(epidemicSize);
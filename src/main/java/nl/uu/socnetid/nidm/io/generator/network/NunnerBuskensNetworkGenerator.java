@@ -26,8 +26,10 @@
 package nl.uu.socnetid.nidm.io.generator.network;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.LinkedList;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -40,6 +42,8 @@ import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
 import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
 import nl.uu.socnetid.nidm.io.csv.NunnerBuskensNetworkSummaryWriter;
 import nl.uu.socnetid.nidm.io.generator.AbstractGenerator;
+import nl.uu.socnetid.nidm.io.generator.SweepExecutor;
+import nl.uu.socnetid.nidm.io.generator.SweepJob;
 import nl.uu.socnetid.nidm.io.network.EdgeListWriter;
 import nl.uu.socnetid.nidm.io.network.GEXFWriter;
 import nl.uu.socnetid.nidm.io.network.NetworkFileWriter;
@@ -48,6 +52,7 @@ import nl.uu.socnetid.nidm.simulation.Simulation;
 import nl.uu.socnetid.nidm.simulation.SimulationListener;
 import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.NunnerBuskens;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -70,6 +75,10 @@ public class NunnerBuskensNetworkGenerator extends AbstractGenerator implements
     // stats & writer
     private DataGeneratorData<NunnerBuskensParameters> dgData;
     private NunnerBuskensNetworkSummaryWriter nsWriter;
+    // data of a single simulation of a parameter sweep, buffered until written in order of simulations
+    private StringWriter nsBuffer;
+    // job of a single simulation of a parameter sweep
+    private SweepJob sweepJob;
 
 
     /**
@@ -86,6 +95,29 @@ public class NunnerBuskensNetworkGenerator extends AbstractGenerator implements
         super(rootExportPath);
     }
 
+    /**
+     * Constructor for a single simulation of a parameter sweep, running in parallel to others: with a copy of the
+     * data of a network generator and a writer buffering the data of the simulation.
+     *
+     * @param generator
+     *          the network generator running the parameter sweep
+     * @param job
+     *          the job of the parameter sweep
+     */
+    private NunnerBuskensNetworkGenerator(NunnerBuskensNetworkGenerator generator, SweepJob job) {
+        super(generator);
+        this.sweepJob = job;
+        this.dgData = generator.dgData.copy();
+        this.dgData.getSimStats().setUpc(job.getUpc());
+        this.dgData.getSimStats().setSimPerUpc(job.getSimPerUpc());
+        this.dgData.getSimStats().setSeed(RandomStream.derive(PropertiesHandler.getInstance().getSweepSeed(),
+                job.getUpc(), job.getSimPerUpc()));
+        if (PropertiesHandler.getInstance().isExportSummary()) {
+            this.nsBuffer = new StringWriter();
+            this.nsWriter = (NunnerBuskensNetworkSummaryWriter) generator.nsWriter.copy(this.nsBuffer, this.dgData);
+        }
+    }
+
 
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.io.generator.AbstractDataGenerator#getFolderName()
@@ -120,11 +152,6 @@ public class NunnerBuskensNetworkGenerator extends AbstractGenerator implements
     @Override
     protected void generate() {
 
-        // TODO generalize:
-        //          - create a list of parameter combinations
-        //          - list objects are unique parameter combinations for model type (e.g., NunnerBuskens)
-        //          - iterate over that list, rather than nested loops
-
         double[] b1s = this.dgData.getUtilityModelParams().isB1Random() ?
                 new double[1] : this.dgData.getUtilityModelParams().getB1s();
         double[] b2s = this.dgData.getUtilityModelParams().isB2Random() ?
@@ -145,75 +172,48 @@ public class NunnerBuskensNetworkGenerator extends AbstractGenerator implements
         double[] psis = this.dgData.getUtilityModelParams().isPsiRandom() ?
                 new double[1] : this.dgData.getUtilityModelParams().getPsis();
 
-        // unique parameter combinations
-        int upcs =
-                b1s.length *
-                b2s.length *
-                alphas.length *
-                c1s.length *
-                c2s.length *
-                Ns.length *
-                iotas.length *
-                phis.length *
-                psis.length;
-
-        // loop over all possible parameter combinations
-        for (double b1 : b1s) {
-            this.dgData.getUtilityModelParams().setCurrB1(b1);
-            for (double b2 : b2s) {
-                this.dgData.getUtilityModelParams().setCurrB2(b2);
-                for (double alpha : alphas) {
-                    this.dgData.getUtilityModelParams().setCurrAlpha(alpha);
-                    for (double c1 : c1s) {
-                        this.dgData.getUtilityModelParams().setCurrC1(c1);
-                        for (double c2 : c2s) {
-                            this.dgData.getUtilityModelParams().setCurrC2(c2);
-                            for (int N : Ns) {
-                                this.dgData.getUtilityModelParams().setCurrN(N);
-                                for (boolean iota : iotas) {
-                                    this.dgData.getUtilityModelParams().setCurrIota(iota);
-                                    for (double phi : phis) {
-                                        this.dgData.getUtilityModelParams().setCurrPhi(phi);
-                                        for (double psi : psis) {
-                                            this.dgData.getUtilityModelParams().setCurrPsi(psi);
-
-                                            this.dgData.getSimStats().incUpc();
-                                            logger.info("Starting to generate "
-                                                    + this.dgData.getUtilityModelParams().
-                                                    getSimsPerParameterCombination()
-                                                    + " networks for parameter combination: "
-                                                    + this.dgData.getSimStats().getUpc() + " / "
-                                                    + upcs);
-
-                                            // multiple simulations for same parameter combination
-                                            this.dgData.getSimStats().setSimPerUpc(1);
-                                            while (this.dgData.getSimStats().getSimPerUpc()
-                                                    <= this.dgData.getUtilityModelParams().
-                                                    getSimsPerParameterCombination()) {
-
-                                                // simulate
-                                                performSingleSimulation();
-
-                                                logger.debug("Network generation " +
-                                                        this.dgData.getSimStats().getSimPerUpc() +
-                                                        "/" +
-                                                        this.dgData.getUtilityModelParams().getSimsPerParameterCombination() +
-                                                        " of parameter combination " +
-                                                        this.dgData.getSimStats().getUpc() +
-                                                        "/" +
-                                                        upcs +
-                                                        " finished.");
-
-                                                this.dgData.getSimStats().incSimPerUpc();
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
+        // unique parameter combinations, in order of nested loops over all parameters
+        int[] levelCounts = new int[] {
+                b1s.length,
+                b2s.length,
+                alphas.length,
+                c1s.length,
+                c2s.length,
+                Ns.length,
+                iotas.length,
+                phis.length,
+                psis.length};
+        this.dgData.getSimStats().setUpcs(SweepJob.countUpcs(levelCounts));
+        List<SweepJob> jobs = SweepJob.enumerate(levelCounts,
+                this.dgData.getUtilityModelParams().getSimsPerParameterCombination());
+
+        try {
+            // multiple simulations for all parameter combinations, each with its own data and network
+            new SweepExecutor(PropertiesHandler.getInstance().getSweepWorkers()).execute(jobs, job -> {
+                NunnerBuskensNetworkGenerator worker = new NunnerBuskensNetworkGenerator(this, job);
+                NunnerBuskensParameters params = worker.dgData.getUtilityModelParams();
+                params.setCurrB1(b1s[job.getLevel(0)]);
+                params.setCurrB2(b2s[job.getLevel(1)]);
+                params.setCurrAlpha(alphas[job.getLevel(2)]);
+                params.setCurrC1(c1s[job.getLevel(3)]);
+                params.setCurrC2(c2s[job.getLevel(4)]);
+                params.setCurrN(Ns[job.getLevel(5)]);
+                params.setCurrIota(iotas[job.getLevel(6)]);
+                params.setCurrPhi(phis[job.getLevel(7)]);
+                params.setCurrPsi(psis[job.getLevel(8)]);
+
+                // simulate, with random draws independent of the worker thread and of other jobs
+                RandomStream previous = RandomStream.bind(new RandomStream(worker.dgData.getSimStats().getSeed()));
+                try {
+                    worker.performSingleSimulation();
+                } finally {
+                    RandomStream.bind(previous);
                 }
-            }
+                return worker;
+            }, this::commit);
+        } catch (RuntimeException e) {
+            abortDataExportFiles(e);
+            throw e;
         }
         finalizeDataExportFiles();
     }
@@ -230,53 +230,53 @@ public class NunnerBuskensNetworkGenerator extends AbstractGenerator implements
         // setting parameters
         // b1
         if (this.dgData.getUtilityModelParams().isB1Random()) {
-            this.dgData.getUtilityModelParams().setCurrB1(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrB1(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getB1RandomMin(),
                     this.dgData.getUtilityModelParams().getB1RandomMax()));
         }
         // b2
         if (this.dgData.getUtilityModelParams().isB2Random()) {
-            this.dgData.getUtilityModelParams().setCurrB2(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrB2(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getB2RandomMin(),
                     this.dgData.getUtilityModelParams().getB2RandomMax()));
         }
         // alpha
         if (this.dgData.getUtilityModelParams().isAlphaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrAlpha(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrAlpha(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getAlphaRandomMin(),
                     this.dgData.getUtilityModelParams().getAlphaRandomMax()));
         }
         // c1
         if (this.dgData.getUtilityModelParams().isC1Random()) {
-            this.dgData.getUtilityModelParams().setCurrC1(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrC1(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getC1RandomMin(),
                     this.dgData.getUtilityModelParams().getC1RandomMax()));
         }
         // c2
         if (this.dgData.getUtilityModelParams().isC2Random()) {
-            this.dgData.getUtilityModelParams().setCurrC2(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrC2(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getC2RandomMin(),
                     this.dgData.getUtilityModelParams().getC2RandomMax()));
         }
         // N
         if (this.dgData.getUtilityModelParams().isNRandom()) {
-            this.dgData.getUtilityModelParams().setCurrN(ThreadLocalRandom.current().nextInt(
+            this.dgData.getUtilityModelParams().setCurrN(RandomStream.current().nextInt(
                     this.dgData.getUtilityModelParams().getNRandomMin(),
                     this.dgData.getUtilityModelParams().getNRandomMax()));
         }
         // iota
         if (this.dgData.getUtilityModelParams().isIotaRandom()) {
-            this.dgData.getUtilityModelParams().setCurrIota(ThreadLocalRandom.current().nextBoolean());
+            this.dgData.getUtilityModelParams().setCurrIota(RandomStream.current().nextBoolean());
         }
         // phi
         if (this.dgData.getUtilityModelParams().isPhiRandom()) {
-            this.dgData.getUtilityModelParams().setCurrPhi(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrPhi(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getPhiRandomMin(),
                     this.dgData.getUtilityModelParams().getPhiRandomMax()));
         }
         // psi
         if (this.dgData.getUtilityModelParams().isPsiRandom()) {
-            this.dgData.getUtilityModelParams().setCurrPsi(ThreadLocalRandom.current().nextDouble(
+            this.dgData.getUtilityModelParams().setCurrPsi(RandomStream.current().nextDouble(
                     this.dgData.getUtilityModelParams().getPsiRandomMin(),
                     this.dgData.getUtilityModelParams().getPsiRandomMax()));
         }
@@ -350,15 +350,59 @@ public class NunnerBuskensNetworkGenerator extends AbstractGenerator implements
                 "-" + nameAppendix + ".gexf");
     }
 
+    /**
+     * Writes the buffered data of a single simulation of a parameter sweep.
+     *
+     * @param worker
+     *          the network generator of the single simulation
+     * @throws UncheckedIOException
+     *          if the data files cannot be written
+     */
+    private void commit(NunnerBuskensNetworkGenerator worker) {
+        try {
+            if (PropertiesHandler.getInstance().isExportSummary()) {
+                this.nsWriter.append(worker.nsBuffer.getBuffer());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.debug("Network generation " +
+                worker.sweepJob.getSimPerUpc() +
+                "/" +
+                this.dgData.getUtilityModelParams().getSimsPerParameterCombination() +
+                " of parameter combination " +
+                worker.sweepJob.getUpc() +
+                "/" +
+                this.dgData.getSimStats().getUpcs() +
+                " finished.");
+    }
+
     /**
      * Finalizes the export of data files.
+     *
+     * @throws UncheckedIOException
+     *          if the data files cannot be written
      */
     private void finalizeDataExportFiles() {
         try {
             this.nsWriter.flush();
             this.nsWriter.close();
         } catch (IOException e) {
-            logger.error(e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the data files after a failed parameter sweep.
+     *
+     * @param failure
+     *          the failure of the parameter sweep, to add failures of closing the files to
+     */
+    private void abortDataExportFiles(RuntimeException failure) {
+        try {
+            this.nsWriter.close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
         }
     }
 
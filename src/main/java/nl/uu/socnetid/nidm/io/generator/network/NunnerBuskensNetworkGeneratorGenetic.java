@@ -32,7 +32,6 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.commons.math3.distribution.ExponentialDistribution;
 import org.apache.commons.math3.distribution.NormalDistribution;
@@ -59,6 +58,7 @@ import nl.uu.socnetid.nidm.simulation.Simulation;
 import nl.uu.socnetid.nidm.simulation.SimulationListener;
 import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.NunnerBuskens;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -150,6 +150,8 @@ public class NunnerBuskensNetworkGeneratorGenetic extends AbstractGenerator impl
         this.dgData = new DataGeneratorData<NunnerBuskensGeneticParameters>(
                 PropertiesHandler.getInstance().getNunnerBuskensGeneticParameters());
         this.dgData.getSimStats().setUpc(0);
+        // all simulations draw from the stream bound when launched
+        this.dgData.getSimStats().setSeed(RandomStream.derive(PropertiesHandler.getInstance().getSweepSeed()));
 
         this.dgData.getUtilityModelParams().setN(
                 PropertiesHandler.getInstance().getNunnerBuskensGeneticParameters().getN());
@@ -324,7 +326,7 @@ public class NunnerBuskensNetworkGeneratorGenetic extends AbstractGenerator impl
                         this.dgData.getUtilityModelParams().getB1(),
                         this.dgData.getUtilityModelParams().getC1(),
                         new NormalDistribution(TARGET_AV_DEGREE, TARGET_AV_DEGREE * MUTATION_SD).sample());
-                double alpha = ThreadLocalRandom.current().nextDouble(
+                double alpha = RandomStream.current().nextDouble(
                         this.dgData.getUtilityModelParams().getInitialAlphaMin(),
                         this.dgData.getUtilityModelParams().getInitialAlphaMax());
 
@@ -351,8 +353,8 @@ public class NunnerBuskensNetworkGeneratorGenetic extends AbstractGenerator impl
                     for (int child = 1; child <= NUMBER_OF_CHILDREN; child++) {
 
                         // GENE SELECTION
-                        double avC2 = ThreadLocalRandom.current().nextBoolean() ? mother.getAvC2() : father.getAvC2();
-                        double alpha = ThreadLocalRandom.current().nextBoolean() ? mother.getAlpha() : father.getAlpha();
+                        double avC2 = RandomStream.current().nextBoolean() ? mother.getAvC2() : father.getAvC2();
+                        double alpha = RandomStream.current().nextBoolean() ? mother.getAlpha() : father.getAlpha();
 
                         // GENE MUTATION
                         avC2 += new NormalDistribution(0, avC2 * MUTATION_SD).sample();
@@ -53,6 +53,7 @@ import nl.uu.socnetid.nidm.simulation.Simulation;
 import nl.uu.socnetid.nidm.simulation.SimulationListener;
 import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.NunnerBuskens;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -107,6 +108,8 @@ public class NunnerBuskensNetworkGeneratorSimple extends AbstractGenerator imple
     protected void initData() {
         this.dgData = new DataGeneratorData<NunnerBuskensParameters>(PropertiesHandler.getInstance().getNunnerBuskensParameters());
         this.dgData.getSimStats().setUpc(0);
+        // all simulations draw from the stream bound when launched
+        this.dgData.getSimStats().setSeed(RandomStream.derive(PropertiesHandler.getInstance().getSweepSeed()));
         this.dgData.getUtilityModelParams().setCurrN(100);
         this.dgData.getUtilityModelParams().setCurrB1(1.0);
         this.dgData.getUtilityModelParams().setCurrB2(0.5);
@@ -35,7 +35,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -58,6 +57,7 @@ import nl.uu.socnetid.nidm.simulation.SimulationListener;
 import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.stats.NetworkStatsPre;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.NunnerBuskens;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
@@ -471,14 +471,14 @@ public class ProfessionsNetworkGeneratorGenetic extends AbstractGenerator implem
                         // GENE SELECTION
                         Map<String, Double> oldAvDegrees = mother.getAvDegrees();
                         Map<String, Double> oldTargetAvDegrees = mother.getTargetAvDegrees();
-                        if (!ThreadLocalRandom.current().nextBoolean()) {
+                        if (!RandomStream.current().nextBoolean()) {
                             oldAvDegrees = father.getAvDegrees();
                             oldTargetAvDegrees = father.getTargetAvDegrees();
                         }
 
                         double alpha = mother.getAlpha();
                         double clustering = mother.getClustering();
-                        if (!ThreadLocalRandom.current().nextBoolean()) {
+                        if (!RandomStream.current().nextBoolean()) {
                             alpha = father.getAlpha();
                             clustering = father.getClustering();
                         }
@@ -498,16 +498,16 @@ public class ProfessionsNetworkGeneratorGenetic extends AbstractGenerator implem
                             if (errorDegree > 0.02) {
                                 if (oldAvDegree < belotAvDegree) {
 //                                    newTargetAvDegree += newTargetAvDegree * errorDegree;
-                                    newTargetAvDegree += newTargetAvDegree * ThreadLocalRandom.current().nextDouble(errorDegree);
-//                                    newTargetAvDegree += newTargetAvDegree * ThreadLocalRandom.current().nextDouble(MUTATION_SD);
+                                    newTargetAvDegree += newTargetAvDegree * RandomStream.current().nextDouble(errorDegree);
+//                                    newTargetAvDegree += newTargetAvDegree * RandomStream.current().nextDouble(MUTATION_SD);
 
 //                                    logger.debug("Increasing degree for " + profession + ":\t" + String.format("%.2f", oldAvDegree)
 //                                            + " to " + String.format("%.2f", newTargetAvDegree));
                                 }
                                 if (oldAvDegree > belotAvDegree) {
 //                                  newTargetAvDegree -= newTargetAvDegree * errorDegree;
-                                  newTargetAvDegree -= newTargetAvDegree * ThreadLocalRandom.current().nextDouble(errorDegree);
-//                                  newTargetAvDegree -= newTargetAvDegree * ThreadLocalRandom.current().nextDouble(MUTATION_SD);
+                                  newTargetAvDegree -= newTargetAvDegree * RandomStream.current().nextDouble(errorDegree);
+//                                  newTargetAvDegree -= newTargetAvDegree * RandomStream.current().nextDouble(MUTATION_SD);
 
 //                                  logger.debug("Decreasing degree for " + profession + ":\t" + String.format("%.2f", oldAvDegree)
 //                                          + " to " + String.format("%.2f", newTargetAvDegree));
@@ -523,14 +523,14 @@ public class ProfessionsNetworkGeneratorGenetic extends AbstractGenerator implem
 
                             if (clustering < this.currTargetClustering) {
 //                                double oldAlpha = alpha;
-//                                alpha += alpha * ThreadLocalRandom.current().nextDouble(MUTATION_SD);
+//                                alpha += alpha * RandomStream.current().nextDouble(MUTATION_SD);
                                 alpha += alpha * errorClustering;
 //                                logger.debug("Increasing alpha:\t\t" + String.format("%.2f", oldAlpha)
 //                                        + " to " + String.format("%.2f", alpha));
                             }
                             if (clustering > this.currTargetClustering) {
 //                                double oldAlpha = alpha;
-//                                alpha -= alpha * ThreadLocalRandom.current().nextDouble(MUTATION_SD);
+//                                alpha -= alpha * RandomStream.current().nextDouble(MUTATION_SD);
                                 alpha -= alpha * errorClustering;
 //                                logger.debug("Decreasing alpha:\t\t" + String.format("%.2f", oldAlpha)
 //                                        + " to " + String.format("%.2f", alpha));
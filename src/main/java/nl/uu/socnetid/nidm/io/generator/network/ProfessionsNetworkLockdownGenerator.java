@@ -31,7 +31,6 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
@@ -51,6 +50,7 @@ import nl.uu.socnetid.nidm.networks.LockdownConditions;
 import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.stats.NetworkStats;
 import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.NunnerBuskens;
 
 /**
@@ -157,7 +157,7 @@ public class ProfessionsNetworkLockdownGenerator extends AbstractGenerator {
             this.dgData.getUtilityModelParams().setOmega(agent.getOmega());
             this.dgData.getUtilityModelParams().setAlpha(((NunnerBuskens) (agent.getUtilityFunction())).getAlpha());
             this.dgData.getUtilityModelParams().setCurrLockdownCondition(LockdownConditions.PRE);
-            this.dgData.setNetStatsCurrent(new NetworkStats(network, gexfFilePre));
+            this.dgData.setNetStatsCurrent(new NetworkStats(network));
             this.dgData.setExportFileName(preLockdownDgsDest.getPath());
             this.pnlWriter.writeCurrentData();
 
@@ -178,7 +178,7 @@ public class ProfessionsNetworkLockdownGenerator extends AbstractGenerator {
                     Agent a1 = (Agent) edge.getNode1();
 
                     // sever tie depending on 1. chance to sever tie based on the average degree reduction per professional group,
-                    if (((ThreadLocalRandom.current().nextDouble() <=
+                    if (((RandomStream.current().nextDouble() <=
                             (Professions.getInstance().getDegreeReductionLockdown(a0.getProfession())
                                     + Professions.getInstance().getDegreeReductionLockdown(a1.getProfession())) / 2))
                             // and 2. whether both agents are not yet in lockdown
@@ -204,7 +204,7 @@ public class ProfessionsNetworkLockdownGenerator extends AbstractGenerator {
             this.dgData.getSimStats().setUid(String.valueOf(uid));
             this.dgData.getSimStats().setUpc(upc++);
             this.dgData.getUtilityModelParams().setCurrLockdownCondition(LockdownConditions.DURING);
-            this.dgData.setNetStatsCurrent(new NetworkStats(network, gexfFileDuring));
+            this.dgData.setNetStatsCurrent(new NetworkStats(network));
             this.pnlWriter.writeCurrentData();
 
             logger.debug("\n\nNetwork in lockdown:");
@@ -28,6 +28,7 @@ package nl.uu.socnetid.nidm.mains;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -39,6 +40,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import nl.uu.socnetid.nidm.io.generator.AbstractGenerator;
+import nl.uu.socnetid.nidm.io.generator.SweepShard;
 import nl.uu.socnetid.nidm.io.generator.data.BurgerBuskensDataGenerator;
 import nl.uu.socnetid.nidm.io.generator.data.CarayolRouxDataGenerator;
 import nl.uu.socnetid.nidm.io.generator.data.CidmDataGenerator;
@@ -63,6 +65,8 @@ public class Generator {
 
     // time of invocation
     private static final String TIME_OF_INVOCATION = (new SimpleDateFormat("yyyyMMdd-HHmmss")).format(new Date());
+    // file storing a seed of parameter sweeps drawn randomly, to resume the sweeps with the same seed
+    private static final String SWEEP_SEED_FILE_NAME = "sweep-seed.txt";
 
     /**
      * Launches the data generation.
@@ -137,7 +141,7 @@ public class Generator {
      * @return the path for data exports
      */
     private String getDatedExportPath() {
-        return PropertiesHandler.getInstance().getRootExportPath() + TIME_OF_INVOCATION;
+        return PropertiesHandler.getInstance().getRootExportPath() + getExportName();
     }
 
     /**
@@ -145,7 +149,7 @@ public class Generator {
      */
     private String getDataExportPath() {
         return PropertiesHandler.getInstance().getRootExportPath() +
-                TIME_OF_INVOCATION + "/data/";
+                getExportName() + "/data/";
     }
 
     /**
@@ -153,9 +157,44 @@ public class Generator {
      */
     private String getNetworkExportPath() {
         return PropertiesHandler.getInstance().getRootExportPath() +
-                TIME_OF_INVOCATION + "/networks/";
+                getExportName() + "/networks/";
     }
 
+    /**
+     * @return the name of the export directory: as configured for resumed or sharded sweeps, the time of invocation
+     *          otherwise
+     */
+    private String getExportName() {
+        String exportName = PropertiesHandler.getInstance().getSweepExportName();
+        return exportName.isEmpty() ? TIME_OF_INVOCATION : exportName;
+    }
+
+
+    /**
+     * Initializes the seed of parameter sweeps if not configured: the seed drawn randomly is stored in the export
+     * directory, and the seed stored by an earlier invocation is used to resume the sweeps in that directory. Shards of
+     * sweeps run by several processes at once require a configured seed.
+     *
+     * @throws IOException
+     *          if the seed cannot be read from or written to the export directory
+     */
+    private void initSweepSeed() throws IOException {
+        if (PropertiesHandler.getInstance().isSweepSeedConfigured()) {
+            return;
+        }
+        if (PropertiesHandler.getInstance().getSweepShard().getCount() > 1) {
+            throw new IllegalStateException("Sharded parameter sweeps require a configured seed (sweep.seed).");
+        }
+        Path seedFile = Paths.get(getDatedExportPath(), SWEEP_SEED_FILE_NAME);
+        if (Files.exists(seedFile)) {
+            long seed = Long.parseLong(new String(Files.readAllBytes(seedFile), StandardCharsets.US_ASCII).trim());
+            PropertiesHandler.getInstance().setSweepSeed(seed);
+            logger.info("Seed of parameter sweeps (resumed): " + seed);
+        } else {
+            Files.write(seedFile, String.valueOf(PropertiesHandler.getInstance().getSweepSeed())
+                    .getBytes(StandardCharsets.US_ASCII));
+        }
+    }
 
     /**
      * Performs generation of data, networks, ...
@@ -170,6 +209,16 @@ public class Generator {
         // initialization
         this.initialize();
 
+        // merge the data of sharded sweeps
+        if (PropertiesHandler.getInstance().isSweepMerge()) {
+            SweepShard.merge(new File(getDatedExportPath()),
+                    PropertiesHandler.getInstance().getSweepShard().getCount());
+            return;
+        }
+
+        // seed of parameter sweeps, the same for resumed sweeps
+        initSweepSeed();
+
         // invoke data generators
         AbstractGenerator dataGenerator;
         // CIDM (Nunner, Buskens & Kretzschmar, 2019)
@@ -65,7 +65,6 @@ import org.graphstream.graph.Edge;
 import nl.uu.socnetid.nidm.agents.Agent;
 import nl.uu.socnetid.nidm.agents.AgentListener;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
-import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
 import nl.uu.socnetid.nidm.gui.BurgerBuskensPanel;
 import nl.uu.socnetid.nidm.gui.CarayolRouxPanel;
 import nl.uu.socnetid.nidm.gui.CidmPanel;
@@ -861,7 +860,7 @@ public class UserInterface implements NodeClickListener, SimulationListener, Age
      */
     private DiseaseSpecs getDiseaseSpecs() {
         return new DiseaseSpecs(
-                DiseaseType.SIR,
+                PropertiesHandler.getInstance().getSimDiseaseType(),
                 this.cidmPanel.getTau(),
                 this.cidmPanel.getSigma(),
                 this.cidmPanel.getGamma(),
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.networks;
+
+import java.util.Arrays;
+
+/**
+ * {@link GraphStore} based on primitive, sorted adjacency arrays. Edge lookups are constant time lookups in an
+ * {@link EdgeIndex}.
+ *
+ * @author Hendrik Nunner
+ */
+public class ArrayGraphStore implements GraphStore {
+
+    // initial capacities
+    private static final int INITIAL_NODE_CAPACITY = 16;
+    private static final int INITIAL_DEGREE_CAPACITY = 4;
+
+    // sorted neighbors per node (only the first degree[i] entries are valid)
+    private int[][] adjacency;
+    // degree per node
+    private int[] degree;
+    // existing edges
+    private EdgeIndex edgeIndex;
+    // number of nodes
+    private int nodeCount;
+    // structural version, increased with every change
+    private long version;
+
+
+    /**
+     * Constructor.
+     */
+    public ArrayGraphStore() {
+        clear();
+    }
+
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#addNode()
+     */
+    @Override
+    public int addNode() {
+        if (this.nodeCount == this.adjacency.length) {
+            int capacity = this.adjacency.length * 2;
+            this.adjacency = Arrays.copyOf(this.adjacency, capacity);
+            this.degree = Arrays.copyOf(this.degree, capacity);
+        }
+        this.adjacency[this.nodeCount] = new int[INITIAL_DEGREE_CAPACITY];
+        this.degree[this.nodeCount] = 0;
+        this.version++;
+        return this.nodeCount++;
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#removeNode(int)
+     */
+    @Override
+    public void removeNode(int index) {
+        checkIndex(index);
+        if (this.degree[index] > 0) {
+            throw new IllegalStateException("Unable to remove node " + index + ": node still has edges.");
+        }
+
+        int last = this.nodeCount - 1;
+        if (index != last) {
+            // the last node takes over the index of the removed node
+            int[] lastNeighbors = getNeighbors(last);
+            for (int neighbor : lastNeighbors) {
+                removeFromNeighborhood(neighbor, last);
+                this.edgeIndex.remove(neighbor, last);
+            }
+            this.adjacency[index] = this.adjacency[last];
+            this.degree[index] = this.degree[last];
+            for (int neighbor : lastNeighbors) {
+                insertIntoNeighborhood(neighbor, index);
+                this.edgeIndex.add(neighbor, index);
+            }
+        }
+        this.adjacency[last] = null;
+        this.degree[last] = 0;
+        this.nodeCount--;
+        this.version++;
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#addEdge(int, int)
+     */
+    @Override
+    public boolean addEdge(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        if (i == j || !this.edgeIndex.add(i, j)) {
+            return false;
+        }
+        insertIntoNeighborhood(i, j);
+        insertIntoNeighborhood(j, i);
+        this.version++;
+        return true;
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#removeEdge(int, int)
+     */
+    @Override
+    public boolean removeEdge(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        if (!this.edgeIndex.remove(i, j)) {
+            return false;
+        }
+        removeFromNeighborhood(i, j);
+        removeFromNeighborhood(j, i);
+        this.version++;
+        return true;
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#hasEdge(int, int)
+     */
+    @Override
+    public boolean hasEdge(int i, int j) {
+        if (i == j || i < 0 || j < 0 || i >= this.nodeCount || j >= this.nodeCount) {
+            return false;
+        }
+        return this.edgeIndex.contains(i, j);
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#getDegree(int)
+     */
+    @Override
+    public int getDegree(int index) {
+        checkIndex(index);
+        return this.degree[index];
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#getNeighbor(int, int)
+     */
+    @Override
+    public int getNeighbor(int index, int k) {
+        checkIndex(index);
+        if (k < 0 || k >= this.degree[index]) {
+            throw new IndexOutOfBoundsException("Neighbor " + k + " of node " + index + " does not exist.");
+        }
+        return this.adjacency[index][k];
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#getNeighbors(int)
+     */
+    @Override
+    public int[] getNeighbors(int index) {
+        checkIndex(index);
+        return Arrays.copyOf(this.adjacency[index], this.degree[index]);
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#getNodeCount()
+     */
+    @Override
+    public int getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#getEdgeCount()
+     */
+    @Override
+    public int getEdgeCount() {
+        return this.edgeIndex.size();
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#getVersion()
+     */
+    @Override
+    public long getVersion() {
+        return this.version;
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.networks.GraphStore#clear()
+     */
+    @Override
+    public void clear() {
+        this.adjacency = new int[INITIAL_NODE_CAPACITY][];
+        this.degree = new int[INITIAL_NODE_CAPACITY];
+        this.edgeIndex = new EdgeIndex();
+        this.nodeCount = 0;
+        this.version++;
+    }
+
+    /**
+     * Inserts a neighbor into the sorted neighborhood of a node.
+     *
+     * @param index
+     *          the index of the node
+     * @param neighbor
+     *          the index of the neighbor to insert
+     */
+    private void insertIntoNeighborhood(int index, int neighbor) {
+        int[] neighbors = this.adjacency[index];
+        int d = this.degree[index];
+        if (d == neighbors.length) {
+            neighbors = Arrays.copyOf(neighbors, Math.max(INITIAL_DEGREE_CAPACITY, d * 2));
+            this.adjacency[index] = neighbors;
+        }
+        int pos = -(Arrays.binarySearch(neighbors, 0, d, neighbor) + 1);
+        System.arraycopy(neighbors, pos, neighbors, pos + 1, d - pos);
+        neighbors[pos] = neighbor;
+        this.degree[index]++;
+    }
+
+    /**
+     * Removes a neighbor from the sorted neighborhood of a node.
+     *
+     * @param index
+     *          the index of the node
+     * @param neighbor
+     *          the index of the neighbor to remove
+     */
+    private void removeFromNeighborhood(int index, int neighbor) {
+        int[] neighbors = this.adjacency[index];
+        int d = this.degree[index];
+        int pos = Arrays.binarySearch(neighbors, 0, d, neighbor);
+        System.arraycopy(neighbors, pos + 1, neighbors, pos, d - pos - 1);
+        this.degree[index]--;
+    }
+
+    /**
+     * Checks whether a node index is valid.
+     *
+     * @param index
+     *          the index to check
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.nodeCount) {
+            throw new IndexOutOfBoundsException("Node " + index + " does not exist.");
+        }
+    }
+
+}
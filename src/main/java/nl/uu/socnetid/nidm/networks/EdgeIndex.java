@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.networks;
+
+import java.util.Arrays;
+
+/**
+ * Set of undirected edges between node indices. Each edge is packed into a single long key
+ * (min(i,j) << 32 | max(i,j)) and stored in a primitive open addressing hash table with linear probing.
+ *
+ * @author Hendrik Nunner
+ */
+public class EdgeIndex {
+
+    // marker for empty slots (packed keys of non-negative indices are never negative)
+    private static final long EMPTY = -1L;
+    // minimum capacity (power of 2)
+    private static final int MIN_CAPACITY = 16;
+
+    // the hash table
+    private long[] keys;
+    // mask to map hashes onto the table
+    private int mask;
+    // number of edges
+    private int size;
+
+
+    /**
+     * Constructor.
+     */
+    public EdgeIndex() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedEdges
+     *          the expected number of edges
+     */
+    public EdgeIndex(int expectedEdges) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedEdges * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+
+    /**
+     * Packs an undirected edge into a single key.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return the key of the edge
+     */
+    public static long key(int i, int j) {
+        return i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+    }
+
+    /**
+     * Adds an edge.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return true if the edge has been added, false if it existed already
+     */
+    public boolean add(int i, int j) {
+        return add(key(i, j));
+    }
+
+    /**
+     * Adds an edge.
+     *
+     * @param key
+     *          the key of the edge
+     * @return true if the edge has been added, false if it existed already
+     */
+    public boolean add(long key) {
+        int slot = slot(key);
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+        this.size++;
+        // load factor of at most 0.5
+        if (this.size * 2 > this.keys.length) {
+            rehash(this.keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an edge exists.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return true if the edge exists, false otherwise
+     */
+    public boolean contains(int i, int j) {
+        return contains(key(i, j));
+    }
+
+    /**
+     * Checks whether an edge exists.
+     *
+     * @param key
+     *          the key of the edge
+     * @return true if the edge exists, false otherwise
+     */
+    public boolean contains(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Removes an edge.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return true if the edge has been removed, false if it did not exist
+     */
+    public boolean remove(int i, int j) {
+        return remove(key(i, j));
+    }
+
+    /**
+     * Removes an edge. Subsequent entries of the probe sequence are shifted back, so that no tombstones are required.
+     *
+     * @param key
+     *          the key of the edge
+     * @return true if the edge has been removed, false if it did not exist
+     */
+    public boolean remove(long key) {
+        int free = find(key);
+        if (free < 0) {
+            return false;
+        }
+
+        int slot = free;
+        while (true) {
+            slot = (slot + 1) & this.mask;
+            long curr = this.keys[slot];
+            if (curr == EMPTY) {
+                break;
+            }
+            int home = slot(curr);
+            // entry stays if its home slot lies cyclically within (free, slot]
+            boolean stays = free <= slot ? (free < home && home <= slot) : (free < home || home <= slot);
+            if (!stays) {
+                this.keys[free] = curr;
+                free = slot;
+            }
+        }
+        this.keys[free] = EMPTY;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Gets the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes all edges.
+     */
+    public void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @param key
+     *          the key to find
+     * @return the slot of the key, or -1 if the key does not exist
+     */
+    private int find(long key) {
+        int slot = slot(key);
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the home slot of a key.
+     *
+     * @param key
+     *          the key
+     * @return the home slot of the key
+     */
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & this.mask;
+    }
+
+    /**
+     * Allocates an empty hash table.
+     *
+     * @param capacity
+     *          the capacity (power of 2)
+     */
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    /**
+     * Rehashes all keys into a table of the given capacity.
+     *
+     * @param capacity
+     *          the new capacity (power of 2)
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = this.keys;
+        allocate(capacity);
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (this.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = key;
+                this.size++;
+            }
+        }
+    }
+
+}
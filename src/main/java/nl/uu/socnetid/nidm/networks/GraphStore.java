@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.networks;
+
+/**
+ * Headless, index based storage of the network structure. Agents are identified by their index within the
+ * network (0 to n-1), connections are undirected and unweighted.
+ *
+ * @author Hendrik Nunner
+ */
+public interface GraphStore {
+
+    /**
+     * Adds a new node. The node receives the next free index.
+     *
+     * @return the index of the new node
+     */
+    int addNode();
+
+    /**
+     * Removes the node with the given index. All edges of the node must have been removed beforehand. If the node is
+     * not the last node, the last node takes over the index of the removed node.
+     *
+     * @param index
+     *          the index of the node to remove
+     */
+    void removeNode(int index);
+
+    /**
+     * Adds an undirected edge between two nodes.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return true if the edge has been added, false if it existed already
+     */
+    boolean addEdge(int i, int j);
+
+    /**
+     * Removes the undirected edge between two nodes.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return true if the edge has been removed, false if it did not exist
+     */
+    boolean removeEdge(int i, int j);
+
+    /**
+     * Checks whether two nodes are directly connected.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return true if both nodes are directly connected, false otherwise
+     */
+    boolean hasEdge(int i, int j);
+
+    /**
+     * Gets the degree of a node.
+     *
+     * @param index
+     *          the index of the node
+     * @return the degree of the node
+     */
+    int getDegree(int index);
+
+    /**
+     * Gets the k-th neighbor of a node, with 0 <= k < degree. Neighbors are ordered ascending by index.
+     *
+     * @param index
+     *          the index of the node
+     * @param k
+     *          the position within the node's neighborhood
+     * @return the index of the k-th neighbor
+     */
+    int getNeighbor(int index, int k);
+
+    /**
+     * Gets a copy of all neighbors of a node, ordered ascending by index.
+     *
+     * @param index
+     *          the index of the node
+     * @return the indices of all neighbors
+     */
+    int[] getNeighbors(int index);
+
+    /**
+     * Gets the number of nodes.
+     *
+     * @return the number of nodes
+     */
+    int getNodeCount();
+
+    /**
+     * Gets the number of undirected edges.
+     *
+     * @return the number of undirected edges
+     */
+    int getEdgeCount();
+
+    /**
+     * Gets the structural version. The version increases with every change of nodes or edges and allows to cache
+     * structural measures until the structure changes.
+     *
+     * @return the structural version
+     */
+    long getVersion();
+
+    /**
+     * Removes all nodes and edges.
+     */
+    void clear();
+
+}
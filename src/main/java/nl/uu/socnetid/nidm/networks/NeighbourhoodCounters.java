@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.networks;
+
+import java.util.Arrays;
+
+import nl.uu.socnetid.nidm.agents.AgentStateTable;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
+
+/**
+ * Incrementally maintained statistics of the agents' neighbourhoods: the number of closed triads (triangles) each
+ * agent is part of, the number of common neighbours of each pair of agents at distance 2, and the number of agents
+ * at distance 2 by disease group. All counters are updated on changes of ties and disease groups, so that local
+ * connection stats do not need to be recomputed from scratch.
+ *
+ * @author Hendrik Nunner
+ */
+public class NeighbourhoodCounters {
+
+    // initial capacity
+    private static final int INITIAL_CAPACITY = 16;
+
+    // disease groups by ordinal
+    private static final DiseaseGroup[] DISEASE_GROUPS = DiseaseGroup.values();
+
+    // the structure of the network
+    private final GraphStore graph;
+    // the states of the agents
+    private final AgentStateTable states;
+
+    // number of nodes
+    private int size;
+    // number of closed triads per node
+    private int[] triangles;
+    // number of nodes at distance 2 per disease group and node
+    private int[][] distance2;
+    // number of common neighbours per pair of nodes (two-paths)
+    private final PairCounter commonNeighbours = new PairCounter();
+
+    // stamps to visit nodes only once
+    private int[] visited;
+    private int visitStamp;
+
+
+    /**
+     * Constructor.
+     *
+     * @param graph
+     *          the structure of the network
+     * @param states
+     *          the states of the agents
+     */
+    public NeighbourhoodCounters(GraphStore graph, AgentStateTable states) {
+        this.graph = graph;
+        this.states = states;
+        clear();
+    }
+
+
+    /**
+     * Adds a node without ties.
+     */
+    public void addNode() {
+        if (this.size == this.triangles.length) {
+            int capacity = this.size * 2;
+            this.triangles = Arrays.copyOf(this.triangles, capacity);
+            for (int g = 0; g < DISEASE_GROUPS.length; g++) {
+                this.distance2[g] = Arrays.copyOf(this.distance2[g], capacity);
+            }
+            this.visited = Arrays.copyOf(this.visited, capacity);
+        }
+        this.size++;
+    }
+
+    /**
+     * Removes a node without ties. If the node is not the last node, the last node takes over the index of the
+     * removed node. Needs to be invoked before the node is removed from the {@link GraphStore}.
+     *
+     * @param index
+     *          the index of the node to remove
+     */
+    public void removeNode(int index) {
+        int last = this.size - 1;
+        if (index != last) {
+            // re-key the common neighbours of the last node
+            for (int k = 0; k < this.graph.getDegree(last); k++) {
+                int neighbor = this.graph.getNeighbor(last, k);
+                for (int l = 0; l < this.graph.getDegree(neighbor); l++) {
+                    int other = this.graph.getNeighbor(neighbor, l);
+                    if (other == last) {
+                        continue;
+                    }
+                    int count = this.commonNeighbours.remove(last, other);
+                    if (count > 0) {
+                        this.commonNeighbours.put(index, other, count);
+                    }
+                }
+            }
+            this.triangles[index] = this.triangles[last];
+            for (int g = 0; g < DISEASE_GROUPS.length; g++) {
+                this.distance2[g][index] = this.distance2[g][last];
+            }
+        }
+        this.triangles[last] = 0;
+        for (int g = 0; g < DISEASE_GROUPS.length; g++) {
+            this.distance2[g][last] = 0;
+        }
+        this.size--;
+    }
+
+    /**
+     * Updates the counters after a tie has been added to the {@link GraphStore}.
+     *
+     * @param u
+     *          the index of the first node
+     * @param v
+     *          the index of the second node
+     */
+    public void edgeAdded(int u, int v) {
+        int common = countCommonNeighbours(u, v, 1);
+        this.triangles[u] += common;
+        this.triangles[v] += common;
+
+        // new two-paths a-u-v and u-v-b
+        for (int k = 0; k < this.graph.getDegree(u); k++) {
+            int a = this.graph.getNeighbor(u, k);
+            if (a != v && this.commonNeighbours.increment(a, v) == 1 && !this.graph.hasEdge(a, v)) {
+                addDistance2(a, v, 1);
+            }
+        }
+        for (int k = 0; k < this.graph.getDegree(v); k++) {
+            int b = this.graph.getNeighbor(v, k);
+            if (b != u && this.commonNeighbours.increment(u, b) == 1 && !this.graph.hasEdge(u, b)) {
+                addDistance2(u, b, 1);
+            }
+        }
+
+        // u and v are not at distance 2 anymore
+        if (this.commonNeighbours.get(u, v) > 0) {
+            addDistance2(u, v, -1);
+        }
+    }
+
+    /**
+     * Updates the counters after a tie has been removed from the {@link GraphStore}.
+     *
+     * @param u
+     *          the index of the first node
+     * @param v
+     *          the index of the second node
+     */
+    public void edgeRemoved(int u, int v) {
+        int common = countCommonNeighbours(u, v, -1);
+        this.triangles[u] -= common;
+        this.triangles[v] -= common;
+
+        // removed two-paths a-u-v and u-v-b
+        for (int k = 0; k < this.graph.getDegree(u); k++) {
+            int a = this.graph.getNeighbor(u, k);
+            if (this.commonNeighbours.decrement(a, v) == 0 && !this.graph.hasEdge(a, v)) {
+                addDistance2(a, v, -1);
+            }
+        }
+        for (int k = 0; k < this.graph.getDegree(v); k++) {
+            int b = this.graph.getNeighbor(v, k);
+            if (this.commonNeighbours.decrement(u, b) == 0 && !this.graph.hasEdge(u, b)) {
+                addDistance2(u, b, -1);
+            }
+        }
+
+        // u and v may be at distance 2 now
+        if (this.commonNeighbours.get(u, v) > 0) {
+            addDistance2(u, v, 1);
+        }
+    }
+
+    /**
+     * Updates the counters after the disease group of a node has changed.
+     *
+     * @param index
+     *          the index of the node
+     * @param from
+     *          the previous disease group
+     * @param to
+     *          the new disease group
+     */
+    public void diseaseGroupChanged(int index, DiseaseGroup from, DiseaseGroup to) {
+        if (from == to) {
+            return;
+        }
+        int stamp = nextVisitStamp();
+        this.visited[index] = stamp;
+        for (int k = 0; k < this.graph.getDegree(index); k++) {
+            int neighbor = this.graph.getNeighbor(index, k);
+            for (int l = 0; l < this.graph.getDegree(neighbor); l++) {
+                int other = this.graph.getNeighbor(neighbor, l);
+                if (this.visited[other] == stamp) {
+                    continue;
+                }
+                this.visited[other] = stamp;
+                if (!this.graph.hasEdge(index, other)) {
+                    this.distance2[from.ordinal()][other]--;
+                    this.distance2[to.ordinal()][other]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of closed triads a node is part of.
+     *
+     * @param index
+     *          the index of the node
+     * @return the number of closed triads the node is part of
+     */
+    public int getTriangles(int index) {
+        return this.triangles[index];
+    }
+
+    /**
+     * Gets the number of nodes at distance 2 of a node.
+     *
+     * @param index
+     *          the index of the node
+     * @return the number of nodes at distance 2
+     */
+    public int getDistance2Count(int index) {
+        int count = 0;
+        for (int g = 0; g < DISEASE_GROUPS.length; g++) {
+            count += this.distance2[g][index];
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of nodes of a disease group at distance 2 of a node.
+     *
+     * @param index
+     *          the index of the node
+     * @param group
+     *          the disease group
+     * @return the number of nodes of the disease group at distance 2
+     */
+    public int getDistance2Count(int index, DiseaseGroup group) {
+        return this.distance2[group.ordinal()][index];
+    }
+
+    /**
+     * Gets the number of common neighbours of two nodes.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return the number of common neighbours
+     */
+    public int getCommonNeighbours(int i, int j) {
+        return this.commonNeighbours.get(i, j);
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void clear() {
+        this.size = 0;
+        this.triangles = new int[INITIAL_CAPACITY];
+        this.distance2 = new int[DISEASE_GROUPS.length][INITIAL_CAPACITY];
+        this.commonNeighbours.clear();
+        this.visited = new int[INITIAL_CAPACITY];
+        this.visitStamp = 0;
+    }
+
+    /**
+     * Counts the common neighbours of two nodes by intersecting their sorted adjacencies. Each common neighbour's
+     * number of closed triads is changed by the given delta.
+     *
+     * @param u
+     *          the index of the first node
+     * @param v
+     *          the index of the second node
+     * @param delta
+     *          the change of closed triads for each common neighbour
+     * @return the number of common neighbours
+     */
+    private int countCommonNeighbours(int u, int v, int delta) {
+        int common = 0;
+        int k = 0;
+        int l = 0;
+        int degreeU = this.graph.getDegree(u);
+        int degreeV = this.graph.getDegree(v);
+        while (k < degreeU && l < degreeV) {
+            int a = this.graph.getNeighbor(u, k);
+            int b = this.graph.getNeighbor(v, l);
+            if (a < b) {
+                k++;
+            } else if (a > b) {
+                l++;
+            } else {
+                this.triangles[a] += delta;
+                common++;
+                k++;
+                l++;
+            }
+        }
+        return common;
+    }
+
+    /**
+     * Changes the number of nodes at distance 2 for two nodes being at distance 2 of each other.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @param delta
+     *          the change
+     */
+    private void addDistance2(int i, int j, int delta) {
+        this.distance2[this.states.getDiseaseGroup(j).ordinal()][i] += delta;
+        this.distance2[this.states.getDiseaseGroup(i).ordinal()][j] += delta;
+    }
+
+    /**
+     * @return a fresh stamp to mark visited nodes
+     */
+    private int nextVisitStamp() {
+        if (++this.visitStamp == Integer.MAX_VALUE) {
+            Arrays.fill(this.visited, 0);
+            this.visitStamp = 1;
+        }
+        return this.visitStamp;
+    }
+
+}
@@ -37,23 +37,31 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.math.stat.descriptive.moment.StandardDeviation;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.graphstream.algorithm.Toolkit;
+import org.graphstream.graph.implementations.AbstractEdge;
+import org.graphstream.graph.implementations.AbstractNode;
 import org.graphstream.graph.implementations.SingleGraph;
 
 import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.agents.AgentAttributes;
 import nl.uu.socnetid.nidm.agents.AgentFactory;
+import nl.uu.socnetid.nidm.agents.AgentStateTable;
 import nl.uu.socnetid.nidm.data.in.AgeStructure;
 import nl.uu.socnetid.nidm.data.in.Professions;
 import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
 import nl.uu.socnetid.nidm.simulation.Simulation;
 import nl.uu.socnetid.nidm.simulation.SimulationListener;
-import nl.uu.socnetid.nidm.stats.DijkstraShortestPath;
+import nl.uu.socnetid.nidm.stats.Centralities;
+import nl.uu.socnetid.nidm.stats.GeodesicProfiles;
 import nl.uu.socnetid.nidm.stats.StatsComputer;
+import nl.uu.socnetid.nidm.system.RandomStream;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
 /**
@@ -82,6 +90,26 @@ public class Network extends SingleGraph implements SimulationListener {
     // listeners
     private Set<NetworkListener> networkListeners = new CopyOnWriteArraySet<NetworkListener>();
 
+    // headless structure of the network, kept in sync with the GraphStream nodes and edges
+    private final GraphStore graphStore = new ArrayGraphStore();
+    // agent states, indexed like the GraphStream nodes
+    private final AgentStateTable agentStates = new AgentStateTable();
+    // incrementally maintained neighbourhood stats (closed triads, agents at distance 2)
+    private final NeighbourhoodCounters neighbourhoodCounters =
+            new NeighbourhoodCounters(this.graphStore, this.agentStates);
+    // flag whether tabular agent states are mirrored as GraphStream attributes (GUI, network exports)
+    private boolean attributeMirroring = true;
+    // certificate of pairwise stability, re-examining changed neighbourhoods only
+    private final StabilityCertificate stabilityCertificate = new StabilityCertificate(this.graphStore);
+    // flag whether pairwise stability is computed after each simulation round
+    private boolean stabilityComputation = false;
+    // centralities of all agents, cached until the structure changes
+    private final Centralities centralities = new Centralities(this.graphStore);
+    // geodesic distance profiles of the agents, cached until the structure changes
+    private final GeodesicProfiles geodesicProfiles = new GeodesicProfiles(this.graphStore);
+    // lock of the network structure for agents deciding about their connections concurrently
+    private final ReadWriteLock structureLock = new ReentrantReadWriteLock();
+
 
     /**
      * Constructor.
@@ -378,13 +406,165 @@ public class Network extends SingleGraph implements SimulationListener {
         return (Agent) this.getNode(id);
     }
 
+    /**
+     * Gets the agent with the corresponding index.
+     *
+     * @param index
+     *          the index of the agent to get
+     * @return the agent with the corresponding index
+     */
+    public Agent getAgent(int index) {
+        return (Agent) this.getNode(index);
+    }
+
+    /**
+     * Gets the headless structure of the network. Agents are represented by their index (see
+     * {@link Agent#getIndex()}).
+     *
+     * @return the headless structure of the network
+     */
+    public GraphStore getGraphStore() {
+        return this.graphStore;
+    }
+
+    /**
+     * Gets the lock of the network structure. Agents deciding about their connections concurrently hold the read lock
+     * while evaluating connections and the write lock while changing connections.
+     *
+     * @return the lock of the network structure
+     */
+    public ReadWriteLock getStructureLock() {
+        return this.structureLock;
+    }
+
+    /**
+     * Gets the centralities of all agents, computed at once and cached until the structure of the network changes.
+     *
+     * @return the centralities of all agents
+     */
+    public Centralities getCentralities() {
+        return this.centralities;
+    }
+
+    /**
+     * Gets the geodesic distance profiles of the agents, cached until the structure of the network changes.
+     *
+     * @return the geodesic distance profiles of the agents
+     */
+    public GeodesicProfiles getGeodesicProfiles() {
+        return this.geodesicProfiles;
+    }
+
+    /**
+     * Gets the states of all agents. Agents are represented by their index (see {@link Agent#getIndex()}).
+     *
+     * @return the states of all agents
+     */
+    public AgentStateTable getAgentStates() {
+        return this.agentStates;
+    }
+
+    /**
+     * Sets the value of an agent's tabular state. Changes of disease groups are propagated to the neighbourhood
+     * stats.
+     *
+     * @param index
+     *          the index of the agent
+     * @param attribute
+     *          the tabular attribute
+     * @param value
+     *          the value
+     */
+    public void setAgentState(int index, AgentAttributes attribute, Object value) {
+        switch (attribute) {
+            case DISEASE_GROUP:
+                DiseaseGroup prevDiseaseGroup = this.agentStates.getDiseaseGroup(index);
+                this.agentStates.setValue(index, attribute, value);
+                this.neighbourhoodCounters.diseaseGroupChanged(index, prevDiseaseGroup,
+                        this.agentStates.getDiseaseGroup(index));
+                this.stabilityCertificate.markNeighbourhood(index);
+                break;
+
+            case UTILITY_FUNCTION:
+            case DISEASE_SPECS:
+            case RISK_FACTOR_SIGMA:
+            case RISK_FACTOR_PI:
+                // states affecting utilities
+                this.agentStates.setValue(index, attribute, value);
+                this.stabilityCertificate.markNeighbourhood(index);
+                break;
+
+            default:
+                this.agentStates.setValue(index, attribute, value);
+                break;
+        }
+    }
+
+    /**
+     * Gets the incrementally maintained neighbourhood stats of all agents. Agents are represented by their index (see
+     * {@link Agent#getIndex()}).
+     *
+     * @return the neighbourhood stats of all agents
+     */
+    public NeighbourhoodCounters getNeighbourhoodCounters() {
+        return this.neighbourhoodCounters;
+    }
+
+    /**
+     * Checks whether pairwise stability is computed after each simulation round.
+     *
+     * @return true if pairwise stability is computed after each simulation round, false otherwise
+     */
+    public boolean isStabilityComputation() {
+        return this.stabilityComputation;
+    }
+
+    /**
+     * Sets whether pairwise stability is computed at simulation start and after each simulation round. If not, the
+     * number of time steps the network is stable is not updated. Enabled for the networks of all simulations by the
+     * property sim.stability.computation.
+     *
+     * @param stabilityComputation
+     *          true to compute pairwise stability after each simulation round, false otherwise
+     */
+    public void setStabilityComputation(boolean stabilityComputation) {
+        this.stabilityComputation = stabilityComputation;
+    }
+
+    /**
+     * Checks whether tabular agent states are mirrored as GraphStream attributes.
+     *
+     * @return true if tabular agent states are mirrored as GraphStream attributes, false otherwise
+     */
+    public boolean isAttributeMirroring() {
+        return this.attributeMirroring;
+    }
+
+    /**
+     * Sets whether tabular agent states are mirrored as GraphStream attributes. Mirroring is required by the GUI and
+     * network exports (e.g., GEXF, DGS) only, and may be disabled for headless simulations.
+     *
+     * @param attributeMirroring
+     *          true to mirror tabular agent states as GraphStream attributes, false otherwise
+     */
+    public void setAttributeMirroring(boolean attributeMirroring) {
+        if (this.attributeMirroring == attributeMirroring) {
+            return;
+        }
+        this.attributeMirroring = attributeMirroring;
+        Iterator<Agent> agentsIt = this.getAgentIterator();
+        while (agentsIt.hasNext()) {
+            agentsIt.next().updateAttributeMirror();
+        }
+    }
+
     /**
      * Gets a random agent.
      *
      * @return a random agent
      */
     public Agent getRandomAgent() {
-        int randomIndex = ThreadLocalRandom.current().nextInt(0, getAgents().size());
+        int randomIndex = RandomStream.current().nextInt(0, getAgents().size());
         return (Agent) this.getNode(randomIndex);
     }
 
@@ -396,7 +576,7 @@ public class Network extends SingleGraph implements SimulationListener {
     public Agent getRandomNotInfectedAgent() {
         List<Agent> tmpAgents = new LinkedList<Agent>(this.getAgents());
         while (!tmpAgents.isEmpty()) {
-            int randomIndex = ThreadLocalRandom.current().nextInt(0, tmpAgents.size());
+            int randomIndex = RandomStream.current().nextInt(0, tmpAgents.size());
             Agent agent = tmpAgents.get(randomIndex);
             if (!agent.isInfected()) {
                 return agent;
@@ -414,7 +594,7 @@ public class Network extends SingleGraph implements SimulationListener {
     public Agent getRandomSusceptibleAgent() {
         List<Agent> tmpAgents = new LinkedList<Agent>(this.getAgents());
         while (!tmpAgents.isEmpty()) {
-            int randomIndex = ThreadLocalRandom.current().nextInt(0, tmpAgents.size());
+            int randomIndex = RandomStream.current().nextInt(0, tmpAgents.size());
             Agent agent = tmpAgents.get(randomIndex);
             if (agent.isSusceptible()) {
                 return agent;
@@ -660,7 +840,8 @@ public class Network extends SingleGraph implements SimulationListener {
     }
 
     /**
-     * Gets the average path length.
+     * Gets the average path length: the average geodesic distance between all pairs of agents connected by a path
+     * (see {@link Centralities#getAvPathLength()}).
      *
      * @return the average path length
      */
@@ -747,7 +928,7 @@ public class Network extends SingleGraph implements SimulationListener {
             }
             this.changeAttribute(NetworkAttributes.AV_DEGREE_VACCINATED,
                     this.getAttribute(NetworkAttributes.AV_DEGREE_VACCINATED),
-                    totalDegree/this.getVaccinated().size());
+                    totalDegree/this.getVaccinatedCount());
         }
         return (double) this.getAttribute(NetworkAttributes.AV_DEGREE_VACCINATED);
     }
@@ -1346,37 +1527,12 @@ public class Network extends SingleGraph implements SimulationListener {
      * @return the average path length of the network
      */
     private double computeAvPathLength() {
-        double totalShortestPathLengths = 0;
-        Collection<Agent> agents1 = this.getAgents();
-        Iterator<Agent> agents1It = agents1.iterator();
-        while (agents1It.hasNext()) {
-            Agent a1 = agents1It.next();
-            DijkstraShortestPath dsp = new DijkstraShortestPath();
-            dsp.executeShortestPaths(a1);
-
-            Collection<Agent> agents2 = this.getAgents();
-            Iterator<Agent> agents2It = agents2.iterator();
-            while (agents2It.hasNext()) {
-                Agent a2 = agents2It.next();
-                // skip if a1 and a2 are identical
-                if (a1.getId().equals(a2.getId())) {
-                    continue;
-                }
-                Integer shortestPathLength = dsp.getShortestPathLength(a2);
-                if (shortestPathLength != null) {
-                    totalShortestPathLengths += shortestPathLength.intValue();
-                } else {
-                    // if nodes cannot be reached: path length = "infinity"
-                    totalShortestPathLengths += Integer.MAX_VALUE;
-                }
-            }
-        }
-        // average
-        return totalShortestPathLengths / (this.getN() * (this.getN()-1));
+        return this.centralities.getAvPathLength();
     }
 
     /**
-     * Gets the average path length of the network.
+     * Gets the average path length of the network: the average geodesic distance between all pairs of agents
+     * connected by a path (see {@link Centralities#getAvPathLength()}).
      *
      * @param simRound
      *          the simulation round to get the average path length for
@@ -1391,6 +1547,34 @@ public class Network extends SingleGraph implements SimulationListener {
         return (double) this.getAttribute(NetworkAttributes.AV_PATH_LENGTH);
     }
 
+    /**
+     * Gets the error bound of the average normalized betweenness, if betweenness is approximated by sampling.
+     *
+     * @return the error bound of the average normalized betweenness, 0 if computed exactly
+     */
+    public double getAvBetweennessError() {
+        double N = this.getN();
+        return this.centralities.getBetweennessError() / (((N-1)/2) * (N-2));
+    }
+
+    /**
+     * Gets the error bound of the average closeness, if closeness is approximated by sampling.
+     *
+     * @return the error bound of the average closeness, 0 if computed exactly
+     */
+    public double getAvClosenessError() {
+        return this.centralities.getClosenessError();
+    }
+
+    /**
+     * Gets the error bound of the average path length, if the average path length is approximated by sampling.
+     *
+     * @return the error bound of the average path length, 0 if computed exactly
+     */
+    public double getAvPathLengthError() {
+        return this.centralities.getAvPathLengthError();
+    }
+
     /**
      * Gets the average utility of all agents in the network.
      *
@@ -1477,16 +1661,16 @@ public class Network extends SingleGraph implements SimulationListener {
      * @return all susceptible agents within the network.
      */
     public Collection<Agent> getSusceptibles() {
-        List<Agent> susceptibles = new LinkedList<Agent>();
+        return getAgents(DiseaseGroup.SUSCEPTIBLE);
+    }
 
-        Iterator<Agent> agentIt = getAgentIterator();
-        while (agentIt.hasNext()) {
-            Agent agent = agentIt.next();
-            if (agent.isSusceptible()) {
-                susceptibles.add(agent);
-            }
-        }
-        return susceptibles;
+    /**
+     * Gets the number of susceptible agents within the network.
+     *
+     * @return the number of susceptible agents within the network
+     */
+    public int getSusceptiblesCount() {
+        return this.agentStates.getCompartments().size(DiseaseGroup.SUSCEPTIBLE);
     }
 
     /**
@@ -1495,16 +1679,16 @@ public class Network extends SingleGraph implements SimulationListener {
      * @return all infected agents within the network.
      */
     public Collection<Agent> getInfected() {
-        List<Agent> infected = new LinkedList<Agent>();
+        return getAgents(DiseaseGroup.INFECTED);
+    }
 
-        Iterator<Agent> agentIt = getAgentIterator();
-        while (agentIt.hasNext()) {
-            Agent agent = agentIt.next();
-            if (agent.isInfected()) {
-                infected.add(agent);
-            }
-        }
-        return infected;
+    /**
+     * Gets the number of infected agents within the network.
+     *
+     * @return the number of infected agents within the network
+     */
+    public int getInfectedCount() {
+        return this.agentStates.getCompartments().size(DiseaseGroup.INFECTED);
     }
 
     /**
@@ -1513,16 +1697,16 @@ public class Network extends SingleGraph implements SimulationListener {
      * @return all recovered agents within the network.
      */
     public Collection<Agent> getRecovered() {
-        List<Agent> recovered = new LinkedList<Agent>();
+        return getAgents(DiseaseGroup.RECOVERED);
+    }
 
-        Iterator<Agent> agentIt = getAgentIterator();
-        while (agentIt.hasNext()) {
-            Agent agent = agentIt.next();
-            if (agent.isRecovered()) {
-                recovered.add(agent);
-            }
-        }
-        return recovered;
+    /**
+     * Gets the number of recovered agents within the network.
+     *
+     * @return the number of recovered agents within the network
+     */
+    public int getRecoveredCount() {
+        return this.agentStates.getCompartments().size(DiseaseGroup.RECOVERED);
     }
 
     /**
@@ -1531,16 +1715,32 @@ public class Network extends SingleGraph implements SimulationListener {
      * @return all vaccinated agents within the network.
      */
     public Collection<Agent> getVaccinated() {
-        List<Agent> vaccinated = new LinkedList<Agent>();
+        return getAgents(DiseaseGroup.VACCINATED);
+    }
 
-        Iterator<Agent> agentIt = getAgentIterator();
-        while (agentIt.hasNext()) {
-            Agent agent = agentIt.next();
-            if (agent.isVaccinated()) {
-                vaccinated.add(agent);
-            }
+    /**
+     * Gets the number of vaccinated agents within the network.
+     *
+     * @return the number of vaccinated agents within the network
+     */
+    public int getVaccinatedCount() {
+        return this.agentStates.getCompartments().size(DiseaseGroup.VACCINATED);
+    }
+
+    /**
+     * Gets all agents of a disease group within the network.
+     *
+     * @param group
+     *          the disease group
+     * @return all agents of the disease group within the network
+     */
+    private Collection<Agent> getAgents(DiseaseGroup group) {
+        int[] members = this.agentStates.getCompartments().getMembers(group);
+        List<Agent> agents = new ArrayList<Agent>(members.length);
+        for (int member : members) {
+            agents.add(this.getAgent(member));
         }
-        return vaccinated;
+        return agents;
     }
 
     /**
@@ -1651,7 +1851,7 @@ public class Network extends SingleGraph implements SimulationListener {
 
         // agents performing action in random order
         List<Agent> agents = new ArrayList<Agent>(this.getAgents());
-        Collections.shuffle(agents);
+        Collections.shuffle(agents, RandomStream.current());
         Iterator<Agent> agentsIt = agents.iterator();
         while (agentsIt.hasNext()) {
             Agent agent = agentsIt.next();
@@ -1712,7 +1912,7 @@ public class Network extends SingleGraph implements SimulationListener {
             Agent agent = agIt.next();
             if (!profession.equals(Professions.NONE) &&
                     (profession.equals(Professions.ALL) || agent.getProfession().equals(profession))) {
-                double randVacc = ThreadLocalRandom.current().nextDouble();
+                double randVacc = RandomStream.current().nextDouble();
                 if (randVacc < eta) {
                     agent.vaccinate();
                     vaccs++;
@@ -1725,42 +1925,94 @@ public class Network extends SingleGraph implements SimulationListener {
     /**
      * Checks whether the network is pairwise stable: there are no two players that
      * want to create a link and where neither one of them wants to delete a link.
+     * Once the network has been found stable, only pairs involving agents with a changed
+     * neighbourhood are re-examined (see {@link StabilityCertificate}).
      */
     private void computeStability() {
 
-        Collection<String> checkedIds = new ArrayList<String>();
+        int n = this.graphStore.getNodeCount();
 
-        Iterator<Agent> agentIt = this.getAgentIterator();
-        while (agentIt.hasNext()) {
-            Agent agent = agentIt.next();
+        // changes of ties affect all agents for utility functions depending on global properties
+        boolean incremental = this.stabilityCertificate.isValid();
+        for (int i = 0; i < n && incremental; i++) {
+            incremental = this.agentStates.getUtilityFunction(i).isLocal();
+        }
 
-            Collection<Agent> others = new ArrayList<Agent>(this.getAgents());
-            Iterator<Agent> othersIt = others.iterator();
-            while (othersIt.hasNext()) {
-                Agent other = othersIt.next();
+        // current utilities, computed once per agent
+        double[] utilities = new double[n];
+        Arrays.fill(utilities, Double.NaN);
 
-                if (agent.getId() == other.getId() || checkedIds.contains(other.getId())) {
+        int[] agents;
+        if (incremental) {
+            agents = this.stabilityCertificate.getDirty();
+        } else {
+            agents = new int[n];
+            for (int i = 0; i < n; i++) {
+                agents[i] = i;
+            }
+        }
+
+        for (int i : agents) {
+            for (int j = 0; j < n; j++) {
+                // each pair once
+                if (i == j || (incremental ? this.stabilityCertificate.isDirty(j) && j < i : j < i)) {
                     continue;
                 }
-
-                if (agent.isDirectlyConnectedTo(other)) {
-                    if (agent.existingConnectionTooCostly(other)) {
-                        this.resetTimestepsStable();
-                        return;
-                    }
-                } else {
-                    if (agent.newConnectionValuable(other) && other.newConnectionValuable(agent)) {
-                        this.resetTimestepsStable();
-                        return;
-                    }
+                if (!isPairwiseStable(i, j, utilities)) {
+                    this.stabilityCertificate.invalidate();
+                    this.resetTimestepsStable();
+                    return;
                 }
             }
-            checkedIds.add(agent.getId());
         }
+
+        this.stabilityCertificate.issue();
         this.changeAttribute(NetworkAttributes.TIMESTEPS_STABLE, (int) this.getAttribute(NetworkAttributes.TIMESTEPS_STABLE),
                 (int) this.getAttribute(NetworkAttributes.TIMESTEPS_STABLE)+1);
     }
 
+    /**
+     * Checks whether a pair of agents is stable: an existing tie is not too costly for either agent, a
+     * non-existing tie is not valuable to both agents.
+     *
+     * @param i
+     *          the index of the first agent
+     * @param j
+     *          the index of the second agent
+     * @param utilities
+     *          the cache of current utilities by agent index (NaN if not yet computed)
+     * @return true if the pair of agents is stable, false otherwise
+     */
+    private boolean isPairwiseStable(int i, int j, double[] utilities) {
+        Agent agent = this.getAgent(i);
+        Agent other = this.getAgent(j);
+
+        if (this.graphStore.hasEdge(i, j)) {
+            return agent.getUtilityFunction().getUtilityWithout(agent, other).getOverallUtility() <=
+                    getUtility(i, utilities) &&
+                    other.getUtilityFunction().getUtilityWithout(other, agent).getOverallUtility() <=
+                    getUtility(j, utilities);
+        }
+        return agent.getUtilityFunction().getUtilityWith(agent, other).getOverallUtility() < getUtility(i, utilities) ||
+                other.getUtilityFunction().getUtilityWith(other, agent).getOverallUtility() < getUtility(j, utilities);
+    }
+
+    /**
+     * Gets the current utility of an agent from a cache, computing it if necessary.
+     *
+     * @param index
+     *          the index of the agent
+     * @param utilities
+     *          the cache of current utilities by agent index (NaN if not yet computed)
+     * @return the current utility of the agent
+     */
+    private double getUtility(int index, double[] utilities) {
+        if (Double.isNaN(utilities[index])) {
+            utilities[index] = this.getAgent(index).getUtility().getOverallUtility();
+        }
+        return utilities[index];
+    }
+
     /**
      * Gets whether the network is pairwise stable or not: there are no two players that
      * want to create a link and where neither one of them wants to delete a link.
@@ -1780,18 +2032,10 @@ public class Network extends SingleGraph implements SimulationListener {
      * @return true if the network has an active infection, false otherwise
      */
     public boolean hasActiveInfection() {
-        Iterator<Agent> agentIt = this.getAgentIterator();
-        while (agentIt.hasNext()) {
-            Agent agent = agentIt.next();
-            if (agent.isInfected()) {
-                this.changeAttribute(NetworkAttributes.HAS_ACTIVE_INFECTION,
-                        (boolean) this.getAttribute(NetworkAttributes.HAS_ACTIVE_INFECTION), true);
-                return true;
-            }
-        }
+        boolean activeInfection = getInfectedCount() > 0;
         this.changeAttribute(NetworkAttributes.HAS_ACTIVE_INFECTION,
-                (boolean) this.getAttribute(NetworkAttributes.HAS_ACTIVE_INFECTION), false);
-        return false;
+                (boolean) this.getAttribute(NetworkAttributes.HAS_ACTIVE_INFECTION), activeInfection);
+        return activeInfection;
     }
 
     /**
@@ -1957,6 +2201,78 @@ public class Network extends SingleGraph implements SimulationListener {
         }
     }
 
+    /* (non-Javadoc)
+     * @see org.graphstream.graph.implementations.AdjacencyListGraph#addNodeCallback(
+     * org.graphstream.graph.implementations.AbstractNode)
+     */
+    @Override
+    protected void addNodeCallback(AbstractNode node) {
+        super.addNodeCallback(node);
+        this.graphStore.addNode();
+        this.agentStates.addAgent();
+        this.neighbourhoodCounters.addNode();
+        this.stabilityCertificate.invalidate();
+    }
+
+    /* (non-Javadoc)
+     * @see org.graphstream.graph.implementations.AdjacencyListGraph#removeNodeCallback(
+     * org.graphstream.graph.implementations.AbstractNode)
+     */
+    @Override
+    protected void removeNodeCallback(AbstractNode node) {
+        // index needs to be read before GraphStream hands it over to the last node
+        int index = node.getIndex();
+        super.removeNodeCallback(node);
+        this.neighbourhoodCounters.removeNode(index);
+        this.graphStore.removeNode(index);
+        this.agentStates.removeAgent(index);
+        this.stabilityCertificate.invalidate();
+    }
+
+    /* (non-Javadoc)
+     * @see org.graphstream.graph.implementations.AdjacencyListGraph#addEdgeCallback(
+     * org.graphstream.graph.implementations.AbstractEdge)
+     */
+    @Override
+    protected void addEdgeCallback(AbstractEdge edge) {
+        super.addEdgeCallback(edge);
+        int u = edge.getNode0().getIndex();
+        int v = edge.getNode1().getIndex();
+        if (this.graphStore.addEdge(u, v)) {
+            this.neighbourhoodCounters.edgeAdded(u, v);
+            this.stabilityCertificate.markNeighbourhood(u);
+            this.stabilityCertificate.markNeighbourhood(v);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.graphstream.graph.implementations.AdjacencyListGraph#removeEdgeCallback(
+     * org.graphstream.graph.implementations.AbstractEdge)
+     */
+    @Override
+    protected void removeEdgeCallback(AbstractEdge edge) {
+        super.removeEdgeCallback(edge);
+        int u = edge.getNode0().getIndex();
+        int v = edge.getNode1().getIndex();
+        if (this.graphStore.removeEdge(u, v)) {
+            this.neighbourhoodCounters.edgeRemoved(u, v);
+            this.stabilityCertificate.markNeighbourhood(u);
+            this.stabilityCertificate.markNeighbourhood(v);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.graphstream.graph.implementations.AdjacencyListGraph#clearCallback()
+     */
+    @Override
+    protected void clearCallback() {
+        super.clearCallback();
+        this.graphStore.clear();
+        this.agentStates.clear();
+        this.neighbourhoodCounters.clear();
+        this.stabilityCertificate.invalidate();
+    }
+
     /**
      * Gets the density of the network.
      *
@@ -2005,8 +2321,9 @@ public class Network extends SingleGraph implements SimulationListener {
      */
     @Override
     public void notifySimulationStarted(Simulation simulation) {
-        // XXX STABILITY COMPUTATION TURNED OFF AT SIMULATION START
-//        computeStability();
+        if (this.stabilityComputation) {
+            computeStability();
+        }
     }
 
     /* (non-Javadoc)
@@ -2015,8 +2332,9 @@ public class Network extends SingleGraph implements SimulationListener {
      */
     @Override
     public void notifyRoundFinished(Simulation simulation) {
-        // XXX STABILITY COMPUTATION TURNED OFF AT SIMULATION END
-//        computeStability();
+        if (this.stabilityComputation) {
+            computeStability();
+        }
     }
 
     /* (non-Javadoc)
@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.networks;
+
+import java.util.Arrays;
+
+/**
+ * Counters for unordered pairs of node indices. Pairs are packed into a single long key (see
+ * {@link EdgeIndex#key(int, int)}) and stored in a primitive open addressing hash table with linear probing. Pairs
+ * with a count of zero are not stored.
+ *
+ * @author Hendrik Nunner
+ */
+public class PairCounter {
+
+    // marker for empty slots (packed keys of non-negative indices are never negative)
+    private static final long EMPTY = -1L;
+    // minimum capacity (power of 2)
+    private static final int MIN_CAPACITY = 16;
+
+    // the hash table
+    private long[] keys;
+    private int[] counts;
+    // mask to map hashes onto the table
+    private int mask;
+    // number of pairs with a positive count
+    private int size;
+
+
+    /**
+     * Constructor.
+     */
+    public PairCounter() {
+        allocate(MIN_CAPACITY);
+    }
+
+
+    /**
+     * Gets the count of a pair.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return the count of the pair, 0 if the pair has not been counted
+     */
+    public int get(int i, int j) {
+        int slot = find(EdgeIndex.key(i, j));
+        return slot < 0 ? 0 : this.counts[slot];
+    }
+
+    /**
+     * Increments the count of a pair.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return the count of the pair after incrementing
+     */
+    public int increment(int i, int j) {
+        return add(EdgeIndex.key(i, j), 1);
+    }
+
+    /**
+     * Decrements the count of a pair. Pairs reaching a count of zero are removed.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return the count of the pair after decrementing
+     */
+    public int decrement(int i, int j) {
+        long key = EdgeIndex.key(i, j);
+        int slot = find(key);
+        if (slot < 0) {
+            throw new IllegalStateException("Pair (" + i + ", " + j + ") has not been counted.");
+        }
+        int count = --this.counts[slot];
+        if (count == 0) {
+            delete(slot);
+        }
+        return count;
+    }
+
+    /**
+     * Removes a pair.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @return the count of the pair before removal, 0 if the pair has not been counted
+     */
+    public int remove(int i, int j) {
+        int slot = find(EdgeIndex.key(i, j));
+        if (slot < 0) {
+            return 0;
+        }
+        int count = this.counts[slot];
+        delete(slot);
+        return count;
+    }
+
+    /**
+     * Sets the count of a pair.
+     *
+     * @param i
+     *          the index of the first node
+     * @param j
+     *          the index of the second node
+     * @param count
+     *          the count (positive)
+     */
+    public void put(int i, int j, int count) {
+        long key = EdgeIndex.key(i, j);
+        int slot = find(key);
+        if (slot >= 0) {
+            this.counts[slot] = count;
+        } else {
+            add(key, count);
+        }
+    }
+
+    /**
+     * Gets the number of pairs with a positive count.
+     *
+     * @return the number of pairs with a positive count
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes all pairs.
+     */
+    public void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Adds to the count of a key.
+     *
+     * @param key
+     *          the key
+     * @param count
+     *          the count to add
+     * @return the count of the key after adding
+     */
+    private int add(long key, int count) {
+        int slot = slot(key);
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                return this.counts[slot] += count;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+        this.counts[slot] = count;
+        this.size++;
+        // load factor of at most 0.5
+        if (this.size * 2 > this.keys.length) {
+            rehash(this.keys.length * 2);
+        }
+        return count;
+    }
+
+    /**
+     * Deletes the entry of a slot. Subsequent entries of the probe sequence are shifted back, so that no tombstones
+     * are required.
+     *
+     * @param free
+     *          the slot to delete
+     */
+    private void delete(int free) {
+        int slot = free;
+        while (true) {
+            slot = (slot + 1) & this.mask;
+            long curr = this.keys[slot];
+            if (curr == EMPTY) {
+                break;
+            }
+            int home = slot(curr);
+            // entry stays if its home slot lies cyclically within (free, slot]
+            boolean stays = free <= slot ? (free < home && home <= slot) : (free < home || home <= slot);
+            if (!stays) {
+                this.keys[free] = curr;
+                this.counts[free] = this.counts[slot];
+                free = slot;
+            }
+        }
+        this.keys[free] = EMPTY;
+        this.counts[free] = 0;
+        this.size--;
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @param key
+     *          the key to find
+     * @return the slot of the key, or -1 if the key does not exist
+     */
+    private int find(long key) {
+        int slot = slot(key);
+        while (this.keys[slot] != EMPTY) {
+            if (this.keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the home slot of a key.
+     *
+     * @param key
+     *          the key
+     * @return the home slot of the key
+     */
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & this.mask;
+    }
+
+    /**
+     * Allocates an empty hash table.
+     *
+     * @param capacity
+     *          the capacity (power of 2)
+     */
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, EMPTY);
+        this.counts = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    /**
+     * Rehashes all entries into a table of the given capacity.
+     *
+     * @param capacity
+     *          the new capacity (power of 2)
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = this.keys;
+        int[] oldCounts = this.counts;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (this.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.counts[slot] = oldCounts[i];
+                this.size++;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.networks;
+
+import java.util.Arrays;
+
+/**
+ * Certificate of pairwise stability. Once all pairs of agents have been found stable, only pairs involving agents
+ * whose local neighbourhood (ties and disease groups within distance 2) changed since need to be re-examined. Agents
+ * are represented by their index (see {@link nl.uu.socnetid.nidm.agents.Agent#getIndex()}).
+ *
+ * @author Hendrik Nunner
+ */
+public class StabilityCertificate {
+
+    // initial capacity
+    private static final int INITIAL_CAPACITY = 16;
+
+    // the structure of the network
+    private final GraphStore graph;
+
+    // flag whether all pairs of agents have been found stable
+    private boolean valid;
+    // agents whose neighbourhood changed since the certificate has been issued
+    private boolean[] dirty;
+    private int[] dirtyIndices;
+    private int dirtyCount;
+
+
+    /**
+     * Constructor.
+     *
+     * @param graph
+     *          the structure of the network
+     */
+    public StabilityCertificate(GraphStore graph) {
+        this.graph = graph;
+        this.dirty = new boolean[INITIAL_CAPACITY];
+        this.dirtyIndices = new int[INITIAL_CAPACITY];
+        invalidate();
+    }
+
+
+    /**
+     * Checks whether the certificate is valid. If not, all pairs of agents need to be examined.
+     *
+     * @return true if the certificate is valid, false otherwise
+     */
+    public boolean isValid() {
+        return this.valid;
+    }
+
+    /**
+     * Issues the certificate after all pairs of agents (or all pairs involving dirty agents) have been found stable.
+     */
+    public void issue() {
+        clearDirty();
+        this.valid = true;
+    }
+
+    /**
+     * Invalidates the certificate, e.g. if the network became unstable or agents have been added or removed.
+     */
+    public void invalidate() {
+        clearDirty();
+        this.valid = false;
+    }
+
+    /**
+     * Marks an agent and all agents within distance 2 as dirty, e.g. after a change of ties or disease groups.
+     *
+     * @param index
+     *          the index of the agent whose neighbourhood changed
+     */
+    public void markNeighbourhood(int index) {
+        if (!this.valid) {
+            return;
+        }
+        mark(index);
+        for (int k = 0; k < this.graph.getDegree(index); k++) {
+            int neighbor = this.graph.getNeighbor(index, k);
+            mark(neighbor);
+            for (int l = 0; l < this.graph.getDegree(neighbor); l++) {
+                mark(this.graph.getNeighbor(neighbor, l));
+            }
+        }
+    }
+
+    /**
+     * Checks whether an agent is dirty.
+     *
+     * @param index
+     *          the index of the agent
+     * @return true if the agent is dirty, false otherwise
+     */
+    public boolean isDirty(int index) {
+        return index < this.dirty.length && this.dirty[index];
+    }
+
+    /**
+     * Gets a copy of the indices of all dirty agents.
+     *
+     * @return the indices of all dirty agents
+     */
+    public int[] getDirty() {
+        return Arrays.copyOf(this.dirtyIndices, this.dirtyCount);
+    }
+
+    /**
+     * Marks a single agent as dirty.
+     *
+     * @param index
+     *          the index of the agent
+     */
+    private void mark(int index) {
+        if (index >= this.dirty.length) {
+            int capacity = Math.max(index + 1, this.dirty.length * 2);
+            this.dirty = Arrays.copyOf(this.dirty, capacity);
+            this.dirtyIndices = Arrays.copyOf(this.dirtyIndices, capacity);
+        }
+        if (!this.dirty[index]) {
+            this.dirty[index] = true;
+            this.dirtyIndices[this.dirtyCount++] = index;
+        }
+    }
+
+    /**
+     * Removes all dirty marks.
+     */
+    private void clearDirty() {
+        for (int i = 0; i < this.dirtyCount; i++) {
+            this.dirty[this.dirtyIndices[i]] = false;
+        }
+        this.dirtyCount = 0;
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+/**
+ * Modes of computing the agent dynamics of a simulation round.
+ *
+ * @author Hendrik Nunner
+ */
+public enum AgentDynamicsModes {
+
+    // agents one after another on the changing network
+    SEQUENTIAL("sequential"),
+    // independent agents in parallel (see ParallelAgentDynamics)
+    PARALLEL("parallel"),
+    // all agents on the network of the round start (see SynchronousAgentDynamics)
+    SYNCHRONOUS("synchronous");
+
+    // the name
+    private String name;
+
+    /**
+     * Constructor, setting the name
+     *
+     * @param name
+     *          the name of the enum
+     */
+    AgentDynamicsModes(String name) {
+        this.name = name;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Enum#toString()
+     */
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Creates the agent dynamics mode from a given string.
+     * @param text
+     *          the string to create the agent dynamics mode for
+     * @return the agent dynamics mode
+     */
+    public static AgentDynamicsModes fromString(String text) {
+        for (AgentDynamicsModes m : AgentDynamicsModes.values()) {
+            if (m.name.equalsIgnoreCase(text)) {
+                return m;
+            }
+        }
+        throw new IllegalArgumentException("No constant with text " + text + " found.");
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.agents.AgentStateTable;
+import nl.uu.socnetid.nidm.agents.DiseaseCompartments;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.system.RandomStream;
+
+/**
+ * Schedule of a single round of disease dynamics that visits the infection frontier only: infected agents and
+ * susceptible agents with at least one infected connection. All other agents are not affected by the disease
+ * dynamics of a round.
+ *
+ * A round of disease dynamics processes all agents in random order. Each agent is therefore given a random priority,
+ * drawn only once the agent joins the frontier. Agents joining the frontier during the round (susceptible connections
+ * of newly infected agents) are processed in the same round only if their priority exceeds the priority of the agent
+ * processed last. This is equivalent to processing all agents in a random order, without shuffling all agents.
+ *
+ * @author Hendrik Nunner
+ */
+public class DiseaseFrontier {
+
+    // the network
+    private final Network network;
+
+    // agents of the current round by priority
+    private final PriorityQueue<Integer> queue;
+    // priorities by agent index
+    private double[] priorities = new double[0];
+    // round each agent's priority has been drawn in, by agent index
+    private int[] stamps = new int[0];
+    // the current round
+    private int stamp = 0;
+    // the priority of the agent processed last
+    private double current;
+
+
+    /**
+     * Constructor.
+     *
+     * @param network
+     *          the network
+     */
+    public DiseaseFrontier(Network network) {
+        this.network = network;
+        this.queue = new PriorityQueue<Integer>((i, j) -> Double.compare(this.priorities[i], this.priorities[j]));
+    }
+
+
+    /**
+     * Starts a new round by scheduling all infected agents and their susceptible connections.
+     */
+    public void startRound() {
+        int n = this.network.getN();
+        if (this.priorities.length < n) {
+            this.priorities = Arrays.copyOf(this.priorities, n);
+            this.stamps = Arrays.copyOf(this.stamps, n);
+        }
+        this.stamp++;
+        this.current = -1.0;
+        this.queue.clear();
+
+        GraphStore graphStore = this.network.getGraphStore();
+        AgentStateTable states = this.network.getAgentStates();
+        DiseaseCompartments compartments = states.getCompartments();
+        for (int k = 0; k < compartments.size(DiseaseGroup.INFECTED); k++) {
+            int infected = compartments.getMember(DiseaseGroup.INFECTED, k);
+            schedule(infected);
+            scheduleSusceptibleConnections(graphStore, states, infected);
+        }
+    }
+
+    /**
+     * Checks whether agents remain to be processed in the current round.
+     *
+     * @return true if agents remain to be processed, false otherwise
+     */
+    public boolean hasNext() {
+        return !this.queue.isEmpty();
+    }
+
+    /**
+     * Gets the next agent to be processed in the current round.
+     *
+     * @return the next agent to be processed
+     */
+    public Agent next() {
+        int index = this.queue.poll();
+        this.current = this.priorities[index];
+        return this.network.getAgent(index);
+    }
+
+    /**
+     * Processes the disease dynamics of an agent: infected agents fight the disease, susceptible agents may get
+     * infected by their infected connections. Susceptible connections of newly infected agents join the frontier.
+     *
+     * @param agent
+     *          the agent to process
+     * @param simRound
+     *          the simulation round
+     */
+    public void computeDiseaseDynamics(Agent agent, int simRound) {
+        if (agent.isInfected()) {
+            agent.fightDisease();
+        }
+        if (agent.isSusceptible()) {
+            agent.computeDiseaseTransmission(simRound);
+            if (agent.isInfected()) {
+                scheduleSusceptibleConnections(this.network.getGraphStore(), this.network.getAgentStates(),
+                        agent.getIndex());
+            }
+        }
+    }
+
+    /**
+     * Schedules the susceptible connections of an agent.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param states
+     *          the states of the agents
+     * @param index
+     *          the index of the agent
+     */
+    private void scheduleSusceptibleConnections(GraphStore graphStore, AgentStateTable states, int index) {
+        int degree = graphStore.getDegree(index);
+        for (int k = 0; k < degree; k++) {
+            int connection = graphStore.getNeighbor(index, k);
+            if (states.getDiseaseGroup(connection) == DiseaseGroup.SUSCEPTIBLE) {
+                schedule(connection);
+            }
+        }
+    }
+
+    /**
+     * Draws the priority of an agent, if not yet drawn in the current round. The agent is processed in the current
+     * round, if its position in the random order has not passed yet.
+     *
+     * @param index
+     *          the index of the agent
+     */
+    private void schedule(int index) {
+        if (this.stamps[index] == this.stamp) {
+            return;
+        }
+        this.stamps[index] = this.stamp;
+        this.priorities[index] = RandomStream.current().nextDouble();
+        if (this.priorities[index] > this.current) {
+            this.queue.add(index);
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.agents.AgentStateTable;
+import nl.uu.socnetid.nidm.agents.DiseaseCompartments;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.stats.StatsComputer;
+import nl.uu.socnetid.nidm.system.RandomStream;
+
+/**
+ * Double-buffered disease dynamics: a single round of disease dynamics depends on the disease states at the end of
+ * the previous round only, not on the order in which agents are processed.
+ *
+ * A round consists of two phases. In the read phase, the disease states of the previous round are left untouched,
+ * while the infections of all susceptible agents with at least one infected connection are drawn in parallel. Each
+ * agent draws from its own source of randomness, seeded by the simulation seed, the round, and the agent's index. In
+ * the commit phase, all agents infected at the end of the previous round fight the disease and all drawn infections
+ * are applied. Agents infected in a round can therefore infect others in the next round only. The result is
+ * deterministic for a given seed and independent of the number of threads.
+ *
+ * @author Hendrik Nunner
+ */
+public class DoubleBufferedDiseaseDynamics {
+
+    // key separating the random streams of disease dynamics from those of agent dynamics
+    private static final long STREAM = 0x2545F4914F6CDD1DL;
+
+    // the network
+    private final Network network;
+
+    // round each susceptible agent has been collected in, by agent index
+    private int[] stamps = new int[0];
+    private int stamp = 0;
+    // susceptible agents collected in the current round, reused across rounds
+    private int[] susceptible = new int[0];
+
+
+    /**
+     * Constructor.
+     *
+     * @param network
+     *          the network
+     */
+    public DoubleBufferedDiseaseDynamics(Network network) {
+        this.network = network;
+    }
+
+
+    /**
+     * Computes a single round of disease dynamics.
+     *
+     * @param simRound
+     *          the simulation round
+     * @param seed
+     *          the seed of the simulation
+     */
+    public void computeRound(int simRound, long seed) {
+        int n = this.network.getN();
+        if (this.stamps.length < n) {
+            this.stamps = Arrays.copyOf(this.stamps, n);
+            this.susceptible = new int[n];
+        }
+        this.stamp++;
+
+        // disease states of the previous round: infected agents and their susceptible connections
+        GraphStore graphStore = this.network.getGraphStore();
+        AgentStateTable states = this.network.getAgentStates();
+        DiseaseCompartments compartments = states.getCompartments();
+        int[] infected = compartments.getMembers(DiseaseGroup.INFECTED);
+        int nS = 0;
+        for (int i : infected) {
+            for (int k = 0; k < graphStore.getDegree(i); k++) {
+                int connection = graphStore.getNeighbor(i, k);
+                if (this.stamps[connection] != this.stamp
+                        && states.getDiseaseGroup(connection) == DiseaseGroup.SUSCEPTIBLE) {
+                    this.stamps[connection] = this.stamp;
+                    this.susceptible[nS++] = connection;
+                }
+            }
+        }
+        int[] candidates = Arrays.copyOf(this.susceptible, nS);
+        Arrays.sort(candidates);
+
+        // read phase: new infections, drawn in parallel
+        boolean[] infections = new boolean[candidates.length];
+        IntStream.range(0, candidates.length).parallel().forEach(k -> {
+            Agent agent = this.network.getAgent(candidates[k]);
+            double p = StatsComputer.computeProbabilityOfInfection(agent, agent.getInfectedConnectionsCount());
+            infections[k] = RandomStream.of(seed, STREAM, simRound, candidates[k]).nextDouble() <= p;
+        });
+
+        // commit phase: recoveries and new infections
+        for (int i : infected) {
+            this.network.getAgent(i).fightDisease();
+        }
+        for (int k = 0; k < candidates.length; k++) {
+            if (infections[k]) {
+                Agent agent = this.network.getAgent(candidates[k]);
+                agent.infect(agent.getDiseaseSpecs(), simRound);
+            }
+        }
+    }
+
+}
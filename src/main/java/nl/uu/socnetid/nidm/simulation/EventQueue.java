@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Indexed priority queue of event times with at most one pending event per agent. Events are inserted, moved, and
+ * removed in O(log n).
+ *
+ * @author Hendrik Nunner
+ */
+class EventQueue {
+
+    // marker for agents without pending event
+    private static final int NONE = -1;
+
+    // agent indices in heap order
+    private int[] heap;
+    // number of pending events
+    private int size;
+    // position within the heap by agent index
+    private int[] positions;
+    // event times by agent index
+    private double[] times;
+
+
+    /**
+     * Constructor.
+     *
+     * @param n
+     *          the number of agents
+     */
+    EventQueue(int n) {
+        this.heap = new int[n];
+        this.positions = new int[n];
+        this.times = new double[n];
+        Arrays.fill(this.positions, NONE);
+    }
+
+
+    /**
+     * Checks whether events are pending.
+     *
+     * @return true if no event is pending, false otherwise
+     */
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Checks whether an event is pending for an agent.
+     *
+     * @param index
+     *          the index of the agent
+     * @return true if an event is pending for the agent, false otherwise
+     */
+    boolean contains(int index) {
+        return this.positions[index] != NONE;
+    }
+
+    /**
+     * Gets the time of the pending event of an agent.
+     *
+     * @param index
+     *          the index of the agent
+     * @return the time of the pending event, infinite if no event is pending
+     */
+    double getTime(int index) {
+        return contains(index) ? this.times[index] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Gets the time of the earliest pending event.
+     *
+     * @return the time of the earliest pending event
+     */
+    double peekTime() {
+        return this.times[this.heap[0]];
+    }
+
+    /**
+     * Removes the earliest pending event.
+     *
+     * @return the index of the agent of the earliest pending event
+     */
+    int poll() {
+        int index = this.heap[0];
+        remove(index);
+        return index;
+    }
+
+    /**
+     * Sets the time of the pending event of an agent, replacing any pending event of the agent.
+     *
+     * @param index
+     *          the index of the agent
+     * @param time
+     *          the time of the event
+     */
+    void put(int index, double time) {
+        if (!contains(index)) {
+            this.heap[this.size] = index;
+            this.positions[index] = this.size++;
+            this.times[index] = time;
+            siftUp(this.positions[index]);
+            return;
+        }
+        double prev = this.times[index];
+        this.times[index] = time;
+        if (time < prev) {
+            siftUp(this.positions[index]);
+        } else {
+            siftDown(this.positions[index]);
+        }
+    }
+
+    /**
+     * Removes the pending event of an agent, if any.
+     *
+     * @param index
+     *          the index of the agent
+     */
+    void remove(int index) {
+        int pos = this.positions[index];
+        if (pos == NONE) {
+            return;
+        }
+        int last = this.heap[--this.size];
+        this.positions[index] = NONE;
+        if (last != index) {
+            this.heap[pos] = last;
+            this.positions[last] = pos;
+            siftUp(pos);
+            siftDown(this.positions[last]);
+        }
+    }
+
+    /**
+     * Moves an event up the heap until its parent is not later.
+     *
+     * @param pos
+     *          the position within the heap
+     */
+    private void siftUp(int pos) {
+        int index = this.heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) / 2;
+            if (this.times[this.heap[parent]] <= this.times[index]) {
+                break;
+            }
+            this.heap[pos] = this.heap[parent];
+            this.positions[this.heap[pos]] = pos;
+            pos = parent;
+        }
+        this.heap[pos] = index;
+        this.positions[index] = pos;
+    }
+
+    /**
+     * Moves an event down the heap until no child is earlier.
+     *
+     * @param pos
+     *          the position within the heap
+     */
+    private void siftDown(int pos) {
+        int index = this.heap[pos];
+        while (2 * pos + 1 < this.size) {
+            int child = 2 * pos + 1;
+            if (child + 1 < this.size && this.times[this.heap[child + 1]] < this.times[this.heap[child]]) {
+                child++;
+            }
+            if (this.times[index] <= this.times[this.heap[child]]) {
+                break;
+            }
+            this.heap[pos] = this.heap[child];
+            this.positions[this.heap[pos]] = pos;
+            pos = child;
+        }
+        this.heap[pos] = index;
+        this.positions[index] = pos;
+    }
+
+}
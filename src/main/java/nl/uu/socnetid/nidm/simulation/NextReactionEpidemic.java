@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.agents.DiseaseCompartments;
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.system.RandomStream;
+
+/**
+ * Event-driven continuous-time SIR epidemic on a static network (next reaction method). Each infected agent recovers
+ * tau time units after its infection and transmits the disease to each susceptible connection after an exponentially
+ * distributed time with rate -ln(1 - gamma) (see {@link DiseaseSpecs#getTransmissionRate()}), if that time is before
+ * its recovery. Per time unit, an infected agent thus infects a susceptible connection with probability gamma, as in
+ * round-based transmission. Each agent has at most one pending event (infection or recovery), kept in an indexed
+ * priority queue, so that each event costs O(log n) plus the degree of a newly infected agent.
+ *
+ * Round r of the simulation covers the time interval (r - 1, r].
+ *
+ * Kiss, I. Z., Miller, J. C., & Simon, P. L. (2017). Mathematics of epidemics on networks. Springer.
+ *
+ * @author Hendrik Nunner
+ */
+public class NextReactionEpidemic {
+
+    // the network
+    private final Network network;
+    // pending infections of susceptible agents and recoveries of infected agents
+    private final EventQueue events;
+    // recovery times by agent index
+    private final double[] recoveries;
+
+
+    /**
+     * Constructor. Schedules the recovery of all infected agents and their transmissions to susceptible connections.
+     *
+     * @param network
+     *          the network, not changing its structure during the epidemic
+     * @param simRound
+     *          the first simulation round of the epidemic
+     */
+    public NextReactionEpidemic(Network network, int simRound) {
+        this.network = network;
+        int n = network.getN();
+        this.events = new EventQueue(n);
+        this.recoveries = new double[n];
+
+        double start = simRound - 1;
+        DiseaseCompartments compartments = network.getAgentStates().getCompartments();
+        int[] infected = compartments.getMembers(DiseaseGroup.INFECTED);
+        for (int index : infected) {
+            this.recoveries[index] = start + network.getAgent(index).getTimeUntilRecovered();
+            this.events.put(index, this.recoveries[index]);
+        }
+        for (int index : infected) {
+            scheduleTransmissions(index, start);
+        }
+    }
+
+
+    /**
+     * Processes all events until the end of a simulation round.
+     *
+     * @param simRound
+     *          the simulation round
+     */
+    public void advance(int simRound) {
+        while (!this.events.isEmpty() && this.events.peekTime() <= simRound) {
+            double time = this.events.peekTime();
+            int index = this.events.poll();
+            Agent agent = this.network.getAgent(index);
+            if (agent.isInfected()) {
+                agent.cure();
+            } else if (agent.isSusceptible()) {
+                agent.infect(agent.getDiseaseSpecs(), simRound);
+                this.recoveries[index] = time + agent.getDiseaseSpecs().getTau();
+                this.events.put(index, this.recoveries[index]);
+                scheduleTransmissions(index, time);
+            }
+        }
+
+        // disease course in rounds, for the time remaining until recovery
+        DiseaseCompartments compartments = this.network.getAgentStates().getCompartments();
+        for (int k = 0; k < compartments.size(DiseaseGroup.INFECTED); k++) {
+            Agent agent = this.network.getAgent(compartments.getMember(DiseaseGroup.INFECTED, k));
+            if (agent.getWhenInfected() < simRound) {
+                agent.getDisease().evolve();
+            }
+        }
+    }
+
+    /**
+     * Checks whether events are pending.
+     *
+     * @return true if the epidemic is finished, false otherwise
+     */
+    public boolean isFinished() {
+        return this.events.isEmpty();
+    }
+
+    /**
+     * Schedules the transmissions of a newly infected agent to its susceptible connections, replacing later pending
+     * infections of these connections.
+     *
+     * @param index
+     *          the index of the infected agent
+     * @param time
+     *          the time of infection
+     */
+    private void scheduleTransmissions(int index, double time) {
+        GraphStore graphStore = this.network.getGraphStore();
+        int degree = graphStore.getDegree(index);
+        for (int k = 0; k < degree; k++) {
+            int connection = graphStore.getNeighbor(index, k);
+            if (this.network.getAgentStates().getDiseaseGroup(connection) != DiseaseGroup.SUSCEPTIBLE) {
+                continue;
+            }
+            double rate = this.network.getAgent(connection).getDiseaseSpecs().getTransmissionRate();
+            if (rate <= 0) {
+                continue;
+            }
+            double transmission = time - Math.log(1 - RandomStream.current().nextDouble()) / rate;
+            if (transmission < this.recoveries[index] && transmission < this.events.getTime(connection)) {
+                this.events.put(connection, transmission);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.system.RandomStream;
+
+/**
+ * Agent dynamics of a single round, computed in parallel for agents that cannot affect each other.
+ *
+ * Agents are processed in snowball order, as when processed one by one (see {@link Simulation}): in random order, each
+ * agent followed by its connections not ordered yet, breadth-first. Unlike processing agents one by one, the snowball
+ * order follows the connections at the start of the round, as the ties created or broken by the agents of a batch are
+ * not known when the batch is formed. Hence, the agents of a round are processed in the same order as one by one only
+ * if no ties change during the round. Each agent draws the agents to make network decisions about (its partners)
+ * from its own source of randomness, seeded by the simulation seed, the round, and the agent's index. The utility of
+ * an agent depends on its neighbourhood up to distance 2 only (see {@link nl.uu.socnetid.nidm.utility.UtilityFunction
+ * #isLocal()}), and a network decision changes the tie between an agent and one of its partners only. Two agents whose
+ * sets of the agent itself and its partners are further than distance 2 apart can therefore not affect each other's
+ * decisions. Batches are formed of the longest prefix of the remaining agents that are pairwise independent in this
+ * sense, and the agents of a batch are processed in parallel, with a barrier after each batch. The result is identical
+ * to processing all agents one by one in the snowball order of the round start, hence deterministic for a given seed
+ * and independent of the number of threads. A round is interrupted between batches (e.g., if the simulation is paused
+ * or stopped).
+ *
+ * @author Hendrik Nunner
+ */
+public class ParallelAgentDynamics implements AgentDynamics {
+
+    // default maximum number of agents processed in parallel
+    private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    // the network
+    private final Network network;
+    // maximum number of agents processed in parallel
+    private final int maxBatchSize;
+    // whether the current round is to be interrupted
+    private final BooleanSupplier interrupted;
+
+    // stamps of agents within distance 2 of the current batch, by agent index
+    private int[] blocked = new int[0];
+    private int stamp = 0;
+    // rounds agents have been added to the snowball order in, by agent index
+    private int[] ordered = new int[0];
+    private int orderStamp = 0;
+
+
+    /**
+     * Constructor.
+     *
+     * @param network
+     *          the network
+     */
+    public ParallelAgentDynamics(Network network) {
+        this(network, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param network
+     *          the network
+     * @param interrupted
+     *          whether the current round is to be interrupted, checked between batches
+     */
+    public ParallelAgentDynamics(Network network, BooleanSupplier interrupted) {
+        this(network, DEFAULT_MAX_BATCH_SIZE, interrupted);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param network
+     *          the network
+     * @param maxBatchSize
+     *          the maximum number of agents processed in parallel
+     */
+    public ParallelAgentDynamics(Network network, int maxBatchSize) {
+        this(network, maxBatchSize, () -> false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param network
+     *          the network
+     * @param maxBatchSize
+     *          the maximum number of agents processed in parallel
+     * @param interrupted
+     *          whether the current round is to be interrupted, checked between batches
+     */
+    public ParallelAgentDynamics(Network network, int maxBatchSize, BooleanSupplier interrupted) {
+        this.network = network;
+        this.maxBatchSize = maxBatchSize;
+        this.interrupted = interrupted;
+    }
+
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.simulation.AgentDynamics#computeRound(int, long)
+     */
+    @Override
+    public void computeRound(int simRound, long seed) {
+        int n = this.network.getN();
+        if (this.blocked.length < n) {
+            this.blocked = Arrays.copyOf(this.blocked, n);
+        }
+
+        // snowball order of the round start
+        List<Agent> agents = getSnowballOrder(simRound, seed);
+
+        // utility functions depending on more than the neighbourhood up to distance 2 allow no parallel processing
+        boolean local = true;
+        for (Agent agent : agents) {
+            local &= agent.getUtilityFunction().isLocal();
+        }
+        int batchSize = local ? this.maxBatchSize : 1;
+
+        GraphStore graphStore = this.network.getGraphStore();
+        int next = 0;
+        while (next < agents.size()) {
+            // external interrupts
+            if (this.interrupted.getAsBoolean()) {
+                return;
+            }
+            this.stamp++;
+            List<Agent> batch = new ArrayList<Agent>();
+            List<List<Agent>> batchPartners = new ArrayList<List<Agent>>();
+            while (next < agents.size() && batch.size() < batchSize) {
+                Agent agent = agents.get(next);
+                if (this.blocked[agent.getIndex()] == this.stamp) {
+                    break;
+                }
+                // the same draws as when processed one by one
+                List<Agent> partners = agent.drawNetworkDecisionPartners(
+                        RandomStream.of(seed, simRound, agent.getIndex()));
+                if (!batch.isEmpty() && isBlocked(partners)) {
+                    break;
+                }
+                block(graphStore, agent.getIndex());
+                for (Agent partner : partners) {
+                    block(graphStore, partner.getIndex());
+                }
+                batch.add(agent);
+                batchPartners.add(partners);
+                next++;
+            }
+
+            // process batch, barrier until all agents of the batch are finished
+            IntStream.range(0, batch.size()).parallel().forEach(i -> batch.get(i).computeRound(batchPartners.get(i), 0));
+        }
+    }
+
+    /**
+     * Gets the agents in snowball order: in random order, each agent followed by its connections not ordered yet,
+     * breadth-first, following the connections at the start of the round.
+     *
+     * @param simRound
+     *          the simulation round
+     * @param seed
+     *          the seed of the simulation
+     * @return the agents in snowball order
+     */
+    List<Agent> getSnowballOrder(int simRound, long seed) {
+        if (this.ordered.length < this.network.getN()) {
+            this.ordered = Arrays.copyOf(this.ordered, this.network.getN());
+        }
+        this.orderStamp++;
+
+        List<Agent> agents = new ArrayList<Agent>(this.network.getAgents());
+        Collections.shuffle(agents, RandomStream.of(seed, simRound, -1));
+
+        GraphStore graphStore = this.network.getGraphStore();
+        List<Agent> order = new ArrayList<Agent>(agents.size());
+        for (Agent start : agents) {
+            if (this.ordered[start.getIndex()] == this.orderStamp) {
+                continue;
+            }
+            this.ordered[start.getIndex()] = this.orderStamp;
+            int head = order.size();
+            order.add(start);
+            while (head < order.size()) {
+                int index = order.get(head++).getIndex();
+                for (int k = 0; k < graphStore.getDegree(index); k++) {
+                    int connection = graphStore.getNeighbor(index, k);
+                    if (this.ordered[connection] != this.orderStamp) {
+                        this.ordered[connection] = this.orderStamp;
+                        order.add(this.network.getAgent(connection));
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Checks whether any of the given agents is within distance 2 of the current batch.
+     *
+     * @param agents
+     *          the agents
+     * @return true if any of the agents is within distance 2 of the current batch, false otherwise
+     */
+    private boolean isBlocked(List<Agent> agents) {
+        for (Agent agent : agents) {
+            if (this.blocked[agent.getIndex()] == this.stamp) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Blocks all agents within distance 2 of an agent for the current batch.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param index
+     *          the index of the agent
+     */
+    private void block(GraphStore graphStore, int index) {
+        this.blocked[index] = this.stamp;
+        for (int k = 0; k < graphStore.getDegree(index); k++) {
+            int neighbor = graphStore.getNeighbor(index, k);
+            this.blocked[neighbor] = this.stamp;
+            for (int l = 0; l < graphStore.getDegree(neighbor); l++) {
+                this.blocked[graphStore.getNeighbor(neighbor, l)] = this.stamp;
+            }
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -37,7 +38,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.agents.DiseaseCompartments;
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
 import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.system.PropertiesHandler;
+import nl.uu.socnetid.nidm.system.RandomStream;
 
 /**
  * @author Hendrik Nunner
@@ -63,6 +69,20 @@ public class Simulation implements Runnable {
     private int rounds = 1;
     // flag whether network has active infection or not
     private boolean activeInfection;
+    // the agents affected by the disease dynamics of a round
+    private final DiseaseFrontier diseaseFrontier;
+    // double-buffered disease dynamics, null if agents are processed one by one
+    private DoubleBufferedDiseaseDynamics doubleBufferedDiseaseDynamics;
+    // the continuous-time epidemic on a static network, if any
+    private NextReactionEpidemic epidemic;
+    // the mode of computing agent dynamics
+    private AgentDynamicsModes agentDynamicsMode = AgentDynamicsModes.SEQUENTIAL;
+    // parallel or synchronous agent dynamics, null if agents are processed one by one
+    private AgentDynamics agentDynamics;
+    // the seed of all random draws of the simulation
+    private long seed;
+    // the random stream bound to the simulating thread while computing a round
+    private RandomStream random;
 
     // listeners
     private final Set<SimulationListener> simulationListeners =
@@ -90,6 +110,20 @@ public class Simulation implements Runnable {
     public Simulation(Network network, boolean epStatic) {
         this.network = network;
         this.epStatic = epStatic;
+        this.diseaseFrontier = new DiseaseFrontier(network);
+        this.setSeed(RandomStream.current().nextLong());
+        this.setDoubleBufferedDiseaseDynamics(PropertiesHandler.getInstance().isSimDiseaseDoubleBuffered());
+        this.setAgentDynamicsMode(PropertiesHandler.getInstance().getSimAgentDynamicsMode());
+        if (PropertiesHandler.getInstance().isStatsApproximation()) {
+            network.getCentralities().setApproximation(true,
+                    PropertiesHandler.getInstance().getStatsApproximationEpsilon(),
+                    PropertiesHandler.getInstance().getStatsApproximationDelta());
+            // drawn only if needed, not to change the draws of simulations without approximation
+            network.getCentralities().setSeed(RandomStream.current().nextLong());
+        }
+        if (PropertiesHandler.getInstance().isSimStabilityComputation()) {
+            network.setStabilityComputation(true);
+        }
         this.addSimulationListener(network);
     }
 
@@ -103,6 +137,84 @@ public class Simulation implements Runnable {
         this.delay = delay;
     }
 
+    /**
+     * Gets the mode of computing agent dynamics.
+     *
+     * @return the mode of computing agent dynamics
+     */
+    public AgentDynamicsModes getAgentDynamicsMode() {
+        return this.agentDynamicsMode;
+    }
+
+    /**
+     * Sets the mode of computing agent dynamics: one after another (default), independent agents in parallel (see
+     * {@link ParallelAgentDynamics}), or all agents on the network of the round start (see
+     * {@link SynchronousAgentDynamics}). Parallel agent dynamics follow the snowball order of the round start rather
+     * than the changing connections of processed agents. Parallel and synchronous agent dynamics ignore the delay
+     * between agent moves.
+     *
+     * @param agentDynamicsMode
+     *          the mode of computing agent dynamics
+     */
+    public void setAgentDynamicsMode(AgentDynamicsModes agentDynamicsMode) {
+        switch (agentDynamicsMode) {
+            case PARALLEL:
+                this.agentDynamics = new ParallelAgentDynamics(this.network, () -> this.paused || this.stopped);
+                break;
+            case SYNCHRONOUS:
+                this.agentDynamics = new SynchronousAgentDynamics(this.network);
+                break;
+            case SEQUENTIAL:
+            default:
+                this.agentDynamics = null;
+                break;
+        }
+        this.agentDynamicsMode = agentDynamicsMode;
+    }
+
+    /**
+     * Checks whether disease dynamics are double-buffered.
+     *
+     * @return true if disease dynamics are double-buffered, false otherwise
+     */
+    public boolean isDoubleBufferedDiseaseDynamics() {
+        return this.doubleBufferedDiseaseDynamics != null;
+    }
+
+    /**
+     * Sets whether disease dynamics are double-buffered (see {@link DoubleBufferedDiseaseDynamics}). That is, a round
+     * of disease dynamics depends on the disease states of the previous round only and is computed in parallel.
+     * Double-buffered disease dynamics ignore the delay between agent moves.
+     *
+     * @param doubleBuffered
+     *          true if disease dynamics are double-buffered, false otherwise
+     */
+    public void setDoubleBufferedDiseaseDynamics(boolean doubleBuffered) {
+        this.doubleBufferedDiseaseDynamics = doubleBuffered ? new DoubleBufferedDiseaseDynamics(this.network) : null;
+    }
+
+    /**
+     * Gets the seed of all random draws of the simulation.
+     *
+     * @return the seed of all random draws of the simulation
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Sets the seed of all random draws of the simulation. While a round is computed, a stream of the seed is bound
+     * to the simulating thread (see {@link RandomStream#current()}), so that simulations produce the same results
+     * with the same seed on the same network. Defaults to a seed drawn from the stream of the creating thread.
+     *
+     * @param seed
+     *          the seed of all random draws of the simulation
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.random = RandomStream.of(seed);
+    }
+
 
     /* (non-Javadoc)
      * @see java.lang.Runnable#run()
@@ -203,6 +315,7 @@ public class Simulation implements Runnable {
 
         this.activeInfection = false;
         this.rounds = 1;
+        this.epidemic = null;
 
         while ((!this.network.isStable() || this.network.hasActiveInfection())
                 && this.rounds <= maxRounds
@@ -264,9 +377,15 @@ public class Simulation implements Runnable {
 
         notifySimulationStarted();
         this.rounds = 1;
+        this.epidemic = null;
 
         while (this.network.hasActiveInfection()) {
-            computeDiseaseDynamics();
+            RandomStream previous = RandomStream.bind(this.random);
+            try {
+                computeDiseaseDynamics(true);
+            } finally {
+                RandomStream.bind(previous);
+            }
             notifyRoundFinished();
             this.rounds++;
         }
@@ -283,9 +402,26 @@ public class Simulation implements Runnable {
      * composed of disease and agent dynamics.
      */
     private void computeSingleRound() {
+        RandomStream previous = RandomStream.bind(this.random);
+        try {
+            computeDynamics();
+        } finally {
+            RandomStream.bind(previous);
+        }
+
+        // notifications
+        notifyRoundFinished();
+
+        this.rounds++;
+    }
+
+    /**
+     * Computes the disease and agent dynamics of a single round.
+     */
+    private void computeDynamics() {
 
         if (this.network.hasActiveInfection()) {
-            computeDiseaseDynamics();
+            computeDiseaseDynamics(this.epStatic);
         }
 
         // first round with active infection
@@ -300,11 +436,6 @@ public class Simulation implements Runnable {
         if (!this.network.hasActiveInfection() || (this.network.hasActiveInfection() && !this.epStatic)) {
             computeAgentDynamics();
         }
-
-        // notifications
-        notifyRoundFinished();
-
-        this.rounds++;
     }
 
     /**
@@ -322,16 +453,37 @@ public class Simulation implements Runnable {
     }
 
     /**
-     * Computes a single round of the disease dynamics of the network.
+     * Computes a single round of the disease dynamics of the network. Continuous-time diseases (see
+     * {@link DiseaseSpecs#isContinuousTime()}) on static networks are simulated event by event, all other diseases
+     * round by round (see {@link #setDoubleBufferedDiseaseDynamics(boolean)}).
+     *
+     * @param staticNetwork
+     *          whether the network structure remains static while the infection is present
      */
-    private void computeDiseaseDynamics() {
+    private void computeDiseaseDynamics(boolean staticNetwork) {
 
-        // random order
-        List<Agent> agents = new ArrayList<Agent>(this.network.getAgents());
-        Collections.shuffle(agents);
+        if (staticNetwork && isContinuousTimeEpidemic()) {
+            if (this.epidemic == null) {
+                this.epidemic = new NextReactionEpidemic(this.network, this.getRounds());
+            }
+            this.epidemic.advance(this.getRounds());
+            if (this.epidemic.isFinished()) {
+                this.epidemic = null;
+            }
+            return;
+        }
+        this.epidemic = null;
 
-        Iterator<Agent> agentsIt = agents.iterator();
-        while (agentsIt.hasNext()) {
+        if (this.doubleBufferedDiseaseDynamics != null) {
+            if (!this.paused) {
+                this.doubleBufferedDiseaseDynamics.computeRound(this.getRounds(), this.seed);
+            }
+            return;
+        }
+
+        // infected agents and their susceptible connections in random order
+        this.diseaseFrontier.startRound();
+        while (this.diseaseFrontier.hasNext()) {
 
             // some delay before processing of each agent (e.g., for animation processes)
             if (delay > 0) {
@@ -345,23 +497,38 @@ public class Simulation implements Runnable {
             if (this.paused) {
                 return;
             }
-            Agent agent = agentsIt.next();
-            if (agent.isInfected()) {
-                agent.fightDisease();
-            }
-            agent.computeDiseaseTransmission(this.getRounds());
+            this.diseaseFrontier.computeDiseaseDynamics(this.diseaseFrontier.next(), this.getRounds());
         }
     }
 
+    /**
+     * Checks whether the infection present in the network spreads in continuous time.
+     *
+     * @return true if the infection spreads in continuous time, false otherwise
+     */
+    private boolean isContinuousTimeEpidemic() {
+        DiseaseCompartments compartments = this.network.getAgentStates().getCompartments();
+        if (compartments.size(DiseaseGroup.INFECTED) == 0) {
+            return false;
+        }
+        Agent infected = this.network.getAgent(compartments.getMember(DiseaseGroup.INFECTED, 0));
+        return infected.getDisease().getDiseaseSpecs().isContinuousTime();
+    }
+
     /**
      * Computes a single round of the disease dynamics of the network.
      */
     private void computeAgentDynamics() {
 
+        if (this.agentDynamics != null) {
+            this.agentDynamics.computeRound(this.rounds, this.seed);
+            return;
+        }
+
         List<Agent> agents = new ArrayList<Agent>(this.network.getAgents());
-        Collections.shuffle(agents);
-        Set<Agent> agentsAll = new HashSet<Agent>(agents);
-        Set<Agent> agentsToProcess = new HashSet<Agent>(this.network.getN());
+        Collections.shuffle(agents, this.random);
+        Set<Agent> agentsAll = new LinkedHashSet<Agent>(agents);
+        Set<Agent> agentsToProcess = new LinkedHashSet<Agent>(this.network.getN());
         Set<String> agentsProcessed = new HashSet<String>(this.network.getN());
 
         while (!agentsAll.isEmpty()) {
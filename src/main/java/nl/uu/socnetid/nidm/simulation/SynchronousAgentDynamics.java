@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.system.RandomStream;
+
+/**
+ * Synchronous agent dynamics: all agents decide on the network as it is at the beginning of a round.
+ *
+ * A round consists of two phases. In the proposal phase, all agents draw the agents to make network decisions about
+ * (see {@link Agent#drawNetworkDecisionPartners(Random)}) and evaluate each decision in parallel on the unchanged
+ * network of the round start: to remove an existing tie if it is too costly, or to add a new tie if it is valuable and
+ * the other agent consents to it. As the network is not changed during the proposal phase, no copy of it is required.
+ * In the resolution phase, the proposals are applied agent by agent in order of the agents' indices, and decision by
+ * decision in order of drawing. A removal is applied only if the tie still exists, i.e. it has not been removed by the
+ * agent on the other side already. A new tie requires the consent of both agents at the round start, and mutual
+ * proposals for the same tie create a single tie. An agent that proposed no change is satisfied. The result is
+ * deterministic for a given seed and independent of the number of threads.
+ *
+ * @author Hendrik Nunner
+ */
+public class SynchronousAgentDynamics implements AgentDynamics {
+
+    // the network
+    private final Network network;
+
+
+    /**
+     * Constructor.
+     *
+     * @param network
+     *          the network
+     */
+    public SynchronousAgentDynamics(Network network) {
+        this.network = network;
+    }
+
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.simulation.AgentDynamics#computeRound(int, long)
+     */
+    @Override
+    public void computeRound(int simRound, long seed) {
+
+        List<Agent> agents = new ArrayList<Agent>(this.network.getAgents());
+        agents.sort(Comparator.comparingInt(Agent::getIndex));
+
+        ReadWriteLock lock = this.network.getStructureLock();
+
+        // proposal phase
+        List<List<Proposal>> proposals;
+        lock.readLock().lock();
+        try {
+            proposals = IntStream.range(0, agents.size()).parallel()
+                    .mapToObj(i -> propose(agents.get(i), simRound, seed))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // resolution phase
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < agents.size(); i++) {
+                Agent agent = agents.get(i);
+                List<Proposal> agentProposals = proposals.get(i);
+                boolean satisfied = true;
+                for (Proposal proposal : agentProposals) {
+                    if (proposal.partner == null) {
+                        continue;
+                    }
+                    satisfied = false;
+                    if (proposal.removal) {
+                        if (agent.isDirectlyConnectedTo(proposal.partner)) {
+                            agent.disconnectFrom(proposal.partner);
+                        }
+                    } else {
+                        agent.resolveConnectionRequest(proposal.partner, proposal.accepted);
+                    }
+                }
+                // no other agent left to process
+                if (agentProposals.size() < agent.getNumberOfNetworkDecisions()) {
+                    continue;
+                }
+                agent.finishRound(satisfied);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates the network decisions of an agent on the network of the round start.
+     *
+     * @param agent
+     *          the agent
+     * @param simRound
+     *          the simulation round
+     * @param seed
+     *          the seed of the simulation
+     * @return a proposal per network decision, in order of drawing
+     */
+    private static List<Proposal> propose(Agent agent, int simRound, long seed) {
+        List<Agent> partners = agent.drawNetworkDecisionPartners(
+                RandomStream.of(seed, simRound, agent.getIndex()));
+        List<Proposal> proposals = new ArrayList<Proposal>(partners.size());
+        for (Agent partner : partners) {
+            if (agent.isDirectlyConnectedTo(partner)) {
+                proposals.add(agent.existingConnectionTooCostly(partner) ?
+                        new Proposal(partner, true, false) : Proposal.NONE);
+            } else if (agent.newConnectionValuable(partner)) {
+                proposals.add(new Proposal(partner, false, partner.isConnectionAcceptable(agent)));
+            } else {
+                proposals.add(Proposal.NONE);
+            }
+        }
+        return proposals;
+    }
+
+
+    /**
+     * A proposed change of a tie.
+     */
+    private static final class Proposal {
+
+        // no change
+        private static final Proposal NONE = new Proposal(null, false, false);
+
+        // the agent on the other side of the tie
+        private final Agent partner;
+        // whether the tie is to be removed, or to be added otherwise
+        private final boolean removal;
+        // whether the partner consents to a new tie
+        private final boolean accepted;
+
+        private Proposal(Agent partner, boolean removal, boolean accepted) {
+            this.partner = partner;
+            this.removal = removal;
+            this.accepted = accepted;
+        }
+    }
+
+}
@@ -25,31 +25,15 @@
  */
 package nl.uu.socnetid.nidm.simulation;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.locks.ReentrantLock;
-
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
-import nl.uu.socnetid.nidm.agents.Agent;
 import nl.uu.socnetid.nidm.networks.Network;
 
 /**
+ * Simulation computing agent dynamics in parallel (see {@link ParallelAgentDynamics}).
+ *
  * @author Hendrik Nunner
  */
 public class ThreadedSimulation extends Simulation {
 
-    // logger
-    @SuppressWarnings("unused")
-    private static final Logger logger = LogManager.getLogger(ThreadedSimulation.class);
-
-    // the executor agentExecutor used for the agent threads
-    private ExecutorService agentExecutor;
-    // agent concurrency
-    private final ReentrantLock lock = new ReentrantLock();
-
-
     /**
      * Constructor.
      *
@@ -58,22 +42,7 @@ public class ThreadedSimulation extends Simulation {
      */
     public ThreadedSimulation(Network network) {
         super(network);
-        this.agentExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-    }
-
-    /*
-     * (non-Javadoc)
-     * @see nl.uu.socnetid.nidm.simulation.Simulation#computeAgentRound(
-     * nl.uu.socnetid.nidm.agents.Agent)
-     */
-    @Override
-    protected void computeAgentRound(Agent agent) {
-        agent.setLock(this.lock);
-        agentExecutor.submit(agent);
-        // stop simulaiton if thread is interrupted
-        if (Thread.currentThread().isInterrupted()) {
-            this.pause();
-        }
+        this.setAgentDynamicsMode(AgentDynamicsModes.PARALLEL);
     }
 
 }
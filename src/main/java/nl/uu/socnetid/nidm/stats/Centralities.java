@@ -0,0 +1,511 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.stats;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.stats.CentralityEstimators.Estimate;
+import nl.uu.socnetid.nidm.system.RandomStream;
+
+/**
+ * Network-wide centrality and distance measures computed for all agents at once and cached until the structure of the
+ * network changes (see {@link GraphStore#getVersion()}). Agents are represented by their index.
+ *
+ * Betweenness is computed with the algorithm of Brandes (2001), requiring one breadth-first search per source
+ * (O(n * m)) instead of one such computation per agent. As in GraphStream's BetweennessCentrality, pairs of agents
+ * are counted in both directions. Closeness of all agents, average distance and diameter are each derived from a
+ * single all-sources pass of breadth-first searches, processed in parallel.
+ *
+ * For large networks, betweenness, closeness, and average path length can be approximated by sampling instead (see
+ * {@link CentralityEstimators}). Approximated measures come with an additive error bound that holds with a
+ * configurable probability; exact measures have an error of 0. Measures are computed exactly, unless approximation is
+ * enabled (see {@link #setApproximation(boolean, double, double)}). Samples are drawn from streams derived from a
+ * seed (see {@link #setSeed(long)}) and the structural version, so that the same seed produces the same estimates.
+ *
+ * Average path length and average distance are the same measure: the average geodesic distance between all pairs of
+ * agents connected by a path. Pairs of agents that cannot reach each other are left out, so that the measure and its
+ * error bound remain finite in disconnected networks.
+ *
+ * Brandes, U. (2001). A faster algorithm for betweenness centrality. Journal of Mathematical Sociology, 25(2),
+ * 163-177.
+ *
+ * @author Hendrik Nunner
+ */
+public class Centralities {
+
+    // marker for structural versions that have not been computed yet
+    private static final long NOT_COMPUTED = -1;
+
+    // keys of the streams of the single measures
+    private static final long BETWEENNESS_STREAM = 0;
+    private static final long CLOSENESS_STREAM = 1;
+    private static final long AV_PATH_LENGTH_STREAM = 2;
+
+    // the structure of the network
+    private final GraphStore graphStore;
+
+    // flag whether sources are processed in parallel
+    private boolean parallel = false;
+
+    // flag whether measures are approximated by sampling, with maximum error and probability of exceeding it
+    private boolean approximation;
+    private double epsilon;
+    private double delta;
+    // seed of the streams of the estimators
+    private long seed;
+
+    // betweenness by agent index and the structural version it has been computed for
+    private double[] betweenness = new double[0];
+    private double betweennessError;
+    private long betweennessVersion = NOT_COMPUTED;
+    // closeness by agent index and the structural version it has been computed for
+    private double[] closeness = new double[0];
+    private double closenessError;
+    private long closenessVersion = NOT_COMPUTED;
+    // average path length and the structural version it has been computed for
+    private double avPathLength;
+    private double avPathLengthError;
+    private long avPathLengthVersion = NOT_COMPUTED;
+    // average distance and diameter and the structural version they have been computed for
+    private double avDistance;
+    private int diameter;
+    private long distancesVersion = NOT_COMPUTED;
+
+
+    /**
+     * Constructor. Measures are computed exactly.
+     *
+     * @param graphStore
+     *          the structure of the network
+     */
+    public Centralities(GraphStore graphStore) {
+        this.graphStore = graphStore;
+    }
+
+
+    /**
+     * Gets the betweenness of an agent: the number of shortest paths between pairs of other agents the agent is
+     * located on, with paths split equally between shortest paths of the same length.
+     *
+     * @param index
+     *          the index of the agent
+     * @return the betweenness of the agent
+     */
+    public synchronized double getBetweenness(int index) {
+        updateBetweenness();
+        return this.betweenness[index];
+    }
+
+    /**
+     * Gets the additive error bound of the betweenness of each agent.
+     *
+     * @return the error bound of betweenness, 0 if computed exactly
+     */
+    public synchronized double getBetweennessError() {
+        if (!this.approximation) {
+            return 0.0;
+        }
+        updateBetweenness();
+        return this.betweennessError;
+    }
+
+    /**
+     * Computes or approximates the betweenness of all agents, if the structure has changed since the last computation.
+     */
+    private void updateBetweenness() {
+        if (this.betweennessVersion == this.graphStore.getVersion()) {
+            return;
+        }
+        Estimate estimate = this.approximation ? CentralityEstimators.estimateBetweenness(
+                this.graphStore, this.epsilon, this.delta, this.parallel, stream(BETWEENNESS_STREAM)) : null;
+        if (estimate != null) {
+            this.betweenness = estimate.values;
+            this.betweennessError = estimate.error;
+        } else {
+            this.betweenness = computeBetweenness();
+            this.betweennessError = 0.0;
+        }
+        this.betweennessVersion = this.graphStore.getVersion();
+    }
+
+    /**
+     * Computes the betweenness of all agents.
+     *
+     * @return the betweenness by agent index
+     */
+    private double[] computeBetweenness() {
+        int n = this.graphStore.getNodeCount();
+        IntStream sources = IntStream.range(0, n);
+        if (this.parallel) {
+            sources = sources.parallel();
+        }
+        return sources.collect(
+                () -> new BrandesAccumulator(this.graphStore, n),
+                BrandesAccumulator::accumulate,
+                BrandesAccumulator::combine).betweenness;
+    }
+
+    /**
+     * Gets the closeness of an agent (see {@link StatsComputer#computeCloseness(Agent)}).
+     *
+     * @param index
+     *          the index of the agent
+     * @return the closeness of the agent
+     */
+    public synchronized double getCloseness(int index) {
+        updateCloseness();
+        return this.closeness[index];
+    }
+
+    /**
+     * Gets the additive error bound of the closeness of each agent.
+     *
+     * @return the error bound of closeness, 0 if computed exactly
+     */
+    public synchronized double getClosenessError() {
+        if (!this.approximation) {
+            return 0.0;
+        }
+        updateCloseness();
+        return this.closenessError;
+    }
+
+    /**
+     * Computes or approximates the closeness of all agents, if the structure has changed since the last computation.
+     */
+    private void updateCloseness() {
+        if (this.closenessVersion == this.graphStore.getVersion()) {
+            return;
+        }
+        Estimate estimate = this.approximation ? CentralityEstimators.estimateCloseness(
+                this.graphStore, this.epsilon, this.delta, stream(CLOSENESS_STREAM)) : null;
+        if (estimate != null) {
+            this.closeness = estimate.values;
+            this.closenessError = estimate.error;
+        } else {
+            int n = this.graphStore.getNodeCount();
+            // sums of integer distances are exact, hence always in parallel
+            this.closeness = ShortestPaths.computeForAllSources(this.graphStore,
+                    sp -> StatsComputer.computeCloseness(sp, n), true);
+            this.closenessError = 0.0;
+        }
+        this.closenessVersion = this.graphStore.getVersion();
+    }
+
+    /**
+     * Gets the average path length: the average geodesic distance between all pairs of agents connected by a path
+     * (see {@link #getAvDistance()}), approximated by sampling if enabled.
+     *
+     * @return the average path length, 0 if no pair of agents is connected
+     */
+    public synchronized double getAvPathLength() {
+        updateAvPathLength();
+        return this.avPathLength;
+    }
+
+    /**
+     * Gets the additive error bound of the average path length.
+     *
+     * @return the error bound of the average path length, 0 if computed exactly
+     */
+    public synchronized double getAvPathLengthError() {
+        if (!this.approximation) {
+            return 0.0;
+        }
+        updateAvPathLength();
+        return this.avPathLengthError;
+    }
+
+    /**
+     * Computes or approximates the average path length, if the structure has changed since the last computation.
+     */
+    private void updateAvPathLength() {
+        if (this.avPathLengthVersion == this.graphStore.getVersion()) {
+            return;
+        }
+        Estimate estimate = this.approximation ? CentralityEstimators.estimateAvPathLength(
+                this.graphStore, this.epsilon, this.delta, stream(AV_PATH_LENGTH_STREAM)) : null;
+        if (estimate != null) {
+            this.avPathLength = estimate.values[0];
+            this.avPathLengthError = estimate.error;
+        } else {
+            computeDistances();
+            this.avPathLength = this.avDistance;
+            this.avPathLengthError = 0.0;
+        }
+        this.avPathLengthVersion = this.graphStore.getVersion();
+    }
+
+    /**
+     * Gets the average geodesic distance between all pairs of agents connected by a path (average path length as
+     * computed by Gephi's GraphDistance).
+     *
+     * @return the average geodesic distance, 0 if no pair of agents is connected (as exported before distances were
+     *          computed)
+     */
+    public synchronized double getAvDistance() {
+        computeDistances();
+        return this.avDistance;
+    }
+
+    /**
+     * Gets the diameter: the longest geodesic distance between two agents connected by a path.
+     *
+     * @return the diameter
+     */
+    public synchronized int getDiameter() {
+        computeDistances();
+        return this.diameter;
+    }
+
+    /**
+     * Creates the stream of an estimator for the current structural version.
+     *
+     * @param measure
+     *          the key of the measure
+     * @return the stream of the estimator
+     */
+    private RandomStream stream(long measure) {
+        return RandomStream.of(this.seed, measure, this.graphStore.getVersion());
+    }
+
+    /**
+     * Computes average distance and diameter, if the structure has changed since the last computation.
+     */
+    private void computeDistances() {
+        if (this.distancesVersion == this.graphStore.getVersion()) {
+            return;
+        }
+
+        // sums of distances, number of reached agents, and eccentricities by source
+        int n = this.graphStore.getNodeCount();
+        int[] reached = new int[n];
+        int[] eccentricities = new int[n];
+        double[] sums = ShortestPaths.computeForAllSources(this.graphStore, sp -> {
+            long sum = 0;
+            for (int k = 1; k < sp.getReachedCount(); k++) {
+                sum += sp.getDistance(sp.getReached(k));
+            }
+            reached[sp.getSource()] = sp.getReachedCount() - 1;
+            eccentricities[sp.getSource()] = sp.getDistance(sp.getReached(sp.getReachedCount() - 1));
+            return sum;
+        }, true);
+
+        double sum = 0.0;
+        long pairs = 0;
+        int max = 0;
+        for (int i = 0; i < n; i++) {
+            sum += sums[i];
+            pairs += reached[i];
+            max = Math.max(max, eccentricities[i]);
+        }
+        // networks without ties: 0 rather than NaN, keeping data exports numeric
+        this.avDistance = pairs == 0 ? 0.0 : sum / pairs;
+        this.diameter = max;
+        this.distancesVersion = this.graphStore.getVersion();
+    }
+
+    /**
+     * Checks whether sources of the betweenness computation are processed in parallel.
+     *
+     * @return true if sources are processed in parallel, false otherwise
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets whether sources of the betweenness computation are processed in parallel (using the common fork/join
+     * pool). Parallel processing sums dependencies in a different order, so that results may differ in the last
+     * digits.
+     *
+     * @param parallel
+     *          true if sources are processed in parallel, false otherwise
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Checks whether betweenness, closeness, and average path length are approximated by sampling.
+     *
+     * @return true if measures are approximated, false if they are computed exactly
+     */
+    public boolean isApproximation() {
+        return approximation;
+    }
+
+    /**
+     * Sets whether betweenness, closeness, and average path length are approximated by sampling. Cached measures are
+     * discarded.
+     *
+     * @param approximation
+     *          true if measures are approximated, false if they are computed exactly
+     * @param epsilon
+     *          the maximum additive error (betweenness: relative to n * (n - 1); closeness: absolute; average path
+     *          length: relative to the range of average distances of a single agent)
+     * @param delta
+     *          the probability of exceeding the maximum error
+     */
+    public synchronized void setApproximation(boolean approximation, double epsilon, double delta) {
+        this.approximation = approximation;
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.betweennessVersion = NOT_COMPUTED;
+        this.closenessVersion = NOT_COMPUTED;
+        this.avPathLengthVersion = NOT_COMPUTED;
+    }
+
+    /**
+     * Gets the seed of the streams the estimators draw their samples from.
+     *
+     * @return the seed of the estimators
+     */
+    public synchronized long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the seed of the streams the estimators draw their samples from (e.g., derived from the seed of a
+     * simulation). Cached approximations are discarded.
+     *
+     * @param seed
+     *          the seed of the estimators
+     */
+    public synchronized void setSeed(long seed) {
+        this.seed = seed;
+        if (this.approximation) {
+            this.betweennessVersion = NOT_COMPUTED;
+            this.closenessVersion = NOT_COMPUTED;
+            this.avPathLengthVersion = NOT_COMPUTED;
+        }
+    }
+
+
+    /**
+     * Accumulates the dependencies of a set of sources. Each thread uses its own accumulator.
+     *
+     * @author Hendrik Nunner
+     */
+    private static class BrandesAccumulator {
+
+        // the structure of the network
+        private final GraphStore graphStore;
+
+        // accumulated betweenness by agent index
+        private final double[] betweenness;
+
+        // per source: distances, number of shortest paths, dependencies, agents in order of discovery
+        private final int[] distances;
+        private final double[] sigma;
+        private final double[] delta;
+        private final int[] reached;
+
+        /**
+         * Constructor.
+         *
+         * @param graphStore
+         *          the structure of the network
+         * @param n
+         *          the number of agents
+         */
+        BrandesAccumulator(GraphStore graphStore, int n) {
+            this.graphStore = graphStore;
+            this.betweenness = new double[n];
+            this.distances = new int[n];
+            this.sigma = new double[n];
+            this.delta = new double[n];
+            this.reached = new int[n];
+            Arrays.fill(this.distances, -1);
+        }
+
+        /**
+         * Adds the dependencies of a single source.
+         *
+         * @param source
+         *          the index of the source
+         */
+        void accumulate(int source) {
+            // breadth-first search counting shortest paths
+            this.distances[source] = 0;
+            this.sigma[source] = 1;
+            this.reached[0] = source;
+            int reachedCount = 1;
+            int head = 0;
+            while (head < reachedCount) {
+                int v = this.reached[head++];
+                int degree = this.graphStore.getDegree(v);
+                for (int k = 0; k < degree; k++) {
+                    int w = this.graphStore.getNeighbor(v, k);
+                    if (this.distances[w] < 0) {
+                        this.distances[w] = this.distances[v] + 1;
+                        this.reached[reachedCount++] = w;
+                    }
+                    if (this.distances[w] == this.distances[v] + 1) {
+                        this.sigma[w] += this.sigma[v];
+                    }
+                }
+            }
+
+            // back propagation of dependencies in order of non-increasing distance
+            for (int r = reachedCount - 1; r > 0; r--) {
+                int w = this.reached[r];
+                double coefficient = (1 + this.delta[w]) / this.sigma[w];
+                int degree = this.graphStore.getDegree(w);
+                for (int k = 0; k < degree; k++) {
+                    int v = this.graphStore.getNeighbor(w, k);
+                    if (this.distances[v] == this.distances[w] - 1) {
+                        this.delta[v] += this.sigma[v] * coefficient;
+                    }
+                }
+                this.betweenness[w] += this.delta[w];
+            }
+
+            // reset what has been touched
+            for (int r = 0; r < reachedCount; r++) {
+                int v = this.reached[r];
+                this.distances[v] = -1;
+                this.sigma[v] = 0;
+                this.delta[v] = 0;
+            }
+        }
+
+        /**
+         * Adds the betweenness accumulated by another accumulator.
+         *
+         * @param other
+         *          the other accumulator
+         */
+        void combine(BrandesAccumulator other) {
+            for (int i = 0; i < this.betweenness.length; i++) {
+                this.betweenness[i] += other.betweenness[i];
+            }
+        }
+    }
+
+}
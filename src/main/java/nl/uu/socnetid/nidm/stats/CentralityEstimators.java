@@ -0,0 +1,516 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.stats;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.system.RandomStream;
+
+/**
+ * Sampling based estimators of centrality and distance measures for large networks, each with an additive error bound
+ * that holds with probability 1 - delta. If the required sample exceeds the number of agents, the estimators return
+ * null and the exact measure should be computed instead.
+ *
+ * Random draws are taken from a given stream in the same order, no matter whether samples are processed in parallel,
+ * so that the same stream produces the same estimates.
+ *
+ * Riondato, M., & Kornaropoulos, E. M. (2016). Fast approximation of betweenness centrality through sampling. Data
+ * Mining and Knowledge Discovery, 30(2), 438-475.
+ *
+ * Eppstein, D., & Wang, J. (2004). Fast approximation of centrality. Journal of Graph Algorithms and Applications,
+ * 8(1), 39-45.
+ *
+ * @author Hendrik Nunner
+ */
+final class CentralityEstimators {
+
+    // constant of the sample size of Riondato & Kornaropoulos (2016)
+    private static final double RK_C = 0.5;
+
+    /**
+     * Invisible constructor.
+     */
+    private CentralityEstimators() { }
+
+
+    /**
+     * An estimate with its additive error bound.
+     *
+     * @author Hendrik Nunner
+     */
+    static class Estimate {
+
+        // the estimated values
+        final double[] values;
+        // the additive error bound of each value
+        final double error;
+
+        /**
+         * Constructor.
+         *
+         * @param values
+         *          the estimated values
+         * @param error
+         *          the additive error bound of each value
+         */
+        Estimate(double[] values, double error) {
+            this.values = values;
+            this.error = error;
+        }
+    }
+
+
+    /**
+     * Estimates the betweenness of all agents by sampling random shortest paths (Riondato & Kornaropoulos, 2016).
+     * Betweenness counts pairs of agents in both directions (see {@link Centralities#getBetweenness(int)}).
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param epsilon
+     *          the maximum additive error of betweenness divided by n * (n - 1)
+     * @param delta
+     *          the probability of exceeding the maximum error for any agent
+     * @param parallel
+     *          flag whether samples are processed in parallel
+     * @param random
+     *          the stream to draw the samples from
+     * @return the estimated betweenness by agent index with the error bound in units of betweenness, null if the
+     *          exact computation is cheaper
+     */
+    static Estimate estimateBetweenness(GraphStore graphStore, double epsilon, double delta, boolean parallel,
+            RandomStream random) {
+        int n = graphStore.getNodeCount();
+        int vertexDiameter = inspectComponents(graphStore)[0] + 1;
+        if (vertexDiameter < 3) {
+            // no shortest path with inner agents
+            return new Estimate(new double[n], 0.0);
+        }
+
+        double logTerm = Math.floor(Math.log(vertexDiameter - 2) / Math.log(2)) + 1 + Math.log(1 / delta);
+        int samples = (int) Math.ceil(RK_C / (epsilon * epsilon) * logTerm);
+        if (samples >= n) {
+            return null;
+        }
+
+        // a stream of its own for each sample, as the number of draws per sample varies
+        long seed = random.nextLong();
+        IntStream sampleStream = IntStream.range(0, samples);
+        if (parallel) {
+            sampleStream = sampleStream.parallel();
+        }
+        double[] counts = sampleStream.collect(
+                () -> new PathSampler(graphStore),
+                (sampler, sample) -> sampler.sample(RandomStream.of(seed, sample)),
+                PathSampler::combine).counts;
+
+        double scale = (double) n * (n - 1) / samples;
+        for (int i = 0; i < n; i++) {
+            counts[i] *= scale;
+        }
+        return new Estimate(counts, Math.sqrt(RK_C * logTerm / samples) * n * (n - 1));
+    }
+
+    /**
+     * Estimates the closeness of all agents (see {@link StatsComputer#computeCloseness(Agent)}) from the distances to
+     * randomly drawn pivots (Eppstein & Wang, 2004).
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param epsilon
+     *          the maximum additive error of closeness
+     * @param delta
+     *          the probability of exceeding the maximum error for any agent
+     * @param random
+     *          the stream to draw the pivots from
+     * @return the estimated closeness by agent index with the error bound, null if the exact computation is cheaper
+     */
+    static Estimate estimateCloseness(GraphStore graphStore, double epsilon, double delta, RandomStream random) {
+        int n = graphStore.getNodeCount();
+        if (n < 3) {
+            return null;
+        }
+
+        // range of a single pivot's contribution (unreachable agents count with distance n)
+        int[] components = inspectComponents(graphStore);
+        double maxDistance = components[1] > 1 ? n : components[0];
+        double range = maxDistance * n / ((n - 1.0) * (n - 1.0));
+        double logTerm = Math.log(2 * n / delta);
+        long pivots = (long) Math.ceil(logTerm * range * range / (2 * epsilon * epsilon));
+        if (pivots >= n) {
+            return null;
+        }
+
+        int[] sampled = new int[(int) pivots];
+        for (int i = 0; i < sampled.length; i++) {
+            sampled[i] = random.nextInt(n);
+        }
+        // sums of integer distances are exact, hence independent of the order of pivots
+        PivotAccumulator accumulator = Arrays.stream(sampled).parallel().collect(
+                () -> new PivotAccumulator(graphStore),
+                PivotAccumulator::accumulate,
+                PivotAccumulator::combine);
+
+        double[] closeness = new double[n];
+        for (int i = 0; i < n; i++) {
+            // unreachable agents count with distance n
+            double distances = accumulator.distanceSums[i] + (pivots - accumulator.reachedBy[i]) * (double) n;
+            double cumulatedDistance = distances * n / pivots;
+            closeness[i] = (n / (n - 1.0)) - (cumulatedDistance / ((n - 1.0) * (n - 1.0)));
+        }
+        return new Estimate(closeness, range * Math.sqrt(logTerm / (2 * pivots)));
+    }
+
+    /**
+     * Estimates the average path length (see {@link Centralities#getAvPathLength()}) from the distances of randomly
+     * drawn sources. Sources are drawn with probability proportional to the number of agents they reach, so that the
+     * mean of their average distances is an unbiased estimate of the average distance over all connected pairs.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param epsilon
+     *          the maximum additive error relative to the range of average distances of a single source
+     * @param delta
+     *          the probability of exceeding the maximum error
+     * @param random
+     *          the stream to draw the sources from
+     * @return the estimated average path length (single value) with the error bound, null if the exact computation
+     *          is cheaper or no pair of agents is connected
+     */
+    static Estimate estimateAvPathLength(GraphStore graphStore, double epsilon, double delta, RandomStream random) {
+        int n = graphStore.getNodeCount();
+        if (n < 2) {
+            return null;
+        }
+
+        double logTerm = Math.log(2 / delta);
+        long sources = (long) Math.ceil(logTerm / (2 * epsilon * epsilon));
+        if (sources >= n) {
+            return null;
+        }
+
+        // cumulated numbers of agents reached by each source
+        int[] sizes = new int[n];
+        int[] components = inspectComponents(graphStore, sizes);
+        long[] reached = new long[n];
+        long pairs = 0;
+        for (int i = 0; i < n; i++) {
+            pairs += sizes[i] - 1;
+            reached[i] = pairs;
+        }
+        if (pairs == 0) {
+            return null;
+        }
+        // range of a single source's average distance
+        double range = components[0];
+
+        int[] sampled = new int[(int) sources];
+        for (int i = 0; i < sampled.length; i++) {
+            sampled[i] = select(reached, random.nextLong(0, pairs));
+        }
+        ThreadLocal<ShortestPaths> shortestPaths = ThreadLocal.withInitial(ShortestPaths::new);
+        double[] avDistances = Arrays.stream(sampled).parallel().mapToDouble(source -> {
+            ShortestPaths sp = shortestPaths.get();
+            sp.executeShortestPaths(graphStore, source);
+            return getAvDistance(sp);
+        }).toArray();
+        // summed in order of sources, as the order of summation changes the last digits
+        double sum = 0.0;
+        for (double avDistance : avDistances) {
+            sum += avDistance;
+        }
+
+        return new Estimate(new double[] {sum / sources}, range * Math.sqrt(logTerm / (2 * sources)));
+    }
+
+    /**
+     * Gets the average length of the shortest paths from a source to all agents it reaches.
+     *
+     * @param sp
+     *          the shortest paths of the source
+     * @return the average length of the shortest paths to all reached agents, 0 if no agent is reached
+     */
+    private static double getAvDistance(ShortestPaths sp) {
+        if (sp.getReachedCount() < 2) {
+            return 0.0;
+        }
+        long sum = 0;
+        for (int k = 1; k < sp.getReachedCount(); k++) {
+            sum += sp.getDistance(sp.getReached(k));
+        }
+        return (double) sum / (sp.getReachedCount() - 1);
+    }
+
+    /**
+     * Selects the first index whose cumulated weight exceeds a draw.
+     *
+     * @param cumulated
+     *          the cumulated weights by index
+     * @param draw
+     *          the draw between 0 (inclusive) and the total weight (exclusive)
+     * @return the selected index
+     */
+    private static int select(long[] cumulated, long draw) {
+        int low = 0;
+        int high = cumulated.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulated[mid] > draw) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Inspects the connected components by one breadth-first search per component. Twice the eccentricity of any
+     * agent bounds the diameter of the agent's component.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @return an upper bound of the diameter of all components (index 0), the number of components (index 1)
+     */
+    private static int[] inspectComponents(GraphStore graphStore) {
+        return inspectComponents(graphStore, null);
+    }
+
+    /**
+     * Inspects the connected components by one breadth-first search per component (see
+     * {@link #inspectComponents(GraphStore)}), recording the size of each agent's component.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param sizes
+     *          the array to record the component sizes by agent index in, null if not needed
+     * @return an upper bound of the diameter of all components (index 0), the number of components (index 1)
+     */
+    private static int[] inspectComponents(GraphStore graphStore, int[] sizes) {
+        int n = graphStore.getNodeCount();
+        boolean[] visited = new boolean[n];
+        ShortestPaths sp = new ShortestPaths();
+        int bound = 0;
+        int components = 0;
+        for (int i = 0; i < n; i++) {
+            if (visited[i]) {
+                continue;
+            }
+            components++;
+            sp.executeShortestPaths(graphStore, i);
+            for (int k = 0; k < sp.getReachedCount(); k++) {
+                visited[sp.getReached(k)] = true;
+                if (sizes != null) {
+                    sizes[sp.getReached(k)] = sp.getReachedCount();
+                }
+            }
+            int eccentricity = sp.getDistance(sp.getReached(sp.getReachedCount() - 1));
+            bound = Math.max(bound, Math.min(2 * eccentricity, sp.getReachedCount() - 1));
+        }
+        return new int[] {bound, components};
+    }
+
+
+    /**
+     * Samples shortest paths between random pairs of agents and counts the inner agents of each path. Each thread
+     * uses its own sampler.
+     *
+     * @author Hendrik Nunner
+     */
+    private static class PathSampler {
+
+        // the structure of the network
+        private final GraphStore graphStore;
+
+        // number of sampled paths by inner agent
+        private final double[] counts;
+
+        // per sample: distances, number of shortest paths, agents in order of discovery
+        private final int[] distances;
+        private final double[] sigma;
+        private final int[] reached;
+
+        /**
+         * Constructor.
+         *
+         * @param graphStore
+         *          the structure of the network
+         */
+        PathSampler(GraphStore graphStore) {
+            int n = graphStore.getNodeCount();
+            this.graphStore = graphStore;
+            this.counts = new double[n];
+            this.distances = new int[n];
+            this.sigma = new double[n];
+            this.reached = new int[n];
+            Arrays.fill(this.distances, -1);
+        }
+
+        /**
+         * Draws a random pair of agents and a shortest path between them uniformly at random.
+         *
+         * @param random
+         *          the stream to draw from
+         */
+        void sample(RandomStream random) {
+            int n = this.graphStore.getNodeCount();
+            int source = random.nextInt(n);
+            int target = random.nextInt(n - 1);
+            if (target >= source) {
+                target++;
+            }
+
+            // breadth-first search counting shortest paths, up to the level of the target
+            this.distances[source] = 0;
+            this.sigma[source] = 1;
+            this.reached[0] = source;
+            int reachedCount = 1;
+            int head = 0;
+            while (head < reachedCount) {
+                int v = this.reached[head++];
+                if (this.distances[target] >= 0 && this.distances[v] >= this.distances[target]) {
+                    break;
+                }
+                int degree = this.graphStore.getDegree(v);
+                for (int k = 0; k < degree; k++) {
+                    int w = this.graphStore.getNeighbor(v, k);
+                    if (this.distances[w] < 0) {
+                        this.distances[w] = this.distances[v] + 1;
+                        this.reached[reachedCount++] = w;
+                    }
+                    if (this.distances[w] == this.distances[v] + 1) {
+                        this.sigma[w] += this.sigma[v];
+                    }
+                }
+            }
+
+            // walk back from the target, choosing predecessors proportional to their number of shortest paths
+            if (this.distances[target] > 1) {
+                int w = target;
+                while (true) {
+                    double draw = random.nextDouble() * this.sigma[w];
+                    int predecessor = -1;
+                    int degree = this.graphStore.getDegree(w);
+                    for (int k = 0; k < degree; k++) {
+                        int v = this.graphStore.getNeighbor(w, k);
+                        if (this.distances[v] == this.distances[w] - 1) {
+                            predecessor = v;
+                            draw -= this.sigma[v];
+                            if (draw < 0) {
+                                break;
+                            }
+                        }
+                    }
+                    if (predecessor == source) {
+                        break;
+                    }
+                    this.counts[predecessor]++;
+                    w = predecessor;
+                }
+            }
+
+            // reset what has been touched
+            for (int r = 0; r < reachedCount; r++) {
+                int v = this.reached[r];
+                this.distances[v] = -1;
+                this.sigma[v] = 0;
+            }
+        }
+
+        /**
+         * Adds the counts of another sampler.
+         *
+         * @param other
+         *          the other sampler
+         */
+        void combine(PathSampler other) {
+            for (int i = 0; i < this.counts.length; i++) {
+                this.counts[i] += other.counts[i];
+            }
+        }
+    }
+
+
+    /**
+     * Accumulates the distances of all agents to a set of pivots. Each thread uses its own accumulator.
+     *
+     * @author Hendrik Nunner
+     */
+    private static class PivotAccumulator {
+
+        // the structure of the network
+        private final GraphStore graphStore;
+        // the shortest paths of the current pivot
+        private final ShortestPaths sp = new ShortestPaths();
+
+        // sums of distances to the pivots and number of pivots reaching the agent, by agent index
+        private final double[] distanceSums;
+        private final int[] reachedBy;
+
+        /**
+         * Constructor.
+         *
+         * @param graphStore
+         *          the structure of the network
+         */
+        PivotAccumulator(GraphStore graphStore) {
+            this.graphStore = graphStore;
+            this.distanceSums = new double[graphStore.getNodeCount()];
+            this.reachedBy = new int[graphStore.getNodeCount()];
+        }
+
+        /**
+         * Adds the distances of all agents to a pivot.
+         *
+         * @param pivot
+         *          the index of the pivot
+         */
+        void accumulate(int pivot) {
+            this.sp.executeShortestPaths(this.graphStore, pivot);
+            for (int k = 0; k < this.sp.getReachedCount(); k++) {
+                int agent = this.sp.getReached(k);
+                this.distanceSums[agent] += this.sp.getDistance(agent);
+                this.reachedBy[agent]++;
+            }
+        }
+
+        /**
+         * Adds the distances accumulated by another accumulator.
+         *
+         * @param other
+         *          the other accumulator
+         */
+        void combine(PivotAccumulator other) {
+            for (int i = 0; i < this.distanceSums.length; i++) {
+                this.distanceSums[i] += other.distanceSums[i];
+                this.reachedBy[i] += other.reachedBy[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.stats;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import nl.uu.socnetid.nidm.networks.GraphStore;
+
+/**
+ * Cache of geodesic distance profiles: the number of agents at each geodesic distance from a source, including the
+ * source itself at distance 0. Profiles require a single breadth-first search per source and remain valid until the
+ * structure of the network changes (see {@link GraphStore#getVersion()}). Profiles with a hypothetical new connection
+ * of the source are derived incrementally from the cached distances of recently used sources, only visiting agents
+ * that get closer.
+ *
+ * @author Hendrik Nunner
+ */
+public class GeodesicProfiles {
+
+    // marker for agents that cannot be reached
+    private static final int UNREACHED = -1;
+    // number of sources to keep the distances to all agents for
+    private static final int DISTANCES_CACHE_SIZE = 64;
+
+    // the structure of the network
+    private final GraphStore graphStore;
+
+    // structural version of the cached profiles
+    private long version = -1;
+    // profiles by source index (null if not computed yet)
+    private int[][] profiles = new int[0][];
+    // distances to all agents of recently used sources
+    private final Map<Integer, int[]> distances = new LinkedHashMap<Integer, int[]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+            return size() > DISTANCES_CACHE_SIZE;
+        }
+    };
+    // agents getting closer by a new connection and their previous distances (reused)
+    private int[] changed = new int[0];
+    private int[] previous = new int[0];
+
+
+    /**
+     * Constructor.
+     *
+     * @param graphStore
+     *          the structure of the network
+     */
+    public GeodesicProfiles(GraphStore graphStore) {
+        this.graphStore = graphStore;
+    }
+
+
+    /**
+     * Gets the geodesic distance profile of a source. The returned array must not be modified.
+     *
+     * @param source
+     *          the index of the source
+     * @return the number of agents by geodesic distance (array index), including the source at distance 0
+     */
+    public synchronized int[] getProfile(int source) {
+        validate();
+        if (this.profiles[source] == null) {
+            int[] dists = StatsComputer.computeGeodesicDistances(this.graphStore, source, UNREACHED, UNREACHED);
+            this.distances.put(source, dists);
+            this.profiles[source] = toProfile(dists);
+        }
+        return this.profiles[source];
+    }
+
+    /**
+     * Gets the geodesic distance profile of a source with a potentially new connection and without an existing
+     * connection of the source. The network structure is not changed.
+     *
+     * @param source
+     *          the index of the source
+     * @param with
+     *          the index of the potentially new connection (-1 for none)
+     * @param without
+     *          the index of the existing connection not to consider (-1 for none)
+     * @return the number of agents by geodesic distance (array index), including the source at distance 0
+     */
+    public synchronized int[] getProfile(int source, int with, int without) {
+        // hypothetical ties that do not change anything
+        if (with == source || with >= 0 && this.graphStore.hasEdge(source, with)) {
+            with = UNREACHED;
+        }
+        if (without >= 0 && !this.graphStore.hasEdge(source, without)) {
+            without = UNREACHED;
+        }
+
+        if (with < 0 && without < 0) {
+            return getProfile(source).clone();
+        }
+        if (without >= 0) {
+            // removed ties may lengthen many paths: full search
+            return toProfile(StatsComputer.computeGeodesicDistances(this.graphStore, source, with, without));
+        }
+        return getProfileWith(source, with);
+    }
+
+    /**
+     * Derives the profile with an additional connection of the source from the cached distances of the source, by a
+     * breadth-first search from the new connection visiting only agents that get closer.
+     *
+     * @param source
+     *          the index of the source
+     * @param with
+     *          the index of the new connection (not yet connected to the source)
+     * @return the number of agents by geodesic distance (array index), including the source at distance 0
+     */
+    private int[] getProfileWith(int source, int with) {
+        int[] profile = getProfile(source);
+        int[] dists = this.distances.get(source);
+        if (dists == null) {
+            dists = StatsComputer.computeGeodesicDistances(this.graphStore, source, UNREACHED, UNREACHED);
+            this.distances.put(source, dists);
+        }
+
+        // agents getting closer and their previous distances, to restore the cached distances afterwards
+        if (this.changed.length < dists.length) {
+            this.changed = new int[dists.length];
+            this.previous = new int[dists.length];
+        }
+        int[] changed = this.changed;
+        int[] previous = this.previous;
+        int changedCount = 0;
+
+        previous[0] = dists[with];
+        changed[changedCount++] = with;
+        dists[with] = 1;
+
+        int head = 0;
+        while (head < changedCount) {
+            int curr = changed[head++];
+            int degree = this.graphStore.getDegree(curr);
+            for (int k = 0; k < degree; k++) {
+                int next = this.graphStore.getNeighbor(curr, k);
+                if (dists[next] == UNREACHED || dists[curr] + 1 < dists[next]) {
+                    previous[changedCount] = dists[next];
+                    changed[changedCount++] = next;
+                    dists[next] = dists[curr] + 1;
+                }
+            }
+        }
+
+        // agents that have not been reachable before may be further away than any agent before
+        int maxDistance = profile.length - 1;
+        for (int c = 0; c < changedCount; c++) {
+            maxDistance = Math.max(maxDistance, dists[changed[c]]);
+        }
+        int[] newProfile = Arrays.copyOf(profile, maxDistance + 1);
+        for (int c = 0; c < changedCount; c++) {
+            int agent = changed[c];
+            if (previous[c] != UNREACHED) {
+                newProfile[previous[c]]--;
+            }
+            newProfile[dists[agent]]++;
+            dists[agent] = previous[c];
+        }
+        return trim(newProfile);
+    }
+
+    /**
+     * Invalidates all cached profiles if the structure of the network has changed.
+     */
+    private void validate() {
+        if (this.version != this.graphStore.getVersion()) {
+            this.profiles = new int[this.graphStore.getNodeCount()][];
+            this.distances.clear();
+            this.version = this.graphStore.getVersion();
+        }
+    }
+
+    /**
+     * Counts the agents by geodesic distance.
+     *
+     * @param dists
+     *          the geodesic distances by agent index, -1 for agents that cannot be reached
+     * @return the number of agents by geodesic distance (array index)
+     */
+    private static int[] toProfile(int[] dists) {
+        int max = 0;
+        for (int dist : dists) {
+            max = Math.max(max, dist);
+        }
+        int[] profile = new int[max + 1];
+        for (int dist : dists) {
+            if (dist != UNREACHED) {
+                profile[dist]++;
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Removes trailing distances without agents.
+     *
+     * @param profile
+     *          the number of agents by geodesic distance
+     * @return the profile without trailing zeros
+     */
+    private static int[] trim(int[] profile) {
+        int length = profile.length;
+        while (length > 1 && profile[length - 1] == 0) {
+            length--;
+        }
+        return length == profile.length ? profile : Arrays.copyOf(profile, length);
+    }
+
+}
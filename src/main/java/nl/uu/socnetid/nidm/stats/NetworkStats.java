@@ -25,21 +25,9 @@
  */
 package nl.uu.socnetid.nidm.stats;
 
-import java.io.File;
 import java.util.List;
 import java.util.Map;
 
-import org.gephi.graph.api.GraphController;
-import org.gephi.graph.api.GraphModel;
-import org.gephi.io.importer.api.Container;
-import org.gephi.io.importer.api.EdgeDirectionDefault;
-import org.gephi.io.importer.api.ImportController;
-import org.gephi.io.processor.plugin.DefaultProcessor;
-import org.gephi.project.api.ProjectController;
-import org.gephi.project.api.Workspace;
-import org.gephi.statistics.plugin.GraphDistance;
-import org.openide.util.Lookup;
-
 import nl.uu.socnetid.nidm.networks.AssortativityConditions;
 import nl.uu.socnetid.nidm.networks.Network;
 
@@ -89,22 +77,12 @@ public class NetworkStats {
     private int tiesBrokenWithInfectionPresent = 0;
     private int networkChangesWithInfectionPresent = 0;
 
-    private String gexfFile;
-
 
     public NetworkStats(Network network) {
-        this(network, true, null);
-    }
-
-    public NetworkStats(Network network, String gexfFile) {
-        this(network, true, gexfFile);
+        this(network, true);
     }
 
     public NetworkStats(Network network, boolean init) {
-        this(network, init, null);
-    }
-
-    public NetworkStats(Network network, boolean init, String gexfFile) {
 
         this.network = network;
 
@@ -130,10 +108,10 @@ public class NetworkStats {
         this.avSocialBenefits = network.getAvSocialBenefits();
         this.avSocialCosts = network.getAvSocialCosts();
         this.avDiseaseCosts = network.getAvDiseaseCosts();
-        this.susceptiblesTotal = network.getSusceptibles().size();
-        this.infectedTotal = network.getInfected().size();
-        this.recoveredTotal = network.getRecovered().size();
-        this.vaccinatedTotal = network.getVaccinated().size();
+        this.susceptiblesTotal = network.getSusceptiblesCount();
+        this.infectedTotal = network.getInfectedCount();
+        this.recoveredTotal = network.getRecoveredCount();
+        this.vaccinatedTotal = network.getVaccinatedCount();
         this.satisfiedTotal = network.getSatisfied().size();
         this.unsatisfiedTotal = network.getUnsatisfied().size();
         double pct = 100D / network.getAgents().size();
@@ -143,8 +121,6 @@ public class NetworkStats {
         this.vaccinatedPercent = pct * this.vaccinatedTotal;
         this.satisfiedPercent = pct * this.satisfiedTotal;
         this.unsatisfiedPercent = pct * this.unsatisfiedTotal;
-
-        this.gexfFile = gexfFile;
     }
 
 
@@ -375,83 +351,13 @@ public class NetworkStats {
     }
 
     /**
+     * Gets the average path length between all pairs of agents connected by a path.
+     *
      * @return the avPathLength
      */
     public double getAvPathLength() {
         if (this.avPathLength == null) {
-            if (this.gexfFile != null & !this.gexfFile.isEmpty()) {
-
-                //Init a project - and therefore a workspace
-                ProjectController pc = Lookup.getDefault().lookup(ProjectController.class);
-                pc.newProject();
-                Workspace workspace = pc.getCurrentWorkspace();
-
-                //Import file
-                ImportController importController = Lookup.getDefault().lookup(ImportController.class);
-                Container container = null;
-                try {
-                    File file = new File(this.gexfFile);
-                    container = importController.importFile(file);
-                    container.getLoader().setEdgeDefault(EdgeDirectionDefault.UNDIRECTED); //Force UNDIRECTED
-                    container.getLoader().setAllowAutoNode(false); //Don’t create missing nodes
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                }
-                //Append imported data to GraphAPI
-                importController.process(container, new DefaultProcessor(), workspace);
-
-                System.out.println("Import successfull!!!");
-
-                //Get graph model and attribute model of current workspace
-                GraphModel graphModel = Lookup.getDefault().lookup(GraphController.class).getGraphModel();
-
-                //Get Centrality
-                GraphDistance distance = new GraphDistance();
-                distance.setDirected(false);
-                distance.execute(graphModel);
-                this.avPathLength = distance.getPathLength();
-
-//                Graph graph = graphModel.getGraph();
-//                HashMap<Node, Integer> indicies = distance.createIndiciesMap(graph);
-//                Map<String, double[]> metrics = distance.calculateDistanceMetrics(graph, indicies, false, false);
-    //
-    //
-//                System.out.println("indicies:");
-    //
-//                Integer minId = Integer.MAX_VALUE;
-//                Integer maxId = Integer.MIN_VALUE;
-//                Iterator<Node> keys = indicies.keySet().iterator();
-//                while (keys.hasNext()) {
-//                    Node key = keys.next();
-//                    Integer id = Integer.valueOf((String) key.getId());
-    //
-//                    if (id < minId) {
-//                        minId = id;
-//                    }
-//                    if (id > maxId) {
-//                        maxId = id;
-//                    }
-    //
-    //
-//                    System.out.println("key id: " + id);
-//                    System.out.println("key store id: " + key.getStoreId());
-//                }
-//                System.out.println("min ID: " + minId);
-//                System.out.println("max ID: " + maxId);
-    //
-    //
-////                System.out.println(indicies.keySet().iterator().next().getAttributeKeys());
-////                System.out.println(indicies.keySet().iterator().next().getId());
-////                System.out.println(indicies.keySet().iterator().next().getStoreId());
-    //
-    //
-//                double[] eccentricity = metrics.get(GraphDistance.ECCENTRICITY);
-//                double[] closeness = metrics.get(GraphDistance.CLOSENESS);
-//                double[] harmonicCloseness = metrics.get(GraphDistance.HARMONIC_CLOSENESS);
-//                double[] betweenness = metrics.get(GraphDistance.BETWEENNESS);
-    //
-//                System.out.println("Av. path length: " + this.avPathLength);
-            }
+            this.avPathLength = this.network.getCentralities().getAvDistance();
         }
         return this.avPathLength;
     }
@@ -463,6 +369,27 @@ public class NetworkStats {
         this.avPathLength = avPathLength;
     }
 
+    /**
+     * @return the error bound of the average betweenness, 0 if computed exactly
+     */
+    public double getAvBetweennessError() {
+        return this.network.getAvBetweennessError();
+    }
+
+    /**
+     * @return the error bound of the average closeness, 0 if computed exactly
+     */
+    public double getAvClosenessError() {
+        return this.network.getAvClosenessError();
+    }
+
+    /**
+     * @return the error bound of the average path length, 0 if computed exactly
+     */
+    public double getAvPathLengthError() {
+        return this.network.getAvPathLengthError();
+    }
+
     /**
      * @return the avUtility
      */
@@ -524,7 +451,7 @@ public class NetworkStats {
      */
     public int getSusceptiblesTotal() {
         if (this.susceptiblesTotal == null) {
-            this.susceptiblesTotal = network.getSusceptibles().size();
+            this.susceptiblesTotal = network.getSusceptiblesCount();
         }
         return susceptiblesTotal;
     }
@@ -541,7 +468,7 @@ public class NetworkStats {
      */
     public int getInfectedTotal() {
         if (this.infectedTotal == null) {
-            this.infectedTotal = network.getInfected().size();
+            this.infectedTotal = network.getInfectedCount();
         }
         return infectedTotal;
     }
@@ -558,7 +485,7 @@ public class NetworkStats {
      */
     public int getRecoveredTotal() {
         if (this.recoveredTotal == null) {
-            this.recoveredTotal = network.getRecovered().size();
+            this.recoveredTotal = network.getRecoveredCount();
         }
         return recoveredTotal;
     }
@@ -575,7 +502,7 @@ public class NetworkStats {
      */
     public int getVaccinatedTotal() {
         if (this.vaccinatedTotal == null) {
-            this.vaccinatedTotal = network.getVaccinated().size();
+            this.vaccinatedTotal = network.getVaccinatedCount();
         }
         return vaccinatedTotal;
     }
@@ -46,11 +46,11 @@ public class NetworkStatsPost {
     public NetworkStatsPost(Network network) {
         this.stable = network.isStable();
         this.pct = 100D / network.getAgents().size();
-        this.susceptiblePercent = pct * network.getSusceptibles().size();
-        this.infectedPercent = pct * network.getInfected().size();
-        this.recoveredPercent = pct * network.getRecovered().size();
-        this.vaccinatedPercent = pct * network.getVaccinated().size();
-        this.vaccinated = network.getVaccinated().size();
+        this.susceptiblePercent = pct * network.getSusceptiblesCount();
+        this.infectedPercent = pct * network.getInfectedCount();
+        this.recoveredPercent = pct * network.getRecoveredCount();
+        this.vaccinatedPercent = pct * network.getVaccinatedCount();
+        this.vaccinated = network.getVaccinatedCount();
         this.satisfiedPercent = pct * network.getSatisfied().size();
     }
 
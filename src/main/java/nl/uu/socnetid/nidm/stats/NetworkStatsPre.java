@@ -45,6 +45,9 @@ public class NetworkStatsPre {
     private final double avCloseness;
     private final double avClustering;
     private final double avPathLength;
+    private final double avBetweennessError;
+    private final double avClosenessError;
+    private final double avPathLengthError;
     private double avDegreeDiffTotal;
     private double avDegreeDiffPercent;
 
@@ -74,6 +77,9 @@ public class NetworkStatsPre {
         this.avCloseness = network.getAvCloseness(simRound);                                            // network.getAvCloseness(simRound);
         this.avClustering = network.getAvClustering(simRound);
         this.avPathLength = network.getAvPathLength(simRound);                                           // network.getAvPathLength(simRound);
+        this.avBetweennessError = network.getAvBetweennessError();
+        this.avClosenessError = network.getAvClosenessError();
+        this.avPathLengthError = network.getAvPathLengthError();
 
         this.nByProfession = network.getNByProfessions();
         this.avDegreesByProfession = network.getAvDegreesByProfessions();
@@ -81,7 +87,7 @@ public class NetworkStatsPre {
         this.degreesSdByProfession = network.getDegreesSdByProfessions();
         this.degreesSdByProfessionTheoretic = null;
 
-        this.nVaccinated = network.getVaccinated().size();
+        this.nVaccinated = network.getVaccinatedCount();
 
         this.avDegreeVaccinated = network.getAvDegreeVaccinated();
         this.avDegreeVaccinatedNot = network.getAvDegreeNotVaccinated();
@@ -166,6 +172,27 @@ public class NetworkStatsPre {
         return avPathLength;
     }
 
+    /**
+     * @return the error bound of avBetweenness, 0 if computed exactly
+     */
+    public double getAvBetweennessError() {
+        return avBetweennessError;
+    }
+
+    /**
+     * @return the error bound of avCloseness, 0 if computed exactly
+     */
+    public double getAvClosenessError() {
+        return avClosenessError;
+    }
+
+    /**
+     * @return the error bound of avPathLength, 0 if computed exactly
+     */
+    public double getAvPathLengthError() {
+        return avPathLengthError;
+    }
+
     /**
      * @return the avDegreeDiffPercent
      */
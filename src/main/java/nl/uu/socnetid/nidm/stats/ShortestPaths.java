@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.stats;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+
+/**
+ * Shortest paths from a single source to all agents by breadth-first search on the network's {@link GraphStore}.
+ * As all ties have the same weight, the geodesic distance equals the number of ties of the shortest path. The queue,
+ * distance and predecessor arrays are reused for subsequent computations.
+ *
+ * @author Hendrik Nunner
+ */
+public class ShortestPaths {
+
+    // marker for agents that cannot be reached
+    private static final int UNREACHED = -1;
+
+    // the network of the last computation
+    private Network network;
+    // the source of the last computation
+    private int source = UNREACHED;
+
+    // distances and predecessors by agent index
+    private int[] distances = new int[0];
+    private int[] predecessors = new int[0];
+    // agents in order of discovery (doubles as queue)
+    private int[] reached = new int[0];
+    private int reachedCount;
+
+
+    /**
+     * Computes the shortest paths from a source agent to all agents.
+     *
+     * @param source
+     *          the source agent
+     */
+    public void executeShortestPaths(Agent source) {
+        executeShortestPaths(source.getNetwork(), source.getIndex());
+    }
+
+    /**
+     * Computes the shortest paths from a source agent to all agents.
+     *
+     * @param network
+     *          the network
+     * @param source
+     *          the index of the source agent
+     */
+    public void executeShortestPaths(Network network, int source) {
+        this.network = network;
+        execute(network.getGraphStore(), source);
+    }
+
+    /**
+     * Computes the shortest paths from a source to all agents of a network structure. As there is no network,
+     * {@link #getShortestPath(Agent)} is not available for the results.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param source
+     *          the index of the source agent
+     */
+    public void executeShortestPaths(GraphStore graphStore, int source) {
+        this.network = null;
+        execute(graphStore, source);
+    }
+
+    /**
+     * Computes the shortest paths from a source to all agents by breadth-first search.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param source
+     *          the index of the source agent
+     */
+    private void execute(GraphStore graphStore, int source) {
+        this.source = source;
+
+        int n = graphStore.getNodeCount();
+        if (this.distances.length < n) {
+            this.distances = new int[n];
+            this.predecessors = new int[n];
+            this.reached = new int[n];
+            Arrays.fill(this.distances, UNREACHED);
+        } else {
+            // reset only what has been touched by the previous computation
+            for (int i = 0; i < this.reachedCount; i++) {
+                this.distances[this.reached[i]] = UNREACHED;
+            }
+        }
+
+        this.distances[source] = 0;
+        this.predecessors[source] = UNREACHED;
+        this.reached[0] = source;
+        this.reachedCount = 1;
+
+        int head = 0;
+        while (head < this.reachedCount) {
+            int curr = this.reached[head++];
+            int degree = graphStore.getDegree(curr);
+            for (int k = 0; k < degree; k++) {
+                int next = graphStore.getNeighbor(curr, k);
+                if (this.distances[next] == UNREACHED) {
+                    this.distances[next] = this.distances[curr] + 1;
+                    this.predecessors[next] = curr;
+                    this.reached[this.reachedCount++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the length of the shortest path to a target agent.
+     *
+     * @param target
+     *          the target agent
+     * @return the length of the shortest path, null if there is no path or the target is the source
+     */
+    public Integer getShortestPathLength(Agent target) {
+        int distance = getDistance(target.getIndex());
+        if (distance <= 0) {
+            return null;
+        }
+        return distance;
+    }
+
+    /**
+     * Gets the shortest path to a target agent.
+     *
+     * @param target
+     *          the target agent
+     * @return the agents along the shortest path, starting with the source, null if there is no path or the target
+     *          is the source
+     */
+    public LinkedList<Agent> getShortestPath(Agent target) {
+        int step = target.getIndex();
+        if (getDistance(step) <= 0) {
+            return null;
+        }
+
+        LinkedList<Agent> path = new LinkedList<Agent>();
+        while (step != UNREACHED) {
+            path.add(this.network.getAgent(step));
+            step = this.predecessors[step];
+        }
+
+        // put path into the correct order
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Gets the geodesic distance to a target agent.
+     *
+     * @param target
+     *          the index of the target agent
+     * @return the geodesic distance, 0 for the source, -1 if the target cannot be reached
+     */
+    public int getDistance(int target) {
+        return this.distances[target];
+    }
+
+    /**
+     * Gets the number of agents that can be reached, including the source.
+     *
+     * @return the number of agents that can be reached
+     */
+    public int getReachedCount() {
+        return this.reachedCount;
+    }
+
+    /**
+     * Gets the k-th agent that has been reached. Agents are ordered by ascending distance, starting with the source.
+     *
+     * @param k
+     *          the position in order of discovery (0 <= k < reached count)
+     * @return the index of the agent
+     */
+    public int getReached(int k) {
+        return this.reached[k];
+    }
+
+    /**
+     * Gets the index of the source of the last computation.
+     *
+     * @return the index of the source
+     */
+    public int getSource() {
+        return this.source;
+    }
+
+    /**
+     * Computes the shortest paths from every agent and applies a function to each result. Each thread reuses a
+     * single {@link ShortestPaths} instance.
+     *
+     * @param network
+     *          the network
+     * @param function
+     *          the function to apply to the shortest paths of each source
+     * @param parallel
+     *          flag whether sources are processed in parallel (common fork/join pool)
+     * @return the results of the function by index of the source agent
+     */
+    public static double[] computeForAllSources(Network network, ToDoubleFunction<ShortestPaths> function,
+            boolean parallel) {
+        return computeForAllSources(network.getGraphStore().getNodeCount(),
+                (sp, source) -> sp.executeShortestPaths(network, source), function, parallel);
+    }
+
+    /**
+     * Computes the shortest paths from every agent of a network structure and applies a function to each result.
+     * Each thread reuses a single {@link ShortestPaths} instance.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param function
+     *          the function to apply to the shortest paths of each source
+     * @param parallel
+     *          flag whether sources are processed in parallel (common fork/join pool)
+     * @return the results of the function by index of the source agent
+     */
+    public static double[] computeForAllSources(GraphStore graphStore, ToDoubleFunction<ShortestPaths> function,
+            boolean parallel) {
+        return computeForAllSources(graphStore.getNodeCount(),
+                (sp, source) -> sp.executeShortestPaths(graphStore, source), function, parallel);
+    }
+
+    /**
+     * Executes the shortest paths computation for every source and applies a function to each result.
+     *
+     * @param n
+     *          the number of agents
+     * @param execution
+     *          the shortest paths computation for a single source
+     * @param function
+     *          the function to apply to the shortest paths of each source
+     * @param parallel
+     *          flag whether sources are processed in parallel (common fork/join pool)
+     * @return the results of the function by index of the source agent
+     */
+    private static double[] computeForAllSources(int n, ObjIntConsumer<ShortestPaths> execution,
+            ToDoubleFunction<ShortestPaths> function, boolean parallel) {
+        ThreadLocal<ShortestPaths> shortestPaths = ThreadLocal.withInitial(ShortestPaths::new);
+        IntStream sources = IntStream.range(0, n);
+        if (parallel) {
+            sources = sources.parallel();
+        }
+        return sources.mapToDouble(source -> {
+            ShortestPaths sp = shortestPaths.get();
+            execution.accept(sp, source);
+            return function.applyAsDouble(sp);
+        }).toArray();
+    }
+
+}
@@ -42,6 +42,7 @@ public class SimulationStats {
     private int upc = 0;
     private int simPerUpc;
     private int simIt = 1;
+    private long seed;
     private int roundStartInfection;
     private int roundLastInfection;
     private int epidemicDurationStatic;
@@ -182,6 +183,20 @@ public class SimulationStats {
         ++this.simPerUpc;
     }
 
+    /**
+     * @return the seed of all random draws of the simulations of the simPerUpc
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param seed the seed of all random draws of the simulations of the simPerUpc to set
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
     /**
      * @return the simIt
      */
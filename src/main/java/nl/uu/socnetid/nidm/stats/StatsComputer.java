@@ -25,11 +25,10 @@
  */
 package nl.uu.socnetid.nidm.stats;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.math.stat.correlation.PearsonsCorrelation;
@@ -38,8 +37,11 @@ import org.apache.logging.log4j.Logger;
 import org.graphstream.graph.Edge;
 
 import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.agents.AgentStateTable;
 import nl.uu.socnetid.nidm.diseases.types.DiseaseGroup;
 import nl.uu.socnetid.nidm.networks.AssortativityConditions;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.NeighbourhoodCounters;
 import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.simulation.Simulation;
 
@@ -50,6 +52,9 @@ public final class StatsComputer {
 
     private static final Logger logger = LogManager.getLogger(StatsComputer.class);
 
+    // disease groups by ordinal
+    private static final DiseaseGroup[] DISEASE_GROUPS = DiseaseGroup.values();
+
     /** Private construtor. Inhibits unwanted instantiation of class. */
     private StatsComputer() { }
 
@@ -84,29 +89,32 @@ public final class StatsComputer {
      * @return the closeness of the agent
      */
     public static double computeCloseness(Agent agent) {
+        ShortestPaths sp = new ShortestPaths();
+        sp.executeShortestPaths(agent);
+        return computeCloseness(sp, agent.getNetwork().getN());
+    }
+
+    /**
+     * Computes the closeness of the source of a shortest paths computation.
+     *
+     * @param sp
+     *          the shortest paths from the agent to compute closeness for
+     * @param n
+     *          the number of agents in the network
+     * @return the closeness of the source
+     */
+    static double computeCloseness(ShortestPaths sp, int n) {
 
         // Note: M = n, see Buechel & Buskens (2013), p. 162
-        double n = agent.getCoAgents().size() + 1;              // all co-agents plus the agent himself
         double M = n;
         double cumulatedDistance = 0.0;
 
-        // distances
-        // 1st calculate shortest paths for all co-agents
-        DijkstraShortestPath dsp = new DijkstraShortestPath();
-        dsp.executeShortestPaths(agent);
-        Iterator<Agent> coAgentsIt = agent.getCoAgents().iterator();
-        while (coAgentsIt.hasNext()) {
-            Agent coAgent = coAgentsIt.next();
-            Integer shortestPathLength = dsp.getShortestPathLength(coAgent);
-            // if path exists
-            if (shortestPathLength != null) {
-                // distance of connected nodes
-                cumulatedDistance += Double.valueOf(shortestPathLength);
-            } else {
-                // distance of not connected nodes = n
-                cumulatedDistance += n;
-            }
+        // distances of connected agents
+        for (int k = 1; k < sp.getReachedCount(); k++) {
+            cumulatedDistance += sp.getDistance(sp.getReached(k));
         }
+        // distance of not connected agents = n
+        cumulatedDistance += (double) (n - sp.getReachedCount()) * n;
 
         // average distance including normalization
         return (M / (M - 1)) - (cumulatedDistance / ((M - 1) * (n - 1)));
@@ -121,22 +129,15 @@ public final class StatsComputer {
      */
     public static GlobalNetworkStats computeGlobalNetworkStats(Network network) {
 
-        Collection<Agent> agents = network.getAgents();
+        GraphStore graphStore = network.getGraphStore();
 
-        int connections = 0;
+        int connections = graphStore.getEdgeCount();
         double avDegree = 0.0;
 
-        // TODO implement diameter and average distance
-        int diameter = 0;
-        double avDistance = 0.0;
+        int diameter = network.getCentralities().getDiameter();
+        double avDistance = network.getCentralities().getAvDistance();
 
-        Iterator<Agent> agentsIt = agents.iterator();
-        while (agentsIt.hasNext()) {
-            Agent agent = agentsIt.next();
-            connections += agent.getConnections().size();
-        }
-        avDegree = agents.size() == 0 ? 0.0 : (double) connections / agents.size();
-        connections /= 2;
+        avDegree = graphStore.getNodeCount() == 0 ? 0.0 : (2.0 * connections) / graphStore.getNodeCount();
 
         return new GlobalNetworkStats(network.isStable(), connections, avDegree,
                 diameter, avDistance, network.getAssortativityRiskPerception(), network.getAssortativityAge(),
@@ -289,42 +290,42 @@ public final class StatsComputer {
             directConsByDiseaseGroupAtGeographicDistance.put(dg, new HashMap<Double, Integer>());
         }
 
-        Iterator<Agent> it = agent.getNetwork().getAgentIterator();
-        while (it.hasNext()) {
-            Agent otherAgent = it.next();
-
-            if (agent.isDirectlyConnectedTo(otherAgent)) {
-                // geographic distance to direct connections
-                double ggd = agent.getGeographicDistanceTo(otherAgent);
-                // store disease group and geographic distance
-                switch (otherAgent.getDiseaseGroup()) {
-                    case SUSCEPTIBLE:
-                        directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.SUSCEPTIBLE).put(ggd,
-                                directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.SUSCEPTIBLE).get(ggd) != null ?
-                                        directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.SUSCEPTIBLE).get(ggd) + 1 : 1);
-                        break;
+        Network network = agent.getNetwork();
+        GraphStore graphStore = network.getGraphStore();
+        int index = agent.getIndex();
+        int degree = graphStore.getDegree(index);
+        for (int k = 0; k < degree; k++) {
+            Agent otherAgent = network.getAgent(graphStore.getNeighbor(index, k));
+            // geographic distance to direct connections
+            double ggd = agent.getGeographicDistanceTo(otherAgent);
+            // store disease group and geographic distance
+            switch (otherAgent.getDiseaseGroup()) {
+                case SUSCEPTIBLE:
+                    directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.SUSCEPTIBLE).put(ggd,
+                            directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.SUSCEPTIBLE).get(ggd) != null ?
+                                    directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.SUSCEPTIBLE).get(ggd) + 1 : 1);
+                    break;
 
-                    case INFECTED:
-                        directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.INFECTED).put(ggd,
-                                directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.INFECTED).get(ggd) != null ?
-                                        directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.INFECTED).get(ggd) + 1 : 1);
-                        break;
+                case INFECTED:
+                    directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.INFECTED).put(ggd,
+                            directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.INFECTED).get(ggd) != null ?
+                                    directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.INFECTED).get(ggd) + 1 : 1);
+                    break;
 
-                    case RECOVERED:
-                        directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.RECOVERED).put(ggd,
-                                directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.RECOVERED).get(ggd) != null ?
-                                        directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.RECOVERED).get(ggd) + 1 : 1);
-                        break;
+                case RECOVERED:
+                    directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.RECOVERED).put(ggd,
+                            directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.RECOVERED).get(ggd) != null ?
+                                    directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.RECOVERED).get(ggd) + 1 : 1);
+                    break;
 
-                    case VACCINATED:
-                        directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.VACCINATED).put(ggd,
-                                directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.VACCINATED).get(ggd) != null ?
-                                        directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.VACCINATED).get(ggd) + 1 : 1);
-                        break;
+                case VACCINATED:
+                    directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.VACCINATED).put(ggd,
+                            directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.VACCINATED).get(ggd) != null ?
+                                    directConsByDiseaseGroupAtGeographicDistance.get(DiseaseGroup.VACCINATED).get(ggd) + 1 : 1);
+                    break;
 
-                    default:
-                        logger.warn("Unhandled disease group: " + otherAgent.getDiseaseGroup());
-                }
+                default:
+                    logger.warn("Unhandled disease group: " + otherAgent.getDiseaseGroup());
             }
         }
         return directConsByDiseaseGroupAtGeographicDistance;
@@ -342,9 +343,10 @@ public final class StatsComputer {
 
         Map<Double, Integer> consByDist = new HashMap<Double, Integer>();
 
+        Map<DiseaseGroup, Map<Double, Integer>> consByDiseaseGroup =
+                computeDirectConnectionsByDiseaseGroupAtGeographicDistance(agent);
         for (DiseaseGroup dg : DiseaseGroup.values()) {
-             for (Map.Entry<Double, Integer> entry : computeDirectConnectionsByDiseaseGroupAtGeographicDistance(agent).
-                     get(dg).entrySet()) {
+             for (Map.Entry<Double, Integer> entry : consByDiseaseGroup.get(dg).entrySet()) {
                  Double dist = entry.getKey();
                  Integer cons = entry.getValue();
                  consByDist.put(dist,
@@ -372,12 +374,16 @@ public final class StatsComputer {
             consByDiseaseGroupAtGeodesicDistance.put(dg, new HashMap<Integer, Integer>());
         }
 
+        ShortestPaths sp = new ShortestPaths();
+        sp.executeShortestPaths(agent);
+
         Iterator<Agent> it = agent.getNetwork().getAgentIterator();
         while (it.hasNext()) {
             Agent otherAgent = it.next();
 
             // geodesic distance to other agent
-            Integer gdd = agent.getGeodesicDistanceTo(otherAgent);
+            int distance = sp.getDistance(otherAgent.getIndex());
+            Integer gdd = distance < 0 ? null : distance;
 
             // if geodesic connection exists
             if (gdd != null) {
@@ -448,8 +454,10 @@ public final class StatsComputer {
 
         Map<Integer, Integer> consByDist = new HashMap<Integer, Integer>();
 
+        Map<DiseaseGroup, Map<Integer, Integer>> consByDiseaseGroup =
+                computeConnectionsByDiseaseGroupAtGeodesicDistance(agent);
         for (DiseaseGroup dg : DiseaseGroup.values()) {
-             for (Map.Entry<Integer, Integer> entry : computeConnectionsByDiseaseGroupAtGeodesicDistance(agent).get(dg).entrySet()) {
+             for (Map.Entry<Integer, Integer> entry : consByDiseaseGroup.get(dg).entrySet()) {
                  Integer dist = entry.getKey();
                  Integer cons = entry.getValue();
                  consByDist.put(dist,
@@ -461,6 +469,73 @@ public final class StatsComputer {
         return consByDist;
     }
 
+    /**
+     * Computes the geodesic distances between an agent and all agents by breadth-first search, with a potentially new
+     * connection and without an existing connection of the agent. The network is not changed.
+     *
+     * @param agent
+     *          the agent to compute the geodesic distances for
+     * @param with
+     *          the potentially new connection (may be null)
+     * @param without
+     *          the existing connection not to consider (may be null)
+     * @return the geodesic distances by agent index, -1 for agents that cannot be reached
+     */
+    public static int[] computeGeodesicDistances(Agent agent, Agent with, Agent without) {
+        return computeGeodesicDistances(agent.getNetwork().getGraphStore(), agent.getIndex(),
+                with == null ? -1 : with.getIndex(),
+                without == null ? -1 : without.getIndex());
+    }
+
+    /**
+     * Computes the geodesic distances between a source and all agents by breadth-first search, with a potentially new
+     * connection and without an existing connection of the source. The network structure is not changed.
+     *
+     * @param graphStore
+     *          the structure of the network
+     * @param source
+     *          the index of the agent to compute the geodesic distances for
+     * @param withIndex
+     *          the index of the potentially new connection (-1 for none)
+     * @param withoutIndex
+     *          the index of the existing connection not to consider (-1 for none)
+     * @return the geodesic distances by agent index, -1 for agents that cannot be reached
+     */
+    public static int[] computeGeodesicDistances(GraphStore graphStore, int source, int withIndex, int withoutIndex) {
+        int[] distances = new int[graphStore.getNodeCount()];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[distances.length];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+
+        while (head < tail) {
+            int curr = queue[head++];
+            int degree = graphStore.getDegree(curr);
+            for (int k = 0; k <= degree; k++) {
+                int next;
+                if (k < degree) {
+                    next = graphStore.getNeighbor(curr, k);
+                    if (curr == source && next == withoutIndex || curr == withoutIndex && next == source) {
+                        continue;
+                    }
+                } else if (curr == source && withIndex >= 0) {
+                    next = withIndex;
+                } else if (curr == withIndex) {
+                    next = source;
+                } else {
+                    continue;
+                }
+                if (distances[next] < 0) {
+                    distances[next] = distances[curr] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distances;
+    }
+
     /**
      * Computes the stats for a single agent's connections with a potentially new connection and without an existing connection.
      *
@@ -474,6 +549,104 @@ public final class StatsComputer {
      */
     public static LocalAgentConnectionsStats computeLocalAgentConnectionsStats(Agent agent, Agent with, Agent without) {
 
+        Network network = agent.getNetwork();
+        GraphStore graphStore = network.getGraphStore();
+        int index = agent.getIndex();
+        int withIndex = with == null ? -1 : with.getIndex();
+        int withoutIndex = without == null ? -1 : without.getIndex();
+
+        // incremental counters cover single, actual changes of ties only
+        if ((with != null && without != null) ||
+                (with != null && (withIndex == index || graphStore.hasEdge(index, withIndex))) ||
+                (without != null && !graphStore.hasEdge(index, withoutIndex))) {
+            return recomputeLocalAgentConnectionsStats(agent, with, without);
+        }
+
+        AgentStateTable states = network.getAgentStates();
+        NeighbourhoodCounters counters = network.getNeighbourhoodCounters();
+
+        // direct ties by disease group
+        int[] nByGroup = new int[DISEASE_GROUPS.length];
+        int degree = graphStore.getDegree(index);
+        for (int k = 0; k < degree; k++) {
+            int directConnection = graphStore.getNeighbor(index, k);
+            if (directConnection != withoutIndex) {
+                nByGroup[states.getDiseaseGroup(directConnection).ordinal()]++;
+            }
+        }
+
+        // ties at distance 2 by disease group
+        int[] mByGroup = new int[DISEASE_GROUPS.length];
+        for (DiseaseGroup diseaseGroup : DISEASE_GROUPS) {
+            mByGroup[diseaseGroup.ordinal()] = counters.getDistance2Count(index, diseaseGroup);
+        }
+
+        // closed triads
+        int z = counters.getTriangles(index);
+
+        if (with != null) {
+            nByGroup[states.getDiseaseGroup(withIndex).ordinal()]++;
+            z += counters.getCommonNeighbours(index, withIndex);
+            // the new tie is no longer at distance 2, its ties not yet reached are
+            if (counters.getCommonNeighbours(index, withIndex) > 0) {
+                mByGroup[states.getDiseaseGroup(withIndex).ordinal()]--;
+            }
+            for (int k = 0; k < graphStore.getDegree(withIndex); k++) {
+                int connectionAtDistance2 = graphStore.getNeighbor(withIndex, k);
+                if (connectionAtDistance2 != index && !graphStore.hasEdge(index, connectionAtDistance2) &&
+                        counters.getCommonNeighbours(index, connectionAtDistance2) == 0) {
+                    mByGroup[states.getDiseaseGroup(connectionAtDistance2).ordinal()]++;
+                }
+            }
+        }
+
+        if (without != null) {
+            z -= counters.getCommonNeighbours(index, withoutIndex);
+            // ties reached only via the removed tie are lost, the removed tie may be at distance 2
+            for (int k = 0; k < graphStore.getDegree(withoutIndex); k++) {
+                int connectionAtDistance2 = graphStore.getNeighbor(withoutIndex, k);
+                if (connectionAtDistance2 != index && !graphStore.hasEdge(index, connectionAtDistance2) &&
+                        counters.getCommonNeighbours(index, connectionAtDistance2) == 1) {
+                    mByGroup[states.getDiseaseGroup(connectionAtDistance2).ordinal()]--;
+                }
+            }
+            if (counters.getCommonNeighbours(index, withoutIndex) > 0) {
+                mByGroup[states.getDiseaseGroup(withoutIndex).ordinal()]++;
+            }
+        }
+
+        int nS = nByGroup[DiseaseGroup.SUSCEPTIBLE.ordinal()];
+        int nI = nByGroup[DiseaseGroup.INFECTED.ordinal()];
+        int nR = nByGroup[DiseaseGroup.RECOVERED.ordinal()];
+        int nV = nByGroup[DiseaseGroup.VACCINATED.ordinal()];
+        int n = nS + nI + nR + nV;
+
+        int mS = mByGroup[DiseaseGroup.SUSCEPTIBLE.ordinal()];
+        int mI = mByGroup[DiseaseGroup.INFECTED.ordinal()];
+        int mR = mByGroup[DiseaseGroup.RECOVERED.ordinal()];
+        int mV = mByGroup[DiseaseGroup.VACCINATED.ordinal()];
+        int m = mS + mI + mR + mV;
+
+        // open triads: pairs of direct ties that are not tied themselves
+        int y = n * (n - 1) / 2 - z;
+
+        return new LocalAgentConnectionsStats(n, nS, nI, nR, nV, m, mS, mI, mR, mV, y, z, network.getN());
+    }
+
+    /**
+     * Computes the stats for a single agent's connections from scratch, with a potentially new connection and
+     * without an existing connection.
+     *
+     * @param agent
+     *          the agent
+     * @param with
+     *          the potentially new connection
+     * @param without
+     *          the existing connection not to consider
+     * @return the stats for a single agent's connections.
+     */
+    static LocalAgentConnectionsStats recomputeLocalAgentConnectionsStats(Agent agent, Agent with, Agent without) {
+
         // direct ties
         int n = 0;
         int nS = 0;
@@ -493,27 +666,42 @@ public final class StatsComputer {
         // network size
         int netSize = agent.getNetwork().getN();
 
+        Network network = agent.getNetwork();
+        GraphStore graphStore = network.getGraphStore();
+        int index = agent.getIndex();
+
         // preparing the list of direct connections
-        Collection<Agent> directConnections = agent.getConnections();
+        int[] directConnections = graphStore.getNeighbors(index);
         if (with != null) {
-            directConnections.add(with);
+            directConnections = Arrays.copyOf(directConnections, directConnections.length + 1);
+            directConnections[directConnections.length - 1] = with.getIndex();
         }
-        if (without != null && !directConnections.isEmpty() && directConnections.contains(without)) {
-            directConnections.remove(without);
+        if (without != null) {
+            directConnections = removeFirst(directConnections, without.getIndex());
         }
 
-        if (!directConnections.isEmpty()) {
+        if (directConnections.length > 0) {
 
-            n = directConnections.size();
+            n = directConnections.length;
 
-            Iterator<Agent> it = directConnections.iterator();
-            List<Agent> consideredAtDistance2 = new ArrayList<Agent>();
-            List<Agent> consideredDirectConnections = new ArrayList<Agent>(directConnections);
-            while (it.hasNext()) {
-                Agent directConnection = it.next();
+            // sorted copy for fast containment checks
+            int[] sortedDirectConnections = directConnections.clone();
+            Arrays.sort(sortedDirectConnections);
+
+            // candidates at distance 2 (may contain duplicates)
+            int candidateCount = 0;
+            for (int directConnection : directConnections) {
+                candidateCount += graphStore.getDegree(directConnection);
+            }
+            int[] candidatesAtDistance2 = new int[candidateCount];
+            candidateCount = 0;
+
+            for (int i = 0; i < directConnections.length; i++) {
+                int directConnection = directConnections[i];
 
                 // direct connections by disease state
-                switch(directConnection.getDiseaseGroup()) {
+                DiseaseGroup diseaseGroup = network.getAgent(directConnection).getDiseaseGroup();
+                switch(diseaseGroup) {
                     case SUSCEPTIBLE:
                         nS++;
                         break;
@@ -527,65 +715,82 @@ public final class StatsComputer {
                         nV++;
                         break;
                     default:
-                        logger.warn("Unknown disease state: " + directConnection.getDiseaseGroup());
+                        logger.warn("Unknown disease state: " + diseaseGroup);
                 }
 
-
-                // XXX DISTANCE 2 STATS REMOVED FOR AGENTS
-                // TODO implement distance 2 in different method and call only if needed
                 // connections at distance 2
-                Collection<Agent> connectionsAtDistance2 = directConnection.getConnections();
-                Iterator<Agent> cDist2It = connectionsAtDistance2.iterator();
-                while (cDist2It.hasNext()) {
-                    Agent connectionAtDistance2 = cDist2It.next();
-                    if (consideredAtDistance2.contains(connectionAtDistance2) ||
-                            directConnections.contains(connectionAtDistance2) ||
-                            agent.equals(connectionAtDistance2)) {
+                int degree = graphStore.getDegree(directConnection);
+                for (int k = 0; k < degree; k++) {
+                    int connectionAtDistance2 = graphStore.getNeighbor(directConnection, k);
+                    if (connectionAtDistance2 == index ||
+                            Arrays.binarySearch(sortedDirectConnections, connectionAtDistance2) >= 0) {
                         continue;
                     }
-                    m++;
-                    switch(connectionAtDistance2.getDiseaseGroup()) {
-                        case SUSCEPTIBLE:
-                            mS++;
-                            break;
-                        case INFECTED:
-                            mI++;
-                            break;
-                        case RECOVERED:
-                            mR++;
-                            break;
-                        case VACCINATED:
-                            mV++;
-                            break;
-                        default:
-                            logger.warn("Unknown disease state: " + directConnection.getDiseaseGroup());
-                    }
-                    consideredAtDistance2.add(connectionAtDistance2);
+                    candidatesAtDistance2[candidateCount++] = connectionAtDistance2;
                 }
-                connectionsAtDistance2 = null;
 
-                // XXX TRIAD STATS REMOVED FOR AGENTS
                 // counting open and closed triads
-                consideredDirectConnections.remove(directConnection);
-                Iterator<Agent> cit = consideredDirectConnections.iterator();
-                while (cit.hasNext()) {
-                    Agent potentialTriad = cit.next();
-                    if (directConnection.isDirectlyConnectedTo(potentialTriad)) {
+                for (int j = i + 1; j < directConnections.length; j++) {
+                    if (graphStore.hasEdge(directConnection, directConnections[j])) {
                         z++;
                     } else {
                         y++;
                     }
                 }
             }
-            consideredAtDistance2 = null;
-            consideredDirectConnections = null;
-        }
 
-        directConnections = null;
+            // unique connections at distance 2 by disease state
+            Arrays.sort(candidatesAtDistance2, 0, candidateCount);
+            for (int i = 0; i < candidateCount; i++) {
+                if (i > 0 && candidatesAtDistance2[i] == candidatesAtDistance2[i-1]) {
+                    continue;
+                }
+                m++;
+                DiseaseGroup diseaseGroup = network.getAgent(candidatesAtDistance2[i]).getDiseaseGroup();
+                switch(diseaseGroup) {
+                    case SUSCEPTIBLE:
+                        mS++;
+                        break;
+                    case INFECTED:
+                        mI++;
+                        break;
+                    case RECOVERED:
+                        mR++;
+                        break;
+                    case VACCINATED:
+                        mV++;
+                        break;
+                    default:
+                        logger.warn("Unknown disease state: " + diseaseGroup);
+                }
+            }
+        }
 
         return new LocalAgentConnectionsStats(n, nS, nI, nR, nV, m, mS, mI, mR, mV, y, z, netSize);
     }
 
+    /**
+     * Removes the first occurrence of a value from an array.
+     *
+     * @param values
+     *          the array to remove the value from
+     * @param value
+     *          the value to remove
+     * @return a copy of the array without the first occurrence of the value, or the array itself if it does not contain
+     *          the value
+     */
+    private static int[] removeFirst(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                int[] res = new int[values.length - 1];
+                System.arraycopy(values, 0, res, 0, i);
+                System.arraycopy(values, i + 1, res, i, values.length - i - 1);
+                return res;
+            }
+        }
+        return values;
+    }
+
     /**
      * Computes the agent's probability of getting infected.
      *
@@ -47,9 +47,12 @@ import nl.uu.socnetid.nidm.data.out.NunnerBuskensGeneticParameters;
 import nl.uu.socnetid.nidm.data.out.NunnerBuskensParameters;
 import nl.uu.socnetid.nidm.data.out.NunnerBuskensProfessionsParameters;
 import nl.uu.socnetid.nidm.data.out.ProfessionNetworkGeneticParameters;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.io.generator.SweepShard;
 import nl.uu.socnetid.nidm.networks.AssortativityConditions;
 import nl.uu.socnetid.nidm.networks.DegreeDistributionConditions;
 import nl.uu.socnetid.nidm.networks.LockdownConditions;
+import nl.uu.socnetid.nidm.simulation.AgentDynamicsModes;
 
 
 /**
@@ -121,6 +124,46 @@ public class PropertiesHandler {
     private boolean exportAgentDetails;
     private boolean exportAgentDetailsReduced;
     private boolean exportGexf;
+    // format, compression level and buffer size of data files
+    private String exportFormat;
+    private int exportCompressionLevel;
+    private int exportBlockSize;
+    // rotation of the data files of parameter sweeps, by size (in bytes) and unique parameter combinations
+    private long exportRotationSize;
+    private int exportRotationUpcs;
+    // layout of data files: parameters repeated in each row (wide), or written once per combination (normalized)
+    private boolean exportNormalized;
+
+    // NETWORK STATS
+    // approximation of centralities and path lengths for large networks
+    private boolean statsApproximation;
+    private double statsApproximationEpsilon;
+    private double statsApproximationDelta;
+
+    // SIMULATION
+    // double-buffered disease dynamics
+    private boolean simDiseaseDoubleBuffered;
+    // mode of computing agent dynamics
+    private AgentDynamicsModes simAgentDynamicsMode;
+    // type of disease
+    private DiseaseType simDiseaseType;
+    // pairwise stability computed after each round
+    private boolean simStabilityComputation;
+
+    // PARAMETER SWEEPS
+    // number of simulations run in parallel
+    private int sweepWorkers;
+    // shard of the sweep processed, for splitting a sweep between processes
+    private int sweepShardIndex;
+    private int sweepShardCount;
+    // name of the export directory, for resuming a sweep or sharing it between processes
+    private String sweepExportName;
+    // merge the data of all shards rather than generating data
+    private boolean sweepMerge;
+    // seed of all random draws of the sweep
+    private long sweepSeed;
+    private boolean sweepSeedConfigured;
+
     // data analysis?
     private boolean analyzeData;
 
@@ -534,6 +577,68 @@ public class PropertiesHandler {
         this.exportAgentDetails = Boolean.parseBoolean(configProps.getProperty("export.agent.details"));
         this.exportAgentDetailsReduced = Boolean.parseBoolean(configProps.getProperty("export.agent.details.reduced"));
         this.exportGexf = Boolean.parseBoolean(configProps.getProperty("export.gexf"));
+        // format of data files
+        this.exportFormat = configProps.getProperty("export.format", "csv").trim();
+        if (!this.exportFormat.equals("csv") && !this.exportFormat.equals("csv.gz")) {
+            throw new IllegalArgumentException("Invalid export format: " + this.exportFormat);
+        }
+        this.exportCompressionLevel = Integer.valueOf(configProps.getProperty("export.compression.level", "6"));
+        this.exportBlockSize = Integer.valueOf(configProps.getProperty("export.block.size", "65536"));
+        // rotation of data files
+        this.exportRotationSize = Long.valueOf(configProps.getProperty("export.rotation.size.mb", "0")) << 20;
+        this.exportRotationUpcs = Integer.valueOf(configProps.getProperty("export.rotation.upcs", "0"));
+        // layout of data files
+        String exportLayout = configProps.getProperty("export.layout", "wide").trim();
+        if (!exportLayout.equals("wide") && !exportLayout.equals("normalized")) {
+            throw new IllegalArgumentException("Invalid export layout: " + exportLayout);
+        }
+        this.exportNormalized = exportLayout.equals("normalized");
+        if (this.exportNormalized && nbParameters.isDrawnPerSimulation()) {
+            logger.warn("Parameters drawn randomly for each simulation cannot be written once per parameter "
+                    + "combination - using wide export layout.");
+            this.exportNormalized = false;
+        }
+        if (this.exportNormalized && isGenerateOtherThanNunnerBuskensData()) {
+            logger.warn("Normalized export layout is supported for Nunner-Buskens data sweeps only - "
+                    + "other generators write the wide export layout.");
+        }
+
+        // approximation of network stats
+        this.statsApproximation = Boolean.parseBoolean(configProps.getProperty("stats.approximation"));
+        this.statsApproximationEpsilon = Double.valueOf(configProps.getProperty("stats.approximation.epsilon", "0.01"));
+        this.statsApproximationDelta = Double.valueOf(configProps.getProperty("stats.approximation.delta", "0.1"));
+
+        // double-buffered disease dynamics
+        this.simDiseaseDoubleBuffered = Boolean.parseBoolean(configProps.getProperty("sim.disease.double.buffered"));
+        // type of disease
+        String simDiseaseType = configProps.getProperty("sim.disease.type", DiseaseType.SIR.name()).trim();
+        try {
+            this.simDiseaseType = DiseaseType.valueOf(simDiseaseType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid disease type: " + simDiseaseType, e);
+        }
+        // mode of computing agent dynamics
+        this.simAgentDynamicsMode = AgentDynamicsModes.fromString(
+                configProps.getProperty("sim.agent.dynamics", AgentDynamicsModes.SEQUENTIAL.toString()).trim());
+        // pairwise stability computed after each round
+        this.simStabilityComputation = Boolean.parseBoolean(configProps.getProperty("sim.stability.computation"));
+
+        // parameter sweeps
+        this.sweepWorkers = Integer.valueOf(configProps.getProperty("sweep.workers", "1"));
+        // shards, export directory and merging can be set per process as system properties (-D<key>=<value>)
+        this.sweepShardIndex = Integer.valueOf(getSweepProperty(configProps, "sweep.shard.index", "0"));
+        this.sweepShardCount = Integer.valueOf(getSweepProperty(configProps, "sweep.shard.count", "1"));
+        this.sweepExportName = getSweepProperty(configProps, "sweep.export.name", "");
+        this.sweepMerge = Boolean.parseBoolean(getSweepProperty(configProps, "sweep.merge", "false"));
+        // only the Nunner-Buskens data sweep processes its shard and resumes from its journal
+        if (this.sweepShardCount > 1 && !this.sweepMerge && isGenerateOtherThanNunnerBuskensData()) {
+            throw new IllegalArgumentException("Sharded parameter sweeps (sweep.shard.count > 1) are supported for "
+                    + "Nunner-Buskens data (nb.generate.data) only - disable all other generators.");
+        }
+        String sweepSeed = getSweepProperty(configProps, "sweep.seed", "").trim();
+        this.sweepSeedConfigured = !sweepSeed.isEmpty();
+        this.sweepSeed = this.sweepSeedConfigured ? Long.valueOf(sweepSeed) : RandomStream.current().nextLong();
+        logger.info("Seed of parameter sweeps: " + this.sweepSeed);
 
         // analyze data?
         this.analyzeData = Boolean.parseBoolean(configProps.getProperty("analyze.data"));
@@ -628,6 +733,34 @@ public class PropertiesHandler {
     }
 
 
+    /**
+     * Gets a property of parameter sweeps, set as system property or in the configuration.
+     *
+     * @param configProps
+     *          the configuration
+     * @param key
+     *          the key of the property
+     * @param defaultValue
+     *          the value if the property is set neither as system property nor in the configuration
+     * @return the value of the property
+     */
+    private static String getSweepProperty(Properties configProps, String key, String defaultValue) {
+        return System.getProperty(key, configProps.getProperty(key, defaultValue));
+    }
+
+    /**
+     * Gets whether any generator other than the Nunner-Buskens data generator is enabled.
+     *
+     * @return true if any generator other than the Nunner-Buskens data generator is enabled, false otherwise
+     */
+    private boolean isGenerateOtherThanNunnerBuskensData() {
+        return generateCidmData || generateBurgerBuskensData || generateCarayolRouxData
+                || generateNunnerBuskensNetworks || generateNunnerBuskensNetworksSimple
+                || generateNunnerBuskensNetworksGenetic || generateNunnerBuskensNetworksProfessions
+                || generateProfessionNetworksGenetic || generateProfessionNetworksLockdown
+                || generateProfessionNetworksData || generateProfessionNetworksAgentStats || generateExperimentData;
+    }
+
     private double[] parseDoubleArray(String s) {
         return Arrays.stream(s.trim().split(",")).mapToDouble(Double::parseDouble).toArray();
     }
@@ -696,6 +829,192 @@ public class PropertiesHandler {
         return exportGexf;
     }
 
+    /**
+     * Gets the format of CSV data files: uncompressed ({@code csv}) or gzip-compressed ({@code csv.gz}).
+     *
+     * @return the format of CSV data files
+     */
+    public String getExportFormat() {
+        return exportFormat;
+    }
+
+    /**
+     * Gets the compression level (1: fastest - 9: smallest) of gzip-compressed data files.
+     *
+     * @return the compression level of gzip-compressed data files
+     */
+    public int getExportCompressionLevel() {
+        return exportCompressionLevel;
+    }
+
+    /**
+     * Gets the size of the write buffers of data files.
+     *
+     * @return the size of the write buffers of data files
+     */
+    public int getExportBlockSize() {
+        return exportBlockSize;
+    }
+
+    /**
+     * Gets the size (in bytes) after which parameter sweeps continue their data in new files (0: no rotation).
+     *
+     * @return the size after which parameter sweeps continue their data in new files
+     */
+    public long getExportRotationSize() {
+        return exportRotationSize;
+    }
+
+    /**
+     * Gets the number of unique parameter combinations after which parameter sweeps continue their data in new
+     * files (0: no rotation).
+     *
+     * @return the number of unique parameter combinations after which parameter sweeps continue their data in new
+     *          files
+     */
+    public int getExportRotationUpcs() {
+        return exportRotationUpcs;
+    }
+
+    /**
+     * Gets whether data files of parameter sweeps are normalized: the parameters of each unique parameter combination
+     * are written once to a parameters file, and the rows of the other data files reference them by unique parameter
+     * combination, without repeating them.
+     *
+     * @return true if data files are normalized, false if parameters are repeated in each row
+     */
+    public boolean isExportNormalized() {
+        return exportNormalized;
+    }
+
+    /**
+     * Gets whether centralities and path lengths are approximated by sampling.
+     *
+     * @return true if centralities and path lengths are approximated, false if they are computed exactly
+     */
+    public boolean isStatsApproximation() {
+        return statsApproximation;
+    }
+
+    /**
+     * Gets the maximum additive error of approximated centralities and path lengths.
+     *
+     * @return the maximum additive error of approximated centralities and path lengths
+     */
+    public double getStatsApproximationEpsilon() {
+        return statsApproximationEpsilon;
+    }
+
+    /**
+     * Gets the probability that approximated centralities and path lengths exceed the maximum error.
+     *
+     * @return the probability that approximated centralities and path lengths exceed the maximum error
+     */
+    public double getStatsApproximationDelta() {
+        return statsApproximationDelta;
+    }
+
+    /**
+     * Gets whether disease dynamics depend on the disease states of the previous round only, computed in parallel.
+     *
+     * @return true if disease dynamics are double-buffered, false if agents are processed one by one
+     */
+    public boolean isSimDiseaseDoubleBuffered() {
+        return simDiseaseDoubleBuffered;
+    }
+
+    /**
+     * Gets the mode of computing agent dynamics.
+     *
+     * @return the mode of computing agent dynamics
+     */
+    public AgentDynamicsModes getSimAgentDynamicsMode() {
+        return simAgentDynamicsMode;
+    }
+
+    /**
+     * Gets the type of disease simulated by the data generators and the user interface.
+     *
+     * @return the type of disease
+     */
+    public DiseaseType getSimDiseaseType() {
+        return simDiseaseType;
+    }
+
+    /**
+     * Gets whether pairwise stability of the networks is computed at simulation start and after each round.
+     *
+     * @return true if pairwise stability is computed, false otherwise
+     */
+    public boolean isSimStabilityComputation() {
+        return simStabilityComputation;
+    }
+
+    /**
+     * Gets the number of simulations of a parameter sweep run in parallel.
+     *
+     * @return the number of simulations run in parallel, the number of available processors if smaller than 1
+     */
+    public int getSweepWorkers() {
+        return sweepWorkers;
+    }
+
+    /**
+     * Gets the shard of parameter sweeps processed by this process.
+     *
+     * @return the shard of parameter sweeps processed by this process
+     */
+    public SweepShard getSweepShard() {
+        return new SweepShard(sweepShardIndex, sweepShardCount);
+    }
+
+    /**
+     * Gets the name of the export directory, for resuming parameter sweeps or sharing them between processes.
+     *
+     * @return the name of the export directory, empty for a new directory named by the time of invocation
+     */
+    public String getSweepExportName() {
+        return sweepExportName;
+    }
+
+    /**
+     * Gets whether to merge the data of all shards of parameter sweeps rather than generating data.
+     *
+     * @return true if the data of all shards is merged, false if data is generated
+     */
+    public boolean isSweepMerge() {
+        return sweepMerge;
+    }
+
+    /**
+     * Gets the seed of all random draws of parameter sweeps. Sweeps with the same seed produce the same data, no
+     * matter how many workers and shards are used.
+     *
+     * @return the seed of all random draws of parameter sweeps
+     */
+    public long getSweepSeed() {
+        return sweepSeed;
+    }
+
+    /**
+     * Sets the seed of all random draws of parameter sweeps, e.g. to resume a sweep with a seed drawn randomly.
+     *
+     * @param sweepSeed
+     *          the seed of all random draws of parameter sweeps
+     */
+    public void setSweepSeed(long sweepSeed) {
+        this.sweepSeed = sweepSeed;
+    }
+
+    /**
+     * Gets whether the seed of parameter sweeps is configured, rather than drawn randomly.
+     *
+     * @return true if the seed of parameter sweeps is configured, false if drawn randomly
+     */
+    public boolean isSweepSeedConfigured() {
+        return sweepSeedConfigured;
+    }
+
     /**
      * @return the osType
      */
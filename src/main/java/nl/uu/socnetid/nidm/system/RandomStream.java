@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.system;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A seeded, splittable source of randomness (SplitMix64, see {@link SplittableRandom}), extending {@link Random} for
+ * use with the JDK's collection utilities (e.g., {@link java.util.Collections#shuffle(java.util.List, Random)}).
+ *
+ * Each thread has a current stream (see {@link #current()}), used throughout the model in place of
+ * {@link ThreadLocalRandom}. Simulations, replicates, and workers bind streams of their own to the thread running them
+ * (see {@link #bind(RandomStream)}), derived from a single seed and keys identifying them (see
+ * {@link #of(long, long...)}). Streams are neither shared between threads nor synchronized, and the same seed
+ * produces the same results, no matter how many threads are used. Without binding, a thread's current stream is
+ * seeded randomly.
+ *
+ * @author Hendrik Nunner
+ */
+public class RandomStream extends Random {
+
+    private static final long serialVersionUID = -3418920593012458873L;
+
+    // the increment of SplitMix64 (golden ratio)
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // the current stream of each thread, randomly seeded if not bound
+    private static final ThreadLocal<RandomStream> CURRENT =
+            ThreadLocal.withInitial(() -> new RandomStream(ThreadLocalRandom.current().nextLong()));
+
+    // the generator
+    private SplittableRandom random;
+
+
+    /**
+     * Constructor.
+     *
+     * @param seed
+     *          the seed
+     */
+    public RandomStream(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param random
+     *          the generator
+     */
+    private RandomStream(SplittableRandom random) {
+        super(0);
+        this.random = random;
+    }
+
+
+    /**
+     * Gets the current stream of the calling thread.
+     *
+     * @return the current stream of the calling thread
+     */
+    public static RandomStream current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds a stream to the calling thread, as its current stream.
+     *
+     * @param stream
+     *          the stream to bind
+     * @return the stream bound before, for restoring it when done
+     */
+    public static RandomStream bind(RandomStream stream) {
+        RandomStream previous = CURRENT.get();
+        CURRENT.set(stream);
+        return previous;
+    }
+
+    /**
+     * Creates the stream derived from a seed and keys (e.g., the simulation round and the index of an agent). Streams
+     * with different keys are statistically independent.
+     *
+     * @param seed
+     *          the seed
+     * @param keys
+     *          the keys identifying the stream
+     * @return the stream
+     */
+    public static RandomStream of(long seed, long... keys) {
+        return new RandomStream(derive(seed, keys));
+    }
+
+    /**
+     * Derives a seed from a seed and keys.
+     *
+     * @param seed
+     *          the seed
+     * @param keys
+     *          the keys
+     * @return the derived seed
+     */
+    public static long derive(long seed, long... keys) {
+        long z = mix(seed);
+        for (long key : keys) {
+            z = mix(z + (key + 1) * GOLDEN_GAMMA);
+        }
+        return z;
+    }
+
+    /**
+     * Splits off a new, statistically independent stream.
+     *
+     * @return the new stream
+     */
+    public RandomStream split() {
+        return new RandomStream(this.random.split());
+    }
+
+    /**
+     * Gets a random integer between origin (inclusive) and bound (exclusive).
+     *
+     * @param origin
+     *          the least value
+     * @param bound
+     *          the upper bound (exclusive)
+     * @return the random integer
+     */
+    public int nextInt(int origin, int bound) {
+        return this.random.nextInt(origin, bound);
+    }
+
+    /**
+     * Gets a random long between origin (inclusive) and bound (exclusive).
+     *
+     * @param origin
+     *          the least value
+     * @param bound
+     *          the upper bound (exclusive)
+     * @return the random long
+     */
+    public long nextLong(long origin, long bound) {
+        return this.random.nextLong(origin, bound);
+    }
+
+    /**
+     * Gets a random double between 0 (inclusive) and bound (exclusive).
+     *
+     * @param bound
+     *          the upper bound (exclusive)
+     * @return the random double
+     */
+    public double nextDouble(double bound) {
+        return this.random.nextDouble(bound);
+    }
+
+    /**
+     * Gets a random double between origin (inclusive) and bound (exclusive).
+     *
+     * @param origin
+     *          the least value
+     * @param bound
+     *          the upper bound (exclusive)
+     * @return the random double
+     */
+    public double nextDouble(double origin, double bound) {
+        return this.random.nextDouble(origin, bound);
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Random#setSeed(long)
+     */
+    @Override
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Random#next(int)
+     */
+    @Override
+    protected int next(int bits) {
+        return (int) (this.random.nextLong() >>> (64 - bits));
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Random#nextInt()
+     */
+    @Override
+    public int nextInt() {
+        return this.random.nextInt();
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Random#nextInt(int)
+     */
+    @Override
+    public int nextInt(int bound) {
+        return this.random.nextInt(bound);
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Random#nextLong()
+     */
+    @Override
+    public long nextLong() {
+        return this.random.nextLong();
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Random#nextDouble()
+     */
+    @Override
+    public double nextDouble() {
+        return this.random.nextDouble();
+    }
+
+    /* (non-Javadoc)
+     * @see java.util.Random#nextBoolean()
+     */
+    @Override
+    public boolean nextBoolean() {
+        return this.random.nextBoolean();
+    }
+
+    /**
+     * Mixes the bits of a value (SplitMix64 finalizer).
+     *
+     * @param z
+     *          the value
+     * @return the mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
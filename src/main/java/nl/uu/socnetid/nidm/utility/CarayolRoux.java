@@ -25,6 +25,7 @@
  */
 package nl.uu.socnetid.nidm.utility;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -35,6 +36,8 @@ import org.apache.logging.log4j.Logger;
 import nl.uu.socnetid.nidm.agents.Agent;
 import nl.uu.socnetid.nidm.gui.CarayolRouxChangeListener;
 import nl.uu.socnetid.nidm.gui.CarayolRouxPanel;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
 import nl.uu.socnetid.nidm.stats.LocalAgentConnectionsStats;
 import nl.uu.socnetid.nidm.stats.StatsComputer;
 
@@ -137,20 +140,38 @@ public class CarayolRoux extends UtilityFunction implements CarayolRouxChangeLis
         return TYPE_CARAYOL_ROUX;
     }
 
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.utility.UtilityFunction#isLocal()
+     */
+    @Override
+    public boolean isLocal() {
+        // benefits depend on geodesic distances to all agents
+        return false;
+    }
+
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.utility.UtilityFunction#getSocialBenefits(
      * nl.uu.socnetid.nidm.stats.LocalAgentConnectionsStats, nl.uu.socnetid.nidm.agents.Agent)
      */
     @Override
     protected double getSocialBenefits(LocalAgentConnectionsStats lacs, Agent agent) {
+        return getSocialBenefits(agent.getNetwork().getGeodesicProfiles().getProfile(agent.getIndex()));
+    }
 
+    /**
+     * Computes the benefits of social connections.
+     *
+     * @param connectionsByDistance
+     *          the number of connections by geodesic distance (array index)
+     * @return the benefits of social connections
+     */
+    private double getSocialBenefits(int[] connectionsByDistance) {
         double benefits = 0.0;
-        Map<Integer, Integer> connectionsByDistance = StatsComputer.getConnectionsByGeodesicDistance(agent);
-
-        for (Entry<Integer, Integer> entry : connectionsByDistance.entrySet()) {
-            Integer gdd = entry.getKey();
-            Integer cons = entry.getValue();
-            benefits += cons * (this.crOmega * Math.pow(delta, gdd));
+        for (int gdd = 0; gdd < connectionsByDistance.length; gdd++) {
+            int cons = connectionsByDistance[gdd];
+            if (cons > 0) {
+                benefits += cons * (this.crOmega * Math.pow(delta, gdd));
+            }
         }
 
         return benefits;
@@ -162,19 +183,7 @@ public class CarayolRoux extends UtilityFunction implements CarayolRouxChangeLis
      */
     @Override
     protected double getSocialCosts(LocalAgentConnectionsStats lacs, Agent agent) {
-
-        double costs = 0.0;
-        Map<Double, Integer> connectionsByDistance = StatsComputer.getDirectConnectionsByGeographicDistance(agent);
-
-        for (Entry<Double, Integer> entry : connectionsByDistance.entrySet()) {
-            Double ggd = entry.getKey();
-            Integer cons = entry.getValue();
-            costs += cons * (this.c * ggd * Math.pow(Math.ceil(lacs.getNetSize() / 2.0), -1));
-        }
-
-        return costs;
-
-
+        return getSocialCosts(StatsComputer.getDirectConnectionsByGeographicDistance(agent), lacs.getNetSize());
 
 //        double costs = 0.0;
 //
@@ -188,6 +197,66 @@ public class CarayolRoux extends UtilityFunction implements CarayolRouxChangeLis
 //        return costs;
     }
 
+    /**
+     * Computes the costs of social connections.
+     *
+     * @param connectionsByDistance
+     *          the number of direct connections by geographic distance
+     * @param netSize
+     *          the network size
+     * @return the costs of social connections
+     */
+    private double getSocialCosts(Map<Double, Integer> connectionsByDistance, int netSize) {
+        double costs = 0.0;
+        for (Entry<Double, Integer> entry : connectionsByDistance.entrySet()) {
+            Double ggd = entry.getKey();
+            Integer cons = entry.getValue();
+            costs += cons * (this.c * ggd * Math.pow(Math.ceil(netSize / 2.0), -1));
+        }
+        return costs;
+    }
+
+    /* (non-Javadoc)
+     * @see nl.uu.socnetid.nidm.utility.UtilityFunction#getHypotheticalUtility(
+     * nl.uu.socnetid.nidm.agents.Agent, nl.uu.socnetid.nidm.agents.Agent, nl.uu.socnetid.nidm.agents.Agent)
+     */
+    @Override
+    protected Utility getHypotheticalUtility(Agent agent, Agent with, Agent without) {
+        LocalAgentConnectionsStats lacs = StatsComputer.computeLocalAgentConnectionsStats(agent, with, without);
+        Network network = agent.getNetwork();
+
+        // connections by geodesic distance, including the hypothetical ties
+        int[] consByGeodesicDistance = network.getGeodesicProfiles().getProfile(agent.getIndex(),
+                with == null ? -1 : with.getIndex(),
+                without == null ? -1 : without.getIndex());
+
+        // direct connections by geographic distance, including the hypothetical ties
+        Map<Double, Integer> consByGeographicDistance = new HashMap<Double, Integer>();
+        GraphStore graphStore = network.getGraphStore();
+        int index = agent.getIndex();
+        for (int k = 0; k <= graphStore.getDegree(index); k++) {
+            Agent connection;
+            if (k < graphStore.getDegree(index)) {
+                connection = network.getAgent(graphStore.getNeighbor(index, k));
+                if (connection == without) {
+                    continue;
+                }
+            } else if (with != null) {
+                connection = with;
+            } else {
+                continue;
+            }
+            double ggd = agent.getGeographicDistanceTo(connection);
+            consByGeographicDistance.put(ggd,
+                    consByGeographicDistance.get(ggd) != null ? consByGeographicDistance.get(ggd) + 1 : 1);
+        }
+
+        return new Utility(
+                getSocialBenefits(consByGeodesicDistance),
+                getSocialCosts(consByGeographicDistance, lacs.getNetSize()),
+                getDiseaseCosts(lacs, agent));
+    }
+
     /* (non-Javadoc)
      * @see nl.uu.socnetid.nidm.utility.UtilityFunction#getTheoreticDegree()
      */
@@ -105,6 +105,78 @@ public abstract class UtilityFunction {
                 getDiseaseCosts(lacs, agent));
     }
 
+    /**
+     * Computes the change in utility for an agent if a tie to another agent was added. The network is not changed.
+     *
+     * @param agent
+     *          the agent to compute the change in utility for
+     * @param with
+     *          the agent on the other side of the tie to add
+     * @return the change in the agent's overall utility
+     */
+    public double getMarginalUtilityWith(Agent agent, Agent with) {
+        return this.getMarginalUtility(agent, with, null);
+    }
+
+    /**
+     * Computes the change in utility for an agent if an existing tie to another agent was removed. The network is
+     * not changed.
+     *
+     * @param agent
+     *          the agent to compute the change in utility for
+     * @param without
+     *          the agent on the other side of the tie to remove
+     * @return the change in the agent's overall utility
+     */
+    public double getMarginalUtilityWithout(Agent agent, Agent without) {
+        return this.getMarginalUtility(agent, null, without);
+    }
+
+    /**
+     * Computes the change in utility for an agent if a tie to another agent was added and an existing tie to
+     * another agent was removed. The network is not changed.
+     *
+     * @param agent
+     *          the agent to compute the change in utility for
+     * @param with
+     *          the agent on the other side of the tie to add
+     * @param without
+     *          the agent on the other side of the tie to remove
+     * @return the change in the agent's overall utility
+     */
+    public double getMarginalUtility(Agent agent, Agent with, Agent without) {
+        return this.getHypotheticalUtility(agent, with, without).getOverallUtility() -
+                this.getHypotheticalUtility(agent, null, null).getOverallUtility();
+    }
+
+    /**
+     * Computes the utility for an agent as if a tie to another agent was added and an existing tie to another agent
+     * was removed, without changing the network. By default this is the same as
+     * {@link #getUtility(Agent, Agent, Agent)}. Utility functions that do not take the hypothetical ties into account
+     * there need to override this method.
+     *
+     * @param agent
+     *          the agent to compute the utility for
+     * @param with
+     *          the agent to include as direct connection
+     * @param without
+     *          the agent to exclude as direct connection
+     * @return the agent's utility based on the hypothetical connections
+     */
+    protected Utility getHypotheticalUtility(Agent agent, Agent with, Agent without) {
+        return this.getUtility(agent, with, without);
+    }
+
+
+    /**
+     * Checks whether the utility of an agent depends on its neighbourhood up to distance 2 only. Changes of ties
+     * further away then do not affect the agent's utility.
+     *
+     * @return true if the utility depends on the agent's neighbourhood up to distance 2 only, false otherwise
+     */
+    public boolean isLocal() {
+        return true;
+    }
 
     /**
      * @return the name of the utility function to be used in the stats window
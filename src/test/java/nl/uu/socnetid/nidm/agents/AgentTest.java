@@ -246,6 +246,29 @@ public class AgentTest {
         assertEquals(DiseaseGroup.SUSCEPTIBLE, this.agent1.getDiseaseGroup());
     }
 
+    /**
+     * Test of agent states with and without GraphStream attribute mirroring.
+     */
+    @Test
+    public void testAttributeMirroring() {
+        String dgKey = AgentAttributes.DISEASE_GROUP.toString();
+        assertEquals(DiseaseGroup.SUSCEPTIBLE, this.agent1.getAttribute(dgKey));
+
+        this.network.setAttributeMirroring(false);
+        assertFalse(this.agent1.hasAttribute(dgKey));
+        this.agent1.infect(this.ds, 3);
+        assertEquals(DiseaseGroup.INFECTED, this.agent1.getDiseaseGroup());
+        assertEquals(3, this.agent1.getWhenInfected());
+        assertNotNull(this.agent1.getDisease());
+        assertFalse(this.agent1.hasAttribute(dgKey));
+        // non-tabular attributes are still GraphStream attributes
+        assertEquals(DiseaseGroup.INFECTED.toString(), this.agent1.getAttribute(AgentAttributes.UI_CLASS.toString()));
+
+        this.network.setAttributeMirroring(true);
+        assertEquals(DiseaseGroup.INFECTED, this.agent1.getAttribute(dgKey));
+        assertEquals(phi, (double) this.agent1.getAttribute(AgentAttributes.PHI.toString()), 0.0);
+    }
+
     /**
      * Test of getting the disease specs.
      */
@@ -585,6 +608,24 @@ public class AgentTest {
         assertEquals(2, this.agent2.getGeographicDistanceTo(this.agent3), 0.01);
     }
 
+    /**
+     * Test whether coordinates set directly as GraphStream attributes are used for geographic distances.
+     */
+    @Test
+    public void testGetGeographicDistanceOfPositionAttributes() {
+        this.agent4.setAttribute("xy", 4.0, 4.0);
+        assertEquals(4.0, this.agent4.getX(), 0);
+        assertEquals(4.0, this.agent4.getY(), 0);
+        assertEquals(5.66, this.agent1.getGeographicDistanceTo(this.agent4), 0.01);
+
+        // the last agent takes over the index of the removed agent
+        this.agent6.setXY(6.0, 0.0);
+        this.network.removeNode(this.agent2);
+        assertEquals(this.agent2.getIndex(), this.agent6.getIndex());
+        assertEquals(6.0, this.agent6.getX(), 0);
+        assertEquals(3.16, this.agent1.getGeographicDistanceTo(this.agent3), 0.01);
+    }
+
     /**
      * Test whether betweenness is computed correctly.
      */
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import nl.uu.socnetid.nidm.io.csv.CsvOutput;
+
+/**
+ * Tests for {@link CsvOutput} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class CsvOutputTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    /**
+     * Test of resolving data files written in a format other than the configured one.
+     *
+     * @throws IOException
+     *          if the data files cannot be written
+     */
+    @Test
+    public void testResolve() throws IOException {
+        File directory = this.folder.newFolder();
+        String fileName = new File(directory, "data.csv").getPath();
+        assertEquals(new File(CsvOutput.getFileName(fileName)), CsvOutput.resolve(fileName));
+
+        File compressed = new File(directory, "data.csv.gz");
+        try (Writer out = CsvOutput.open(compressed.getPath(), false)) {
+            out.write("header\n");
+        }
+        assertEquals(compressed, CsvOutput.resolve(fileName));
+        try (BufferedReader in = CsvOutput.openReader(CsvOutput.resolve(fileName))) {
+            assertEquals("header", in.readLine());
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.io.csv.CsvSink;
+
+/**
+ * Tests for {@link CsvSink} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class CsvSinkTest {
+
+    /**
+     * Test of data written in blocks being complete and in order after flushing.
+     */
+    @Test
+    public void testFlush() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvSink sink = new CsvSink(out, 16, 2);
+
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String row = i + ";" + (i / 10.0) + "\n";
+            expected.append(row);
+            if (i % 2 == 0) {
+                sink.append(new StringBuilder(row));
+            } else {
+                sink.write(row);
+            }
+        }
+        sink.flush();
+        assertEquals(expected.toString(), out.toString());
+
+        sink.write("last\n");
+        sink.close();
+        assertEquals(expected.append("last\n").toString(), out.toString());
+    }
+
+    /**
+     * Test of errors of the underlying writer being reported.
+     */
+    @Test
+    public void testError() {
+        Writer failing = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("disk full");
+            }
+            @Override
+            public void flush() { }
+            @Override
+            public void close() { }
+        };
+        CsvSink sink = new CsvSink(failing, 16, 2);
+        try {
+            sink.write("some data\n");
+            sink.flush();
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("disk full"));
+        } finally {
+            // stops the background thread, reporting the error again
+            try {
+                sink.close();
+                fail("IOException expected");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("disk full"));
+            }
+        }
+    }
+
+    /**
+     * Test of data being complete after an interruption while waiting for an empty block.
+     */
+    @Test(timeout = 10000)
+    public void testInterrupted() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvSink sink = new CsvSink(out, 16, 2);
+
+        Thread.currentThread().interrupt();
+        try {
+            sink.write("0123456789abcdef");
+            fail("InterruptedIOException expected");
+        } catch (InterruptedIOException e) {
+            assertTrue(Thread.interrupted());
+        }
+        sink.write("\n");
+        sink.flush();
+        assertEquals("0123456789abcdef\n", out.toString());
+        sink.close();
+    }
+
+}
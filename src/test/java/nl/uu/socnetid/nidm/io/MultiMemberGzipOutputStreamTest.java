@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import nl.uu.socnetid.nidm.io.csv.MultiMemberGzipOutputStream;
+
+/**
+ * Tests for {@link MultiMemberGzipOutputStream} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class MultiMemberGzipOutputStreamTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    /**
+     * Test of the data written up to each flush being a complete gzip file: all members are decompressed as a single
+     * stream, and the file truncated to its length after the first flush decompresses to the first block.
+     *
+     * @throws IOException
+     *          if the file cannot be read or written
+     */
+    @Test
+    public void testTruncateAfterFlush() throws IOException {
+        File file = this.folder.newFile("data.csv.gz");
+        long firstFlush;
+        try (MultiMemberGzipOutputStream out = new MultiMemberGzipOutputStream(new FileOutputStream(file), 6, 512)) {
+            out.write("block 1\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            firstFlush = file.length();
+            out.write("block 2\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+        assertEquals("block 1\nblock 2\n", decompress(file));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(firstFlush);
+        }
+        assertEquals("block 1\n", decompress(file));
+    }
+
+    private static String decompress(File file) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            byte[] buffer = new byte[512];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                data.write(buffer, 0, len);
+            }
+        }
+        return new String(data.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
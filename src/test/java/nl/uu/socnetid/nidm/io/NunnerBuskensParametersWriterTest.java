@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.data.out.DataGeneratorData;
+import nl.uu.socnetid.nidm.data.out.EpidemicStructures;
+import nl.uu.socnetid.nidm.data.out.LogValues;
+import nl.uu.socnetid.nidm.data.out.NunnerBuskensParameters;
+import nl.uu.socnetid.nidm.io.csv.CsvFileWriter;
+import nl.uu.socnetid.nidm.io.csv.NunnerBuskensParametersWriter;
+
+/**
+ * Tests for {@link NunnerBuskensParametersWriter} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class NunnerBuskensParametersWriterTest {
+
+    /**
+     * Test of the parameters of a unique parameter combination being written to a single row, keyed by the unique
+     * parameter combination.
+     */
+    @Test
+    public void testWriteCurrentData() {
+        NunnerBuskensParameters params = new NunnerBuskensParameters();
+        params.setEpStructure(EpidemicStructures.BOTH);
+        params.setCurrAlpha(0.25);
+        params.setCurrRSigma(0.5);
+        params.setCurrN(50);
+        params.setCurrOmega(0.8);
+        params.setRsEqual(true);
+        DataGeneratorData<NunnerBuskensParameters> dgData = new DataGeneratorData<NunnerBuskensParameters>(params);
+        dgData.getSimStats().setUpc(7);
+
+        StringWriter out = new StringWriter();
+        NunnerBuskensParametersWriter writer = new NunnerBuskensParametersWriter(out, dgData);
+        writer.writeColumnNames();
+        writer.writeCurrentData();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        String[] cols = lines[0].split(";");
+        String[] values = lines[1].split(";", -1);
+        assertEquals(cols.length, values.length);
+        assertEquals(LogValues.IV_SIM_UPC.toString(), cols[0]);
+        assertEquals("7", values[0]);
+        assertEquals("0.25", value(cols, values, LogValues.IV_NB_ALPHA));
+        assertEquals("1", value(cols, values, LogValues.IV_NB_RS_EQUAL));
+        // risk perception for infections equal to risk perception for disease severity
+        assertEquals("0.5", value(cols, values, LogValues.IV_NB_R_SIGMA));
+        assertEquals("0.5", value(cols, values, LogValues.IV_NB_R_PI));
+        assertEquals("NA", value(cols, values, LogValues.IV_NB_R_PI_RANDOM_HOMOGENEOUS));
+        assertEquals("50", value(cols, values, LogValues.IV_NB_NET_SIZE));
+        assertEquals("0.8", value(cols, values, LogValues.IV_NB_OMEGA));
+    }
+
+    /**
+     * Test of a copy of a writer writing data rows only, of its own data, to its own writer.
+     */
+    @Test
+    public void testCopy() {
+        NunnerBuskensParameters params = new NunnerBuskensParameters();
+        params.setEpStructure(EpidemicStructures.BOTH);
+        DataGeneratorData<NunnerBuskensParameters> dgData = new DataGeneratorData<NunnerBuskensParameters>(params);
+        dgData.getSimStats().setUpc(1);
+        StringWriter out = new StringWriter();
+        NunnerBuskensParametersWriter writer = new NunnerBuskensParametersWriter(out, dgData);
+        writer.writeColumnNames();
+
+        DataGeneratorData<NunnerBuskensParameters> dgDataCopy = dgData.copy();
+        dgDataCopy.getSimStats().setUpc(2);
+        StringWriter buffer = new StringWriter();
+        CsvFileWriter<NunnerBuskensParameters> copy = writer.copy(buffer, dgDataCopy);
+        assertTrue(copy instanceof NunnerBuskensParametersWriter);
+        copy.writeCurrentData();
+        writer.writeCurrentData();
+
+        assertEquals(2, out.toString().split("\n").length);
+        assertTrue(out.toString().split("\n")[1].startsWith("1;"));
+        assertEquals(1, buffer.toString().split("\n").length);
+        assertTrue(buffer.toString().startsWith("2;"));
+    }
+
+    /**
+     * Test of parameters drawn randomly for each simulation.
+     */
+    @Test
+    public void testDrawnPerSimulation() {
+        NunnerBuskensParameters params = new NunnerBuskensParameters();
+        params.setRSigmaRandom(true);
+        assertFalse(params.isDrawnPerSimulation());
+        params.setAlphaRandom(true);
+        assertTrue(params.isDrawnPerSimulation());
+    }
+
+    private static String value(String[] cols, String[] values, LogValues col) {
+        for (int i = 0; i < cols.length; i++) {
+            if (cols[i].equals(col.toString())) {
+                return values[i];
+            }
+        }
+        throw new AssertionError("Column missing: " + col);
+    }
+
+}
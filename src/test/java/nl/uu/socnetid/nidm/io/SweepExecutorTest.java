@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.io.generator.SweepExecutor;
+import nl.uu.socnetid.nidm.io.generator.SweepJob;
+
+/**
+ * Tests for {@link SweepExecutor} and {@link SweepJob} classes.
+ *
+ * @author Hendrik Nunner
+ */
+public class SweepExecutorTest {
+
+    /**
+     * Test of enumerating jobs in the order of nested loops.
+     */
+    @Test
+    public void testEnumerate() {
+        int[] levelCounts = new int[] {2, 3};
+        assertEquals(6, SweepJob.countUpcs(levelCounts));
+
+        List<SweepJob> jobs = SweepJob.enumerate(levelCounts, 2);
+        assertEquals(12, jobs.size());
+        int i = 0;
+        for (int first = 0; first < 2; first++) {
+            for (int second = 0; second < 3; second++) {
+                for (int sim = 1; sim <= 2; sim++) {
+                    SweepJob job = jobs.get(i++);
+                    assertEquals(first * 3 + second + 1, job.getUpc());
+                    assertEquals(sim, job.getSimPerUpc());
+                    assertEquals(first, job.getLevel(0));
+                    assertEquals(second, job.getLevel(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of results being passed to the sink in the order of jobs.
+     */
+    @Test
+    public void testExecute() {
+        List<SweepJob> jobs = SweepJob.enumerate(new int[] {10, 10}, 3);
+
+        List<String> results = new ArrayList<String>();
+        new SweepExecutor(4).execute(jobs, job -> {
+            // jobs finishing in random order
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return job.getUpc() + "#" + job.getSimPerUpc();
+        }, results::add);
+
+        assertEquals(jobs.size(), results.size());
+        for (int i = 0; i < jobs.size(); i++) {
+            assertEquals(jobs.get(i).getUpc() + "#" + jobs.get(i).getSimPerUpc(), results.get(i));
+        }
+    }
+
+    /**
+     * Test of a failing job stopping the sweep, with results of all previous jobs passed to the sink.
+     */
+    @Test
+    public void testExecuteFailure() {
+        testExecuteFailure(1);
+        testExecuteFailure(4);
+    }
+
+    /**
+     * Executes jobs of which one fails.
+     *
+     * @param workers
+     *          the number of workers
+     */
+    private void testExecuteFailure(int workers) {
+        List<SweepJob> jobs = SweepJob.enumerate(new int[] {10, 10}, 3);
+        int failing = 42;
+        RuntimeException failure = new RuntimeException("failure");
+
+        List<Integer> results = new ArrayList<Integer>();
+        try {
+            new SweepExecutor(workers).execute(jobs, job -> {
+                int index = jobs.indexOf(job);
+                if (index == failing) {
+                    throw failure;
+                }
+                return index;
+            }, results::add);
+            fail("Failing job not propagated.");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e.getCause());
+        }
+
+        assertEquals(failing, results.size());
+        for (int i = 0; i < failing; i++) {
+            assertEquals(i, results.get(i).intValue());
+        }
+    }
+
+    /**
+     * Test of a failing sink stopping the sweep.
+     */
+    @Test
+    public void testExecuteSinkFailure() {
+        testExecuteSinkFailure(1);
+        testExecuteSinkFailure(4);
+    }
+
+    /**
+     * Executes jobs of which the sink fails for one.
+     *
+     * @param workers
+     *          the number of workers
+     */
+    private void testExecuteSinkFailure(int workers) {
+        List<SweepJob> jobs = SweepJob.enumerate(new int[] {10, 10}, 3);
+        int failing = 42;
+        UncheckedIOException failure = new UncheckedIOException(new IOException("failure"));
+
+        List<Integer> results = new ArrayList<Integer>();
+        try {
+            new SweepExecutor(workers).execute(jobs, job -> jobs.indexOf(job), index -> {
+                if (index == failing) {
+                    throw failure;
+                }
+                results.add(index);
+            });
+            fail("Failing sink not propagated.");
+        } catch (UncheckedIOException e) {
+            assertSame(failure, e);
+        }
+
+        assertEquals(failing, results.size());
+    }
+
+}
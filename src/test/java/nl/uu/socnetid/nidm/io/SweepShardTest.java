@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import nl.uu.socnetid.nidm.io.csv.CsvOutput;
+import nl.uu.socnetid.nidm.io.generator.SweepJob;
+import nl.uu.socnetid.nidm.io.generator.SweepJournal;
+import nl.uu.socnetid.nidm.io.generator.SweepShard;
+
+/**
+ * Tests for {@link SweepShard} and {@link SweepJournal} classes.
+ *
+ * @author Hendrik Nunner
+ */
+public class SweepShardTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+
+    /**
+     * Test of shards splitting a sweep into contiguous blocks of jobs.
+     */
+    @Test
+    public void testSelect() {
+        List<SweepJob> jobs = SweepJob.enumerate(new int[] {5, 2}, 1);
+        List<SweepJob> selected = new ArrayList<SweepJob>();
+        for (int index = 0; index < 3; index++) {
+            selected.addAll(new SweepShard(index, 3).select(jobs));
+        }
+        assertEquals(jobs, selected);
+
+        assertEquals("data.csv", new SweepShard(0, 1).getFileName("data.csv"));
+        assertEquals("data.shard-2.csv", new SweepShard(2, 3).getFileName("data.csv"));
+    }
+
+    /**
+     * Test of merging the data files of all shards in order of shards.
+     *
+     * @throws IOException
+     *          if the data files cannot be read or written
+     */
+    @Test
+    public void testMerge() throws IOException {
+        File directory = this.folder.newFolder();
+        for (int index = 0; index < 12; index++) {
+            try (FileWriter out = new FileWriter(new File(directory, "data.shard-" + index + ".csv"))) {
+                out.write("header\n" + index + "\n");
+            }
+            complete(directory, index, 12);
+        }
+        SweepShard.merge(directory, 12);
+
+        List<String> lines = Files.readAllLines(new File(directory, "data.csv").toPath());
+        assertEquals(13, lines.size());
+        assertEquals("header", lines.get(0));
+        for (int index = 0; index < 12; index++) {
+            assertEquals(String.valueOf(index), lines.get(index + 1));
+        }
+    }
+
+    /**
+     * Test of resuming a sweep after an interruption.
+     *
+     * @throws IOException
+     *          if the journal or the data files cannot be read or written
+     */
+    @Test
+    public void testJournal() throws IOException {
+        File data = this.folder.newFile("data.csv");
+        String journalPath = new File(this.folder.getRoot(), "journal.txt").getPath();
+        List<SweepJob> jobs = SweepJob.enumerate(new int[] {3}, 1);
+
+        try (SweepJournal journal = new SweepJournal(journalPath, data.getPath());
+                FileWriter out = new FileWriter(data, true)) {
+            out.write("header\nrow 1\n");
+            out.flush();
+            journal.record(jobs.get(0));
+            // interrupted while writing job 2
+            out.write("row 2 (incomplete)");
+        }
+
+        try (SweepJournal journal = new SweepJournal(journalPath, data.getPath())) {
+            assertTrue(journal.isCompleted(jobs.get(0)));
+            assertFalse(journal.isCompleted(jobs.get(1)));
+            assertEquals("header\nrow 1\n", new String(Files.readAllBytes(data.toPath())));
+        }
+    }
+
+    /**
+     * Test of resuming a sweep continuing its data in several parts.
+     *
+     * @throws IOException
+     *          if the journal or the data files cannot be read or written
+     */
+    @Test
+    public void testJournalRotation() throws IOException {
+        String dataPath = new File(this.folder.getRoot(), "data.csv").getPath();
+        String journalPath = new File(this.folder.getRoot(), "journal.txt").getPath();
+        List<SweepJob> jobs = SweepJob.enumerate(new int[] {3}, 1);
+        assertEquals(dataPath, SweepJournal.getFileName(dataPath, 0));
+        assertTrue(SweepJournal.getFileName(dataPath, 2).endsWith("data.part-2.csv"));
+        assertTrue(SweepJournal.getFileName(dataPath + ".gz", 2).endsWith("data.part-2.csv.gz"));
+
+        try (SweepJournal journal = new SweepJournal(journalPath, dataPath)) {
+            try (FileWriter out = new FileWriter(journal.getFileName(dataPath))) {
+                out.write("header\nrow 1\n");
+            }
+            journal.record(jobs.get(0));
+            assertTrue(journal.exceeds(5));
+            journal.rotate();
+            try (FileWriter out = new FileWriter(journal.getFileName(dataPath))) {
+                out.write("header\nrow 2\n");
+            }
+            journal.record(jobs.get(1));
+            // interrupted while writing job 3
+            try (FileWriter out = new FileWriter(journal.getFileName(dataPath), true)) {
+                out.write("row 3 (incomplete)");
+            }
+        }
+
+        try (SweepJournal journal = new SweepJournal(journalPath, dataPath)) {
+            assertEquals(1, journal.getPart());
+            assertTrue(journal.isCompleted(jobs.get(1)));
+            assertFalse(journal.isCompleted(jobs.get(2)));
+            assertEquals("header\nrow 2\n",
+                    new String(Files.readAllBytes(new File(journal.getFileName(dataPath)).toPath())));
+            assertFalse(new File(SweepJournal.getFileName(dataPath, 2)).exists());
+        }
+    }
+
+    /**
+     * Test of resuming a sweep interrupted after continuing its data in a new part, but before completing any job of
+     * the new part.
+     *
+     * @throws IOException
+     *          if the journal or the data files cannot be read or written
+     */
+    @Test
+    public void testJournalRotationInterrupted() throws IOException {
+        String dataPath = new File(this.folder.getRoot(), "data.csv").getPath();
+        String journalPath = new File(this.folder.getRoot(), "journal.txt").getPath();
+        List<SweepJob> jobs = SweepJob.enumerate(new int[] {3}, 1);
+
+        try (SweepJournal journal = new SweepJournal(journalPath, dataPath)) {
+            try (FileWriter out = new FileWriter(journal.getFileName(dataPath))) {
+                out.write("header\nrow 1\n");
+            }
+            journal.record(jobs.get(0));
+            journal.rotate();
+            // interrupted while writing job 2
+            try (FileWriter out = new FileWriter(journal.getFileName(dataPath))) {
+                out.write("header\nrow 2 (incomplete)");
+            }
+        }
+
+        try (SweepJournal journal = new SweepJournal(journalPath, dataPath)) {
+            assertEquals(1, journal.getPart());
+            assertTrue(journal.isCompleted(jobs.get(0)));
+            assertFalse(journal.isCompleted(jobs.get(1)));
+            assertEquals("header\nrow 1\n", new String(Files.readAllBytes(new File(dataPath).toPath())));
+            assertEquals("", new String(Files.readAllBytes(new File(journal.getFileName(dataPath)).toPath())));
+        }
+    }
+
+    /**
+     * Test of merging the compressed data files of all shards and their parts in order of shards and parts.
+     *
+     * @throws IOException
+     *          if the data files cannot be read or written
+     */
+    @Test
+    public void testMergeCompressedParts() throws IOException {
+        File directory = this.folder.newFolder();
+        int row = 0;
+        for (int index = 0; index < 2; index++) {
+            for (int part = 0; part < 3; part++) {
+                String fileName = SweepJournal.getFileName("data.shard-" + index + ".csv.gz", part);
+                try (Writer out = CsvOutput.open(new File(directory, fileName).getPath(), false)) {
+                    out.write("header\n" + row++ + "\n");
+                    out.flush();
+                    out.write(row++ + "\n");
+                }
+            }
+            complete(directory, index, 2);
+        }
+        SweepShard.merge(directory, 2);
+
+        List<String> lines = new ArrayList<String>();
+        try (BufferedReader in = CsvOutput.openReader(new File(directory, "data.csv.gz"))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        assertEquals(row + 1, lines.size());
+        assertEquals("header", lines.get(0));
+        for (int i = 0; i < row; i++) {
+            assertEquals(String.valueOf(i), lines.get(i + 1));
+        }
+    }
+
+    /**
+     * Test of not merging the data files of shards if the data files of a shard are missing or if a shard has not
+     * been completed.
+     *
+     * @throws IOException
+     *          if the data files cannot be read or written
+     */
+    @Test
+    public void testMergeIncomplete() throws IOException {
+        File directory = this.folder.newFolder();
+        for (int index = 0; index < 2; index++) {
+            try (FileWriter out = new FileWriter(new File(directory, "data.shard-" + index + ".csv"))) {
+                out.write("header\n" + index + "\n");
+            }
+            complete(directory, index, 3);
+        }
+        // trailing shard missing
+        SweepShard.merge(directory, 3);
+        assertFalse(new File(directory, "data.csv").exists());
+
+        // trailing shard interrupted
+        try (FileWriter out = new FileWriter(new File(directory, "data.shard-2.csv"))) {
+            out.write("header\n2\n");
+        }
+        new SweepJournal(new File(directory, new SweepShard(2, 3).getFileName(SweepJournal.FILE_NAME)).getPath())
+                .close();
+        SweepShard.merge(directory, 3);
+        assertFalse(new File(directory, "data.csv").exists());
+
+        // all shards completed
+        complete(directory, 2, 3);
+        SweepShard.merge(directory, 3);
+        assertEquals(4, Files.readAllLines(new File(directory, "data.csv").toPath()).size());
+    }
+
+    /**
+     * Records the completion of a shard in its journal.
+     *
+     * @param directory
+     *          the directory of the journal
+     * @param index
+     *          the index of the shard
+     * @param count
+     *          the number of shards
+     * @throws IOException
+     *          if the journal cannot be written
+     */
+    private static void complete(File directory, int index, int count) throws IOException {
+        String fileName = new SweepShard(index, count).getFileName(SweepJournal.FILE_NAME);
+        try (SweepJournal journal = new SweepJournal(new File(directory, fileName).getPath())) {
+            journal.complete();
+        }
+        assertTrue(SweepJournal.isComplete(new File(directory, fileName)));
+    }
+
+}
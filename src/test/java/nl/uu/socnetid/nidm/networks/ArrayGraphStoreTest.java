@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.networks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the {@link ArrayGraphStore} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class ArrayGraphStoreTest {
+
+    // graph store
+    private GraphStore graphStore;
+
+
+    /**
+     * Performed before each test: Initialization of the graph store.
+     *
+     *      0 - 1
+     *      | /
+     *      2   3 - 4
+     */
+    @Before
+    public void initGraphStore() {
+        this.graphStore = new ArrayGraphStore();
+        for (int i = 0; i < 5; i++) {
+            this.graphStore.addNode();
+        }
+        this.graphStore.addEdge(0, 1);
+        this.graphStore.addEdge(2, 0);
+        this.graphStore.addEdge(1, 2);
+        this.graphStore.addEdge(4, 3);
+    }
+
+
+    /**
+     * Test of adding edges.
+     */
+    @Test
+    public void testAddEdge() {
+        assertEquals(4, this.graphStore.getEdgeCount());
+        assertFalse(this.graphStore.addEdge(1, 0));
+        assertFalse(this.graphStore.addEdge(3, 3));
+        assertEquals(4, this.graphStore.getEdgeCount());
+        assertTrue(this.graphStore.addEdge(0, 4));
+        assertEquals(5, this.graphStore.getEdgeCount());
+        assertArrayEquals(new int[] {1, 2, 4}, this.graphStore.getNeighbors(0));
+    }
+
+    /**
+     * Test of removing edges.
+     */
+    @Test
+    public void testRemoveEdge() {
+        assertTrue(this.graphStore.removeEdge(2, 0));
+        assertFalse(this.graphStore.removeEdge(0, 2));
+        assertEquals(3, this.graphStore.getEdgeCount());
+        assertFalse(this.graphStore.hasEdge(0, 2));
+        assertArrayEquals(new int[] {1}, this.graphStore.getNeighbors(0));
+        assertArrayEquals(new int[] {1}, this.graphStore.getNeighbors(2));
+    }
+
+    /**
+     * Test of edge lookups.
+     */
+    @Test
+    public void testHasEdge() {
+        assertTrue(this.graphStore.hasEdge(0, 1));
+        assertTrue(this.graphStore.hasEdge(1, 0));
+        assertTrue(this.graphStore.hasEdge(3, 4));
+        assertFalse(this.graphStore.hasEdge(0, 3));
+        assertFalse(this.graphStore.hasEdge(0, 0));
+        assertFalse(this.graphStore.hasEdge(0, 5));
+    }
+
+    /**
+     * Test of degrees and neighborhoods.
+     */
+    @Test
+    public void testNeighbors() {
+        assertEquals(2, this.graphStore.getDegree(0));
+        assertEquals(1, this.graphStore.getDegree(3));
+        assertEquals(1, this.graphStore.getNeighbor(0, 0));
+        assertEquals(2, this.graphStore.getNeighbor(0, 1));
+        assertArrayEquals(new int[] {0, 2}, this.graphStore.getNeighbors(1));
+    }
+
+    /**
+     * Test of removing nodes: the last node takes over the index of the removed node.
+     */
+    @Test
+    public void testRemoveNode() {
+        this.graphStore.removeEdge(4, 3);
+        this.graphStore.removeNode(3);
+        assertEquals(4, this.graphStore.getNodeCount());
+
+        this.graphStore.addEdge(3, 0);
+        this.graphStore.removeEdge(0, 1);
+        this.graphStore.removeEdge(1, 2);
+        this.graphStore.removeNode(1);
+        assertEquals(3, this.graphStore.getNodeCount());
+        assertEquals(2, this.graphStore.getEdgeCount());
+        // former node 3 is now node 1
+        assertArrayEquals(new int[] {1, 2}, this.graphStore.getNeighbors(0));
+        assertArrayEquals(new int[] {0}, this.graphStore.getNeighbors(1));
+    }
+
+    /**
+     * Test of removing nodes that still have edges.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRemoveConnectedNode() {
+        this.graphStore.removeNode(0);
+    }
+
+    /**
+     * Test of the structural version: increases with changes only.
+     */
+    @Test
+    public void testVersion() {
+        long version = this.graphStore.getVersion();
+        assertFalse(this.graphStore.addEdge(0, 1));
+        assertFalse(this.graphStore.removeEdge(0, 3));
+        assertEquals(version, this.graphStore.getVersion());
+
+        this.graphStore.addEdge(0, 3);
+        assertTrue(this.graphStore.getVersion() > version);
+        version = this.graphStore.getVersion();
+        this.graphStore.removeEdge(0, 3);
+        assertTrue(this.graphStore.getVersion() > version);
+    }
+
+}
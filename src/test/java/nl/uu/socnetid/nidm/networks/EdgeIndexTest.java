@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.networks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Test cases for the {@link EdgeIndex} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class EdgeIndexTest {
+
+    /**
+     * Test of packing edges into keys.
+     */
+    @Test
+    public void testKey() {
+        assertEquals(EdgeIndex.key(3, 7), EdgeIndex.key(7, 3));
+        assertEquals((3L << 32) | 7L, EdgeIndex.key(7, 3));
+        // ids concatenated to the same string must not collide
+        assertFalse(EdgeIndex.key(1, 23) == EdgeIndex.key(12, 3));
+    }
+
+    /**
+     * Test of adding, checking and removing edges.
+     */
+    @Test
+    public void testAddContainsRemove() {
+        EdgeIndex edgeIndex = new EdgeIndex();
+        assertTrue(edgeIndex.add(1, 2));
+        assertFalse(edgeIndex.add(2, 1));
+        assertTrue(edgeIndex.contains(2, 1));
+        assertFalse(edgeIndex.contains(1, 3));
+        assertEquals(1, edgeIndex.size());
+        assertTrue(edgeIndex.remove(2, 1));
+        assertFalse(edgeIndex.remove(1, 2));
+        assertFalse(edgeIndex.contains(1, 2));
+        assertEquals(0, edgeIndex.size());
+    }
+
+    /**
+     * Test of random operations against a reference set, including growth and removals within probe sequences.
+     */
+    @Test
+    public void testRandomOperations() {
+        EdgeIndex edgeIndex = new EdgeIndex();
+        Set<Long> reference = new HashSet<Long>();
+        Random random = new Random(42);
+
+        for (int op = 0; op < 50000; op++) {
+            int i = random.nextInt(200);
+            int j = random.nextInt(200);
+            long key = EdgeIndex.key(i, j);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), edgeIndex.remove(i, j));
+            } else {
+                assertEquals(reference.add(key), edgeIndex.add(i, j));
+            }
+            assertEquals(reference.size(), edgeIndex.size());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < 200; j++) {
+                assertEquals(reference.contains(EdgeIndex.key(i, j)), edgeIndex.contains(i, j));
+            }
+        }
+
+        edgeIndex.clear();
+        assertEquals(0, edgeIndex.size());
+        assertFalse(edgeIndex.contains(1, 2));
+    }
+
+}
@@ -33,6 +33,7 @@ import static org.junit.Assert.assertTrue;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.math3.util.Precision;
 import org.junit.Before;
@@ -136,6 +137,160 @@ public class NetworkTest {
         assertEquals(5, this.network.getAgents().size());
     }
 
+    /**
+     * Test of the headless graph store being kept in sync with the network.
+     */
+    @Test
+    public void testGraphStore() {
+        GraphStore graphStore = this.network.getGraphStore();
+        assertEquals(6, graphStore.getNodeCount());
+        assertEquals(4, graphStore.getEdgeCount());
+        assertTrue(graphStore.hasEdge(this.agent1.getIndex(), this.agent3.getIndex()));
+        assertTrue(graphStore.hasEdge(this.agent4.getIndex(), this.agent3.getIndex()));
+        assertFalse(graphStore.hasEdge(this.agent2.getIndex(), this.agent3.getIndex()));
+
+        this.agent1.removeConnection(this.agent3);
+        assertEquals(3, graphStore.getEdgeCount());
+        assertFalse(graphStore.hasEdge(this.agent1.getIndex(), this.agent3.getIndex()));
+
+        this.agent6.addConnection(this.agent5);
+        this.network.removeAgent();
+        assertEquals(5, graphStore.getNodeCount());
+        assertEquals(3, graphStore.getEdgeCount());
+        assertEquals(0, graphStore.getDegree(this.agent5.getIndex()));
+
+        this.network.clearConnections();
+        assertEquals(0, graphStore.getEdgeCount());
+    }
+
+    /**
+     * Test of connections between agents whose concatenated ids are equal (e.g., 1 + 23 and 12 + 3).
+     */
+    @Test
+    public void testUnambiguousConnections() {
+        while (this.network.getN() < 23) {
+            this.network.addAgent(this.uf, this.ds);
+        }
+        Agent a1 = this.network.getAgent("1");
+        Agent a3 = this.network.getAgent("3");
+        Agent a12 = this.network.getAgent("12");
+        Agent a23 = this.network.getAgent("23");
+
+        a1.addConnection(a23);
+        a12.addConnection(a3);
+        assertTrue(a1.isDirectlyConnectedTo(a23));
+        assertTrue(a3.isDirectlyConnectedTo(a12));
+
+        a12.removeConnection(a3);
+        assertTrue(a1.isDirectlyConnectedTo(a23));
+        assertFalse(a3.isDirectlyConnectedTo(a12));
+    }
+
+    /**
+     * Test of the incrementally maintained disease groups.
+     */
+    @Test
+    public void testDiseaseGroups() {
+        assertEquals(5, this.network.getSusceptiblesCount());
+        assertEquals(1, this.network.getInfectedCount());
+        assertTrue(this.network.getInfected().contains(this.agent6));
+        assertTrue(this.network.hasActiveInfection());
+
+        this.agent5.vaccinate();
+        this.agent6.cure();
+        assertEquals(4, this.network.getSusceptiblesCount());
+        assertEquals(0, this.network.getInfectedCount());
+        assertEquals(1, this.network.getRecoveredCount());
+        assertEquals(1, this.network.getVaccinatedCount());
+        assertTrue(this.network.getRecovered().contains(this.agent6));
+        assertTrue(this.network.getVaccinated().contains(this.agent5));
+        assertFalse(this.network.hasActiveInfection());
+
+        // removing the last agent (recovered)
+        this.network.removeAgent();
+        assertEquals(0, this.network.getRecoveredCount());
+        assertEquals(4, this.network.getSusceptiblesCount());
+
+        this.agent1.infect(this.ds, 0);
+        assertEquals(1, this.network.getInfectedCount());
+        assertEquals(this.agent1, this.network.getInfected().iterator().next());
+
+        this.network.resetDiseaseStates();
+        assertEquals(5, this.network.getSusceptiblesCount());
+        assertEquals(0, this.network.getVaccinatedCount());
+        assertEquals(0, this.network.getInfectedCount());
+    }
+
+    /**
+     * Test of the incremental computation of pairwise stability against a check of all pairs.
+     */
+    @Test
+    public void testStability() {
+        Random random = new Random(7);
+        Network stabilityNetwork = new Network("Stability Test");
+        stabilityNetwork.setStabilityComputation(true);
+        for (int i = 0; i < 12; i++) {
+            stabilityNetwork.addAgent(this.uf, this.ds);
+        }
+        List<Agent> agents = new LinkedList<Agent>(stabilityNetwork.getAgents());
+        stabilityNetwork.resetTimestepsStable();
+
+        int stableChecks = 0;
+        for (int step = 0; step < 200; step++) {
+            // resolve a blocking pair, or randomly perturb the network
+            Agent[] blockingPair = findBlockingPair(agents);
+            if (blockingPair != null && random.nextInt(4) > 0) {
+                if (blockingPair[0].isDirectlyConnectedTo(blockingPair[1])) {
+                    blockingPair[0].removeConnection(blockingPair[1]);
+                } else {
+                    blockingPair[0].addConnection(blockingPair[1]);
+                }
+            } else if (random.nextInt(3) == 0) {
+                Agent agent = agents.get(random.nextInt(agents.size()));
+                Agent other = agents.get(random.nextInt(agents.size()));
+                if (random.nextBoolean()) {
+                    stabilityNetwork.toggleInfection(agent.getId(), this.ds);
+                } else if (agent.isDirectlyConnectedTo(other)) {
+                    agent.removeConnection(other);
+                } else if (agent != other) {
+                    agent.addConnection(other);
+                }
+            }
+
+            int timestepsStable = stabilityNetwork.getTimestepsStable();
+            stabilityNetwork.notifyRoundFinished(null);
+            if (findBlockingPair(agents) == null) {
+                assertEquals(timestepsStable + 1, stabilityNetwork.getTimestepsStable());
+                stableChecks++;
+            } else {
+                assertEquals(0, stabilityNetwork.getTimestepsStable());
+            }
+        }
+        assertTrue(stableChecks > 0);
+    }
+
+    /**
+     * Finds a pair of agents violating pairwise stability by checking all pairs.
+     *
+     * @param agents
+     *          the agents
+     * @return a pair of agents violating pairwise stability, null if there is none
+     */
+    private static Agent[] findBlockingPair(List<Agent> agents) {
+        for (Agent agent : agents) {
+            for (Agent other : agents) {
+                if (agent == other) {
+                    continue;
+                }
+                if (agent.isDirectlyConnectedTo(other) ? agent.existingConnectionTooCostly(other) :
+                        agent.newConnectionValuable(other) && other.newConnectionValuable(agent)) {
+                    return new Agent[] {agent, other};
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Test of removing all connections.
      */
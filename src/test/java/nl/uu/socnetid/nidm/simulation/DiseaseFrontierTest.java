@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.utility.Cumulative;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Tests for {@link DiseaseFrontier} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class DiseaseFrontierTest {
+
+    // network
+    private Network network;
+
+    // disease: transmission to every susceptible connection, no recovery within a round
+    private static final int    tau   = 10;
+    private static final double s     = 8.4;
+    private static final double gamma = 1.0;
+    private static final double mu    = 2.5;
+    private DiseaseSpecs ds;
+
+    private static final int N = 5;
+
+
+    /**
+     * Performed before each test: Initialization of a line network 0 - 1 - 2 - 3 - 4.
+     */
+    @Before
+    public void initNetwork() {
+        this.network = new Network("Disease Frontier Test");
+        this.ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        UtilityFunction uf = new Cumulative();
+        for (int i = 0; i < N; i++) {
+            this.network.addAgent(uf, this.ds);
+        }
+        for (int i = 0; i < N - 1; i++) {
+            this.network.getAgent(i).addConnection(this.network.getAgent(i + 1));
+        }
+    }
+
+
+    /**
+     * Test of scheduling infected agents and their susceptible connections only.
+     */
+    @Test
+    public void testStartRound() {
+        this.network.getAgent(2).forceInfect(this.ds);
+
+        DiseaseFrontier frontier = new DiseaseFrontier(this.network);
+        frontier.startRound();
+        Set<Agent> scheduled = new HashSet<Agent>();
+        while (frontier.hasNext()) {
+            scheduled.add(frontier.next());
+        }
+        assertEquals(3, scheduled.size());
+        assertTrue(scheduled.contains(this.network.getAgent(1)));
+        assertTrue(scheduled.contains(this.network.getAgent(2)));
+        assertTrue(scheduled.contains(this.network.getAgent(3)));
+    }
+
+    /**
+     * Test of agents joining the frontier during a round being processed as in a random order of all agents.
+     */
+    @Test
+    public void testComputeDiseaseDynamics() {
+        int trials = 2000;
+        int secondGeneration = 0;
+        int thirdGeneration = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            for (int i = 0; i < N; i++) {
+                this.network.getAgent(i).makeSusceptible();
+            }
+            this.network.getAgent(0).forceInfect(this.ds);
+
+            DiseaseFrontier frontier = new DiseaseFrontier(this.network);
+            frontier.startRound();
+            while (frontier.hasNext()) {
+                frontier.computeDiseaseDynamics(frontier.next(), 1);
+            }
+
+            // agent 1 is infected for sure, agent 2 if processed after agent 1 (probability 1/2)
+            assertTrue(this.network.getAgent(1).isInfected());
+            if (this.network.getAgent(2).isInfected()) {
+                secondGeneration++;
+            }
+            // agent 3 if processed after agents 1 and 2 (probability 1/6)
+            if (this.network.getAgent(3).isInfected()) {
+                thirdGeneration++;
+            }
+        }
+        assertEquals(1.0 / 2, (double) secondGeneration / trials, 0.05);
+        assertEquals(1.0 / 6, (double) thirdGeneration / trials, 0.04);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.utility.Cumulative;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Tests for {@link DoubleBufferedDiseaseDynamics} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class DoubleBufferedDiseaseDynamicsTest {
+
+    // network
+    private Network network;
+
+    // disease: transmission to every susceptible connection, no recovery within a round
+    private static final int    tau   = 10;
+    private static final double s     = 8.4;
+    private static final double gamma = 1.0;
+    private static final double mu    = 2.5;
+    private DiseaseSpecs ds;
+
+    private static final int N = 5;
+    private static final long SEED = 42;
+
+
+    /**
+     * Performed before each test: Initialization of a line network 0 - 1 - 2 - 3 - 4.
+     */
+    @Before
+    public void initNetwork() {
+        this.network = new Network("Double-Buffered Disease Dynamics Test");
+        this.ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        UtilityFunction uf = new Cumulative();
+        for (int i = 0; i < N; i++) {
+            this.network.addAgent(uf, this.ds);
+        }
+        for (int i = 0; i < N - 1; i++) {
+            this.network.getAgent(i).addConnection(this.network.getAgent(i + 1));
+        }
+    }
+
+
+    /**
+     * Test of agents infected in a round infecting others in the next round only.
+     */
+    @Test
+    public void testComputeRound() {
+        this.network.getAgent(0).forceInfect(this.ds);
+        DoubleBufferedDiseaseDynamics dynamics = new DoubleBufferedDiseaseDynamics(this.network);
+
+        for (int round = 1; round < N; round++) {
+            dynamics.computeRound(round, SEED);
+            // one generation per round, independent of the order of agents
+            for (int i = 0; i < N; i++) {
+                assertEquals(i <= round, this.network.getAgent(i).isInfected());
+            }
+        }
+    }
+
+    /**
+     * Test of recoveries after the duration of the disease.
+     */
+    @Test
+    public void testRecovery() {
+        this.network.getAgent(2).forceInfect(this.ds);
+        DoubleBufferedDiseaseDynamics dynamics = new DoubleBufferedDiseaseDynamics(this.network);
+
+        for (int round = 1; round < tau; round++) {
+            dynamics.computeRound(round, SEED);
+            assertTrue(this.network.getAgent(2).isInfected());
+        }
+        dynamics.computeRound(tau, SEED);
+        assertFalse(this.network.getAgent(2).isInfected());
+        assertTrue(this.network.getAgent(2).isRecovered());
+    }
+
+}
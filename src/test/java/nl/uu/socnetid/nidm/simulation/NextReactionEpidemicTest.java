@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.utility.Cumulative;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Tests for {@link NextReactionEpidemic} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class NextReactionEpidemicTest {
+
+    // constants
+    private static final double s     = 8.4;
+    private static final double mu    = 2.5;
+
+    private static final int N = 5;
+
+
+    /**
+     * Creates a star network with agent 0 in the center.
+     *
+     * @param ds
+     *          the disease specs of all agents
+     * @return the star network
+     */
+    private Network createStar(DiseaseSpecs ds) {
+        Network network = new Network("Next Reaction Epidemic Test");
+        UtilityFunction uf = new Cumulative();
+        for (int i = 0; i < N; i++) {
+            network.addAgent(uf, ds);
+        }
+        for (int i = 1; i < N; i++) {
+            network.getAgent(0).addConnection(network.getAgent(i));
+        }
+        return network;
+    }
+
+    /**
+     * Test of the probability of transmission per time unit being gamma.
+     */
+    @Test
+    public void testTransmissionProbability() {
+        double gamma = 0.3;
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR_CT, 1, s, gamma, mu);
+        assertEquals(-Math.log(0.7), ds.getTransmissionRate(), 0.0001);
+
+        Network network = createStar(ds);
+        int trials = 1000;
+        int infections = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            network.resetDiseaseStates();
+            network.getAgent(0).forceInfect(ds);
+            NextReactionEpidemic epidemic = new NextReactionEpidemic(network, 1);
+            epidemic.advance(1);
+            for (int i = 1; i < N; i++) {
+                if (!network.getAgent(i).isSusceptible()) {
+                    infections++;
+                }
+            }
+        }
+        // index case recovers after one time unit
+        assertEquals(gamma, (double) infections / (trials * (N - 1)), 0.03);
+    }
+
+    /**
+     * Test of a continuous-time epidemic run by the simulation.
+     */
+    @Test
+    public void testSimulateDiseaseDynamicsUntilEpidemicFinished() {
+        int tau = 4;
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR_CT, tau, s, 1.0, mu);
+        Network network = createStar(ds);
+        network.getAgent(0).forceInfect(ds);
+
+        // all agents infected at time 0, recovered at time tau
+        Simulation simulation = new Simulation(network);
+        simulation.simulateDiseaseDynamicsUntilEpidemicFinished();
+        assertEquals(tau + 1, simulation.getRounds());
+        for (int i = 0; i < N; i++) {
+            assertTrue(network.getAgent(i).isRecovered());
+        }
+    }
+
+}
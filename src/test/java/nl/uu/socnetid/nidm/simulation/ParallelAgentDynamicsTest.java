@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.utility.NunnerBuskens;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Tests for {@link ParallelAgentDynamics} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class ParallelAgentDynamicsTest {
+
+    // constants
+    private static final int    tau   = 10;
+    private static final double s     = 8.4;
+    private static final double gamma = 0.1;
+    private static final double mu    = 2.5;
+
+    private static final int N = 200;
+    private static final long SEED = 42;
+
+
+    /**
+     * Creates an empty network of agents with identical properties.
+     *
+     * @return the network
+     */
+    private Network createNetwork() {
+        Network network = new Network("Parallel Agent Dynamics Test");
+        UtilityFunction uf = new NunnerBuskens(1.0, 0.5, 0.5, 0.25, 0.05);
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        for (int i = 0; i < N; i++) {
+            network.addAgent(uf, ds, 1.0, 1.0, 0.02, 0.0, 0.4, 0.4, 30, false, "NA", false, false);
+        }
+        return network;
+    }
+
+    /**
+     * Gets all ties of a network.
+     *
+     * @param network
+     *          the network
+     * @return all ties as pairs of agent indices
+     */
+    private Set<String> getTies(Network network) {
+        GraphStore graphStore = network.getGraphStore();
+        Set<String> ties = new HashSet<String>();
+        for (int i = 0; i < graphStore.getNodeCount(); i++) {
+            for (int k = 0; k < graphStore.getDegree(i); k++) {
+                int j = graphStore.getNeighbor(i, k);
+                ties.add(Math.min(i, j) + "-" + Math.max(i, j));
+            }
+        }
+        return ties;
+    }
+
+    /**
+     * Test of parallel agent dynamics being identical to processing agents one by one in the snowball order of the
+     * round start.
+     */
+    @Test
+    public void testComputeRound() {
+        Network parallelNetwork = createNetwork();
+        Network serialNetwork = createNetwork();
+        ParallelAgentDynamics parallel = new ParallelAgentDynamics(parallelNetwork);
+        ParallelAgentDynamics serial = new ParallelAgentDynamics(serialNetwork, 1);
+
+        for (int round = 1; round <= 5; round++) {
+            parallel.computeRound(round, SEED);
+            serial.computeRound(round, SEED);
+            assertEquals(getTies(serialNetwork), getTies(parallelNetwork));
+        }
+        assertTrue(parallelNetwork.getEdgeCount() > 0);
+    }
+
+    /**
+     * Test of agents being processed in snowball order: the agents of a connected group of agents follow each other,
+     * starting with a randomly drawn agent of the group.
+     */
+    @Test
+    public void testSnowballOrder() {
+        Network network = createNetwork();
+        Agent center = network.getAgent(0);
+        for (int i = 1; i <= 3; i++) {
+            center.addConnection(network.getAgent(i));
+        }
+        ParallelAgentDynamics dynamics = new ParallelAgentDynamics(network);
+
+        Set<Integer> starts = new HashSet<Integer>();
+        for (int round = 1; round <= 20; round++) {
+            List<Agent> order = dynamics.getSnowballOrder(round, SEED);
+            assertEquals(N, order.size());
+            assertEquals(N, new HashSet<Agent>(order).size());
+
+            int first = 0;
+            while (order.get(first).getIndex() > 3) {
+                first++;
+            }
+            starts.add(order.get(first).getIndex());
+            Set<Integer> group = new HashSet<Integer>();
+            for (int i = first; i < first + 4; i++) {
+                group.add(order.get(i).getIndex());
+            }
+            assertEquals(4, group.size());
+            assertTrue(group.contains(0) && group.contains(1) && group.contains(2) && group.contains(3));
+            // a leaf starting the group is followed by the center
+            if (order.get(first).getIndex() != 0) {
+                assertEquals(0, order.get(first + 1).getIndex());
+            }
+        }
+        assertTrue(starts.size() > 1);
+    }
+
+    /**
+     * Test of rounds being interrupted between batches.
+     */
+    @Test
+    public void testInterrupted() {
+        Network network = createNetwork();
+        ParallelAgentDynamics dynamics = new ParallelAgentDynamics(network, () -> true);
+        dynamics.computeRound(1, SEED);
+        assertEquals(0, network.getEdgeCount());
+    }
+
+}
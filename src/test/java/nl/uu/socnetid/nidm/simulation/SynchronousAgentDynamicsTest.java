@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.utility.NunnerBuskens;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Tests for {@link SynchronousAgentDynamics} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class SynchronousAgentDynamicsTest {
+
+    // constants
+    private static final int    tau   = 10;
+    private static final double s     = 8.4;
+    private static final double gamma = 0.1;
+    private static final double mu    = 2.5;
+
+    private static final int N = 200;
+    private static final long SEED = 42;
+
+
+    /**
+     * Creates an empty network of agents with identical properties.
+     *
+     * @return the network
+     */
+    private Network createNetwork() {
+        Network network = new Network("Synchronous Agent Dynamics Test");
+        UtilityFunction uf = new NunnerBuskens(1.0, 0.5, 0.5, 0.25, 0.05);
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        for (int i = 0; i < N; i++) {
+            network.addAgent(uf, ds, 1.0, 1.0, 0.02, 0.0, 0.4, 0.4, 30, false, "NA", false, false);
+        }
+        return network;
+    }
+
+    /**
+     * Gets all ties of a network.
+     *
+     * @param network
+     *          the network
+     * @return all ties as pairs of agent indices
+     */
+    private Set<String> getTies(Network network) {
+        GraphStore graphStore = network.getGraphStore();
+        Set<String> ties = new HashSet<String>();
+        for (int i = 0; i < graphStore.getNodeCount(); i++) {
+            for (int k = 0; k < graphStore.getDegree(i); k++) {
+                int j = graphStore.getNeighbor(i, k);
+                ties.add(Math.min(i, j) + "-" + Math.max(i, j));
+            }
+        }
+        return ties;
+    }
+
+    /**
+     * Test of synchronous agent dynamics being deterministic for a given seed.
+     */
+    @Test
+    public void testComputeRound() {
+        Network network1 = createNetwork();
+        Network network2 = createNetwork();
+        SynchronousAgentDynamics dynamics1 = new SynchronousAgentDynamics(network1);
+        SynchronousAgentDynamics dynamics2 = new SynchronousAgentDynamics(network2);
+
+        for (int round = 1; round <= 5; round++) {
+            dynamics1.computeRound(round, SEED);
+            dynamics2.computeRound(round, SEED);
+            assertEquals(getTies(network1), getTies(network2));
+        }
+        assertTrue(network1.getEdgeCount() > 0);
+    }
+
+    /**
+     * Test of synchronous agent dynamics differing from processing agents one by one.
+     */
+    @Test
+    public void testSnapshot() {
+        Network synchronousNetwork = createNetwork();
+        Network serialNetwork = createNetwork();
+        new SynchronousAgentDynamics(synchronousNetwork).computeRound(1, SEED);
+        new ParallelAgentDynamics(serialNetwork, 1).computeRound(1, SEED);
+
+        // all agents decide on the empty network of the round start
+        assertNotEquals(getTies(serialNetwork), getTies(synchronousNetwork));
+        assertTrue(synchronousNetwork.getEdgeCount() >= serialNetwork.getEdgeCount());
+    }
+
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.graphstream.algorithm.BetweennessCentrality;
+import org.junit.Before;
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.utility.Cumulative;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Tests for {@link Centralities} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class CentralitiesTest {
+
+    // network
+    private Network network;
+
+    // constants
+    private static final int    tau   = 10;
+    private static final double s     = 8.4;
+    private static final double gamma = 0.1;
+    private static final double mu    = 2.5;
+
+    private static final int N = 30;
+
+
+    /**
+     * Performed before each test: Initialization of a random network.
+     */
+    @Before
+    public void initNetwork() {
+        this.network = new Network("Centralities Test");
+
+        UtilityFunction uf = new Cumulative();
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        for (int i = 0; i < N; i++) {
+            this.network.addAgent(uf, ds);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < N * 2; i++) {
+            Agent agent = this.network.getAgent(random.nextInt(N));
+            Agent coAgent = this.network.getAgent(random.nextInt(N));
+            if (!agent.equals(coAgent) && !agent.isDirectlyConnectedTo(coAgent)) {
+                agent.addConnection(coAgent);
+            }
+        }
+    }
+
+
+    /**
+     * Test of betweenness computation against GraphStream's implementation.
+     */
+    @Test
+    public void testGetBetweenness() {
+        BetweennessCentrality bc = new BetweennessCentrality();
+        bc.setUnweighted();
+        bc.init(this.network);
+        bc.compute();
+
+        Centralities centralities = new Centralities(this.network.getGraphStore());
+        for (int i = 0; i < N; i++) {
+            assertEquals(bc.centrality(this.network.getAgent(i)), centralities.getBetweenness(i), 0.0001);
+        }
+
+        Centralities parallel = new Centralities(this.network.getGraphStore());
+        parallel.setParallel(true);
+        for (int i = 0; i < N; i++) {
+            assertEquals(centralities.getBetweenness(i), parallel.getBetweenness(i), 0.0001);
+        }
+    }
+
+    /**
+     * Test of betweenness being recomputed after structural changes only.
+     */
+    @Test
+    public void testGetBetweennessAfterChange() {
+        Centralities centralities = this.network.getCentralities();
+        Agent agent = this.network.getAgent(0);
+        Agent coAgent = this.network.getAgent(1);
+
+        // connect agent 0 to everyone
+        for (int i = 1; i < N; i++) {
+            Agent other = this.network.getAgent(i);
+            if (!agent.isDirectlyConnectedTo(other)) {
+                agent.addConnection(other);
+            }
+        }
+        double betweenness = centralities.getBetweenness(0);
+        assertEquals(betweenness, centralities.getBetweenness(0), 0);
+
+        agent.removeConnection(coAgent);
+        BetweennessCentrality bc = new BetweennessCentrality();
+        bc.setUnweighted();
+        bc.init(this.network);
+        bc.compute();
+        for (int i = 0; i < N; i++) {
+            assertEquals(bc.centrality(this.network.getAgent(i)), centralities.getBetweenness(i), 0.0001);
+        }
+    }
+
+    /**
+     * Test of batch closeness computation against single agent computation.
+     */
+    @Test
+    public void testGetCloseness() {
+        Centralities centralities = this.network.getCentralities();
+        for (int i = 0; i < N; i++) {
+            assertEquals(StatsComputer.computeCloseness(this.network.getAgent(i)), centralities.getCloseness(i), 0);
+        }
+
+        // isolate agent 0
+        Agent agent = this.network.getAgent(0);
+        agent.removeAllConnections();
+        assertEquals(StatsComputer.computeCloseness(agent), centralities.getCloseness(0), 0);
+        assertEquals(0, centralities.getCloseness(0), 0.0001);
+        for (int i = 1; i < N; i++) {
+            assertEquals(StatsComputer.computeCloseness(this.network.getAgent(i)), centralities.getCloseness(i), 0);
+        }
+    }
+
+    /**
+     * Test of average distance and diameter against pairwise geodesic distances.
+     */
+    @Test
+    public void testGetAvDistanceAndDiameter() {
+        double sum = 0.0;
+        int pairs = 0;
+        int diameter = 0;
+        for (int i = 0; i < N; i++) {
+            int[] distances = StatsComputer.computeGeodesicDistances(this.network.getGraphStore(), i, -1, -1);
+            for (int j = 0; j < N; j++) {
+                if (i != j && distances[j] > 0) {
+                    sum += distances[j];
+                    pairs++;
+                    diameter = Math.max(diameter, distances[j]);
+                }
+            }
+        }
+
+        Centralities centralities = this.network.getCentralities();
+        assertEquals(sum / pairs, centralities.getAvDistance(), 0.0001);
+        assertEquals(diameter, centralities.getDiameter());
+
+        this.network.clearConnections();
+        assertEquals(0.0, centralities.getAvDistance(), 0);
+        assertEquals(0, centralities.getDiameter());
+    }
+
+    /**
+     * Test of approximated measures staying within their error bounds. The bounds hold with probability 1 - delta
+     * only, hence the estimates are drawn from a fixed seed, for which they hold.
+     */
+    @Test
+    public void testApproximation() {
+        // small networks are computed exactly, even if approximation is enabled
+        Centralities centralities = this.network.getCentralities();
+        centralities.setApproximation(true, 0.05, 0.1);
+        assertTrue(centralities.isApproximation());
+        centralities.getBetweenness(0);
+        assertEquals(0, centralities.getBetweennessError(), 0);
+        assertEquals(0, centralities.getClosenessError(), 0);
+        assertEquals(0, centralities.getAvPathLengthError(), 0);
+
+        int n = 2000;
+        Network large = createLargeNetwork(n);
+
+        Centralities exact = new Centralities(large.getGraphStore());
+        exact.setApproximation(false, 0.05, 0.01);
+        Centralities approximated = new Centralities(large.getGraphStore());
+        approximated.setApproximation(true, 0.05, 0.01);
+        approximated.setSeed(42);
+
+        assertTrue(approximated.getBetweennessError() > 0);
+        assertTrue(approximated.getClosenessError() > 0);
+        assertTrue(approximated.getAvPathLengthError() > 0);
+        for (int i = 0; i < n; i++) {
+            assertEquals(exact.getBetweenness(i), approximated.getBetweenness(i), approximated.getBetweennessError());
+            assertEquals(exact.getCloseness(i), approximated.getCloseness(i), approximated.getClosenessError());
+        }
+        assertEquals(exact.getAvPathLength(), approximated.getAvPathLength(), approximated.getAvPathLengthError());
+        assertEquals(exact.getAvDistance(), exact.getAvPathLength(), 0.0001);
+    }
+
+    /**
+     * Test of the average path length leaving out pairs of agents that cannot reach each other, whether computed
+     * exactly or approximated by sampling.
+     */
+    @Test
+    public void testAvPathLengthDisconnected() {
+        int n = 2000;
+        Network large = createLargeNetwork(n);
+        UtilityFunction uf = new Cumulative();
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        for (int i = 0; i < n / 4; i++) {
+            large.addAgent(uf, ds);
+        }
+
+        Centralities exact = new Centralities(large.getGraphStore());
+        Centralities approximated = new Centralities(large.getGraphStore());
+        approximated.setApproximation(true, 0.05, 0.01);
+        approximated.setSeed(42);
+
+        assertEquals(exact.getAvDistance(), exact.getAvPathLength(), 0);
+        assertEquals(exact.getAvPathLength(), large.getAvPathLength(), 0);
+        assertTrue(approximated.getAvPathLengthError() > 0);
+        assertTrue(approximated.getAvPathLengthError() < exact.getDiameter());
+        assertEquals(exact.getAvPathLength(), approximated.getAvPathLength(), approximated.getAvPathLengthError());
+    }
+
+    /**
+     * Test of approximated measures being reproducible from their seed, whether processed in parallel or not.
+     */
+    @Test
+    public void testApproximationReproducible() {
+        int n = 2000;
+        Network large = createLargeNetwork(n);
+
+        Centralities first = new Centralities(large.getGraphStore());
+        first.setApproximation(true, 0.05, 0.1);
+        first.setSeed(7);
+        Centralities second = new Centralities(large.getGraphStore());
+        second.setApproximation(true, 0.05, 0.1);
+        second.setParallel(true);
+        second.setSeed(7);
+        Centralities other = new Centralities(large.getGraphStore());
+        other.setApproximation(true, 0.05, 0.1);
+        other.setSeed(8);
+
+        boolean differs = false;
+        for (int i = 0; i < n; i++) {
+            assertEquals(first.getBetweenness(i), second.getBetweenness(i), 0);
+            assertEquals(first.getCloseness(i), second.getCloseness(i), 0);
+            differs |= first.getBetweenness(i) != other.getBetweenness(i);
+        }
+        assertEquals(first.getAvPathLength(), second.getAvPathLength(), 0);
+        assertTrue(differs);
+    }
+
+    /**
+     * Creates a large network: a ring lattice with random shortcuts.
+     *
+     * @param n
+     *          the number of agents
+     * @return the network
+     */
+    private static Network createLargeNetwork(int n) {
+        Network large = new Network("Centralities Approximation Test");
+        UtilityFunction uf = new Cumulative();
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        for (int i = 0; i < n; i++) {
+            large.addAgent(uf, ds);
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            large.getAgent(i).addConnection(large.getAgent((i + 1) % n));
+            large.getAgent(i).addConnection(large.getAgent((i + 2) % n));
+            Agent shortcut = large.getAgent(random.nextInt(n));
+            if (!shortcut.equals(large.getAgent(i)) && !shortcut.isDirectlyConnectedTo(large.getAgent(i))) {
+                large.getAgent(i).addConnection(shortcut);
+            }
+        }
+        return large;
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.stats;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.agents.Agent;
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.utility.Cumulative;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Tests for {@link GeodesicProfiles} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class GeodesicProfilesTest {
+
+    // network
+    private Network network;
+
+    // constants
+    private static final int    tau   = 10;
+    private static final double s     = 8.4;
+    private static final double gamma = 0.1;
+    private static final double mu    = 2.5;
+
+    private static final int N = 40;
+
+
+    /**
+     * Performed before each test: Initialization of a sparse random network with several components.
+     */
+    @Before
+    public void initNetwork() {
+        this.network = new Network("Geodesic Profiles Test");
+
+        UtilityFunction uf = new Cumulative();
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        for (int i = 0; i < N; i++) {
+            this.network.addAgent(uf, ds);
+        }
+
+        Random random = new Random(7);
+        for (int i = 0; i < N; i++) {
+            Agent agent = this.network.getAgent(random.nextInt(N));
+            Agent coAgent = this.network.getAgent(random.nextInt(N));
+            if (!agent.equals(coAgent) && !agent.isDirectlyConnectedTo(coAgent)) {
+                agent.addConnection(coAgent);
+            }
+        }
+    }
+
+
+    /**
+     * Test of profiles with and without hypothetical connections against full breadth-first searches.
+     */
+    @Test
+    public void testGetProfile() {
+        GeodesicProfiles profiles = this.network.getGeodesicProfiles();
+        GraphStore graphStore = this.network.getGraphStore();
+
+        for (int source = 0; source < N; source++) {
+            assertArrayEquals(expected(source, -1, -1), profiles.getProfile(source));
+            assertSame(profiles.getProfile(source), profiles.getProfile(source));
+
+            for (int other = 0; other < N; other++) {
+                assertArrayEquals(expected(source, other, -1), profiles.getProfile(source, other, -1));
+                if (graphStore.hasEdge(source, other)) {
+                    assertArrayEquals(expected(source, -1, other), profiles.getProfile(source, -1, other));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of profiles being recomputed after structural changes.
+     */
+    @Test
+    public void testGetProfileAfterChange() {
+        GeodesicProfiles profiles = this.network.getGeodesicProfiles();
+        assertArrayEquals(expected(0, -1, -1), profiles.getProfile(0));
+
+        Agent agent = this.network.getAgent(0);
+        agent.removeAllConnections();
+        assertArrayEquals(new int[] {1}, profiles.getProfile(0));
+
+        agent.addConnection(this.network.getAgent(1));
+        assertArrayEquals(expected(0, -1, -1), profiles.getProfile(0));
+        assertArrayEquals(expected(0, 2, 1), profiles.getProfile(0, 2, 1));
+        assertArrayEquals(expected(0, -1, -1), profiles.getProfile(0, 0, 2));
+    }
+
+    /**
+     * Computes the expected profile by full breadth-first search.
+     *
+     * @param source
+     *          the index of the source
+     * @param with
+     *          the index of the potentially new connection (-1 for none)
+     * @param without
+     *          the index of the existing connection not to consider (-1 for none)
+     * @return the number of agents by geodesic distance
+     */
+    private int[] expected(int source, int with, int without) {
+        int[] dists = StatsComputer.computeGeodesicDistances(this.network.getGraphStore(), source, with, without);
+        int max = 0;
+        for (int dist : dists) {
+            max = Math.max(max, dist);
+        }
+        int[] profile = new int[max + 1];
+        for (int dist : dists) {
+            if (dist >= 0) {
+                profile[dist]++;
+            }
+        }
+        return profile;
+    }
+
+}
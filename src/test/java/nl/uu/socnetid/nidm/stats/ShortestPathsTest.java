@@ -41,11 +41,11 @@ import nl.uu.socnetid.nidm.utility.Cumulative;
 import nl.uu.socnetid.nidm.utility.UtilityFunction;
 
 /**
- * Tests for {@link Cumulative} class.
+ * Tests for {@link ShortestPaths} class.
  *
  * @author Hendrik Nunner
  */
-public class DijkstraShortestPathTest {
+public class ShortestPathsTest {
 
     // network
     private Network network;
@@ -73,7 +73,7 @@ public class DijkstraShortestPathTest {
      */
     @Before
     public void initAgent() {
-        this.network = new Network("Dijkstra Shortest Path Test");
+        this.network = new Network("Shortest Paths Test");
 
         UtilityFunction uf = new Cumulative();
         DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
@@ -105,17 +105,17 @@ public class DijkstraShortestPathTest {
      */
     @Test
     public void testGetShortestPath() {
-        DijkstraShortestPath dijkstraShortestPath = new DijkstraShortestPath();
-        dijkstraShortestPath.executeShortestPaths(this.agent1);
+        ShortestPaths shortestPaths = new ShortestPaths();
+        shortestPaths.executeShortestPaths(this.agent1);
 
-        LinkedList<Agent> shortestPathAgent4 = dijkstraShortestPath.getShortestPath(this.agent4);
+        LinkedList<Agent> shortestPathAgent4 = shortestPaths.getShortestPath(this.agent4);
         assertEquals(4, shortestPathAgent4.size());
         assertEquals(this.agent1, shortestPathAgent4.get(0));
         assertEquals(this.agent2, shortestPathAgent4.get(1));
         assertEquals(this.agent3, shortestPathAgent4.get(2));
         assertEquals(this.agent4, shortestPathAgent4.get(3));
 
-        LinkedList<Agent> shortestPathAgent6 = dijkstraShortestPath.getShortestPath(this.agent6);
+        LinkedList<Agent> shortestPathAgent6 = shortestPaths.getShortestPath(this.agent6);
         assertEquals(3, shortestPathAgent6.size());
         assertEquals(this.agent1, shortestPathAgent6.get(0));
         assertEquals(this.agent5, shortestPathAgent6.get(1));
@@ -127,20 +127,54 @@ public class DijkstraShortestPathTest {
      */
     @Test
     public void testGetShortestPathLength() {
-        DijkstraShortestPath dijkstraShortestPath = new DijkstraShortestPath();
-        dijkstraShortestPath.executeShortestPaths(this.agent1);
+        ShortestPaths shortestPaths = new ShortestPaths();
+        shortestPaths.executeShortestPaths(this.agent1);
 
-        Integer shortestPathLengthAgent4 = dijkstraShortestPath.getShortestPathLength(this.agent4);
+        Integer shortestPathLengthAgent4 = shortestPaths.getShortestPathLength(this.agent4);
         assertEquals(3, shortestPathLengthAgent4.intValue());
 
-        Integer shortestPathLengthAgent7 = dijkstraShortestPath.getShortestPathLength(this.agent7);
+        Integer shortestPathLengthAgent7 = shortestPaths.getShortestPathLength(this.agent7);
         assertEquals(1, shortestPathLengthAgent7.intValue());
 
-        Integer shortestPathLengthAgent8 = dijkstraShortestPath.getShortestPathLength(this.agent8);
+        Integer shortestPathLengthAgent8 = shortestPaths.getShortestPathLength(this.agent8);
         assertEquals(2, shortestPathLengthAgent8.intValue());
 
-        Integer shortestPathLengthAgent9 = dijkstraShortestPath.getShortestPathLength(this.agent9);
+        Integer shortestPathLengthAgent9 = shortestPaths.getShortestPathLength(this.agent9);
         assertNull(shortestPathLengthAgent9);
     }
 
+    /**
+     * Test of reusing the shortest paths for different sources.
+     */
+    @Test
+    public void testReuse() {
+        ShortestPaths shortestPaths = new ShortestPaths();
+        shortestPaths.executeShortestPaths(this.agent4);
+        assertEquals(3, shortestPaths.getShortestPathLength(this.agent1).intValue());
+        assertEquals(-1, shortestPaths.getDistance(this.agent9.getIndex()));
+
+        shortestPaths.executeShortestPaths(this.agent9);
+        assertEquals(1, shortestPaths.getReachedCount());
+        assertEquals(-1, shortestPaths.getDistance(this.agent1.getIndex()));
+        assertNull(shortestPaths.getShortestPathLength(this.agent9));
+
+        shortestPaths.executeShortestPaths(this.agent8);
+        assertEquals(8, shortestPaths.getReachedCount());
+        assertEquals(4, shortestPaths.getShortestPath(this.agent3).size());
+    }
+
+    /**
+     * Test of shortest paths computation for all sources.
+     */
+    @Test
+    public void testComputeForAllSources() {
+        double[] sequential = ShortestPaths.computeForAllSources(this.network, sp -> sp.getReachedCount(), false);
+        double[] parallel = ShortestPaths.computeForAllSources(this.network, sp -> sp.getReachedCount(), true);
+        assertEquals(9, sequential.length);
+        for (int i = 0; i < sequential.length; i++) {
+            assertEquals(i == this.agent9.getIndex() ? 1 : 8, sequential[i], 0);
+            assertEquals(sequential[i], parallel[i], 0);
+        }
+    }
+
 }
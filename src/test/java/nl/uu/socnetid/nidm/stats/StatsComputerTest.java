@@ -28,6 +28,10 @@ package nl.uu.socnetid.nidm.stats;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -206,6 +210,79 @@ public class StatsComputerTest {
         assertEquals(0, lacs.getZ());
     }
 
+    /**
+     * Test of incrementally maintained local agent connections stats against their computation from scratch.
+     */
+    @Test
+    public void testIncrementalLocalAgentConnectionsStats() {
+        Random random = new Random(42);
+        UtilityFunction uf = new Cumulative();
+        Network randomNetwork = new Network("Incremental stats Test");
+        for (int i = 0; i < 25; i++) {
+            randomNetwork.addAgent(uf, this.ds);
+        }
+        List<Agent> agents = new ArrayList<Agent>(randomNetwork.getAgents());
+
+        for (int step = 0; step < 400; step++) {
+            Agent agent = agents.get(random.nextInt(agents.size()));
+            Agent other = agents.get(random.nextInt(agents.size()));
+            if (random.nextInt(10) == 0) {
+                randomNetwork.toggleInfection(agent.getId(), this.ds);
+            } else if (agent.isDirectlyConnectedTo(other)) {
+                agent.removeConnection(other);
+            } else if (agent != other) {
+                agent.addConnection(other);
+            }
+
+            if (step % 20 == 0) {
+                for (Agent a : agents) {
+                    assertLocalAgentConnectionsStatsEquals(
+                            StatsComputer.recomputeLocalAgentConnectionsStats(a, null, null),
+                            StatsComputer.computeLocalAgentConnectionsStats(a));
+                    for (Agent b : agents) {
+                        if (a == b) {
+                            continue;
+                        }
+                        if (a.isDirectlyConnectedTo(b)) {
+                            assertLocalAgentConnectionsStatsEquals(
+                                    StatsComputer.recomputeLocalAgentConnectionsStats(a, null, b),
+                                    StatsComputer.computeLocalAgentConnectionsStatsWithout(a, b));
+                        } else {
+                            assertLocalAgentConnectionsStatsEquals(
+                                    StatsComputer.recomputeLocalAgentConnectionsStats(a, b, null),
+                                    StatsComputer.computeLocalAgentConnectionsStatsWith(a, b));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts equality of two local agent connections stats.
+     *
+     * @param expected
+     *          the expected stats
+     * @param actual
+     *          the actual stats
+     */
+    private static void assertLocalAgentConnectionsStatsEquals(LocalAgentConnectionsStats expected,
+            LocalAgentConnectionsStats actual) {
+        assertEquals(expected.getN(), actual.getN());
+        assertEquals(expected.getnS(), actual.getnS());
+        assertEquals(expected.getnI(), actual.getnI());
+        assertEquals(expected.getnR(), actual.getnR());
+        assertEquals(expected.getnV(), actual.getnV());
+        assertEquals(expected.getM(), actual.getM());
+        assertEquals(expected.getmS(), actual.getmS());
+        assertEquals(expected.getmI(), actual.getmI());
+        assertEquals(expected.getmR(), actual.getmR());
+        assertEquals(expected.getmV(), actual.getmV());
+        assertEquals(expected.getY(), actual.getY());
+        assertEquals(expected.getZ(), actual.getZ());
+        assertEquals(expected.getNetSize(), actual.getNetSize());
+    }
+
     /**
      * Test of local agent connections stats computation.
      */
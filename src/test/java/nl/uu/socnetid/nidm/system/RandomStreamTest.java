@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2017 - 2019
+ *      Hendrik Nunner    <h.nunner@gmail.com>
+ *
+ * This file is part of the NIDM-Simulation project <https://github.com/hnunner/NIDM-simulation>.
+ *
+ * This project is a stand-alone Java program of the Networking during Infectious Diseases Model
+ * (NIDM; Nunner, Buskens, & Kretzschmar, 2019) to simulate the dynamic interplay of social network
+ * formation and infectious diseases.
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.
+ * If not, see <http://www.gnu.org/licenses/>.
+ *
+ * References:
+ *      Nunner, H., Buskens, V., & Kretzschmar, M. (2019). A model for the co-evolution of dynamic
+ *      social networks and infectious diseases. Manuscript sumbitted for publication.
+ */
+package nl.uu.socnetid.nidm.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import nl.uu.socnetid.nidm.diseases.DiseaseSpecs;
+import nl.uu.socnetid.nidm.diseases.types.DiseaseType;
+import nl.uu.socnetid.nidm.networks.GraphStore;
+import nl.uu.socnetid.nidm.networks.Network;
+import nl.uu.socnetid.nidm.simulation.Simulation;
+import nl.uu.socnetid.nidm.utility.NunnerBuskens;
+import nl.uu.socnetid.nidm.utility.UtilityFunction;
+
+/**
+ * Tests for {@link RandomStream} class.
+ *
+ * @author Hendrik Nunner
+ */
+public class RandomStreamTest {
+
+    // constants
+    private static final int    tau   = 10;
+    private static final double s     = 8.4;
+    private static final double gamma = 0.1;
+    private static final double mu    = 2.5;
+
+    private static final int N = 50;
+    private static final long SEED = 42;
+
+
+    /**
+     * Creates an empty network of agents with identical properties.
+     *
+     * @return the network
+     */
+    private Network createNetwork() {
+        Network network = new Network("Random Stream Test");
+        UtilityFunction uf = new NunnerBuskens(1.0, 0.5, 0.5, 0.25, 0.05);
+        DiseaseSpecs ds = new DiseaseSpecs(DiseaseType.SIR, tau, s, gamma, mu);
+        for (int i = 0; i < N; i++) {
+            network.addAgent(uf, ds, 1.0, 1.0, 0.02, 0.0, 0.4, 0.4, 30, false, "NA", false, false);
+        }
+        return network;
+    }
+
+    /**
+     * Gets all ties of a network.
+     *
+     * @param network
+     *          the network
+     * @return all ties as pairs of agent indices
+     */
+    private Set<String> getTies(Network network) {
+        GraphStore graphStore = network.getGraphStore();
+        Set<String> ties = new HashSet<String>();
+        for (int i = 0; i < graphStore.getNodeCount(); i++) {
+            for (int k = 0; k < graphStore.getDegree(i); k++) {
+                int j = graphStore.getNeighbor(i, k);
+                ties.add(Math.min(i, j) + "-" + Math.max(i, j));
+            }
+        }
+        return ties;
+    }
+
+    /**
+     * Test of streams of the same seed and keys producing the same draws, and of streams of other keys differing.
+     */
+    @Test
+    public void testOf() {
+        RandomStream stream1 = RandomStream.of(SEED, 3, 7);
+        RandomStream stream2 = RandomStream.of(SEED, 3, 7);
+        RandomStream stream3 = RandomStream.of(SEED, 7, 3);
+        RandomStream stream4 = RandomStream.of(SEED + 1, 3, 7);
+
+        long[] draws = new long[10];
+        for (int i = 0; i < draws.length; i++) {
+            draws[i] = stream1.nextLong();
+            assertEquals(draws[i], stream2.nextLong());
+        }
+        assertNotEquals(draws[0], stream3.nextLong());
+        assertNotEquals(draws[0], stream4.nextLong());
+        assertEquals(RandomStream.derive(SEED, 3, 7), RandomStream.derive(SEED, 3, 7));
+    }
+
+    /**
+     * Test of draws within bounds.
+     */
+    @Test
+    public void testBounds() {
+        RandomStream stream = RandomStream.of(SEED);
+        for (int i = 0; i < 1000; i++) {
+            int nextInt = stream.nextInt(5, 10);
+            double nextDouble = stream.nextDouble();
+            assertTrue(nextInt >= 5 && nextInt < 10);
+            assertTrue(nextDouble >= 0.0 && nextDouble < 1.0);
+        }
+    }
+
+    /**
+     * Test of binding streams to the current thread and restoring the previous stream.
+     */
+    @Test
+    public void testBind() {
+        RandomStream stream = RandomStream.of(SEED);
+        RandomStream previous = RandomStream.bind(stream);
+        try {
+            assertSame(stream, RandomStream.current());
+        } finally {
+            RandomStream.bind(previous);
+        }
+        assertSame(previous, RandomStream.current());
+    }
+
+    /**
+     * Test of simulations with the same seed producing the same networks.
+     */
+    @Test
+    public void testSimulationSeed() {
+        Network network1 = createNetwork();
+        Network network2 = createNetwork();
+        Simulation simulation1 = new Simulation(network1);
+        Simulation simulation2 = new Simulation(network2);
+        simulation1.setSeed(SEED);
+        simulation2.setSeed(SEED);
+
+        simulation1.simulate(5);
+        simulation2.simulate(5);
+        assertTrue(network1.getEdgeCount() > 0);
+        assertEquals(getTies(network1), getTies(network2));
+    }
+
+}
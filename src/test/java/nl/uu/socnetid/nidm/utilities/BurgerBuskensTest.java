@@ -135,4 +135,24 @@ public class BurgerBuskensTest {
         assertEquals(1.8, Precision.round(this.agent8.getUtility().getOverallUtility(), 1), 0);
     }
 
+    /**
+     * Test of marginal utility calculation against actually changing the network.
+     */
+    @Test
+    public void testGetMarginalUtility() {
+        UtilityFunction uf = this.agent2.getUtilityFunction();
+
+        // adding a tie between agent2 and agent4
+        double marginalWith = uf.getMarginalUtilityWith(this.agent2, this.agent4);
+        double curr = this.agent2.getUtility().getOverallUtility();
+        this.agent2.addConnection(this.agent4);
+        assertEquals(this.agent2.getUtility().getOverallUtility() - curr, marginalWith, 0.0001);
+
+        // removing the tie between agent1 and agent3
+        double marginalWithout = uf.getMarginalUtilityWithout(this.agent1, this.agent3);
+        curr = this.agent1.getUtility().getOverallUtility();
+        this.agent1.removeConnection(this.agent3);
+        assertEquals(this.agent1.getUtility().getOverallUtility() - curr, marginalWithout, 0.0001);
+    }
+
 }
@@ -117,4 +117,24 @@ public class CarayolRouxTest {
         assertEquals(1.17, this.agent5.getUtility().getOverallUtility(), 0.01);
     }
 
+    /**
+     * Test of marginal utility calculation against actually changing the network.
+     */
+    @Test
+    public void testGetMarginalUtility() {
+        UtilityFunction uf = this.agent3.getUtilityFunction();
+
+        // adding a tie between agent3 and agent4
+        double marginalWith = uf.getMarginalUtilityWith(this.agent3, this.agent4);
+        double curr = this.agent3.getUtility().getOverallUtility();
+        this.agent3.addConnection(this.agent4);
+        assertEquals(this.agent3.getUtility().getOverallUtility() - curr, marginalWith, 0.0001);
+
+        // removing the tie between agent1 and agent2 again
+        double marginalWithout = uf.getMarginalUtilityWithout(this.agent1, this.agent2);
+        curr = this.agent1.getUtility().getOverallUtility();
+        this.agent1.removeConnection(this.agent2);
+        assertEquals(this.agent1.getUtility().getOverallUtility() - curr, marginalWithout, 0.0001);
+    }
+
 }